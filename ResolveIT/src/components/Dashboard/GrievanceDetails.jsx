@@ -214,8 +214,8 @@ const GrievanceDetails = ({ grievance, onBack }) => {
         console.log('🔄 Status update received:', data);
         
         // Update grievance status
-        if (data.status || data.additionalData?.newStatus) {
-            const newStatus = data.status || data.additionalData.newStatus;
+        if (data.status || data.statusChange?.newStatus) {
+            const newStatus = data.status || data.statusChange.newStatus;
             
             // Update grievance status
             if (typeof grievance === 'object') {
@@ -223,7 +223,7 @@ const GrievanceDetails = ({ grievance, onBack }) => {
             }
             
             // Show notification
-            const oldStatus = data.additionalData?.oldStatus || 'Previous';
+            const oldStatus = data.statusChange?.oldStatus || 'Previous';
             const message = `✅ Status updated: ${oldStatus} → ${newStatus}`;
             
             // You can replace alert with a toast notification
@@ -29,25 +29,25 @@ const TrackGrievance = ({ onFindGrievance, onViewDetails }) => {
   const handleStatusUpdate = (data) => {
     console.log('🔄 Status update received in TrackGrievance:', data);
     
-    if (data.additionalData?.newStatus) {
+    if (data.statusChange?.newStatus) {
       // Update the grievance state
       setGrievance(prev => ({
         ...prev,
-        status: data.additionalData.newStatus,
+        status: data.statusChange.newStatus,
         status_timeline: [
           ...prev.status_timeline,
           {
             id: Date.now(), // temporary ID
-            status: data.additionalData.newStatus,
-            note: data.additionalData.note || 'Status updated',
+            status: data.statusChange.newStatus,
+            note: data.statusChange.note || 'Status updated',
             date: new Date().toISOString(),
-            updatedByName: data.additionalData.updatedBy
+            updatedByName: data.sender
           }
         ]
       }));
       
       // Show success message
-      setError(`✅ Status updated to: ${data.additionalData.newStatus}`);
+      setError(`✅ Status updated to: ${data.statusChange.newStatus}`);
       setTimeout(() => setError(''), 3000);
     }
   };
@@ -123,22 +123,23 @@ const AdminDashboard = ({ user, onLogout }) => {
     try {
       setLoading(true);
       
-      // Fetch stats
-      const statsResponse = await adminDashboardApi.getDepartmentStats();
-      if (statsResponse.success) {
-        setStats(statsResponse.data);
-      }
-      
-      // Fetch new grievances
-      const newGrievancesResponse = await adminDashboardApi.getNewGrievances();
-      if (newGrievancesResponse.success) {
-        setNewGrievances(newGrievancesResponse.data || []);
-      }
-      
-      // Fetch summary
-      const summaryResponse = await adminDashboardApi.getDashboardSummary();
-      if (summaryResponse.success) {
-        setSummary(summaryResponse.data || {});
+      // Stats, new grievances and summary in one request; parts that failed
+      // on the server are simply left out
+      const response = await adminDashboardApi.getDashboardBootstrap();
+      if (response.success) {
+        const parts = response.data.parts || {};
+        if (parts.stats) {
+          setStats(parts.stats);
+        }
+        if (parts.newGrievances) {
+          setNewGrievances(parts.newGrievances);
+        }
+        if (parts.summary) {
+          setSummary(parts.summary);
+        }
+        if (parts.staff) {
+          setStaffMembers(parts.staff);
+        }
       }
       
     } catch (error) {
@@ -324,7 +324,10 @@ const ProfilePage = ({ onBack }) => {
         }
         
         // Get the full URL
-        const fullUrl = fileUploadApi.getProfilePictureFullUrl(user.profilePictureUrl);
+        // 80px avatar circle: the 128px thumbnail is enough even on high-DPI screens
+        const fullUrl = user.profilePictureSignedUrl
+          ? fileUploadApi.getSignedFileUrl(user.profilePictureSignedUrl, 128)
+          : fileUploadApi.getProfilePictureFullUrl(user.profilePictureUrl, 128);
         
         if (fullUrl) {
           console.log('✅ Generated profile image URL:', fullUrl);
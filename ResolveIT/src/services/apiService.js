@@ -16,8 +16,8 @@ apiClient.interceptors.request.use(
       config.headers.Authorization = `Bearer ${token}`;
     }
     
-    // Don't set Content-Type for FormData (browser will set it with boundary)
-    if (!(config.data instanceof FormData)) {
+    // Don't set Content-Type for FormData (browser will set it with boundary) or raw upload chunks
+    if (!(config.data instanceof FormData) && !(config.data instanceof Blob)) {
       config.headers['Content-Type'] = 'application/json';
     }
     
@@ -173,6 +173,11 @@ export const adminDashboardApi = {
   // Get dashboard summary
   getDashboardSummary: () => {
     return apiClient.get('/dashboard/admin/summary');
+  },
+  
+  // Stats, summary, new/assigned grievances, staff and unread count in one request
+  getDashboardBootstrap: () => {
+    return apiClient.get('/dashboard/admin/bootstrap');
   }
 };
 
@@ -183,6 +188,11 @@ export const staffDashboardApi = {
     return apiClient.get('/dashboard/staff/stats');
   },
   
+  // Stats, first page of grievances and unread count in one request
+  getDashboardBootstrap: () => {
+    return apiClient.get('/dashboard/staff/bootstrap');
+  },
+  
   // Get grievances assigned to staff (LEGACY - will update)
   getMyGrievances: () => {
     return apiClient.get('/dashboard/staff/grievances');
@@ -298,6 +308,11 @@ export const studentDashboardApi = {
     return apiClient.get('/dashboard/student/stats');
   },
   
+  // Stats, first page of grievances, categories, departments and unread count in one request
+  getDashboardBootstrap: () => {
+    return apiClient.get('/dashboard/student/bootstrap');
+  },
+  
   // Create new grievance
   createGrievance: (grievanceData) => {
     return apiClient.post('/dashboard/student/grievances', grievanceData);
@@ -361,6 +376,11 @@ export const profileApi = {
     return apiClient.post('/dashboard/student/profile/picture', formData);
   },
   
+  // Remove profile picture
+  deleteProfilePicture: () => {
+    return apiClient.delete('/dashboard/student/profile/picture');
+  },
+  
   // Get profile picture URL
   getProfilePictureUrl: () => {
     return apiClient.get('/dashboard/student/profile/picture-url');
@@ -382,19 +402,29 @@ export const fileUploadApi = {
   deleteFile: (folder, filename) => {
     // Handle cases where filename might have subfolders
     const encodedFolder = encodeURIComponent(folder);
-    const encodedFilename = encodeURIComponent(filename);
+    const encodedFilename = filename.split('/').map(encodeURIComponent).join('/');
     return apiClient.delete(`/files/${encodedFolder}/${encodedFilename}`);
   },
   
-  // Get file URL (for display)
-  getFileUrl: (folder, filename) => {
+  // Get file URL (for display). For images, size (48, 128 or 512) selects a cached thumbnail.
+  getFileUrl: (folder, filename, size) => {
     const encodedFolder = encodeURIComponent(folder);
-    const encodedFilename = encodeURIComponent(filename);
-    return `${apiClient.defaults.baseURL}/files/${encodedFolder}/${encodedFilename}`;
+    // Keep '/' between segments: stored objects live in nested folders (objects/ab/cd/...)
+    const encodedFilename = filename.split('/').map(encodeURIComponent).join('/');
+    const query = size ? `?size=${size}` : '';
+    return `${apiClient.defaults.baseURL}/files/${encodedFolder}/${encodedFilename}${query}`;
+  },
+  
+  // Absolute URL for a signed file URL from the API ("/api/files/...?exp=..&sig=..").
+  // These work in <img src> without the bearer token; size picks a thumbnail.
+  getSignedFileUrl: (signedUrl, size) => {
+    if (!signedUrl) return null;
+    const origin = apiClient.defaults.baseURL.replace(/\/api\/?$/, '');
+    return `${origin}${signedUrl}${size ? `&size=${size}` : ''}`;
   },
   
-  // Get full profile picture URL
-  getProfilePictureFullUrl: (filePath) => {
+  // Get full profile picture URL (size picks a thumbnail, see getFileUrl)
+  getProfilePictureFullUrl: (filePath, size) => {
     if (!filePath) return null;
     
     console.log('📸 Processing profile picture path:', filePath);
@@ -419,7 +449,7 @@ export const fileUploadApi = {
         console.log(`📁 Extracted folder: ${folder}, filename: ${filename}`);
         
         // Use the fixed getFileUrl without 'this'
-        const fileUrl = fileUploadApi.getFileUrl(folder, filename);
+        const fileUrl = fileUploadApi.getFileUrl(folder, filename, size);
         console.log('🔗 Generated URL:', fileUrl);
         return fileUrl;
       }
@@ -431,7 +461,7 @@ export const fileUploadApi = {
       if (parts.length >= 2) {
         const folder = parts[0];
         const filename = parts.slice(1).join('/');
-        const fileUrl = fileUploadApi.getFileUrl(folder, filename);
+        const fileUrl = fileUploadApi.getFileUrl(folder, filename, size);
         console.log('🔗 Generated URL from simple path:', fileUrl);
         return fileUrl;
       }
@@ -439,7 +469,7 @@ export const fileUploadApi = {
     
     // Case 4: Just a filename, assume it's in 'uploads/profile' folder
     console.log('📝 Assuming file is in uploads/profile folder');
-    return fileUploadApi.getFileUrl('uploads', `profile/${filePath}`);
+    return fileUploadApi.getFileUrl('uploads', `profile/${filePath}`, size);
   },
   
   // Helper to extract folder and filename from filePath
@@ -460,4 +490,57 @@ export const fileUploadApi = {
   }
 };
 
+// ===== GRIEVANCE ATTACHMENT API METHODS =====
+export const attachmentApi = {
+  // Upload several files to a grievance in one request
+  uploadAttachments: (grievanceId, files) => {
+    const formData = new FormData();
+    Array.from(files).forEach(file => formData.append('files', file));
+    return apiClient.post(`/grievances/${grievanceId}/attachments`, formData, { timeout: 0 });
+  },
+
+  // Metadata for all attachments of a grievance (one request, one query)
+  getAttachments: (grievanceId) => {
+    return apiClient.get(`/grievances/${grievanceId}/attachments`);
+  },
+
+  deleteAttachment: (grievanceId, attachmentId) => {
+    return apiClient.delete(`/grievances/${grievanceId}/attachments/${attachmentId}`);
+  },
+
+  // Resumable upload for large files (e.g. videos): sends chunks at byte offsets and,
+  // after a failed chunk, asks the server how much arrived and continues from there
+  uploadLargeAttachment: async (grievanceId, file, onProgress, maxRetries = 5) => {
+    const created = await apiClient.post('/uploads', {
+      grievanceId,
+      fileName: file.name,
+      fileSize: file.size,
+      contentType: file.type || 'application/octet-stream'
+    });
+    const { uploadId, chunkSize } = created.data.data;
+
+    let offset = 0;
+    let retries = 0;
+    while (offset < file.size) {
+      try {
+        const chunk = file.slice(offset, Math.min(file.size, offset + chunkSize));
+        const response = await apiClient.put(`/uploads/${uploadId}?offset=${offset}`, chunk, {
+          headers: { 'Content-Type': 'application/octet-stream' },
+          timeout: 0
+        });
+        offset = response.data.data.receivedBytes;
+        retries = 0;
+        if (onProgress) onProgress(offset / file.size);
+      } catch (error) {
+        if (++retries > maxRetries) throw error;
+        const status = await apiClient.get(`/uploads/${uploadId}`);
+        offset = status.data.data.receivedBytes;
+      }
+    }
+
+    const completed = await apiClient.post(`/uploads/${uploadId}/complete`, null, { timeout: 0 });
+    return completed.data.data;
+  }
+};
+
 export default apiClient;
\ No newline at end of file
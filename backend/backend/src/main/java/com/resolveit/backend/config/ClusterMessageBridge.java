@@ -0,0 +1,173 @@
+package com.resolveit.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resolveit.backend.dto.NotificationDTO;
+import com.resolveit.backend.service.NotificationDispatcher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans simple-broker messages out to the other application nodes.
+ *
+ * Registered as an interceptor on the broker channel. Messages for /topic/** and
+ * unresolved /user/** destinations are published through the {@link ClusterTransport}
+ * and every other node sends them into its own broker channel. User destinations are
+ * therefore resolved by whichever node holds the user's sessions. Replayed messages
+ * carry an origin header so they are not published again.
+ *
+ * The notification dispatcher's listener events (the SSE streams) travel the same way,
+ * as envelopes addressed to a user instead of a destination, so an SSE client gets
+ * notifications created on any node.
+ */
+@Component
+@Slf4j
+public class ClusterMessageBridge implements ChannelInterceptor {
+
+    static final String ORIGIN_HEADER = "resolveitClusterOrigin";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ClusterTransport transport;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+    private final ObjectProvider<NotificationDispatcher> notificationDispatcher;
+    private final ObjectMapper objectMapper;
+
+    // Publishing happens off the sending thread so a slow transport never blocks
+    // request handling; under sustained overload the oldest messages are dropped
+    private final ThreadPoolExecutor publishExecutor;
+
+    public ClusterMessageBridge(ObjectProvider<ClusterTransport> transport,
+                                ObjectProvider<SimpMessagingTemplate> messagingTemplate,
+                                ObjectProvider<NotificationDispatcher> notificationDispatcher,
+                                ObjectMapper objectMapper) {
+        this.transport = transport.getIfAvailable();
+        this.messagingTemplate = messagingTemplate;
+        this.notificationDispatcher = notificationDispatcher;
+        this.objectMapper = objectMapper;
+        this.publishExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(10_000),
+            runnable -> {
+                Thread thread = new Thread(runnable, "cluster-publish");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    public boolean isEnabled() {
+        return transport != null;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (transport != null) {
+            transport.subscribe(this::onEnvelope);
+            notificationDispatcher.ifAvailable(dispatcher -> dispatcher.setClusterRelay(this::publishListenerEvent));
+            log.info("Cluster WebSocket fan-out enabled on node {} via {}", nodeId, transport.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (transport == null || message.getHeaders().containsKey(ORIGIN_HEADER)) {
+            return message;
+        }
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !(destination.startsWith("/topic/") || destination.startsWith("/user/"))) {
+            return message;
+        }
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        publish(new ClusterEnvelope(nodeId, destination,
+            contentType != null ? contentType.toString() : null, payload, null, null), destination);
+        return message;
+    }
+
+    private void publishListenerEvent(String userId, NotificationDTO notification, int unreadDelta) {
+        byte[] payload;
+        try {
+            payload = notification != null ? objectMapper.writeValueAsBytes(notification) : null;
+        } catch (Exception e) {
+            log.warn("Cluster publish of notification event for {} failed: {}", userId, e.getMessage());
+            return;
+        }
+        publish(new ClusterEnvelope(nodeId, null, null, payload, userId, unreadDelta), "listeners of " + userId);
+    }
+
+    private void publish(ClusterEnvelope envelope, String target) {
+        publishExecutor.execute(() -> {
+            try {
+                transport.publish(objectMapper.writeValueAsString(envelope));
+            } catch (Exception e) {
+                log.warn("Cluster publish to {} failed: {}", target, e.getMessage());
+            }
+        });
+    }
+
+    private void onEnvelope(String json) {
+        try {
+            ClusterEnvelope envelope = objectMapper.readValue(json, ClusterEnvelope.class);
+            if (nodeId.equals(envelope.origin())) {
+                return;
+            }
+            if (envelope.listenerUser() != null) {
+                NotificationDTO notification = envelope.payload() != null
+                    ? objectMapper.readValue(envelope.payload(), NotificationDTO.class) : null;
+                int unreadDelta = envelope.unreadDelta() != null ? envelope.unreadDelta() : 0;
+                notificationDispatcher.ifAvailable(dispatcher ->
+                    dispatcher.deliverFromCluster(envelope.listenerUser(), notification, unreadDelta));
+                return;
+            }
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            if (envelope.contentType() != null) {
+                accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+            }
+            accessor.setHeader(ORIGIN_HEADER, envelope.origin());
+            accessor.setLeaveMutable(true);
+
+            Message<byte[]> message = MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders());
+            messagingTemplate.getObject().send(envelope.destination(), message);
+        } catch (Exception e) {
+            log.warn("Dropping cluster message: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        publishExecutor.shutdown();
+    }
+
+    // Either a broker message (destination) or a listener event (listenerUser, unreadDelta)
+    record ClusterEnvelope(String origin, String destination, String contentType, byte[] payload,
+                           String listenerUser, Integer unreadDelta) {
+    }
+}
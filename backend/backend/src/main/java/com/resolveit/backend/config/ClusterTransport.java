@@ -0,0 +1,20 @@
+package com.resolveit.backend.config;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries broker messages between application nodes.
+ *
+ * When a bean of this type exists, {@link ClusterMessageBridge} publishes every
+ * /topic and /user message handled by the local simple broker and replays
+ * messages from other nodes into it, along with the notification events for
+ * SSE streams.
+ */
+public interface ClusterTransport {
+
+    // Send an envelope to every node, including this one
+    void publish(String envelope);
+
+    // Register the callback for envelopes published by any node
+    void subscribe(Consumer<String> listener);
+}
@@ -0,0 +1,151 @@
+package com.resolveit.backend.config;
+
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Console encoder with two formats (logging.console.format):
+ *
+ * json (default): one object per line,
+ * {"@timestamp":..,"level":..,"logger":..,"thread":..,"message":..,"mdc":{..},"exception":..}
+ * where mdc and exception appear only when present.
+ *
+ * text: the pattern (Spring Boot's console pattern), for reading logs locally.
+ *
+ * Either way, messages from the SQL loggers in MASKED_SQL_LOGGERS have their bind values
+ * masked, see {@link MaskedMessageConverter}. Runs on the async appender's worker thread,
+ * not the thread that logged.
+ */
+public class ConsoleLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private String format = "json";
+    private String pattern;
+    private PatternLayout layout;
+    private Set<String> maskedSqlLoggers = Set.of();
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public void start() {
+        maskedSqlLoggers = MaskedMessageConverter.parseLoggers(
+            getContext().getProperty(MaskedMessageConverter.MASKED_LOGGERS_PROPERTY));
+        if ("text".equalsIgnoreCase(format)) {
+            if (pattern == null) {
+                addError("No pattern set for the text console format");
+                return;
+            }
+            layout = new PatternLayout();
+            layout.setContext(getContext());
+            layout.setPattern(pattern);
+            layout.start();
+        } else if (!"json".equalsIgnoreCase(format)) {
+            addWarn("Unknown console log format '" + format + "', using json");
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (layout != null) {
+            layout.stop();
+        }
+        super.stop();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        String line = layout != null ? layout.doLayout(event) : json(event);
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    private String json(ILoggingEvent event) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"@timestamp\":\"").append(Instant.ofEpochMilli(event.getTimeStamp())).append('"');
+        json.append(",\"level\":\"").append(event.getLevel()).append('"');
+        field(json, "logger", event.getLoggerName());
+        field(json, "thread", event.getThreadName());
+
+        String message = event.getFormattedMessage();
+        if (maskedSqlLoggers.contains(event.getLoggerName())) {
+            message = MaskedMessageConverter.mask(message);
+        }
+        field(json, "message", message);
+
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        if (mdc != null && !mdc.isEmpty()) {
+            json.append(",\"mdc\":{");
+            boolean first = true;
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                string(json, entry.getKey()).append(':');
+                string(json, entry.getValue());
+            }
+            json.append('}');
+        }
+
+        IThrowableProxy throwable = event.getThrowableProxy();
+        if (throwable != null) {
+            field(json, "exception", ThrowableProxyUtil.asString(throwable));
+        }
+        return json.append("}\n").toString();
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        json.append(",\"").append(name).append("\":");
+        string(json, value);
+    }
+
+    private static StringBuilder string(StringBuilder json, String value) {
+        if (value == null) {
+            return json.append("null");
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"');
+    }
+}
@@ -0,0 +1,63 @@
+package com.resolveit.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Platform or virtual threads for blocking work, switched with spring.threads.virtual.enabled.
+ *
+ * With the property set on Java 21 (build with -Pjava21), Spring Boot runs Tomcat requests,
+ * the application task executor (@Async, async MVC) and @Scheduled jobs on virtual threads.
+ * Our own blocking pools (STOMP channels, WebSocket writers, S3 part uploads) take their
+ * threads from here so they follow the same switch. On older runtimes the property is ignored.
+ *
+ * With virtual threads the request pool no longer limits concurrency, so the Hikari pool
+ * (spring.datasource.hikari.*) is what bounds database work.
+ */
+@Component
+@Slf4j
+public class ExecutionMode {
+
+    private final boolean virtualThreads;
+
+    public ExecutionMode(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        log.info("Request handling and blocking I/O run on {} threads", virtualThreads ? "virtual" : "platform");
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    // Named threads for a pool: virtual threads in virtual mode, daemon platform threads otherwise
+    public ThreadFactory threadFactory(String namePrefix) {
+        if (virtualThreads) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Executor for a STOMP channel in virtual mode. Spring only accepts a ThreadPoolTaskExecutor
+    // here; its threads are virtual and it may grow to maxConcurrency, since a handler blocked
+    // on the database no longer holds a carrier thread.
+    public ThreadPoolTaskExecutor newChannelExecutor(String namePrefix, int maxConcurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(threadFactory(namePrefix));
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,143 @@
+package com.resolveit.backend.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Custom JDK Flight Recorder events for the application's hot paths, so a latency spike in
+ * a recording can be matched to the requests, status changes, notifications, file transfers
+ * and WebSocket publishes running at the time.
+ *
+ * Events cost almost nothing while no recording has them enabled: begin/end/shouldCommit
+ * reduce to a flag check, and callers fill in fields only after shouldCommit(). Stack
+ * traces are off; the event fields say where the time went.
+ *
+ * Any running recording turns on events that do not say otherwise, and the slow request
+ * monitor's stream runs all the time. Every event but the request event is therefore
+ * {@code @Enabled(false)}, and only the on-demand recording (FlightRecorderService)
+ * enables them.
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    @Name("com.resolveit.Request")
+    @Label("HTTP Request")
+    @Description("One HTTP request, from the first filter to the response being written")
+    @Category({"ResolveIT", "HTTP"})
+    @StackTrace(false)
+    public static class RequestEvent extends Event {
+
+        @Label("Method")
+        public String method;
+
+        @Label("Route")
+        @Description("Matched route pattern, or the path when no handler matched")
+        public String route;
+
+        @Label("Role")
+        public String role;
+
+        @Label("Status")
+        public int status;
+
+        @Label("SQL Statements")
+        @Description("Statements Hibernate ran for the request; -1 when not counted")
+        public long queryCount;
+    }
+
+    @Name("com.resolveit.StatusTransition")
+    @Label("Grievance Status Transition")
+    @Category({"ResolveIT", "Grievances"})
+    @StackTrace(false)
+    @Enabled(false)
+    public static class StatusTransitionEvent extends Event {
+
+        @Label("Grievance Id")
+        public long grievanceId;
+
+        @Label("From")
+        public String fromStatus;
+
+        @Label("To")
+        public String toStatus;
+
+        @Label("Updated By")
+        public long updatedBy;
+    }
+
+    @Name("com.resolveit.NotificationFanOut")
+    @Label("Notification Fan-out")
+    @Description("Storing one notification and handing it to the WebSocket/SSE dispatcher")
+    @Category({"ResolveIT", "Notifications"})
+    @StackTrace(false)
+    @Enabled(false)
+    public static class NotificationFanOutEvent extends Event {
+
+        @Label("Type")
+        public String type;
+
+        @Label("Outcome")
+        @Description("created, coalesced, suppressed or error")
+        public String outcome;
+
+        @Label("Grievance Id")
+        public long grievanceId;
+    }
+
+    @Name("com.resolveit.FileTransfer")
+    @Label("File Transfer")
+    @Description("An upload to the storage backend, or a download from open to close")
+    @Category({"ResolveIT", "Storage"})
+    @StackTrace(false)
+    @Enabled(false)
+    public static class FileTransferEvent extends Event {
+
+        @Label("Backend")
+        public String backend;
+
+        @Label("Direction")
+        @Description("upload or download")
+        public String direction;
+
+        @Label("Transfer")
+        @Description("stream, transferTo or sendfile; a sendfile event covers only the hand-off to Tomcat")
+        public String transfer;
+
+        @Label("Key")
+        public String key;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Success")
+        public boolean success;
+    }
+
+    @Name("com.resolveit.WebSocketPublish")
+    @Label("WebSocket Publish")
+    @Description("One message sent into the broker channel: routing to subscribers or the relay")
+    @Category({"ResolveIT", "WebSocket"})
+    @StackTrace(false)
+    @Enabled(false)
+    public static class WebSocketPublishEvent extends Event {
+
+        @Label("Destination")
+        public String destination;
+
+        @Label("Payload Bytes")
+        @DataAmount
+        public long payloadBytes;
+
+        @Label("Sent")
+        public boolean sent;
+    }
+}
@@ -0,0 +1,83 @@
+package com.resolveit.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples high-volume loggers: with a rate of N, about one in N of their DEBUG and INFO
+ * events is kept and the rest are dropped before an event is even created. WARN and ERROR
+ * always pass.
+ *
+ * Rates are "logger=N" pairs, comma separated (logging.sampling.rates). A rate applies to
+ * the logger and its descendants; the most specific configured name wins.
+ */
+public class LogSampler extends TurboFilter {
+
+    private final Map<String, Integer> rates = new HashMap<>();
+    // Effective rate per logger name, resolved on first use
+    private final Map<String, Integer> resolved = new ConcurrentHashMap<>();
+
+    public void setRates(String spec) {
+        rates.clear();
+        resolved.clear();
+        if (spec == null || spec.isBlank()) {
+            return;
+        }
+        for (String pair : spec.split(",")) {
+            String[] parts = pair.split("=");
+            int rate = 0;
+            if (parts.length == 2 && !parts[0].isBlank()) {
+                try {
+                    rate = Integer.parseInt(parts[1].trim());
+                } catch (NumberFormatException e) {
+                    // reported below
+                }
+            }
+            if (rate < 1) {
+                addError("Ignoring log sampling rate '" + pair.trim() + "': expected logger=N with N >= 1");
+                continue;
+            }
+            rates.put(parts[0].trim(), rate);
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        // A null format is an isXxxEnabled() check; sampling it too would square the rate
+        if (rates.isEmpty() || format == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        Integer rate = resolved.get(logger.getName());
+        if (rate == null) {
+            rate = resolved.computeIfAbsent(logger.getName(), this::rateFor);
+        }
+        if (rate == 1 || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private int rateFor(String loggerName) {
+        String name = loggerName;
+        while (true) {
+            Integer rate = rates.get(name);
+            if (rate != null) {
+                return rate;
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                return 1;
+            }
+            name = name.substring(0, dot);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.resolveit.backend.config;
+
+import ch.qos.logback.classic.pattern.MessageConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The %m / %msg conversion with bind values masked in statements logged by the SQL loggers
+ * named in the MASKED_SQL_LOGGERS context property (see logback-spring.xml), for the text
+ * console format. {@link ConsoleLogEncoder} masks the same way for json.
+ *
+ * Hibernate's slow query log (org.hibernate.SQL_SLOW) prints the JDBC statement's toString,
+ * which for PostgreSQL inlines the bound values and for H2 lists them after the SQL. Masking
+ * reduces the statement to its shape: literals become ?, as in the query budget report.
+ */
+public class MaskedMessageConverter extends MessageConverter {
+
+    public static final String MASKED_LOGGERS_PROPERTY = "MASKED_SQL_LOGGERS";
+
+    // Connection pool proxy ("HikariProxyPreparedStatement@123 wrapping ") and H2 ("prep3: ") prefixes
+    private static final Pattern STATEMENT_PREFIX = Pattern.compile("^\\s*(?:\\S+@\\w+ wrapping )?(?:prep\\d+: )?");
+    // H2 parameter list: "{1: 'alice', 2: 42}"
+    private static final Pattern H2_PARAMETERS = Pattern.compile("\\s*\\{\\d+: .*}\\s*$", Pattern.DOTALL);
+
+    private Set<String> maskedLoggers = Set.of();
+
+    @Override
+    public void start() {
+        maskedLoggers = parseLoggers(getContext().getProperty(MASKED_LOGGERS_PROPERTY));
+        super.start();
+    }
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        String message = event.getFormattedMessage();
+        return maskedLoggers.contains(event.getLoggerName()) ? mask(message) : message;
+    }
+
+    static Set<String> parseLoggers(String loggers) {
+        if (loggers == null || loggers.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(loggers.split(","))
+            .map(String::trim)
+            .filter(name -> !name.isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Masks the statement inside "Slow query took 250 milliseconds [...]", or the whole message
+    static String mask(String message) {
+        if (message == null) {
+            return null;
+        }
+        int open = message.indexOf('[');
+        int close = message.lastIndexOf(']');
+        if (open < 0 || close < open) {
+            return maskStatement(message);
+        }
+        return message.substring(0, open + 1) + maskStatement(message.substring(open + 1, close))
+            + message.substring(close);
+    }
+
+    private static String maskStatement(String statement) {
+        String sql = STATEMENT_PREFIX.matcher(statement).replaceFirst("");
+        sql = H2_PARAMETERS.matcher(sql).replaceFirst("");
+        return QueryCounter.shapeOf(sql);
+    }
+}
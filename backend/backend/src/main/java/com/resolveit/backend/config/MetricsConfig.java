@@ -0,0 +1,51 @@
+package com.resolveit.backend.config;
+
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Request metrics (http.server.requests) tagged with the caller's role next to the route,
+ * so latency can be compared per role: student, staff, admin or anonymous.
+ *
+ * The role is recorded on the request by JwtAuthenticationFilter. A request attribute is
+ * used rather than the security context, which is already cleared when the timer stops.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String ROLE_ATTRIBUTE = MetricsConfig.class.getName() + ".role";
+
+    private static final String ANONYMOUS = "anonymous";
+
+    @Bean
+    public ServerRequestObservationConvention roleTaggingRequestConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object role = context.getCarrier().getAttribute(ROLE_ATTRIBUTE);
+                return super.getLowCardinalityKeyValues(context)
+                    .and("role", role != null ? role.toString() : ANONYMOUS);
+            }
+        };
+    }
+
+    // Roles come from the database as ROLE_<ROLE>; the tag uses the plain lower-case name
+    public static void recordRole(HttpServletRequest request, Collection<? extends GrantedAuthority> authorities) {
+        String role = authorities.stream()
+            .map(GrantedAuthority::getAuthority)
+            .map(authority -> authority.startsWith("ROLE_") ? authority.substring(5) : authority)
+            .map(name -> name.toLowerCase(Locale.ROOT))
+            .findFirst()
+            .orElse(ANONYMOUS);
+        request.setAttribute(ROLE_ATTRIBUTE, role);
+    }
+}
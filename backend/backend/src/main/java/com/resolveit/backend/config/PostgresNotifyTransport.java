@@ -0,0 +1,149 @@
+package com.resolveit.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Cluster transport over PostgreSQL LISTEN/NOTIFY, so nodes need nothing but the database.
+ *
+ * NOTIFY payloads are limited to 8000 bytes; larger envelopes are written to the
+ * websocket_fanout table and only their id is sent. The listener holds one dedicated
+ * connection outside the Hikari pool and reconnects with backoff if it drops.
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "postgres")
+@Slf4j
+public class PostgresNotifyTransport implements ClusterTransport {
+
+    private static final String CHANNEL = "resolveit_ws";
+    private static final int MAX_NOTIFY_BYTES = 7900;
+    private static final String OUTBOX_REF = "@";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresNotifyTransport(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS websocket_fanout (" +
+            "id BIGSERIAL PRIMARY KEY, envelope TEXT NOT NULL, created_at TIMESTAMP NOT NULL DEFAULT now())");
+    }
+
+    @Override
+    public void publish(String envelope) {
+        String payload = envelope;
+        if (envelope.getBytes(StandardCharsets.UTF_8).length > MAX_NOTIFY_BYTES) {
+            Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO websocket_fanout (envelope) VALUES (?) RETURNING id", Long.class, envelope);
+            payload = OUTBOX_REF + id;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, CHANNEL, payload);
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+        if (listenerThread == null) {
+            running = true;
+            listenerThread = new Thread(this::listenLoop, "pg-notify-listener");
+            listenerThread.setDaemon(true);
+            listenerThread.start();
+        }
+    }
+
+    private void listenLoop() {
+        long backoffMs = 500;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                backoffMs = 500;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        deliver(notification.getParameter());
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("LISTEN connection lost, retrying in {} ms: {}", backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        String envelope = payload;
+        if (payload.startsWith(OUTBOX_REF)) {
+            List<String> rows = jdbcTemplate.queryForList(
+                "SELECT envelope FROM websocket_fanout WHERE id = ?", String.class,
+                Long.parseLong(payload.substring(OUTBOX_REF.length())));
+            if (rows.isEmpty()) {
+                return;
+            }
+            envelope = rows.get(0);
+        }
+        for (Consumer<String> listener : listeners) {
+            listener.accept(envelope);
+        }
+    }
+
+    // Large envelopes only need to live long enough for every node to read them
+    @Scheduled(fixedDelay = 60_000)
+    public void cleanupOutbox() {
+        jdbcTemplate.update("DELETE FROM websocket_fanout WHERE created_at < now() - INTERVAL '5 minutes'");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+}
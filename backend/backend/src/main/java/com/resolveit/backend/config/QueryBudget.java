@@ -0,0 +1,22 @@
+package com.resolveit.backend.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements one call of an endpoint may run. On a class it applies to
+ * every endpoint without its own budget.
+ *
+ * Going over is logged together with the statements that repeated, the usual sign of an
+ * N+1 query. With query-budget.fail-on-exceed=true (tests) the request fails instead.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    int value();
+}
@@ -0,0 +1,124 @@
+package com.resolveit.backend.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Method;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the statements of each controller call (see {@link QueryCounter}) and holds
+ * it to the endpoint's {@link QueryBudget}.
+ *
+ * Counting starts before the handler and ends when the request completes, so lazy loads
+ * during serialization count too. With query-budget.headers=true (dev) every response
+ * carries X-Query-Count, X-Query-Shapes and X-Query-Repeated; these are set before the
+ * body is written and so cover the handler only.
+ */
+@ControllerAdvice
+@Slf4j
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    @Value("${query-budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${query-budget.headers:false}")
+    private boolean headers;
+
+    @Value("${query-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    // Applies to endpoints without @QueryBudget; 0 leaves them unchecked
+    @Value("${query-budget.default-budget:0}")
+    private int defaultBudget;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (enabled && handler instanceof HandlerMethod && request.getDispatcherType() == DispatcherType.REQUEST) {
+            request.setAttribute(QueryCounter.REQUEST_ATTRIBUTE, QueryCounter.start());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return enabled;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType, @NonNull MediaType contentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> converterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        QueryCounter.Stats stats = QueryCounter.current();
+        if (stats == null) {
+            return body;
+        }
+        if (headers) {
+            response.getHeaders().set("X-Query-Count", String.valueOf(stats.getStatements()));
+            response.getHeaders().set("X-Query-Shapes", String.valueOf(stats.getDistinctShapes()));
+            response.getHeaders().set("X-Query-Repeated", String.valueOf(stats.getRepeatedShapes().size()));
+        }
+        int budget = budgetOf(returnType.getMethod());
+        if (failOnExceed && budget > 0 && stats.getStatements() > budget) {
+            throw new IllegalStateException(describe(request.getMethod() + " " + request.getURI().getPath(), stats, budget));
+        }
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        QueryCounter.Stats stats = QueryCounter.stop();
+        if (stats == null || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        int budget = budgetOf(handlerMethod.getMethod());
+        if (budget > 0 && stats.getStatements() > budget) {
+            log.warn(describe(request.getMethod() + " " + request.getRequestURI(), stats, budget));
+        }
+    }
+
+    // The handler returned a Callable/DeferredResult/SseEmitter; the rest runs on another thread
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                               @NonNull Object handler) {
+        QueryCounter.stop();
+    }
+
+    private int budgetOf(Method method) {
+        if (method == null) {
+            return defaultBudget;
+        }
+        QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(method, QueryBudget.class);
+        if (budget == null) {
+            budget = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), QueryBudget.class);
+        }
+        return budget != null ? budget.value() : defaultBudget;
+    }
+
+    private static String describe(String endpoint, QueryCounter.Stats stats, int budget) {
+        String repeated = stats.getRepeatedShapes().entrySet().stream()
+            .limit(3)
+            .map(entry -> entry.getValue() + "x " + entry.getKey())
+            .collect(Collectors.joining("; "));
+        return String.format("Query budget exceeded: %s ran %d statements (budget %d, %d distinct)%s",
+            endpoint, stats.getStatements(), budget, stats.getDistinctShapes(),
+            repeated.isEmpty() ? "" : ", repeated: " + repeated);
+    }
+}
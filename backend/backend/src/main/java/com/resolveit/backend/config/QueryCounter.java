@@ -0,0 +1,119 @@
+package com.resolveit.backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the SQL statements run on behalf of a request, to catch N+1 queries.
+ *
+ * Installed as Hibernate's statement inspector, so it sees every statement Hibernate
+ * runs: repository queries, lazy loads and flushes alike. Statements are grouped by
+ * shape (the SQL with literals and IN lists collapsed), so loading the same row type one
+ * id at a time shows up as one shape repeated many times.
+ *
+ * Only threads with active stats are counted. Work handed to another thread, such as a
+ * dashboard bootstrap part, joins the request's stats through {@link #wrap(Callable)}.
+ */
+public class QueryCounter implements StatementInspector {
+
+    // Request attribute holding the request's stats, for consumers that run after counting stops
+    public static final String REQUEST_ATTRIBUTE = QueryCounter.class.getName() + ".stats";
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\((\\s*\\?\\s*,)*\\s*\\?\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Override
+    public String inspect(String sql) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.record(shapeOf(sql));
+        }
+        return sql;
+    }
+
+    // Start counting on this thread; any earlier stats on it are replaced
+    public static Stats start() {
+        Stats stats = new Stats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    // Stop counting on this thread and return what was counted (null if nothing was)
+    public static Stats stop() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    // Run the task with this thread's stats, wherever it ends up running
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Stats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            Stats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                return task.call();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public static final class Stats {
+
+        private final LongAdder statements = new LongAdder();
+        private final Map<String, LongAdder> shapes = new ConcurrentHashMap<>();
+
+        void record(String shape) {
+            statements.increment();
+            shapes.computeIfAbsent(shape, key -> new LongAdder()).increment();
+        }
+
+        public long getStatements() {
+            return statements.sum();
+        }
+
+        public int getDistinctShapes() {
+            return shapes.size();
+        }
+
+        // Shapes run more than once, most frequent first
+        public Map<String, Long> getRepeatedShapes() {
+            Map<String, Long> repeated = new LinkedHashMap<>();
+            shapes.entrySet().stream()
+                .filter(entry -> entry.getValue().sum() > 1)
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue().sum()));
+            return repeated;
+        }
+    }
+}
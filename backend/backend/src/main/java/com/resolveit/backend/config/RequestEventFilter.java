@@ -0,0 +1,65 @@
+package com.resolveit.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Emits a {@link FlightEvents.RequestEvent} per HTTP request with its route, the caller's
+ * role (recorded by JwtAuthenticationFilter), the response status and the number of SQL
+ * statements it ran (see {@link QueryCounter}).
+ *
+ * Requests that go async (SSE streams, deferred results) are skipped: their first
+ * dispatch ends long before the response does.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestEventFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        FlightEvents.RequestEvent event = new FlightEvents.RequestEvent();
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit() && !request.isAsyncStarted()) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Object role = request.getAttribute(MetricsConfig.ROLE_ATTRIBUTE);
+                Object stats = request.getAttribute(QueryCounter.REQUEST_ATTRIBUTE);
+                event.method = request.getMethod();
+                event.route = routeOf(route, response.getStatus());
+                event.role = role != null ? role.toString() : "anonymous";
+                event.status = response.getStatus();
+                event.queryCount = stats instanceof QueryCounter.Stats counted ? counted.getStatements() : -1;
+                event.commit();
+            }
+        }
+    }
+
+    // The handler's pattern; requests no handler matched (404s, requests refused by security)
+    // get a fixed name as in Micrometer's uri tag, so raw paths never become metric tags
+    static String routeOf(Object pattern, int status) {
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        if (status == HttpServletResponse.SC_NOT_FOUND) {
+            return "NOT_FOUND";
+        }
+        if (status >= 300 && status < 400) {
+            return "REDIRECTION";
+        }
+        return "UNKNOWN";
+    }
+}
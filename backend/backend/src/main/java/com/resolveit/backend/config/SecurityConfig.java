@@ -1,9 +1,14 @@
 package com.resolveit.backend.config;
 
 import com.resolveit.backend.security.JwtAuthenticationFilter;
+import com.resolveit.backend.security.SignedUrlService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -16,6 +21,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -33,24 +39,37 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private SignedUrlService signedUrlService;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
-                // ALLOW PUBLIC ACCESS TO UPLOADED FILES:
-                .requestMatchers("/api/files/**").permitAll()      // Allow public access to uploaded files
-                .requestMatchers("/uploads/**").permitAll()        // Also allow direct uploads access
+                // ASYNC DISPATCHES (SSE STREAMS) WERE AUTHORIZED ON THE ORIGINAL REQUEST:
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                
+                // UPLOADED FILES: ONLY THROUGH SIGNED URLS (CHECKED WITHOUT DB ACCESS), WHICH ARE
+                // HANDED OUT ONLY TO USERS WHO MAY SEE THE FILE; A BEARER TOKEN ALONE IS NOT ENOUGH
+                .requestMatchers(HttpMethod.GET, "/api/files/**").access(signedUrl())
+                .requestMatchers(HttpMethod.HEAD, "/api/files/**").access(signedUrl())
                 
                 // WEBSOCKET ENDPOINTS:
                 .requestMatchers("/ws/**").permitAll()           // Allow WebSocket endpoint
+                .requestMatchers("/ws-binary").permitAll()       // Allow binary (CBOR/Smile) WebSocket endpoint
                 .requestMatchers("/topic/**").permitAll()        // Allow WebSocket topics
                 .requestMatchers("/app/**").permitAll()          // Allow WebSocket app destinations
                 
                 // AUTH ENDPOINTS:
                 .requestMatchers("/api/auth/**").permitAll()
                 
+                // ACTUATOR: ONLY SERVED ON THE INTERNAL MANAGEMENT PORT (management.server.*), WHERE
+                // HEALTH CHECKS AND THE PROMETHEUS SCRAPE NEED NO TOKEN
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                
                 // DASHBOARD ENDPOINTS (REQUIRE AUTH):
                 .requestMatchers("/api/dashboard/student/**").hasAnyRole("STUDENT", "ADMIN")
                 .requestMatchers("/api/dashboard/staff/**").hasAnyAuthority("STAFF", "staff", "ROLE_STAFF", "ROLE_staff")
@@ -67,13 +86,17 @@ public class SecurityConfig {
             .build();
     }
 
+    private AuthorizationManager<RequestAuthorizationContext> signedUrl() {
+        return (authentication, context) -> new AuthorizationDecision(signedUrlService.verify(context.getRequest()));
+    }
+
     // CORS configuration - ADD WebSocket headers
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept", "Last-Event-ID"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
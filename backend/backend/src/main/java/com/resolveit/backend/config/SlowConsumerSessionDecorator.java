@@ -0,0 +1,148 @@
+package com.resolveit.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Session wrapper that never blocks the caller and drops the oldest frames when a
+ * client cannot keep up.
+ *
+ * Outbound frames go into a per-session buffer that is written by a shared writer pool.
+ * When the buffer grows past its byte limit the oldest queued frames are discarded,
+ * so a stalled client costs at most one buffer. A client stuck in a single write for
+ * longer than the send time limit is closed by {@link #checkSendTime(long)}. The pool
+ * must not queue flushes behind blocked writes (see WebSocketSessionMonitor), or one
+ * stalled client would hold up the others. When it rejects a flush because every writer is
+ * busy, the frames wait in the buffer until the next send or {@link #retryFlush()}.
+ */
+@Slf4j
+public class SlowConsumerSessionDecorator extends WebSocketSessionDecorator {
+
+    private final int sendTimeLimit;
+    private final int bufferSizeLimit;
+    private final Executor writer;
+    private final LongAdder droppedFrames;
+
+    private final ConcurrentLinkedDeque<WebSocketMessage<?>> buffer = new ConcurrentLinkedDeque<>();
+    private final AtomicLong bufferSize = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    // Start of the write in progress, 0 when idle
+    private volatile long sendStartTime;
+
+    public SlowConsumerSessionDecorator(WebSocketSession delegate, int sendTimeLimit, int bufferSizeLimit,
+                                        Executor writer, LongAdder droppedFrames) {
+        super(delegate);
+        this.sendTimeLimit = sendTimeLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.writer = writer;
+        this.droppedFrames = droppedFrames;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (closed.get()) {
+            return;
+        }
+        buffer.addLast(message);
+        bufferSize.addAndGet(message.getPayloadLength());
+
+        while (bufferSize.get() > bufferSizeLimit) {
+            WebSocketMessage<?> oldest = buffer.pollFirst();
+            if (oldest == null) {
+                break;
+            }
+            bufferSize.addAndGet(-oldest.getPayloadLength());
+            droppedFrames.increment();
+        }
+
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flush() {
+        while (true) {
+            WebSocketMessage<?> message;
+            while ((message = buffer.pollFirst()) != null) {
+                if (closed.get()) {
+                    buffer.clear();
+                    bufferSize.set(0);
+                    return;
+                }
+                try {
+                    sendStartTime = System.currentTimeMillis();
+                    getDelegate().sendMessage(message);
+                } catch (Exception e) {
+                    log.debug("Send to session {} failed: {}", getId(), e.getMessage());
+                    closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+                } finally {
+                    sendStartTime = 0;
+                    bufferSize.addAndGet(-message.getPayloadLength());
+                }
+            }
+            flushScheduled.set(false);
+            // A frame may have been queued between the last poll and releasing the flag
+            if (buffer.isEmpty() || !flushScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    // Called periodically: frames left behind by a rejected flush get another chance
+    public void retryFlush() {
+        if (!closed.get() && !buffer.isEmpty()) {
+            scheduleFlush();
+        }
+    }
+
+    // Called periodically; returns true if the session was closed for being too slow
+    public boolean checkSendTime(long now) {
+        long started = sendStartTime;
+        if (started > 0 && now - started > sendTimeLimit && !closed.get()) {
+            log.info("Closing slow WebSocket session {} after {} ms in a single send", getId(), now - started);
+            closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+            return true;
+        }
+        return false;
+    }
+
+    public long getBufferSize() {
+        return bufferSize.get();
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        if (closed.compareAndSet(false, true)) {
+            getDelegate().close(status);
+        }
+    }
+
+    private void closeQuietly(CloseStatus status) {
+        try {
+            close(status);
+        } catch (IOException e) {
+            log.debug("Error closing session {}: {}", getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.resolveit.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Flags requests slower than the SLO by streaming {@link FlightEvents.RequestEvent}s from
+ * an in-process JFR stream. The stream enables the request event with the SLO as its
+ * threshold, so faster requests are never recorded.
+ *
+ * Each slow request is logged with its route, role, status and statement count, and
+ * counted as resolveit.requests.slow per route. Events reach the stream in JFR's periodic
+ * flushes, about a second after the request ends.
+ */
+@Component
+@Slf4j
+public class SlowRequestMonitor {
+
+    @Value("${jfr.slow-requests.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jfr.slow-requests.threshold-ms:1000}")
+    private long thresholdMs;
+
+    private final MeterRegistry meterRegistry;
+    private final LongAdder slowRequests = new LongAdder();
+    private volatile RecordingStream stream;
+
+    public SlowRequestMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        String eventName = FlightEvents.RequestEvent.class.getAnnotation(jdk.jfr.Name.class).value();
+        Duration threshold = Duration.ofMillis(thresholdMs);
+        RecordingStream recordingStream = new RecordingStream();
+        recordingStream.enable(eventName).withThreshold(threshold).withoutStackTrace();
+        // A recording started from the admin endpoint may enable the event for every request
+        recordingStream.onEvent(eventName, event -> {
+            if (event.getDuration().compareTo(threshold) >= 0) {
+                onSlowRequest(event);
+            }
+        });
+        recordingStream.setMaxAge(Duration.ofMinutes(1));
+        recordingStream.startAsync();
+        stream = recordingStream;
+        log.info("Flagging requests slower than {} ms", thresholdMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    public long getSlowRequests() {
+        return slowRequests.sum();
+    }
+
+    private void onSlowRequest(RecordedEvent event) {
+        // Strings can read back as null when the event straddles a chunk rotation (a recording starting)
+        String method = Objects.toString(event.getString("method"), "UNKNOWN");
+        String route = Objects.toString(event.getString("route"), "UNKNOWN");
+        slowRequests.increment();
+        Counter.builder("resolveit.requests.slow")
+            .description("Requests slower than jfr.slow-requests.threshold-ms")
+            .tag("method", method)
+            .tag("uri", route)
+            .register(meterRegistry)
+            .increment();
+        log.warn("Slow request: {} {} took {} ms (SLO {} ms), role {}, status {}, {} SQL statements",
+            method, route, event.getDuration().toMillis(), thresholdMs, event.getString("role"),
+            event.getInt("status"), event.getLong("queryCount"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        RecordingStream recordingStream = stream;
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.resolveit.backend.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negotiated compact encoding for STOMP message bodies.
+ *
+ * A client on the binary endpoint (/ws-binary) can send a payload-format header of
+ * cbor or smile in its CONNECT frame. Messages are still produced once as JSON; on the
+ * way out each JSON body is transcoded to the session's format. The result is cached
+ * per body, so a broadcast is encoded once per format, not once per subscriber.
+ * Transcoded frames are sent as binary WebSocket messages with content-type
+ * application/octet-stream and the format in the payload-format header. SockJS
+ * sessions can only carry text and always get JSON.
+ */
+@Component
+@Slf4j
+public class StompPayloadEncoding implements ChannelInterceptor {
+
+    public static final String FORMAT_HEADER = "payload-format";
+    public static final String BINARY_TRANSPORT_ATTRIBUTE = "resolveitBinaryTransport";
+
+    public enum Format {
+        JSON, CBOR, SMILE;
+
+        static Format parse(String value) {
+            if (value == null) {
+                return JSON;
+            }
+            try {
+                return Format.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return JSON;
+            }
+        }
+    }
+
+    private final ObjectMapper jsonReader = new ObjectMapper();
+    private final Map<Format, ObjectMapper> writers = new EnumMap<>(Map.of(
+        Format.CBOR, new CBORMapper(),
+        Format.SMILE, new SmileMapper()));
+
+    private final Map<String, Format> sessionFormats = new ConcurrentHashMap<>();
+
+    // JSON body -> encoded body. Weak keys: entries go away once every subscriber copy
+    // of a broadcast has been sent. byte[] has identity equality, which is what we want.
+    private final Map<Format, Map<byte[], byte[]>> encoded = new EnumMap<>(Map.of(
+        Format.CBOR, Collections.synchronizedMap(new WeakHashMap<>()),
+        Format.SMILE, Collections.synchronizedMap(new WeakHashMap<>())));
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (messageType == SimpMessageType.CONNECT) {
+            registerSession(message);
+            return message;
+        }
+        if (messageType != SimpMessageType.MESSAGE || sessionFormats.isEmpty()) {
+            return message;
+        }
+
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Format format = sessionId != null ? sessionFormats.get(sessionId) : null;
+        if (format == null || !(message.getPayload() instanceof byte[] json) || !isJson(message.getHeaders())) {
+            return message;
+        }
+
+        try {
+            byte[] body = encoded.get(format).computeIfAbsent(json, key -> transcode(format, key));
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+            accessor.setNativeHeader(FORMAT_HEADER, format.name().toLowerCase());
+            return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+        } catch (IllegalStateException e) {
+            log.debug("Sending JSON to session {}: {}", sessionId, e.getMessage());
+            return message;
+        }
+    }
+
+    // Encode a JSON document in a compact format (also used by the encoding benchmark)
+    public byte[] transcode(Format format, byte[] json) {
+        try {
+            JsonNode tree = jsonReader.readTree(json);
+            return writers.get(format).writeValueAsBytes(tree);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot transcode payload to " + format, e);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        sessionFormats.remove(event.getSessionId());
+    }
+
+    private void registerSession(Message<?> message) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        Format format = Format.parse(accessor.getFirstNativeHeader(FORMAT_HEADER));
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        boolean binaryTransport = attributes != null && Boolean.TRUE.equals(attributes.get(BINARY_TRANSPORT_ATTRIBUTE));
+
+        if (format != Format.JSON && binaryTransport && accessor.getSessionId() != null) {
+            sessionFormats.put(accessor.getSessionId(), format);
+        }
+    }
+
+    private boolean isJson(MessageHeaders headers) {
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        MimeType mimeType = contentType instanceof MimeType type ? type : MimeType.valueOf(contentType.toString());
+        return MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(mimeType);
+    }
+}
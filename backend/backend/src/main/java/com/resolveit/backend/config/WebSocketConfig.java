@@ -1,26 +1,133 @@
 package com.resolveit.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.util.Map;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final ClusterMessageBridge clusterMessageBridge;
+    private final WebSocketSessionMonitor sessionMonitor;
+    private final StompPayloadEncoding payloadEncoding;
+    private final ExecutionMode executionMode;
+    private final WebSocketPublishRecorder publishRecorder;
+
+    // simple (single node), postgres (simple broker + LISTEN/NOTIFY fan-out) or relay (external STOMP broker)
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${websocket.session.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    // Inbound handlers in flight at once on virtual threads (platform mode keeps Spring's default pool)
+    @Value("${websocket.inbound.virtual-max-concurrency:256}")
+    private int inboundVirtualMaxConcurrency;
+
+    public WebSocketConfig(ClusterMessageBridge clusterMessageBridge, WebSocketSessionMonitor sessionMonitor,
+                           StompPayloadEncoding payloadEncoding, ExecutionMode executionMode,
+                           WebSocketPublishRecorder publishRecorder) {
+        this.clusterMessageBridge = clusterMessageBridge;
+        this.sessionMonitor = sessionMonitor;
+        this.payloadEncoding = payloadEncoding;
+        this.executionMode = executionMode;
+        this.publishRecorder = publishRecorder;
+    }
     
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    // Let nodes resolve /user destinations for sessions held elsewhere
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+            config.configureBrokerChannel().interceptors(publishRecorder);
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+            config.configureBrokerChannel().interceptors(clusterMessageBridge, publishRecorder);
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
     
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Per-session limits; exceeding them closes the session (disconnect policy).
+        // The drop-oldest policy keeps its own buffer under the same limits.
+        registration.setSendBufferSizeLimit(sessionMonitor.getSendBufferSizeLimit())
+                .setSendTimeLimit(sessionMonitor.getSendTimeLimit())
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(sessionMonitor);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (executionMode.isVirtualThreads()) {
+            registration.taskExecutor(executionMode.newChannelExecutor("ws-inbound-", inboundVirtualMaxConcurrency));
+        }
+        registration.interceptors(payloadEncoding);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(sessionMonitor.getOutboundExecutor());
+        registration.interceptors(payloadEncoding);
+    }
+    
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
                 .setAllowedOrigins("http://localhost:3000")
                 .withSockJS();
+
+        // Plain WebSocket endpoint for clients that want CBOR/Smile frames (see StompPayloadEncoding)
+        registry.addEndpoint("/ws-binary")
+                .setAllowedOrigins("http://localhost:3000")
+                .addInterceptors(new BinaryTransportInterceptor());
+    }
+
+    private static class BinaryTransportInterceptor implements HandshakeInterceptor {
+
+        @Override
+        public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                       WebSocketHandler wsHandler, Map<String, Object> attributes) {
+            attributes.put(StompPayloadEncoding.BINARY_TRANSPORT_ATTRIBUTE, Boolean.TRUE);
+            return true;
+        }
+
+        @Override
+        public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Exception exception) {
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.resolveit.backend.config;
+
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+
+/**
+ * Emits a {@link FlightEvents.WebSocketPublishEvent} for every message published into the
+ * broker channel, timing the broker's routing to subscribers (or the hand-off to the relay).
+ *
+ * The broker channel is synchronous, so preSend and afterSendCompletion run on the sending
+ * thread. Sends nest (a /user destination is resolved and sent again from inside the first
+ * send), hence a per-thread stack of events matched to their message.
+ */
+@Component
+public class WebSocketPublishRecorder implements ChannelInterceptor {
+
+    private static final ThreadLocal<ArrayDeque<InFlight>> IN_FLIGHT = new ThreadLocal<>();
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        FlightEvents.WebSocketPublishEvent event = new FlightEvents.WebSocketPublishEvent();
+        if (!event.isEnabled()
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        ArrayDeque<InFlight> inFlight = IN_FLIGHT.get();
+        if (inFlight == null) {
+            inFlight = new ArrayDeque<>();
+            IN_FLIGHT.set(inFlight);
+        }
+        inFlight.push(new InFlight(message, event));
+        event.begin();
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(@NonNull Message<?> message, @NonNull MessageChannel channel, boolean sent,
+                                    Exception ex) {
+        ArrayDeque<InFlight> inFlight = IN_FLIGHT.get();
+        if (inFlight == null || inFlight.isEmpty() || inFlight.peek().message() != message) {
+            return;
+        }
+        FlightEvents.WebSocketPublishEvent event = inFlight.pop().event();
+        event.end();
+        if (event.shouldCommit()) {
+            event.destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            event.payloadBytes = message.getPayload() instanceof byte[] payload ? payload.length : -1;
+            event.sent = sent && ex == null;
+            event.commit();
+        }
+    }
+
+    private record InFlight(Message<?> message, FlightEvents.WebSocketPublishEvent event) {
+    }
+}
@@ -0,0 +1,322 @@
+package com.resolveit.backend.config;
+
+import com.resolveit.backend.dto.WebSocketMetricsDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Owns the outbound side of the STOMP endpoint: the client outbound channel executor,
+ * the slow-consumer policy applied to every session, and the counters behind
+ * /api/admin/websocket/metrics.
+ *
+ * With the drop-oldest policy each session is wrapped in a
+ * {@link SlowConsumerSessionDecorator}; with disconnect, Spring's own session
+ * decorator closes sessions that exceed the send buffer or time limit.
+ *
+ * Socket writes are bounded by the send time limit (Tomcat's blocking send timeout), and
+ * the drop-oldest writer pool grows past writer-threads while writes are blocked, so
+ * stalled clients tie up only their own writer instead of delaying everyone else. It stops
+ * at writer-max-threads: once that many writes are blocked, further frames stay in their
+ * session buffers (dropping the oldest) until a writer frees up.
+ *
+ * The same numbers are exported to Micrometer (websocket.*), together with a timer on
+ * every frame written to a client socket under either policy.
+ */
+@Component
+@Slf4j
+public class WebSocketSessionMonitor implements WebSocketHandlerDecoratorFactory, MeterBinder {
+
+    public enum OverflowPolicy { DROP_OLDEST, DISCONNECT }
+
+    @Value("${websocket.session.overflow-policy:drop-oldest}")
+    private String overflowPolicy;
+
+    @Value("${websocket.session.send-buffer-size-limit:65536}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.session.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+
+    @Value("${websocket.outbound.core-pool-size:8}")
+    private int outboundCorePoolSize;
+
+    @Value("${websocket.outbound.max-pool-size:16}")
+    private int outboundMaxPoolSize;
+
+    @Value("${websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${websocket.outbound.writer-threads:8}")
+    private int writerThreads;
+
+    @Value("${websocket.session.writer-max-threads:64}")
+    private int writerMaxThreads;
+
+    // Tomcat's per-session limit on a blocking write, in ms (Long)
+    private static final String BLOCKING_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, SlowConsumerSessionDecorator> guardedSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger peakSessions = new AtomicInteger();
+    private final LongAdder droppedFrames = new LongAdder();
+    private final LongAdder rejectedOutboundMessages = new LongAdder();
+    private final LongAdder slowConsumerDisconnects = new LongAdder();
+
+    private final ExecutionMode executionMode;
+
+    private ThreadPoolTaskExecutor outboundExecutor;
+    private ExecutorService writer;
+    private volatile Timer frameWrites;
+
+    public WebSocketSessionMonitor(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase().replace('-', '_'));
+    }
+
+    public int getSendBufferSizeLimit() {
+        return sendBufferSizeLimit;
+    }
+
+    public int getSendTimeLimit() {
+        return sendTimeLimit;
+    }
+
+    // Bounded executor for the client outbound channel. When the queue is full a MESSAGE
+    // frame is dropped and counted instead of blocking the broker thread; a control frame
+    // (CONNECTED, RECEIPT, ERROR...) is never dropped silently, its session is closed instead.
+    public synchronized ThreadPoolTaskExecutor getOutboundExecutor() {
+        if (outboundExecutor == null) {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setThreadFactory(executionMode.threadFactory("ws-outbound-"));
+            executor.setCorePoolSize(outboundCorePoolSize);
+            executor.setMaxPoolSize(outboundMaxPoolSize);
+            executor.setQueueCapacity(outboundQueueCapacity);
+            executor.setAllowCoreThreadTimeOut(true);
+            executor.setRejectedExecutionHandler((task, pool) -> onOutboundRejected(task));
+            outboundExecutor = executor;
+        }
+        return outboundExecutor;
+    }
+
+    private void onOutboundRejected(Runnable task) {
+        rejectedOutboundMessages.increment();
+        if (!(task instanceof MessageHandlingRunnable handling) || isDroppable(handling.getMessage())) {
+            return;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(handling.getMessage().getHeaders());
+        WebSocketSession session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session != null) {
+            log.info("Closing WebSocket session {}: outbound queue full for a control frame", sessionId);
+            // Off the broker thread, the close may have to wait for a blocked write
+            Runnable close = () -> {
+                try {
+                    session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException e) {
+                    log.debug("Error closing session {}: {}", sessionId, e.getMessage());
+                }
+            };
+            try {
+                getWriter().execute(close);
+            } catch (RejectedExecutionException e) {
+                // Every writer is blocked; the send time limit bounds the wait here too
+                close.run();
+            }
+        }
+    }
+
+    // Only subscription messages and heartbeats may be dropped under overload
+    static boolean isDroppable(Message<?> message) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type == SimpMessageType.HEARTBEAT) {
+            return true;
+        }
+        StompCommand command = StompHeaderAccessor.getCommand(message.getHeaders());
+        return type == SimpMessageType.MESSAGE && (command == null || command == StompCommand.MESSAGE);
+    }
+
+    // writer-threads stay warm; more are started, up to writer-max-threads, while they are all
+    // blocked in writes and retire after a minute idle. A write lasts at most the send time limit.
+    // Past the cap execute() is rejected and the session retries from checkSlowConsumers.
+    private synchronized ExecutorService getWriter() {
+        if (writer == null) {
+            writer = new ThreadPoolExecutor(writerThreads, Math.max(writerThreads, writerMaxThreads), 60,
+                TimeUnit.SECONDS, new SynchronousQueue<>(), executionMode.threadFactory("ws-writer-"));
+        }
+        return writer;
+    }
+
+    private void limitBlockingSendTime(WebSocketSession session) {
+        if (session instanceof NativeWebSocketSession nativeSession) {
+            Session endpointSession = nativeSession.getNativeSession(Session.class);
+            if (endpointSession != null) {
+                endpointSession.getUserProperties().put(BLOCKING_SEND_TIMEOUT, (long) sendTimeLimit);
+            }
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                peakSessions.accumulateAndGet(activeSessions.incrementAndGet(), Math::max);
+                limitBlockingSendTime(session);
+                // Innermost, so it times the socket write itself under either policy
+                Timer writes = frameWrites;
+                if (writes != null) {
+                    session = new TimedSession(session, writes);
+                }
+                if (getOverflowPolicy() == OverflowPolicy.DROP_OLDEST) {
+                    SlowConsumerSessionDecorator guarded = new SlowConsumerSessionDecorator(
+                        session, sendTimeLimit, sendBufferSizeLimit, getWriter(), droppedFrames);
+                    guardedSessions.put(session.getId(), guarded);
+                    session = guarded;
+                }
+                sessions.put(session.getId(), session);
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                activeSessions.decrementAndGet();
+                sessions.remove(session.getId());
+                guardedSessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void checkSlowConsumers() {
+        long now = System.currentTimeMillis();
+        for (SlowConsumerSessionDecorator session : guardedSessions.values()) {
+            if (session.checkSendTime(now)) {
+                slowConsumerDisconnects.increment();
+            } else {
+                session.retryFlush();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("websocket.sessions.active", activeSessions, AtomicInteger::get)
+            .register(registry);
+        Gauge.builder("websocket.sessions.buffered.bytes", this, monitor -> monitor.getMetrics().getBufferedBytes())
+            .baseUnit("bytes")
+            .register(registry);
+        Gauge.builder("websocket.outbound.queue.depth", this, monitor -> monitor.getMetrics().getOutboundQueueDepth())
+            .register(registry);
+        FunctionCounter.builder("websocket.frames.dropped", droppedFrames, LongAdder::sum)
+            .register(registry);
+        FunctionCounter.builder("websocket.outbound.rejected", rejectedOutboundMessages, LongAdder::sum)
+            .register(registry);
+        FunctionCounter.builder("websocket.sessions.slow.disconnects", slowConsumerDisconnects, LongAdder::sum)
+            .register(registry);
+        frameWrites = Timer.builder("resolveit.websocket.frame.write")
+            .description("Time to write one frame to a client socket")
+            .register(registry);
+    }
+
+    public WebSocketMetricsDTO getMetrics() {
+        long bufferedBytes = 0;
+        long largestBuffer = 0;
+        for (SlowConsumerSessionDecorator session : guardedSessions.values()) {
+            long size = session.getBufferSize();
+            bufferedBytes += size;
+            largestBuffer = Math.max(largestBuffer, size);
+        }
+
+        int queueDepth = 0;
+        int activeThreads = 0;
+        if (outboundExecutor != null) {
+            try {
+                queueDepth = outboundExecutor.getQueueSize();
+                activeThreads = outboundExecutor.getActiveCount();
+            } catch (IllegalStateException e) {
+                // Executor not initialized yet
+            }
+        }
+
+        return WebSocketMetricsDTO.builder()
+            .overflowPolicy(getOverflowPolicy().name())
+            .sendBufferSizeLimit(sendBufferSizeLimit)
+            .sendTimeLimitMs(sendTimeLimit)
+            .activeSessions(activeSessions.get())
+            .peakSessions(peakSessions.get())
+            .bufferedBytes(bufferedBytes)
+            .largestSessionBufferBytes(largestBuffer)
+            .outboundQueueDepth(queueDepth)
+            .outboundQueueCapacity(outboundQueueCapacity)
+            .outboundActiveThreads(activeThreads)
+            .droppedFrames(droppedFrames.sum())
+            .rejectedOutboundMessages(rejectedOutboundMessages.sum())
+            .slowConsumerDisconnects(slowConsumerDisconnects.sum())
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer != null) {
+            writer.shutdownNow();
+        }
+    }
+
+    private static final class TimedSession extends WebSocketSessionDecorator {
+        private final Timer timer;
+
+        TimedSession(WebSocketSession delegate, Timer timer) {
+            super(delegate);
+            this.timer = timer;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            long start = System.nanoTime();
+            try {
+                super.sendMessage(message);
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.resolveit.backend.controller;
 
+import com.resolveit.backend.config.QueryBudget;
 import com.resolveit.backend.dto.*;
 import com.resolveit.backend.entity.Grievance;
 import com.resolveit.backend.entity.User;
 import com.resolveit.backend.repository.GrievanceRepository;
 import com.resolveit.backend.repository.UserRepository;
+import com.resolveit.backend.service.DashboardBootstrapService;
+import com.resolveit.backend.service.DashboardReadCache;
 import com.resolveit.backend.service.GrievanceService;
 import com.resolveit.backend.service.NotificationService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,13 +22,16 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/dashboard/admin")
 @RequiredArgsConstructor
+@Slf4j
 @CrossOrigin(origins = "*")
 public class AdminDashboardController {
     
@@ -32,6 +39,8 @@ public class AdminDashboardController {
     private final UserRepository userRepository;
     private final NotificationService notificationService;
     private final GrievanceService grievanceService; // Added GrievanceService
+    private final DashboardBootstrapService dashboardBootstrapService;
+    private final DashboardReadCache dashboardReadCache;
     
     // Get current logged-in admin
     private User getCurrentAdmin() {
@@ -46,14 +55,24 @@ public class AdminDashboardController {
     /**
      * Get department statistics for admin
      */
+    @QueryBudget(10)
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<DepartmentStatsDTO>> getDepartmentStats() {
-        User admin = getCurrentAdmin();
-        
+        return ResponseEntity.ok(ApiResponse.success("Department statistics retrieved",
+            departmentStats(getCurrentAdmin())));
+    }
+    
+    // Shared by everyone in the department (see DashboardReadCache)
+    private DepartmentStatsDTO departmentStats(User admin) {
+        return dashboardReadCache.get("admin/stats", admin.getDepartmentId(),
+            () -> loadDepartmentStats(admin.getDepartmentId()));
+    }
+    
+    private DepartmentStatsDTO loadDepartmentStats(Integer adminDepartmentId) {
         DepartmentStatsDTO stats = new DepartmentStatsDTO();
         
-        Long departmentId = admin.getDepartmentId().longValue();
+        Long departmentId = adminDepartmentId.longValue();
         
         // Count grievances by status
         stats.setTotalGrievances(grievanceRepository.countByDepartmentId(departmentId));
@@ -65,7 +84,7 @@ public class AdminDashboardController {
         stats.setRejected(grievanceRepository.countByDepartmentIdAndStatus(departmentId, "rejected"));
         
         // Count staff in department
-        Long staffCount = userRepository.countByDepartmentIdAndRole(admin.getDepartmentId(), "staff");
+        Long staffCount = userRepository.countByDepartmentIdAndRole(adminDepartmentId, "staff");
         stats.setStaffCount(staffCount);
         
         // Calculate average resolution time for resolved grievances
@@ -82,7 +101,7 @@ public class AdminDashboardController {
             stats.setAvgResolutionTime(0L);
         }
         
-        return ResponseEntity.ok(ApiResponse.success("Department statistics retrieved", stats));
+        return stats;
     }
     
     // ============ GRIEVANCE MANAGEMENT ============
@@ -90,6 +109,7 @@ public class AdminDashboardController {
     /**
      * Get all grievances in admin's department (with pagination)
      */
+    @QueryBudget(2)
     @GetMapping("/grievances")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<Grievance>>> getDepartmentGrievances() {
@@ -129,6 +149,7 @@ public class AdminDashboardController {
     /**
      * NEW: Search grievances by keyword
      */
+    @QueryBudget(23)
     @GetMapping("/grievances/search")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<PaginatedResponse<GrievanceResponseDTO>>> searchGrievances(
@@ -160,6 +181,7 @@ public class AdminDashboardController {
     /**
      * NEW: Get grievances with pagination
      */
+    @QueryBudget(23)
     @GetMapping("/grievances/paginated")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<PaginatedResponse<GrievanceResponseDTO>>> getPaginatedGrievances(
@@ -201,6 +223,7 @@ public class AdminDashboardController {
     /**
      * Get new/unassigned grievances in department
      */
+    @QueryBudget(2)
     @GetMapping("/grievances/new")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<Grievance>>> getNewGrievances() {
@@ -217,6 +240,7 @@ public class AdminDashboardController {
     /**
      * Get grievances assigned to current admin
      */
+    @QueryBudget(2)
     @GetMapping("/grievances/assigned-to-me")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<Grievance>>> getGrievancesAssignedToMe() {
@@ -264,9 +288,11 @@ public class AdminDashboardController {
         try {
             notificationService.notifyGrievanceAssigned(updated, admin);
         } catch (Exception e) {
-            System.err.println("Notification failed: " + e.getMessage());
+            log.warn("Notification failed: {}", e.getMessage());
         }
         
+        dashboardReadCache.evict(admin.getDepartmentId());
+        
         return ResponseEntity.ok(ApiResponse.success("Grievance assigned to you", updated));
     }
     
@@ -318,15 +344,18 @@ public class AdminDashboardController {
         try {
             notificationService.notifyStaffAssignment(updated, staff);
         } catch (Exception e) {
-            System.err.println("Notification failed: " + e.getMessage());
+            log.warn("Notification failed: {}", e.getMessage());
         }
         
+        dashboardReadCache.evict(admin.getDepartmentId());
+        
         return ResponseEntity.ok(ApiResponse.success("Grievance assigned to staff", updated));
     }
     
     /**
      * Get detailed grievance info with DTO
      */
+    @QueryBudget(8)
     @GetMapping("/grievances/{grievanceId}/details")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<GrievanceResponseDTO>> getGrievanceDetails(@PathVariable Long grievanceId) {
@@ -351,6 +380,7 @@ public class AdminDashboardController {
     /**
      * Get all staff members in admin's department
      */
+    @QueryBudget(2)
     @GetMapping("/staff")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<User>>> getDepartmentStaff() {
@@ -367,13 +397,20 @@ public class AdminDashboardController {
     /**
      * Get staff performance statistics
      */
+    @QueryBudget(4)
     @GetMapping("/staff/performance")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<List<StaffPerformanceDTO>>> getStaffPerformance() {
-        User admin = getCurrentAdmin();
+        Integer departmentId = getCurrentAdmin().getDepartmentId();
+        List<StaffPerformanceDTO> performanceList = dashboardReadCache.get("admin/staff/performance", departmentId,
+            () -> loadStaffPerformance(departmentId));
         
+        return ResponseEntity.ok(ApiResponse.success("Staff performance statistics", performanceList));
+    }
+    
+    private List<StaffPerformanceDTO> loadStaffPerformance(Integer departmentId) {
         List<User> staffMembers = userRepository.findByDepartmentIdAndRole(
-            admin.getDepartmentId(), 
+            departmentId, 
             "staff"
         );
         
@@ -386,7 +423,7 @@ public class AdminDashboardController {
             // Get assigned grievances count
             List<Grievance> assignedGrievances = grievanceRepository.findByAssignedToAndDepartmentId(
                 staff.getId(), 
-                admin.getDepartmentId().longValue()
+                departmentId.longValue()
             );
             dto.setAssignedGrievances((long) assignedGrievances.size());
             
@@ -429,7 +466,7 @@ public class AdminDashboardController {
             return dto;
         }).collect(Collectors.toList());
         
-        return ResponseEntity.ok(ApiResponse.success("Staff performance statistics", performanceList));
+        return performanceList;
     }
     
     /**
@@ -463,36 +500,70 @@ public class AdminDashboardController {
         try {
             notificationService.notifyStatusUpdate(updated);
         } catch (Exception e) {
-            System.err.println("Notification failed: " + e.getMessage());
+            log.warn("Notification failed: {}", e.getMessage());
         }
         
+        dashboardReadCache.evict(admin.getDepartmentId());
+        
         return ResponseEntity.ok(ApiResponse.success("Grievance rejected", updated));
     }
     
     /**
      * Get dashboard summary (quick stats)
      */
+    @QueryBudget(7)
     @GetMapping("/summary")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboardSummary() {
-        User admin = getCurrentAdmin();
-        Long departmentId = admin.getDepartmentId().longValue();
+        return ResponseEntity.ok(ApiResponse.success("Dashboard summary", dashboardSummary(getCurrentAdmin())));
+    }
+    
+    // Department-wide part shared through DashboardReadCache; the admin's own count is added per request
+    private Map<String, Object> dashboardSummary(User admin) {
+        Map<String, Object> summary = new HashMap<>(dashboardReadCache.get("admin/summary", admin.getDepartmentId(),
+            () -> loadDepartmentSummary(admin.getDepartmentId())));
+        summary.put("myAssignedGrievances", 
+            grievanceRepository.countByDepartmentIdAndAssignedAdminId(admin.getDepartmentId().longValue(), admin.getId()));
+        return summary;
+    }
+    
+    private Map<String, Object> loadDepartmentSummary(Integer adminDepartmentId) {
+        Long departmentId = adminDepartmentId.longValue();
         
         Map<String, Object> summary = new HashMap<>();
         
         // Basic counts
         summary.put("totalGrievances", grievanceRepository.countByDepartmentId(departmentId));
         summary.put("newGrievances", grievanceRepository.countByDepartmentIdAndStatus(departmentId, "submitted"));
-        summary.put("myAssignedGrievances", 
-            grievanceRepository.countByDepartmentIdAndAssignedAdminId(departmentId, admin.getId()));
         
         // Staff count
-        summary.put("staffCount", userRepository.countByDepartmentIdAndRole(admin.getDepartmentId(), "staff"));
+        summary.put("staffCount", userRepository.countByDepartmentIdAndRole(adminDepartmentId, "staff"));
         
         // Recent activity (last 5 grievances)
         List<Grievance> recentGrievances = grievanceService.getRecentDepartmentGrievances(departmentId, 5);
         summary.put("recentGrievances", recentGrievances);
         
-        return ResponseEntity.ok(ApiResponse.success("Dashboard summary", summary));
+        return summary;
+    }
+    
+    /**
+     * Everything the dashboard shows on open, in one request (see DashboardBootstrapService)
+     */
+    @QueryBudget(20)
+    @GetMapping("/bootstrap")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<DashboardBootstrapDTO>> getDashboardBootstrap() {
+        User admin = getCurrentAdmin();
+        Long departmentId = admin.getDepartmentId().longValue();
+        
+        Map<String, Callable<?>> parts = new LinkedHashMap<>();
+        parts.put("stats", () -> departmentStats(admin));
+        parts.put("summary", () -> dashboardSummary(admin));
+        parts.put("newGrievances", () -> grievanceRepository.findByDepartmentIdAndStatus(departmentId, "submitted"));
+        parts.put("assignedToMe", () -> grievanceRepository.findByDepartmentIdAndAssignedAdminId(departmentId, admin.getId()));
+        parts.put("staff", () -> userRepository.findByDepartmentIdAndRole(admin.getDepartmentId(), "staff"));
+        parts.put("unreadCount", () -> notificationService.getUnreadCount(admin.getUserId()));
+        
+        return ResponseEntity.ok(ApiResponse.success("Dashboard loaded", dashboardBootstrapService.load(parts)));
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.resolveit.backend.controller;
+
+import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.AttachmentDTO;
+import com.resolveit.backend.service.AttachmentService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Attachments of a grievance; students can only reach their own grievances
+@RestController
+@RequestMapping("/api/grievances/{grievanceId}/attachments")
+@RequiredArgsConstructor
+public class AttachmentController {
+    
+    private final AttachmentService attachmentService;
+    
+    // Upload one or more files (any part names) in a single multipart request.
+    // The request body is parsed here as a stream, so the parameters must not be read before.
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<List<AttachmentDTO>>> uploadAttachments(
+            @PathVariable Long grievanceId,
+            @AuthenticationPrincipal String userId,
+            HttpServletRequest request) {
+        
+        try {
+            List<AttachmentDTO> attachments = attachmentService.uploadAttachments(grievanceId, request, userId);
+            return ResponseEntity.ok(ApiResponse.success("Attachments uploaded", attachments));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+    
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<AttachmentDTO>>> getAttachments(
+            @PathVariable Long grievanceId,
+            @AuthenticationPrincipal String userId) {
+        
+        try {
+            return ResponseEntity.ok(ApiResponse.success(attachmentService.getAttachments(grievanceId, userId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+    
+    @DeleteMapping("/{attachmentId}")
+    public ResponseEntity<ApiResponse<Void>> deleteAttachment(
+            @PathVariable Long grievanceId,
+            @PathVariable Long attachmentId,
+            @AuthenticationPrincipal String userId) {
+        
+        try {
+            attachmentService.deleteAttachment(grievanceId, attachmentId, userId);
+            return ResponseEntity.ok(ApiResponse.success("Attachment deleted", null));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
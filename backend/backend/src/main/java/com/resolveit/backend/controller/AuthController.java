@@ -7,6 +7,7 @@ import com.resolveit.backend.dto.SignupResponse;
 import com.resolveit.backend.entity.User;
 import com.resolveit.backend.repository.UserRepository;
 import com.resolveit.backend.security.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,6 +22,7 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:3000")
+@Slf4j
 public class AuthController {
 
     @Autowired
@@ -38,45 +40,40 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
         try {
-            System.out.println("🔐 LOGIN ATTEMPT for username: " + loginRequest.getUsername());
-            System.out.println("🎭 Requested role: " + loginRequest.getRole());
+            log.debug("Login attempt for {} as {}", loginRequest.getUsername(), loginRequest.getRole());
             
             // Find user by user_id (username)
             Optional<User> userOptional = userRepository.findByUserId(loginRequest.getUsername());
             
             if (userOptional.isEmpty()) {
-                System.out.println("❌ USER NOT FOUND: " + loginRequest.getUsername());
+                log.warn("Login failed for {}: user not found", loginRequest.getUsername());
                 return ResponseEntity.badRequest()
                     .body(createErrorResponse("Invalid username or password"));
             }
 
             User user = userOptional.get();
-            System.out.println("✅ USER FOUND: " + user.getUserId() + ", Role: " + user.getRole());
-            System.out.println("🔐 User active? " + user.getIsActive());
 
             // Check if user is active
             if (!user.getIsActive()) {
-                System.out.println("❌ ACCOUNT DEACTIVATED: " + user.getUserId());
+                log.warn("Login failed for {}: account deactivated", user.getUserId());
                 return ResponseEntity.badRequest()
                     .body(createErrorResponse("Account is deactivated"));
             }
 
             // PROPER PASSWORD VALIDATION
-            System.out.println("🔑 Password check for: " + user.getUserId());
             boolean passwordMatches = passwordEncoder.matches(loginRequest.getPassword(), user.getPasswordHash());
-            System.out.println("✅ Password matches? " + passwordMatches);
             
             if (!passwordMatches) {
-                System.out.println("❌ PASSWORD MISMATCH for: " + user.getUserId());
+                log.warn("Login failed for {}: wrong password", user.getUserId());
                 return ResponseEntity.badRequest()
                     .body(createErrorResponse("Invalid username or password"));
             }
 
             // Check role if specified
             if (loginRequest.getRole() != null && !loginRequest.getRole().isEmpty()) {
-                System.out.println("🎭 Checking role: Expected=" + user.getRole() + ", Received=" + loginRequest.getRole());
                 if (!user.getRole().equalsIgnoreCase(loginRequest.getRole())) {
-                    System.out.println("❌ ROLE MISMATCH: Expected " + user.getRole() + " but got " + loginRequest.getRole());
+                    log.warn("Login failed for {}: role {} requested, user is {}",
+                        user.getUserId(), loginRequest.getRole(), user.getRole());
                     return ResponseEntity.badRequest()
                         .body(createErrorResponse("User role doesn't match. Expected: " + user.getRole()));
                 }
@@ -84,7 +81,6 @@ public class AuthController {
 
             // Try authentication with Spring Security
             try {
-                System.out.println("🔐 Attempting Spring Security authentication...");
                 Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                         user.getUserId(), // Use user_id for authentication
@@ -92,17 +88,15 @@ public class AuthController {
                     )
                 );
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                System.out.println("✅ Spring Security authentication successful");
             } catch (Exception authException) {
-                System.out.println("⚠️ Spring Security authentication failed: " + authException.getMessage());
-                System.out.println("⚠️ Continuing with manual authentication...");
+                log.debug("Spring Security authentication failed for {}, continuing with manual authentication: {}",
+                    user.getUserId(), authException.getMessage());
                 // Continue without Spring Security authentication
                 // This might happen if UserDetailsService is not properly configured
             }
 
             // Generate JWT token with user_id as username
             String token = jwtUtil.generateToken(user.getUserId(), user.getRole());
-            System.out.println("🎫 JWT Token generated for: " + user.getUserId());
 
             // Create login response
             LoginResponse response = new LoginResponse();
@@ -125,21 +119,16 @@ public class AuthController {
                     user.getEnrollmentNumber() != null && !user.getEnrollmentNumber().trim().isEmpty();
                 
                 response.setProfileCompleted(hasCompletedProfile);
-                
-                System.out.println("🎯 Student profile check for " + user.getUserId() + ": " + hasCompletedProfile);
-                System.out.println("📝 Enrollment Number: " + user.getEnrollmentNumber());
             } else {
                 // For staff and admin, profile is always considered complete
                 response.setProfileCompleted(true);
-                System.out.println("✅ " + user.getRole() + " user - profile complete");
             }
 
-            System.out.println("🎉 LOGIN SUCCESSFUL for: " + user.getUserId());
+            log.info("Login succeeded for {} ({})", user.getUserId(), user.getRole());
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
-            System.err.println("❌ LOGIN ERROR: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Login failed for {}", loginRequest.getUsername(), e);
             return ResponseEntity.badRequest()
                 .body(createErrorResponse("Login failed: " + e.getMessage()));
         }
@@ -148,18 +137,18 @@ public class AuthController {
     @PostMapping("/signup")
     public ResponseEntity<?> signup(@RequestBody SignupRequest signupRequest) {
         try {
-            System.out.println("📝 SIGNUP ATTEMPT for username: " + signupRequest.getUsername());
+            log.debug("Signup attempt for {}", signupRequest.getUsername());
             
             // Check if username already exists
             if (userRepository.findByUserId(signupRequest.getUsername()).isPresent()) {
-                System.out.println("❌ USERNAME TAKEN: " + signupRequest.getUsername());
+                log.info("Signup rejected for {}: username taken", signupRequest.getUsername());
                 return ResponseEntity.badRequest()
                     .body(new SignupResponse(false, "Username already taken. Please choose a different username."));
             }
 
             // Check if email already exists
             if (userRepository.findByEmail(signupRequest.getEmail()).isPresent()) {
-                System.out.println("❌ EMAIL TAKEN: " + signupRequest.getEmail());
+                log.info("Signup rejected for {}: email already registered", signupRequest.getUsername());
                 return ResponseEntity.badRequest()
                     .body(new SignupResponse(false, "Email already registered"));
             }
@@ -195,20 +184,18 @@ public class AuthController {
             // FOR STUDENTS: Set temporary enrollment number so they can login immediately
             if ("student".equalsIgnoreCase(signupRequest.getRole())) {
                 newUser.setEnrollmentNumber("TEMP-" + signupRequest.getUsername());
-                System.out.println("🎓 New student created with temporary enrollment: TEMP-" + signupRequest.getUsername());
             }
 
             // Save user to database
             User savedUser = userRepository.save(newUser);
-            System.out.println("✅ USER CREATED: " + savedUser.getUserId() + ", Role: " + savedUser.getRole());
+            log.info("User {} signed up as {}", savedUser.getUserId(), savedUser.getRole());
 
             return ResponseEntity.ok(new SignupResponse(true, 
                 "User registered successfully! Username: " + savedUser.getUserId() + 
                 ", Email: " + savedUser.getEmail() + ", Role: " + savedUser.getRole()));
 
         } catch (Exception e) {
-            System.err.println("❌ SIGNUP ERROR: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Signup failed for {}", signupRequest.getUsername(), e);
             return ResponseEntity.badRequest()
                 .body(new SignupResponse(false, "Registration failed: " + e.getMessage()));
         }
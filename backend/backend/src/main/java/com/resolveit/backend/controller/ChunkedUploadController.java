@@ -0,0 +1,102 @@
+package com.resolveit.backend.controller;
+
+import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.AttachmentDTO;
+import com.resolveit.backend.dto.UploadSessionDTO;
+import com.resolveit.backend.dto.UploadSessionRequest;
+import com.resolveit.backend.service.ChunkedUploadService;
+import com.resolveit.backend.service.ChunkedUploadService.UploadDataMissingException;
+import com.resolveit.backend.service.ChunkedUploadService.UploadOffsetMismatchException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+// Resumable uploads: POST to start, PUT raw chunks at ?offset=, POST /complete to attach.
+// After a failure, GET the session and continue from receivedBytes.
+@RestController
+@RequestMapping("/api/uploads")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+    
+    private final ChunkedUploadService chunkedUploadService;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<UploadSessionDTO>> createSession(
+            @RequestBody UploadSessionRequest request,
+            @AuthenticationPrincipal String userId) {
+        
+        try {
+            UploadSessionDTO session = chunkedUploadService.createSession(request, userId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Upload started", session));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+    
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<UploadSessionDTO>> getSession(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal String userId) {
+        
+        try {
+            return ResponseEntity.ok(ApiResponse.success(chunkedUploadService.getSession(uploadId, userId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+    
+    // Body is the raw chunk (any content type)
+    @PutMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<UploadSessionDTO>> writeChunk(
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            @AuthenticationPrincipal String userId,
+            HttpServletRequest request) throws IOException {
+        
+        try {
+            UploadSessionDTO session = chunkedUploadService.writeChunk(
+                uploadId, offset, request.getContentLengthLong(), request.getInputStream(), userId);
+            return ResponseEntity.ok(ApiResponse.success(session));
+        } catch (UploadOffsetMismatchException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage(), e.getSession()));
+        } catch (UploadDataMissingException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage(), e.getSession()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+    
+    // 200 carries the attachment; 409 carries the upload session state
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<ApiResponse<?>> completeUpload(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal String userId) {
+        
+        try {
+            AttachmentDTO attachment = chunkedUploadService.completeUpload(uploadId, userId);
+            return ResponseEntity.ok(ApiResponse.success("Upload completed", attachment));
+        } catch (UploadDataMissingException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage(), e.getSession()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+    
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<ApiResponse<Void>> abortUpload(
+            @PathVariable String uploadId,
+            @AuthenticationPrincipal String userId) {
+        
+        try {
+            chunkedUploadService.abortUpload(uploadId, userId);
+            return ResponseEntity.ok(ApiResponse.success("Upload cancelled", null));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
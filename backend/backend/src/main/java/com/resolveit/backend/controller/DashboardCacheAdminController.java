@@ -0,0 +1,30 @@
+package com.resolveit.backend.controller;
+
+import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.DashboardCacheMetricsDTO;
+import com.resolveit.backend.service.DashboardReadCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/dashboard-cache")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class DashboardCacheAdminController {
+    
+    private final DashboardReadCache dashboardReadCache;
+    
+    // Hits, stale hits, misses and reads coalesced onto a computation already in flight
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse<DashboardCacheMetricsDTO>> getMetrics() {
+        return ResponseEntity.ok(ApiResponse.success(dashboardReadCache.getMetrics()));
+    }
+    
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Void>> clear() {
+        dashboardReadCache.clear();
+        return ResponseEntity.ok(ApiResponse.success("Dashboard cache cleared", null));
+    }
+}
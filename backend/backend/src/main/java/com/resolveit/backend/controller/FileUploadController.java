@@ -1,20 +1,24 @@
 package com.resolveit.backend.controller;
 
+import com.resolveit.backend.dto.StoredFile;
+import com.resolveit.backend.security.SignedUrlService;
+import com.resolveit.backend.service.FileDownloadService;
 import com.resolveit.backend.service.FileStorageService;
+import com.resolveit.backend.service.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/files")
@@ -22,17 +26,22 @@ import java.util.Map;
 public class FileUploadController {
     
     private final FileStorageService fileStorageService;
+    private final FileDownloadService fileDownloadService;
+    private final ThumbnailService thumbnailService;
+    private final SignedUrlService signedUrlService;
     
     @PostMapping("/upload")
     public ResponseEntity<Map<String, String>> uploadFile(
             @RequestParam("file") MultipartFile file,
-            @RequestParam("folder") String folder) {
+            @RequestParam("folder") String folder,
+            @AuthenticationPrincipal String userId) {
         
         try {
-            String filePath = fileStorageService.storeFile(file, folder);
+            String filePath = fileStorageService.storeUpload(file, folder, userId);
             
             Map<String, String> response = new HashMap<>();
             response.put("filePath", filePath);
+            response.put("url", signedUrlService.sign(filePath, SignedUrlService.Scope.VIEW));
             response.put("fileName", file.getOriginalFilename());
             response.put("fileSize", String.valueOf(file.getSize()));
             response.put("message", "File uploaded successfully");
@@ -46,41 +55,63 @@ public class FileUploadController {
         }
     }
     
-    @GetMapping("/{folder}/{filename:.+}")
-    public ResponseEntity<Resource> serveFile(
-            @PathVariable String folder,
-            @PathVariable String filename) {
+    // Streams the file with Range, conditional GET and caching support.
+    // Paths can be nested (content-addressed objects live under objects/ab/cd/).
+    // For images, ?size=48|128|512 returns a thumbnail; until it has been rendered the
+    // original is served without caching. Only reachable through signed URLs (see
+    // SignedUrlService), which the APIs return alongside each file the caller may see.
+    @GetMapping("/{*filePath}")
+    public void serveFile(
+            @PathVariable String filePath,
+            @RequestParam(required = false) Integer size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         
-        try {
-            String filePath = folder + "/" + filename;
-            Path file = Paths.get("uploads").resolve(filePath);
-            Resource resource = new UrlResource(file.toUri());
-            
-            if (resource.exists() || resource.isReadable()) {
-                return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-                    .body(resource);
-            } else {
-                throw new RuntimeException("File not found: " + filename);
-            }
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Error loading file: " + filename, e);
+        String relativePath = filePath.substring(1);
+        boolean asAttachment = signedUrlService.scopeOf(request) == SignedUrlService.Scope.DOWNLOAD;
+        
+        StoredFile file;
+        CacheControl cacheControl;
+        Optional<StoredFile> thumbnail = size != null
+            ? thumbnailService.getThumbnail(relativePath, size)
+            : Optional.empty();
+        if (thumbnail.isPresent()) {
+            // Thumbnails are never rewritten in place
+            file = thumbnail.get();
+            cacheControl = fileDownloadService.immutableCacheControl();
+        } else if (size != null) {
+            file = fileStorageService.getFile(relativePath);
+            cacheControl = CacheControl.noCache();
+        } else {
+            file = fileStorageService.getFile(relativePath);
+            // Content-addressed keys name their bytes, so the response can never change
+            cacheControl = fileStorageService.isContentAddressed(relativePath)
+                ? fileDownloadService.immutableCacheControl()
+                : fileDownloadService.defaultCacheControl();
         }
+        fileDownloadService.serve(file, request, response, cacheControl, asAttachment);
     }
     
-    @DeleteMapping("/{folder}/{filename:.+}")
+    // Only for uploads that were never linked to anything (e.g. removed from an unsent form);
+    // profile pictures and attachments are released through their own endpoints. Each call
+    // releases one reference the caller's own upload took, so nobody can release another
+    // user's identical upload by repeating the request.
+    @DeleteMapping("/{*filePath}")
     public ResponseEntity<Map<String, String>> deleteFile(
-            @PathVariable String folder,
-            @PathVariable String filename) {
+            @PathVariable String filePath,
+            @AuthenticationPrincipal String userId) {
         
         try {
-            String filePath = folder + "/" + filename;
-            fileStorageService.deleteFile(filePath);
+            String relativePath = filePath.substring(1);
+            // Thumbnails, profile pictures and attachments hold no pending upload, so they are never released here
+            if (!fileStorageService.releaseUpload(relativePath, userId)) {
+                Map<String, String> errorResponse = new HashMap<>();
+                errorResponse.put("error", "No pending upload of yours at: " + relativePath);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+            }
             
             Map<String, String> response = new HashMap<>();
-            response.put("message", "File deleted successfully: " + filename);
+            response.put("message", "File deleted successfully: " + relativePath);
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
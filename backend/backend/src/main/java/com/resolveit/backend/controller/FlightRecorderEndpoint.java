@@ -0,0 +1,84 @@
+package com.resolveit.backend.controller;
+
+import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.FlightRecordingDTO;
+import com.resolveit.backend.service.FlightRecorderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * On-demand flight recordings, served by actuator on the internal management port
+ * (management.server.*) rather than the public API: a dump holds thread stacks, class
+ * names and heap statistics that only operators should see.
+ *
+ * GET /actuator/flightrecorder gives the status, POST /actuator/flightrecorder/start or
+ * /stop controls the recording and GET /actuator/flightrecorder/dump downloads it as a
+ * .jfr file (open with JDK Mission Control or `jfr print`).
+ */
+@Component
+@Endpoint(id = "flightrecorder")
+@RequiredArgsConstructor
+public class FlightRecorderEndpoint {
+
+    private final FlightRecorderService flightRecorderService;
+
+    // Current recording and slow request counts
+    @ReadOperation
+    public ApiResponse<FlightRecordingDTO> status() {
+        return ApiResponse.success(flightRecorderService.getStatus());
+    }
+
+    // start with settings default (continuous, ~1% overhead) or profile (more detail, for short captures); or stop
+    @WriteOperation
+    public WebEndpointResponse<ApiResponse<FlightRecordingDTO>> control(@Selector String action,
+            @Nullable String settings, @Nullable Long maxAgeMinutes, @Nullable Long maxSizeMb) {
+        try {
+            switch (action) {
+                case "start":
+                    return new WebEndpointResponse<>(ApiResponse.success("Recording started",
+                        flightRecorderService.start(settings != null ? settings : "default", maxAgeMinutes, maxSizeMb)));
+                case "stop":
+                    return new WebEndpointResponse<>(ApiResponse.success("Recording stopped", flightRecorderService.stop()));
+                default:
+                    return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+            }
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return new WebEndpointResponse<>(ApiResponse.<FlightRecordingDTO>error(e.getMessage(), null),
+                WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+    }
+
+    // The recording so far; the temporary file is deleted once the response is written
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector String action) throws IOException {
+        if (!"dump".equals(action)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Path file;
+        try {
+            file = flightRecorderService.dump();
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        return new WebEndpointResponse<>(new FileSystemResource(file) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE);
+            }
+        });
+    }
+}
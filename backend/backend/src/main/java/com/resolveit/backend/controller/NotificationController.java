@@ -1,12 +1,16 @@
 package com.resolveit.backend.controller;
 
 import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.CursorPaginatedResponse;
 import com.resolveit.backend.dto.NotificationDTO;
 import com.resolveit.backend.service.NotificationService;
+import com.resolveit.backend.service.NotificationStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -16,8 +20,9 @@ import java.util.List;
 public class NotificationController {
     
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
     
-    // Get all notifications for user
+    // Get latest notifications for user (use /inbox to page further back)
     @GetMapping
     public ResponseEntity<ApiResponse<List<NotificationDTO>>> getNotifications(
             @AuthenticationPrincipal String userId) {
@@ -26,7 +31,7 @@ public class NotificationController {
         return ResponseEntity.ok(ApiResponse.success(notifications));
     }
     
-    // Get unread notifications
+    // Get latest unread notifications (use /inbox/unread to page further back)
     @GetMapping("/unread")
     public ResponseEntity<ApiResponse<List<NotificationDTO>>> getUnreadNotifications(
             @AuthenticationPrincipal String userId) {
@@ -35,6 +40,41 @@ public class NotificationController {
         return ResponseEntity.ok(ApiResponse.success(notifications));
     }
     
+    // Get one inbox page (cursor = nextCursor of the previous page)
+    @GetMapping("/inbox")
+    public ResponseEntity<ApiResponse<CursorPaginatedResponse<NotificationDTO>>> getInbox(
+            @AuthenticationPrincipal String userId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        
+        CursorPaginatedResponse<NotificationDTO> page = notificationService.getInbox(userId, type, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+    
+    // Get one page of unread notifications
+    @GetMapping("/inbox/unread")
+    public ResponseEntity<ApiResponse<CursorPaginatedResponse<NotificationDTO>>> getUnreadInbox(
+            @AuthenticationPrincipal String userId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        
+        CursorPaginatedResponse<NotificationDTO> page = notificationService.getUnreadInbox(userId, type, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+    
+    // Push stream of new notifications and unread-count changes (alternative to polling).
+    // Browsers resend the last event id on reconnect; lastEventId covers clients that can't set headers.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @AuthenticationPrincipal String userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        
+        return notificationStreamService.subscribe(userId, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+    
     // Get unread notification count
     @GetMapping("/unread-count")
     public ResponseEntity<ApiResponse<Long>> getUnreadCount(
@@ -0,0 +1,34 @@
+package com.resolveit.backend.controller;
+
+import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.NotificationRetentionMetricsDTO;
+import com.resolveit.backend.service.NotificationRetentionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/notifications/retention")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class NotificationRetentionController {
+    
+    private final NotificationRetentionService retentionService;
+    
+    // Table size, partitions and purge throughput
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse<NotificationRetentionMetricsDTO>> getMetrics() {
+        return ResponseEntity.ok(ApiResponse.success(retentionService.getMetrics()));
+    }
+    
+    // Run a purge pass now instead of waiting for the schedule
+    @PostMapping("/purge")
+    public ResponseEntity<ApiResponse<NotificationRetentionMetricsDTO>> purgeNow() {
+        if (!retentionService.purge()) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.<NotificationRetentionMetricsDTO>error("A purge is already running", null));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Purge completed", retentionService.getMetrics()));
+    }
+}
@@ -1,6 +1,8 @@
 package com.resolveit.backend.controller;
 
+import com.resolveit.backend.config.QueryBudget;
 import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.DashboardBootstrapDTO;
 import com.resolveit.backend.dto.GrievanceFilterRequest;
 import com.resolveit.backend.dto.GrievanceResponseDTO;
 import com.resolveit.backend.dto.PaginatedResponse;
@@ -9,9 +11,11 @@ import com.resolveit.backend.entity.Grievance;
 import com.resolveit.backend.entity.User;
 import com.resolveit.backend.repository.GrievanceRepository;
 import com.resolveit.backend.repository.UserRepository;
+import com.resolveit.backend.service.DashboardBootstrapService;
 import com.resolveit.backend.service.GrievanceService;
 import com.resolveit.backend.service.NotificationService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,13 +29,16 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/dashboard/staff")
 @RequiredArgsConstructor
+@Slf4j
 @CrossOrigin(origins = "*")
 public class StaffDashboardController {
     
@@ -39,6 +46,7 @@ public class StaffDashboardController {
     private final UserRepository userRepository;
     private final GrievanceService grievanceService;
     private final NotificationService notificationService;
+    private final DashboardBootstrapService dashboardBootstrapService;
     
     // Get current logged-in staff
     private User getCurrentStaff() {
@@ -53,11 +61,14 @@ public class StaffDashboardController {
     /**
      * Get staff dashboard statistics
      */
+    @QueryBudget(2)
     @GetMapping("/stats")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getStaffStats() {
-        User staff = getCurrentStaff();
-        
+        return ResponseEntity.ok(ApiResponse.success("Staff statistics", staffStats(getCurrentStaff())));
+    }
+    
+    private Map<String, Object> staffStats(User staff) {
         Map<String, Object> stats = new HashMap<>();
         
         // Get all grievances assigned to this staff
@@ -101,7 +112,26 @@ public class StaffDashboardController {
                 .count();
         stats.put("recentActivity", recentActivity);
         
-        return ResponseEntity.ok(ApiResponse.success("Staff statistics", stats));
+        return stats;
+    }
+    
+    /**
+     * Everything the dashboard shows on open, in one request (see DashboardBootstrapService)
+     */
+    @QueryBudget(17)
+    @GetMapping("/bootstrap")
+    @PreAuthorize("hasRole('STAFF')")
+    public ResponseEntity<ApiResponse<DashboardBootstrapDTO>> getDashboardBootstrap() {
+        User staff = getCurrentStaff();
+        Pageable firstPage = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "updatedAt"));
+        
+        Map<String, Callable<?>> parts = new LinkedHashMap<>();
+        parts.put("stats", () -> staffStats(staff));
+        parts.put("grievances", () -> grievanceService.convertToPaginatedResponse(
+            grievanceService.getStaffGrievances(staff.getId(), firstPage)));
+        parts.put("unreadCount", () -> notificationService.getUnreadCount(staff.getUserId()));
+        
+        return ResponseEntity.ok(ApiResponse.success("Dashboard loaded", dashboardBootstrapService.load(parts)));
     }
     
     // ============ GRIEVANCE MANAGEMENT WITH PAGINATION ============
@@ -109,6 +139,7 @@ public class StaffDashboardController {
     /**
      * Get grievances assigned to current staff (WITH PAGINATION)
      */
+    @QueryBudget(12)
     @GetMapping("/grievances")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<ApiResponse<PaginatedResponse<GrievanceResponseDTO>>> getMyGrievances(
@@ -135,6 +166,7 @@ public class StaffDashboardController {
     /**
      * Get grievances by status for current staff (WITH PAGINATION)
      */
+    @QueryBudget(8)
     @GetMapping("/grievances/status/{status}")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<ApiResponse<PaginatedResponse<GrievanceResponseDTO>>> getGrievancesByStatus(
@@ -154,6 +186,7 @@ public class StaffDashboardController {
     /**
      * SEARCH grievances by keyword (title or description)
      */
+    @QueryBudget(12)
     @GetMapping("/grievances/search")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<ApiResponse<PaginatedResponse<GrievanceResponseDTO>>> searchGrievances(
@@ -173,6 +206,7 @@ public class StaffDashboardController {
     /**
      * FILTER grievances with advanced options
      */
+    @QueryBudget(12)
     @GetMapping("/grievances/filter")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<ApiResponse<PaginatedResponse<GrievanceResponseDTO>>> filterGrievances(
@@ -210,6 +244,7 @@ public class StaffDashboardController {
     /**
      * Get grievance details
      */
+    @QueryBudget(7)
     @GetMapping("/grievances/{grievanceId}")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<ApiResponse<GrievanceResponseDTO>> getGrievanceDetails(@PathVariable Long grievanceId) {
@@ -276,7 +311,7 @@ public class StaffDashboardController {
         try {
             notificationService.notifyStatusUpdate(updated);
         } catch (Exception e) {
-            System.err.println("Notification failed: " + e.getMessage());
+            log.warn("Notification failed: {}", e.getMessage());
         }
         
         GrievanceResponseDTO dto = grievanceService.convertToResponseDTO(updated);
@@ -319,6 +354,7 @@ public class StaffDashboardController {
     /**
      * Get recent activity (last 5 updates)
      */
+    @QueryBudget(12)
     @GetMapping("/activity")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<ApiResponse<List<GrievanceResponseDTO>>> getRecentActivity() {
@@ -327,9 +363,7 @@ public class StaffDashboardController {
         List<Grievance> recentGrievances = grievanceRepository
             .findTop5ByAssignedToOrderByUpdatedAtDesc(staff.getId());
         
-        List<GrievanceResponseDTO> recentActivity = recentGrievances.stream()
-                .map(grievanceService::convertToResponseDTO)
-                .collect(Collectors.toList());
+        List<GrievanceResponseDTO> recentActivity = grievanceService.convertToResponseDTOs(recentGrievances);
         
         return ResponseEntity.ok(ApiResponse.success("Recent activity", recentActivity));
     }
@@ -337,6 +371,7 @@ public class StaffDashboardController {
     /**
      * Get recent grievances for dashboard (limited to 5)
      */
+    @QueryBudget(12)
     @GetMapping("/recent-grievances")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<ApiResponse<List<GrievanceResponseDTO>>> getRecentGrievances() {
@@ -344,9 +379,7 @@ public class StaffDashboardController {
         
         List<Grievance> recentGrievances = grievanceService.getRecentStaffGrievances(staff.getId(), 5);
         
-        List<GrievanceResponseDTO> recentDTOs = recentGrievances.stream()
-                .map(grievanceService::convertToResponseDTO)
-                .collect(Collectors.toList());
+        List<GrievanceResponseDTO> recentDTOs = grievanceService.convertToResponseDTOs(recentGrievances);
         
         return ResponseEntity.ok(ApiResponse.success("Recent grievances", recentDTOs));
     }
@@ -354,6 +387,7 @@ public class StaffDashboardController {
     /**
      * Get performance overview
      */
+    @QueryBudget(2)
     @GetMapping("/performance")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getPerformanceOverview() {
@@ -427,6 +461,7 @@ public class StaffDashboardController {
     /**
      * Get priority list (urgent/high priority grievances)
      */
+    @QueryBudget(8)
     @GetMapping("/priority-list")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<ApiResponse<List<GrievanceResponseDTO>>> getPriorityList() {
@@ -448,9 +483,7 @@ public class StaffDashboardController {
                 .limit(10)
                 .collect(Collectors.toList());
         
-        List<GrievanceResponseDTO> priorityList = priorityGrievances.stream()
-                .map(grievanceService::convertToResponseDTO)
-                .collect(Collectors.toList());
+        List<GrievanceResponseDTO> priorityList = grievanceService.convertToResponseDTOs(priorityGrievances);
         
         return ResponseEntity.ok(ApiResponse.success("Priority grievances list", priorityList));
     }
@@ -0,0 +1,49 @@
+package com.resolveit.backend.controller;
+
+import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.StorageGcMetricsDTO;
+import com.resolveit.backend.dto.StorageUsageDTO;
+import com.resolveit.backend.entity.StorageUsage;
+import com.resolveit.backend.service.StorageGarbageCollector;
+import com.resolveit.backend.service.StorageUsageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/storage")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class StorageAdminController {
+    
+    private final StorageGarbageCollector garbageCollector;
+    private final StorageUsageService storageUsageService;
+    
+    // Progress of the current pass and what the collector has removed
+    @GetMapping("/gc/metrics")
+    public ResponseEntity<ApiResponse<StorageGcMetricsDTO>> getGcMetrics() {
+        return ResponseEntity.ok(ApiResponse.success(garbageCollector.getMetrics()));
+    }
+    
+    // Run the collector now instead of waiting for the schedule
+    @PostMapping("/gc/run")
+    public ResponseEntity<ApiResponse<StorageGcMetricsDTO>> runGc() {
+        if (!garbageCollector.run()) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.<StorageGcMetricsDTO>error("Garbage collection is already running", null));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Garbage collection run completed", garbageCollector.getMetrics()));
+    }
+    
+    @GetMapping("/usage/users/{userId}")
+    public ResponseEntity<ApiResponse<StorageUsageDTO>> getUserUsage(@PathVariable Long userId) {
+        return ResponseEntity.ok(ApiResponse.success(storageUsageService.getUsage(StorageUsage.OwnerType.USER, userId)));
+    }
+    
+    @GetMapping("/usage/departments/{departmentId}")
+    public ResponseEntity<ApiResponse<StorageUsageDTO>> getDepartmentUsage(@PathVariable Long departmentId) {
+        return ResponseEntity.ok(ApiResponse.success(
+            storageUsageService.getUsage(StorageUsage.OwnerType.DEPARTMENT, departmentId)));
+    }
+}
@@ -0,0 +1,27 @@
+package com.resolveit.backend.controller;
+
+import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.StorageUsageDTO;
+import com.resolveit.backend.service.StorageUsageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/storage")
+@RequiredArgsConstructor
+public class StorageUsageController {
+    
+    private final StorageUsageService storageUsageService;
+    
+    // Bytes and files the current user has stored, with their quota if one is set
+    @GetMapping("/usage")
+    public ResponseEntity<ApiResponse<StorageUsageDTO>> getMyUsage(@AuthenticationPrincipal String userId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(storageUsageService.getUserUsage(userId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+}
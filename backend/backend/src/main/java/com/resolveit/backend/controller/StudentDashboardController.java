@@ -1,5 +1,8 @@
 package com.resolveit.backend.controller;
 
+import com.resolveit.backend.config.QueryBudget;
+import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.DashboardBootstrapDTO;
 import com.resolveit.backend.dto.DashboardStatsDTO;
 import com.resolveit.backend.dto.GrievanceFilterRequest;
 import com.resolveit.backend.dto.GrievanceRequestDTO;
@@ -12,7 +15,9 @@ import com.resolveit.backend.entity.User;
 import com.resolveit.backend.repository.DepartmentRepository;
 import com.resolveit.backend.repository.UserRepository;
 import com.resolveit.backend.service.CategoryService;
+import com.resolveit.backend.service.DashboardBootstrapService;
 import com.resolveit.backend.service.GrievanceService;
+import com.resolveit.backend.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -25,8 +30,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/dashboard/student")
@@ -44,7 +52,14 @@ public class StudentDashboardController {
     @Autowired
     private DepartmentRepository departmentRepository;
     
+    @Autowired
+    private NotificationService notificationService;
+    
+    @Autowired
+    private DashboardBootstrapService dashboardBootstrapService;
+    
     // Get dashboard statistics
+    @QueryBudget(6)
     @GetMapping("/stats")
     public ResponseEntity<DashboardStatsDTO> getDashboardStats() {
         Long studentId = getCurrentUserId();
@@ -53,6 +68,7 @@ public class StudentDashboardController {
     }
     
     // Get all grievances for current student (WITH PAGINATION)
+    @QueryBudget(11)
     @GetMapping("/grievances")
     public ResponseEntity<PaginatedResponse<GrievanceResponseDTO>> getMyGrievances(
             @RequestParam(defaultValue = "0") int page,
@@ -76,6 +92,7 @@ public class StudentDashboardController {
     }
     
     // SEARCH grievances by keyword
+    @QueryBudget(11)
     @GetMapping("/grievances/search")
     public ResponseEntity<PaginatedResponse<GrievanceResponseDTO>> searchGrievances(
             @RequestParam String keyword,
@@ -92,6 +109,7 @@ public class StudentDashboardController {
     }
     
     // FILTER grievances by status
+    @QueryBudget(11)
     @GetMapping("/grievances/filter")
     public ResponseEntity<PaginatedResponse<GrievanceResponseDTO>> filterGrievances(
             @RequestParam(required = false) String status,
@@ -126,6 +144,7 @@ public class StudentDashboardController {
     }
     
     // Get specific grievance
+    @QueryBudget(7)
     @GetMapping("/grievances/{id}")
     public ResponseEntity<GrievanceResponseDTO> getGrievance(@PathVariable Long id) {
         Grievance grievance = grievanceService.getGrievanceById(id);
@@ -150,6 +169,7 @@ public class StudentDashboardController {
     }
     
     // Get all categories (for dropdown in frontend)
+    @QueryBudget(1)
     @GetMapping("/categories")
     public ResponseEntity<List<Category>> getCategories() {
         List<Category> categories = categoryService.getAllActiveCategories();
@@ -157,14 +177,37 @@ public class StudentDashboardController {
     }
     
     // Get all departments (for dropdown in frontend)
+    @QueryBudget(1)
     @GetMapping("/departments")
     public ResponseEntity<List<Department>> getDepartments() {
         List<Department> departments = departmentRepository.findAll();
         return ResponseEntity.ok(departments);
     }
     
+    // Everything the dashboard shows on open, in one request (see DashboardBootstrapService)
+    @QueryBudget(20)
+    @GetMapping("/bootstrap")
+    public ResponseEntity<ApiResponse<DashboardBootstrapDTO>> getDashboardBootstrap() {
+        User student = getCurrentUser();
+        Pageable firstPage = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+        
+        Map<String, Callable<?>> parts = new LinkedHashMap<>();
+        parts.put("stats", () -> grievanceService.getStudentDashboardStats(student.getId()));
+        parts.put("grievances", () -> grievanceService.convertToPaginatedResponse(
+            grievanceService.getStudentGrievances(student.getId(), firstPage)));
+        parts.put("categories", () -> categoryService.getAllActiveCategories());
+        parts.put("departments", () -> departmentRepository.findAll());
+        parts.put("unreadCount", () -> notificationService.getUnreadCount(student.getUserId()));
+        
+        return ResponseEntity.ok(ApiResponse.success("Dashboard loaded", dashboardBootstrapService.load(parts)));
+    }
+    
     // Helper method to get current user ID from JWT
     private Long getCurrentUserId() {
+        return getCurrentUser().getId();
+    }
+    
+    private User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -175,9 +218,7 @@ public class StudentDashboardController {
         String userIdString = authentication.getName();
         
         // Single optimized database query using userId
-        User user = userRepository.findByUserId(userIdString)
+        return userRepository.findByUserId(userIdString)
             .orElseThrow(() -> new RuntimeException("User not found with userId: " + userIdString));
-        
-        return user.getId();
     }
 }
\ No newline at end of file
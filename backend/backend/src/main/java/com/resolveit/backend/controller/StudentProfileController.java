@@ -3,7 +3,9 @@ package com.resolveit.backend.controller;
 import com.resolveit.backend.dto.*;
 import com.resolveit.backend.entity.User;
 import com.resolveit.backend.repository.UserRepository;
+import com.resolveit.backend.security.SignedUrlService;
 import com.resolveit.backend.service.FileStorageService;
+import com.resolveit.backend.service.ThumbnailService;
 import com.resolveit.backend.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +24,8 @@ public class StudentProfileController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
+    private final ThumbnailService thumbnailService;
+    private final SignedUrlService signedUrlService;
     
     @GetMapping
     public ResponseEntity<Map<String, Object>> getProfile() {
@@ -71,13 +75,23 @@ public class StudentProfileController {
             // Upload file to storage
             String filePath = fileStorageService.storeFile(file, "profile-pictures");
             
-            // Update user with file path
-            User updatedUser = userService.updateProfilePicture(userId, filePath);
+            // Update user with file path (the previous picture is released)
+            User updatedUser;
+            try {
+                updatedUser = userService.updateProfilePicture(userId, filePath);
+            } catch (RuntimeException e) {
+                fileStorageService.deleteFile(filePath);
+                throw e;
+            }
+            
+            // Render avatar sizes in the background; lists request them with ?size=
+            thumbnailService.generateAsync(filePath);
             
             // Return file info and user
             Map<String, Object> response = new java.util.HashMap<>();
             response.put("message", "Profile picture uploaded successfully");
             response.put("filePath", filePath);
+            response.put("signedUrl", signedUrlService.sign(filePath, SignedUrlService.Scope.VIEW));
             response.put("user", updatedUser);
             
             return ResponseEntity.ok(response);
@@ -87,6 +101,18 @@ public class StudentProfileController {
         }
     }
     
+    // Remove the profile picture; its file is deleted unless something else still uses it
+    @DeleteMapping("/picture")
+    public ResponseEntity<Map<String, Object>> deleteProfilePicture() {
+        Long userId = getCurrentUserId();
+        User updatedUser = userService.updateProfilePicture(userId, null);
+        
+        Map<String, Object> response = new java.util.HashMap<>();
+        response.put("message", "Profile picture removed");
+        response.put("user", updatedUser);
+        return ResponseEntity.ok(response);
+    }
+    
     // NEW: Get profile picture URL
     @GetMapping("/picture-url")
     public ResponseEntity<Map<String, String>> getProfilePictureUrl() {
@@ -96,6 +122,7 @@ public class StudentProfileController {
         
         Map<String, String> response = new java.util.HashMap<>();
         response.put("profilePictureUrl", user.getProfilePictureUrl());
+        response.put("profilePictureSignedUrl", signedUrlService.sign(user.getProfilePictureUrl(), SignedUrlService.Scope.VIEW));
         
         return ResponseEntity.ok(response);
     }
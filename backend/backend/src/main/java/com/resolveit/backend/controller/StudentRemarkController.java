@@ -1,5 +1,6 @@
 package com.resolveit.backend.controller;
 
+import com.resolveit.backend.config.QueryBudget;
 import com.resolveit.backend.dto.*;
 import com.resolveit.backend.entity.*;
 import com.resolveit.backend.repository.*;
@@ -38,6 +39,7 @@ public class StudentRemarkController {
         return ResponseEntity.ok(response);
     }
     
+    @QueryBudget(6)
     @GetMapping("/grievances/{grievanceId}/remarks")
     public ResponseEntity<List<RemarkResponseDTO>> getRemarks(
             @PathVariable Long grievanceId) {
@@ -47,6 +49,7 @@ public class StudentRemarkController {
         return ResponseEntity.ok(remarks);
     }
     
+    @QueryBudget(7)
     @GetMapping("/grievances/{grievanceId}/remarks/count")
     public ResponseEntity<Long> getRemarksCount(@PathVariable Long grievanceId) {
         Long studentId = getCurrentUserId();
@@ -55,6 +58,7 @@ public class StudentRemarkController {
         return ResponseEntity.ok(count);
     }
     
+    @QueryBudget(7)
     @GetMapping("/grievances/{grievanceId}/remarks/latest")
     public ResponseEntity<RemarkResponseDTO> getLatestRemark(@PathVariable Long grievanceId) {
         Long studentId = getCurrentUserId();
@@ -63,6 +67,7 @@ public class StudentRemarkController {
         return ResponseEntity.ok(latestRemark);
     }
 
+    @QueryBudget(6)
     @GetMapping("/grievances/{grievanceId}/timeline")
     public ResponseEntity<List<GrievanceTimelineDTO>> getGrievanceTimeline(
             @PathVariable Long grievanceId) {
@@ -80,6 +85,7 @@ public class StudentRemarkController {
     }
     
     // PERMANENT: Track grievance by grievance_id (string like "GRV-001")
+    @QueryBudget(8)
     @GetMapping("/track/{grievanceId}")
     public ResponseEntity<Map<String, Object>> trackGrievanceById(
             @PathVariable String grievanceId) {
@@ -0,0 +1,24 @@
+package com.resolveit.backend.controller;
+
+import com.resolveit.backend.config.WebSocketSessionMonitor;
+import com.resolveit.backend.dto.ApiResponse;
+import com.resolveit.backend.dto.WebSocketMetricsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/websocket")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class WebSocketAdminController {
+    
+    private final WebSocketSessionMonitor sessionMonitor;
+    
+    // Session counts, buffered bytes, outbound queue depth and dropped frames
+    @GetMapping("/metrics")
+    public ResponseEntity<ApiResponse<WebSocketMetricsDTO>> getMetrics() {
+        return ResponseEntity.ok(ApiResponse.success(sessionMonitor.getMetrics()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.resolveit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentDTO {
+    private Long id;
+    private Long grievanceId;
+    private String fileName;
+    private String filePath;      // storage key, served by /api/files/{filePath}
+    private String url;           // signed URL for displaying the file
+    private String downloadUrl;   // signed URL that makes the browser save the file
+    private Long fileSize;
+    private String contentType;
+    private String checksum;      // hex SHA-256
+    private Long uploadedById;
+    private String uploadedByName;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,12 @@
+package com.resolveit.backend.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CursorPaginatedResponse<T> {
+    private List<T> content;
+    private int pageSize;
+    private Long nextCursor; // Pass back as ?cursor= to get the next page, null when there is none
+    private boolean last;
+}
@@ -0,0 +1,23 @@
+package com.resolveit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardBootstrapDTO {
+    // Part name (e.g. "stats", "unreadCount") to its payload, as the matching endpoint returns it
+    private Map<String, Object> parts;
+    
+    // Parts that failed or timed out; the client can fetch them from their own endpoints
+    private List<String> failedParts;
+    private boolean complete;
+    private long elapsedMs;
+}
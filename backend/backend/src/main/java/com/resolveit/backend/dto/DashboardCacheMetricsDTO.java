@@ -0,0 +1,33 @@
+package com.resolveit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardCacheMetricsDTO {
+    // Configuration
+    private boolean enabled;
+    private long freshMs;
+    private long staleMs;
+    
+    // Current state
+    private int entries;
+    private int inFlight;
+    
+    // Since startup
+    private long hits;
+    private long staleHits;
+    private long misses;
+    // Reads that waited for an identical computation already running instead of starting their own
+    private long coalesced;
+    private Map<String, Long> coalescedByEndpoint;
+    private long refreshes;
+    private long refreshFailures;
+}
@@ -0,0 +1,28 @@
+package com.resolveit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightRecordingDTO {
+    // On-demand recording (state NONE when none was started since startup)
+    private String state;
+    private String settings;
+    private Instant startTime;
+    private Instant stopTime;
+    private long maxAgeSeconds;
+    private long maxSizeBytes;
+    private long sizeBytes;
+
+    // Slow request monitor
+    private boolean slowRequestMonitorEnabled;
+    private long slowRequestThresholdMs;
+    private long slowRequests;
+}
@@ -33,6 +33,9 @@ public class GrievanceResponseDTO {
     private String studentName;
     private String studentEmail;
     
+    // Number of files attached (filled in batches for list views)
+    private Long attachmentCount;
+    
     // NEW: Add feedback field
     @JsonProperty("feedback")
     private FeedbackDTO feedback;
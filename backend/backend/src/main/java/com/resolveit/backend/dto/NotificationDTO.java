@@ -20,6 +20,7 @@ public class NotificationDTO {
     private Boolean isRead;
     private LocalDateTime createdAt;
     private LocalDateTime readAt;
+    private Integer coalescedCount; // How many events were merged into this notification
     
     // For display
     private String timeAgo;
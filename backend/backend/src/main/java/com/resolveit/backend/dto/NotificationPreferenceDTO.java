@@ -16,4 +16,5 @@ public class NotificationPreferenceDTO {
     private Boolean newRemarks;
     private Boolean grievanceResolved;
     private Boolean feedbackReminders;
+    private Boolean digestEnabled;
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.resolveit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationRetentionMetricsDTO {
+    // Storage
+    private boolean partitioned;
+    private List<String> partitions;
+    private Long tableSizeBytes;
+    private Long estimatedRows;
+    private Map<String, Integer> retentionDays; // "*" is the default for unlisted types
+    
+    // Last purge run
+    private boolean purgeRunning;
+    private LocalDateTime lastRunAt;
+    private long lastRunRowsDeleted;
+    private long lastRunBatches;
+    private long lastRunPartitionsDropped;
+    private long lastRunDurationMs;
+    private double lastRunRowsPerSecond;
+    
+    // Since startup
+    private long totalRuns;
+    private long totalRowsDeleted;
+    private long totalPartitionsDropped;
+}
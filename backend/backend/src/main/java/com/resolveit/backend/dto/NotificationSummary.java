@@ -0,0 +1,18 @@
+package com.resolveit.backend.dto;
+
+import java.time.LocalDateTime;
+
+// Projection used by the notification inbox queries - only the grievance id and title
+// are pulled through the join, so no User or Grievance entity gets loaded per row
+public interface NotificationSummary {
+    Long getId();
+    String getType();
+    String getTitle();
+    String getMessage();
+    Long getGrievanceId();
+    String getGrievanceTitle();
+    Boolean getIsRead();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getReadAt();
+    Integer getCoalescedCount();
+}
@@ -0,0 +1,37 @@
+package com.resolveit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageGcMetricsDTO {
+    // Configuration
+    private long gracePeriodHours;
+    private int batchSize;
+    
+    // Where the walk continues (null: at the start of a new pass)
+    private String cursor;
+    private LocalDateTime currentPassStartedAt;
+    private LocalDateTime lastPassCompletedAt;
+    
+    // Last run
+    private boolean running;
+    private LocalDateTime lastRunAt;
+    private long lastRunScanned;
+    private long lastRunDeleted;
+    private long lastRunBytesFreed;
+    private long lastRunDurationMs;
+    
+    // Since startup
+    private long totalRuns;
+    private long totalPasses;
+    private long totalScanned;
+    private long totalDeleted;
+    private long totalBytesFreed;
+}
@@ -0,0 +1,23 @@
+package com.resolveit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Stored bytes of a user or department against its quota (quotaBytes null: no quota)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageUsageDTO {
+    private String ownerType;
+    private Long ownerId;
+    private long bytesUsed;
+    private long fileCount;
+    private Long quotaBytes;
+    private Long remainingBytes;
+    private LocalDateTime updatedAt;
+}
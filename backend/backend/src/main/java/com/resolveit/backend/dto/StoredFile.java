@@ -0,0 +1,24 @@
+package com.resolveit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+
+// Metadata for a file in storage; the content is read through FileStorageService
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+    private String filePath;      // relative path, e.g. "profile-pictures/abc.png"
+    private String filename;
+    private Path location;        // absolute path on local disk, null when the backend is remote
+    private long size;
+    private long lastModified;    // epoch millis
+    private MediaType contentType;
+    private String etag;          // quoted strong validator
+}
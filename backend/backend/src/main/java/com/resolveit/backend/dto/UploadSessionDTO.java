@@ -0,0 +1,23 @@
+package com.resolveit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// State of a resumable upload; the client sends the next chunk at receivedBytes
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+    private String uploadId;
+    private Long grievanceId;
+    private String fileName;
+    private Long fileSize;
+    private Long receivedBytes;
+    private Integer chunkSize;        // suggested chunk size in bytes
+    private LocalDateTime expiresAt;  // if no further chunk arrives
+}
@@ -0,0 +1,12 @@
+package com.resolveit.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class UploadSessionRequest {
+    private Long grievanceId;
+    private String fileName;
+    private Long fileSize;
+    private String contentType;
+    private String sha256; // optional, verified when the upload completes
+}
@@ -1,32 +1,77 @@
 package com.resolveit.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import java.time.LocalDateTime;
-import java.util.Map;
 
+// Frame pushed to /topic/grievance/{id}. Exactly one of remark / statusChange is set,
+// matching the type; empty fields are left out of the frame.
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class WebSocketMessage {
     private String type; // "NEW_REMARK", "STATUS_UPDATE"
     private Long grievanceId;
-    private RemarkResponseDTO remark;
     private String sender;
     private LocalDateTime timestamp;
-    private Map<String, Object> additionalData; // Add this line
+    private RemarkEvent remark;         // NEW_REMARK
+    private StatusChange statusChange;  // STATUS_UPDATE
     
     // Constructor for new remark
     public static WebSocketMessage createNewRemarkMessage(Long grievanceId, RemarkResponseDTO remark, String sender) {
         return WebSocketMessage.builder()
                 .type("NEW_REMARK")
                 .grievanceId(grievanceId)
-                .remark(remark)
+                .remark(RemarkEvent.from(remark))
                 .sender(sender)
                 .timestamp(LocalDateTime.now())
                 .build();
     }
-}
\ No newline at end of file
+    
+    // Constructor for status change
+    public static WebSocketMessage createStatusUpdateMessage(Long grievanceId, String oldStatus, String newStatus,
+                                                             String note, String sender) {
+        return WebSocketMessage.builder()
+                .type("STATUS_UPDATE")
+                .grievanceId(grievanceId)
+                .statusChange(new StatusChange(oldStatus, newStatus, note))
+                .sender(sender)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+    
+    // Remark as shown in the live thread (clients format the time themselves)
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class RemarkEvent {
+        private Long id;
+        private String message;
+        private String userName;
+        private String userType;
+        private Boolean isInternal;
+        private LocalDateTime createdAt;
+        
+        public static RemarkEvent from(RemarkResponseDTO remark) {
+            return new RemarkEvent(remark.getId(), remark.getMessage(), remark.getUserName(),
+                    remark.getUserType(), remark.getIsInternal(), remark.getCreatedAt());
+        }
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class StatusChange {
+        private String oldStatus;
+        private String newStatus;
+        private String note;
+    }
+}
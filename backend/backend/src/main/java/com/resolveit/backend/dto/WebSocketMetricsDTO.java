@@ -0,0 +1,33 @@
+package com.resolveit.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebSocketMetricsDTO {
+    // Configuration
+    private String overflowPolicy;
+    private int sendBufferSizeLimit;
+    private int sendTimeLimitMs;
+    
+    // Sessions
+    private int activeSessions;
+    private int peakSessions;
+    private long bufferedBytes;
+    private long largestSessionBufferBytes;
+    
+    // Client outbound channel
+    private int outboundQueueDepth;
+    private int outboundQueueCapacity;
+    private int outboundActiveThreads;
+    
+    // Since startup
+    private long droppedFrames;
+    private long rejectedOutboundMessages;
+    private long slowConsumerDisconnects;
+}
@@ -0,0 +1,55 @@
+package com.resolveit.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// A file attached to a grievance; the bytes live in the object store under storageKey
+@Entity
+@Table(name = "attachments", indexes = {
+    @Index(name = "idx_attachments_grievance_id", columnList = "grievance_id, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Attachment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "grievance_id", nullable = false)
+    private Grievance grievance;
+    
+    // Path under the storage root, e.g. objects/ab/cd/abcd...ef.pdf
+    @Column(name = "storage_key", nullable = false)
+    private String storageKey;
+    
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+    
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+    
+    @Column(name = "content_type")
+    private String contentType;
+    
+    // Hex SHA-256 of the content
+    @Column(nullable = false, length = 64)
+    private String checksum;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "uploaded_by", nullable = false)
+    private User uploadedBy;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -5,7 +5,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_user_id_id", columnList = "user_id, id"),
+    @Index(name = "idx_notifications_user_unread", columnList = "user_id, is_read, id"),
+    @Index(name = "idx_notifications_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,14 +40,24 @@ public class Notification {
     @Builder.Default
     private Boolean isRead = false;
     
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "read_at")
     private LocalDateTime readAt;
     
+    // Number of events merged into this row by coalescing
+    @Column(name = "coalesced_count")
+    @Builder.Default
+    private Integer coalescedCount = 1;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 }
\ No newline at end of file
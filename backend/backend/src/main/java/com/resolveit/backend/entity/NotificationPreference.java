@@ -43,6 +43,11 @@ public class NotificationPreference {
     @Builder.Default
     private Boolean feedbackReminders = true;
     
+    // Collect pushes into a periodic digest instead of one push per notification
+    @Column(name = "digest_enabled")
+    @Builder.Default
+    private Boolean digestEnabled = false;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
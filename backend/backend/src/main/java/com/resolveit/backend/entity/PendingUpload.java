@@ -0,0 +1,43 @@
+package com.resolveit.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// One reference taken by /api/files/upload that nothing links to yet. Only its uploader may
+// release it, once, through DELETE /api/files/...; identical uploads each get their own row.
+@Entity
+@Table(name = "pending_uploads", indexes = {
+    @Index(name = "idx_pending_uploads_key_uploader", columnList = "storage_key, uploader_user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingUpload {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "storage_key", nullable = false)
+    private String storageKey;
+    
+    // stored_objects row the reference was taken on; null for legacy (per-folder UUID) paths.
+    // A row re-created for the same content after a delete has a new id, so old tickets don't match it.
+    @Column(name = "stored_object_id")
+    private Long storedObjectId;
+    
+    // userId string of the uploader (e.g. "STU001")
+    @Column(name = "uploader_user_id", nullable = false)
+    private String uploaderUserId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.resolveit.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Running total of stored bytes for one user or department (quota checks read this row)
+@Entity
+@Table(name = "storage_usage", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_storage_usage_owner", columnNames = {"owner_type", "owner_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageUsage {
+    
+    public enum OwnerType { USER, DEPARTMENT }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "owner_type", nullable = false, length = 20)
+    private OwnerType ownerType;
+    
+    // users.id or the department id
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+    
+    // Bytes of every file the owner references; shared (deduplicated) content counts for each owner
+    @Column(name = "bytes_used", nullable = false)
+    @Builder.Default
+    private Long bytesUsed = 0L;
+    
+    @Column(name = "file_count", nullable = false)
+    @Builder.Default
+    private Long fileCount = 0L;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
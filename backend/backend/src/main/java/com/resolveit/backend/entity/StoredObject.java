@@ -0,0 +1,51 @@
+package com.resolveit.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// One content-addressed file on disk, shared by every upload with the same bytes
+@Entity
+@Table(name = "stored_objects", indexes = {
+    @Index(name = "idx_stored_objects_sha256", columnList = "sha256", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredObject {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 64)
+    private String sha256;
+    
+    // Path under the storage root, e.g. objects/ab/cd/abcd...ef.png
+    @Column(name = "storage_key", nullable = false, unique = true)
+    private String storageKey;
+    
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+    
+    @Column(name = "content_type")
+    private String contentType;
+    
+    // Number of uploads currently pointing at this object
+    @Column(name = "reference_count", nullable = false)
+    @Builder.Default
+    private Integer referenceCount = 1;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
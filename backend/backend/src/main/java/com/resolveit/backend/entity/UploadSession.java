@@ -0,0 +1,63 @@
+package com.resolveit.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// A resumable upload in progress; the bytes received so far are in uploads/tmp/<id>.chunked
+@Entity
+@Table(name = "upload_sessions", indexes = {
+    @Index(name = "idx_upload_sessions_updated_at", columnList = "updated_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+    // Random UUID, also the name of the working file
+    @Id
+    @Column(length = 36)
+    private String id;
+    
+    @Column(name = "grievance_id", nullable = false)
+    private Long grievanceId;
+    
+    // userId string of the uploader (e.g. "STU001"); only they may send chunks
+    @Column(name = "owner_user_id", nullable = false)
+    private String ownerUserId;
+    
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+    
+    @Column(name = "content_type")
+    private String contentType;
+    
+    @Column(name = "total_size", nullable = false)
+    private Long totalSize;
+    
+    // Length of the contiguous prefix written so far; the next chunk must start here
+    @Column(name = "received_bytes", nullable = false)
+    @Builder.Default
+    private Long receivedBytes = 0L;
+    
+    // Optional hex SHA-256 announced by the client, checked on completion
+    @Column(name = "expected_sha256", length = 64)
+    private String expectedSha256;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Last chunk received; idle sessions are cleaned up from this
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (updatedAt == null) {
+            updatedAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.resolveit.backend.repository;
+
+import com.resolveit.backend.entity.Attachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+    
+    // All attachments of a grievance with their uploaders in a single query
+    @Query("SELECT a FROM Attachment a JOIN FETCH a.uploadedBy " +
+           "WHERE a.grievance.id = :grievanceId ORDER BY a.id")
+    List<Attachment> findByGrievanceIdWithUploader(@Param("grievanceId") Long grievanceId);
+    
+    long countByGrievance_Id(Long grievanceId);
+    
+    // Attachment counts for a page of grievances; each row is [grievanceId, count].
+    // Grievances without attachments are not returned.
+    @Query("SELECT a.grievance.id, COUNT(a) FROM Attachment a " +
+           "WHERE a.grievance.id IN :grievanceIds GROUP BY a.grievance.id")
+    List<Object[]> countByGrievanceIds(@Param("grievanceIds") Collection<Long> grievanceIds);
+    
+    // The keys of a batch that at least one attachment points at (storage garbage collection)
+    @Query("SELECT DISTINCT a.storageKey FROM Attachment a WHERE a.storageKey IN :keys")
+    List<String> findReferencedStorageKeys(@Param("keys") Collection<String> keys);
+}
@@ -1,6 +1,8 @@
 package com.resolveit.backend.repository;
 
+import com.resolveit.backend.dto.NotificationSummary;
 import com.resolveit.backend.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +11,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -22,9 +25,70 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // Count unread notifications for user
     Long countByUser_UserIdAndIsReadFalse(String userId);
     
+    // Most recent unread notification of a type about a grievance, used for coalescing
+    Optional<Notification> findFirstByUser_IdAndGrievance_IdAndTypeAndIsReadFalseAndCreatedAtAfterOrderByIdDesc(
+        Long userId, Long grievanceId, String type, LocalDateTime createdAfter);
+    
     // Find notifications by type
     List<Notification> findByUser_UserIdAndTypeOrderByCreatedAtDesc(String userId, String type);
     
+    // ==================== INBOX (CURSOR PAGINATION) ====================
+    
+    // Keyset pages ordered by id (ids are assigned in creation order). Pass Long.MAX_VALUE as the
+    // cursor for the first page and the last id seen for the next one; the Pageable only sets the limit.
+    @Query("SELECT n.id AS id, n.type AS type, n.title AS title, n.message AS message, " +
+           "g.id AS grievanceId, g.title AS grievanceTitle, n.isRead AS isRead, " +
+           "n.createdAt AS createdAt, n.readAt AS readAt, n.coalescedCount AS coalescedCount " +
+           "FROM Notification n LEFT JOIN n.grievance g " +
+           "WHERE n.user.userId = :userId AND n.id < :cursor " +
+           "ORDER BY n.id DESC")
+    List<NotificationSummary> findInboxPage(@Param("userId") String userId,
+                                            @Param("cursor") Long cursor,
+                                            Pageable pageable);
+    
+    @Query("SELECT n.id AS id, n.type AS type, n.title AS title, n.message AS message, " +
+           "g.id AS grievanceId, g.title AS grievanceTitle, n.isRead AS isRead, " +
+           "n.createdAt AS createdAt, n.readAt AS readAt, n.coalescedCount AS coalescedCount " +
+           "FROM Notification n LEFT JOIN n.grievance g " +
+           "WHERE n.user.userId = :userId AND n.type = :type AND n.id < :cursor " +
+           "ORDER BY n.id DESC")
+    List<NotificationSummary> findInboxPageByType(@Param("userId") String userId,
+                                                  @Param("type") String type,
+                                                  @Param("cursor") Long cursor,
+                                                  Pageable pageable);
+    
+    @Query("SELECT n.id AS id, n.type AS type, n.title AS title, n.message AS message, " +
+           "g.id AS grievanceId, g.title AS grievanceTitle, n.isRead AS isRead, " +
+           "n.createdAt AS createdAt, n.readAt AS readAt, n.coalescedCount AS coalescedCount " +
+           "FROM Notification n LEFT JOIN n.grievance g " +
+           "WHERE n.user.userId = :userId AND n.isRead = false AND n.id < :cursor " +
+           "ORDER BY n.id DESC")
+    List<NotificationSummary> findUnreadPage(@Param("userId") String userId,
+                                             @Param("cursor") Long cursor,
+                                             Pageable pageable);
+    
+    @Query("SELECT n.id AS id, n.type AS type, n.title AS title, n.message AS message, " +
+           "g.id AS grievanceId, g.title AS grievanceTitle, n.isRead AS isRead, " +
+           "n.createdAt AS createdAt, n.readAt AS readAt, n.coalescedCount AS coalescedCount " +
+           "FROM Notification n LEFT JOIN n.grievance g " +
+           "WHERE n.user.userId = :userId AND n.type = :type AND n.isRead = false AND n.id < :cursor " +
+           "ORDER BY n.id DESC")
+    List<NotificationSummary> findUnreadPageByType(@Param("userId") String userId,
+                                                   @Param("type") String type,
+                                                   @Param("cursor") Long cursor,
+                                                   Pageable pageable);
+    
+    // Notifications created after a known id, oldest first (stream resume via Last-Event-ID)
+    @Query("SELECT n.id AS id, n.type AS type, n.title AS title, n.message AS message, " +
+           "g.id AS grievanceId, g.title AS grievanceTitle, n.isRead AS isRead, " +
+           "n.createdAt AS createdAt, n.readAt AS readAt, n.coalescedCount AS coalescedCount " +
+           "FROM Notification n LEFT JOIN n.grievance g " +
+           "WHERE n.user.userId = :userId AND n.id > :afterId " +
+           "ORDER BY n.id ASC")
+    List<NotificationSummary> findCreatedAfter(@Param("userId") String userId,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+    
     // Find notifications by grievance
     List<Notification> findByGrievanceIdOrderByCreatedAtDesc(Long grievanceId);
     
@@ -36,9 +100,9 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     // Mark all notifications as read for user by userId
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt WHERE n.user.userId = :userId AND n.isRead = false")
-    void markAllAsRead(@Param("userId") String userId, @Param("readAt") LocalDateTime readAt);
+    int markAllAsRead(@Param("userId") String userId, @Param("readAt") LocalDateTime readAt);
     
-    // Delete old notifications
+    // Delete old notifications (single statement - NotificationRetentionService purges in batches instead)
     @Modifying
     @Query("DELETE FROM Notification n WHERE n.createdAt < :cutoffDate")
     void deleteOldNotifications(@Param("cutoffDate") LocalDateTime cutoffDate);
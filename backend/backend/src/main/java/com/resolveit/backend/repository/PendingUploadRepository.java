@@ -0,0 +1,29 @@
+package com.resolveit.backend.repository;
+
+import com.resolveit.backend.entity.PendingUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface PendingUploadRepository extends JpaRepository<PendingUpload, Long> {
+    
+    Optional<PendingUpload> findFirstByStorageKeyAndUploaderUserIdOrderByIdAsc(String storageKey, String uploaderUserId);
+    
+    // Claims a ticket: only the caller whose statement removes the row may drop its reference
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PendingUpload p WHERE p.id = :id")
+    int deleteTicket(@Param("id") Long id);
+    
+    // When a file is removed, every ticket on it goes with it
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PendingUpload p WHERE p.storageKey = :storageKey")
+    int deleteByStorageKey(@Param("storageKey") String storageKey);
+}
@@ -0,0 +1,32 @@
+package com.resolveit.backend.repository;
+
+import com.resolveit.backend.entity.StorageUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface StorageUsageRepository extends JpaRepository<StorageUsage, Long> {
+    
+    Optional<StorageUsage> findByOwnerTypeAndOwnerId(StorageUsage.OwnerType ownerType, Long ownerId);
+    
+    // Applied as a single statement so concurrent uploads don't lose updates. Never goes below
+    // zero: files stored before the counters existed are not included in them.
+    @Modifying
+    @Transactional
+    @Query("UPDATE StorageUsage s SET " +
+           "s.bytesUsed = CASE WHEN s.bytesUsed + :bytes < 0 THEN 0 ELSE s.bytesUsed + :bytes END, " +
+           "s.fileCount = CASE WHEN s.fileCount + :files < 0 THEN 0 ELSE s.fileCount + :files END, " +
+           "s.updatedAt = :now WHERE s.ownerType = :ownerType AND s.ownerId = :ownerId")
+    int addUsage(@Param("ownerType") StorageUsage.OwnerType ownerType,
+                 @Param("ownerId") Long ownerId,
+                 @Param("bytes") long bytes,
+                 @Param("files") long files,
+                 @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,54 @@
+package com.resolveit.backend.repository;
+
+import com.resolveit.backend.entity.StoredObject;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface StoredObjectRepository extends JpaRepository<StoredObject, Long> {
+    
+    Optional<StoredObject> findBySha256(String sha256);
+    
+    Optional<StoredObject> findByStorageKey(String storageKey);
+    
+    // Held while the object's file is deleted, so a new reference waits and then re-creates it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StoredObject o WHERE o.storageKey = :storageKey")
+    Optional<StoredObject> findAndLockByStorageKey(@Param("storageKey") String storageKey);
+    
+    // Reference counts are changed in single statements so concurrent uploads don't lose updates
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredObject o SET o.referenceCount = o.referenceCount + 1, o.updatedAt = :now " +
+           "WHERE o.sha256 = :sha256")
+    int incrementReferences(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredObject o SET o.referenceCount = o.referenceCount - 1, o.updatedAt = :now " +
+           "WHERE o.storageKey = :storageKey AND o.referenceCount > 0")
+    int decrementReferences(@Param("storageKey") String storageKey, @Param("now") LocalDateTime now);
+    
+    // Remove the row only if nothing took a new reference in the meantime
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoredObject o WHERE o.storageKey = :storageKey AND o.referenceCount <= 0")
+    int deleteIfUnreferenced(@Param("storageKey") String storageKey);
+    
+    // Garbage collection: remove the row whatever its count, unless it was touched after the
+    // cutoff (any new reference bumps updated_at)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoredObject o WHERE o.storageKey = :storageKey " +
+           "AND COALESCE(o.updatedAt, o.createdAt) < :cutoff")
+    int deleteIfIdleSince(@Param("storageKey") String storageKey, @Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,15 @@
+package com.resolveit.backend.repository;
+
+import com.resolveit.backend.entity.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    
+    // Sessions nobody has sent a chunk to since the cutoff
+    List<UploadSession> findByUpdatedAtBefore(LocalDateTime cutoff);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,6 +44,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.departmentId = :departmentId AND u.role = :role AND u.isActive = true")
     List<User> findActiveUsersByDepartmentAndRole(@Param("departmentId") Integer departmentId, @Param("role") String role);
     
+    // Profile picture references (storage garbage collection)
+    @Query("SELECT DISTINCT u.profilePictureUrl FROM User u WHERE u.profilePictureUrl IN :keys")
+    List<String> findReferencedProfilePictures(@Param("keys") Collection<String> keys);
+    
     // Search users (for admin to find staff)
     @Query("SELECT u FROM User u WHERE " +
            "(:searchTerm IS NULL OR " +
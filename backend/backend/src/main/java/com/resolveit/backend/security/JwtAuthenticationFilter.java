@@ -1,5 +1,6 @@
 package com.resolveit.backend.security;
 
+import com.resolveit.backend.config.MetricsConfig;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -55,6 +56,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 );
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authToken);
+            MetricsConfig.recordRole(request, userDetails.getAuthorities());
         }
         
         filterChain.doFilter(request, response);
@@ -0,0 +1,144 @@
+package com.resolveit.backend.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived signed URLs for /api/files, the only way to read stored files. They are
+ * handed out with the profile or attachment they belong to, so only users allowed to see
+ * it get one, and browsers can load images and downloads without the bearer token.
+ *
+ * The signature is an HMAC-SHA256 over path, expiry and scope, checked without any
+ * database access. Expiries are rounded up to the next TTL window, so the same file gets
+ * the same URL for a while and the browser cache keeps working across page loads; a URL
+ * is valid for between one and two TTLs.
+ *
+ * The key is file.url.signing-secret when set. Otherwise it is derived from the JWT secret
+ * as HMAC-SHA256(jwt.secret, "file-url"), so a URL signature is never made with the key
+ * that signs tokens.
+ */
+@Component
+public class SignedUrlService {
+    
+    public static final String FILES_PREFIX = "/api/files/";
+    
+    // What a URL may be used for; DOWNLOAD also asks the browser to save the file
+    public enum Scope {
+        VIEW("view"), DOWNLOAD("download");
+        
+        private final String value;
+        
+        Scope(String value) {
+            this.value = value;
+        }
+        
+        public static Scope fromValue(String value) {
+            for (Scope scope : values()) {
+                if (scope.value.equals(value)) {
+                    return scope;
+                }
+            }
+            return null;
+        }
+    }
+    
+    // Paths are signed as UTF-8 and decoded as such, whatever the request's character encoding
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+    
+    static {
+        PATH_HELPER.setUrlDecode(false);
+    }
+    
+    private final ThreadLocal<Mac> macs;
+    
+    @Value("${file.url.ttl-seconds:3600}")
+    private long ttlSeconds;
+    
+    public SignedUrlService(@Value("${file.url.signing-secret:}") String signingSecret,
+                            @Value("${jwt.secret}") String jwtSecret) {
+        SecretKeySpec key = signingSecret.isBlank()
+            ? new SecretKeySpec(deriveKey(jwtSecret), "HmacSHA256")
+            : new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 unavailable", e);
+            }
+        });
+    }
+    
+    // Relative URL ("/api/files/...?exp=..&scope=..&sig=..") for a stored file, or null for no file
+    public String sign(String filePath, Scope scope) {
+        if (filePath == null || filePath.isBlank()) {
+            return null;
+        }
+        String path = filePath.startsWith("/") ? filePath.substring(1) : filePath;
+        long expires = (System.currentTimeMillis() / 1000 / ttlSeconds + 2) * ttlSeconds;
+        String encodedPath = Arrays.stream(path.split("/"))
+            .map(segment -> UriUtils.encodePathSegment(segment, StandardCharsets.UTF_8))
+            .collect(Collectors.joining("/"));
+        return FILES_PREFIX + encodedPath + "?exp=" + expires + "&scope=" + scope.value +
+            "&sig=" + signature(path, expires, scope);
+    }
+    
+    // True if the request carries a valid, unexpired signature for its own path
+    public boolean verify(HttpServletRequest request) {
+        String sig = request.getParameter("sig");
+        String exp = request.getParameter("exp");
+        Scope scope = Scope.fromValue(request.getParameter("scope"));
+        String requestPath = UriUtils.decode(PATH_HELPER.getPathWithinApplication(request), StandardCharsets.UTF_8);
+        if (sig == null || exp == null || scope == null || !requestPath.startsWith(FILES_PREFIX)) {
+            return false;
+        }
+        
+        long expires;
+        try {
+            expires = Long.parseLong(exp);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (expires < System.currentTimeMillis() / 1000) {
+            return false;
+        }
+        
+        String expected = signature(requestPath.substring(FILES_PREFIX.length()), expires, scope);
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), sig.getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    // Scope of a signed request (VIEW when unsigned)
+    public Scope scopeOf(HttpServletRequest request) {
+        Scope scope = Scope.fromValue(request.getParameter("scope"));
+        return scope != null ? scope : Scope.VIEW;
+    }
+    
+    private static byte[] deriveKey(String jwtSecret) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal("file-url".getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+    
+    private String signature(String path, long expires, Scope scope) {
+        Mac mac = macs.get();
+        byte[] digest = mac.doFinal((path + "\n" + expires + "\n" + scope.value).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+}
@@ -0,0 +1,291 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.dto.AttachmentDTO;
+import com.resolveit.backend.entity.Attachment;
+import com.resolveit.backend.entity.Grievance;
+import com.resolveit.backend.entity.StoredObject;
+import com.resolveit.backend.entity.User;
+import com.resolveit.backend.repository.AttachmentRepository;
+import com.resolveit.backend.repository.GrievanceRepository;
+import com.resolveit.backend.repository.UserRepository;
+import com.resolveit.backend.security.SignedUrlService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Files attached to grievances.
+ *
+ * Uploads are parsed as a stream: each file part goes straight into the object store
+ * (hashed on the way) without being buffered or spooled by the multipart resolver first.
+ * If any file in a request fails, the files already stored by that request are released
+ * again, so a request attaches all of its files or none.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentService {
+    
+    private final AttachmentRepository attachmentRepository;
+    private final GrievanceRepository grievanceRepository;
+    private final UserRepository userRepository;
+    private final FileStorageService fileStorageService;
+    private final SignedUrlService signedUrlService;
+    private final StorageUsageService storageUsageService;
+    
+    @Value("${attachment.max-file-size-bytes:52428800}")
+    private long maxFileSize;
+    
+    @Value("${attachment.max-files-per-request:10}")
+    private long maxFilesPerRequest;
+    
+    // ==================== UPLOAD ====================
+    
+    public List<AttachmentDTO> uploadAttachments(Long grievanceId, HttpServletRequest request, String userId) {
+        User user = findUser(userId);
+        Grievance grievance = findAccessibleGrievance(grievanceId, user);
+        
+        if (!JakartaServletFileUpload.isMultipartContent(request)) {
+            throw new RuntimeException("Attachments must be sent as multipart/form-data");
+        }
+        // The body length is an upper bound for the files in it
+        storageUsageService.checkQuota(user.getId(), grievance.getDepartmentId(), Math.max(0, request.getContentLengthLong()));
+        
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+        upload.setFileSizeMax(maxFileSize);
+        upload.setFileCountMax(maxFilesPerRequest);
+        
+        List<Attachment> saved = new ArrayList<>();
+        try {
+            FileItemInputIterator items = upload.getItemIterator(request);
+            while (items.hasNext()) {
+                FileItemInput item = items.next();
+                if (item.isFormField() || item.getName() == null || item.getName().isBlank()) {
+                    continue;
+                }
+                saved.add(storeAttachment(grievance, user, item));
+            }
+        } catch (IOException | RuntimeException e) {
+            release(saved);
+            throw new RuntimeException("Failed to upload attachments: " + e.getMessage(), e);
+        }
+        
+        if (saved.isEmpty()) {
+            throw new RuntimeException("No files in upload request");
+        }
+        
+        if (!Boolean.TRUE.equals(grievance.getHasAttachments())) {
+            grievance.setHasAttachments(true);
+            grievanceRepository.save(grievance);
+        }
+        
+        log.info("Attached {} file(s) to grievance {}", saved.size(), grievanceId);
+        return saved.stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList());
+    }
+    
+    private Attachment storeAttachment(Grievance grievance, User user, FileItemInput item) throws IOException {
+        String fileName = stripPath(item.getName());
+        StoredObject object;
+        try (InputStream inputStream = item.getInputStream()) {
+            object = fileStorageService.storeObject(inputStream, fileName, item.getContentType());
+        }
+        return saveAttachment(grievance, user, object, fileName, item.getContentType());
+    }
+    
+    // Attach an object that is already in the store (e.g. a finished resumable upload).
+    // The caller's reference to the object is released if attaching fails.
+    public AttachmentDTO attachStoredObject(Long grievanceId, String userId, StoredObject object,
+                                            String fileName, String contentType) {
+        Grievance grievance;
+        User user;
+        try {
+            user = findUser(userId);
+            grievance = findAccessibleGrievance(grievanceId, user);
+        } catch (RuntimeException e) {
+            fileStorageService.deleteFile(object.getStorageKey());
+            throw e;
+        }
+        
+        Attachment attachment = saveAttachment(grievance, user, object, stripPath(fileName), contentType);
+        if (!Boolean.TRUE.equals(grievance.getHasAttachments())) {
+            grievance.setHasAttachments(true);
+            grievanceRepository.save(grievance);
+        }
+        return convertToDTO(attachment);
+    }
+    
+    private Attachment saveAttachment(Grievance grievance, User user, StoredObject object,
+                                      String fileName, String contentType) {
+        try {
+            if (object.getSizeBytes() == 0) {
+                throw new RuntimeException("Failed to store empty file: " + fileName);
+            }
+            Attachment attachment = attachmentRepository.save(Attachment.builder()
+                .grievance(grievance)
+                .storageKey(object.getStorageKey())
+                .fileName(fileName)
+                .sizeBytes(object.getSizeBytes())
+                .contentType(contentType)
+                .checksum(object.getSha256())
+                .uploadedBy(user)
+                .build());
+            storageUsageService.recordAdded(user.getId(), grievance.getDepartmentId(), object.getSizeBytes());
+            return attachment;
+        } catch (RuntimeException e) {
+            fileStorageService.deleteFile(object.getStorageKey());
+            throw e;
+        }
+    }
+    
+    // Undo a partially processed request
+    private void release(List<Attachment> attachments) {
+        for (Attachment attachment : attachments) {
+            try {
+                attachmentRepository.delete(attachment);
+                storageUsageService.recordRemoved(attachment.getUploadedBy().getId(),
+                    attachment.getGrievance().getDepartmentId(), attachment.getSizeBytes());
+                fileStorageService.deleteFile(attachment.getStorageKey());
+            } catch (RuntimeException e) {
+                log.warn("Could not release attachment {}: {}", attachment.getStorageKey(), e.getMessage());
+            }
+        }
+    }
+    
+    // ==================== QUERIES ====================
+    
+    // Attachment metadata for a detail page, loaded with one query
+    public List<AttachmentDTO> getAttachments(Long grievanceId, String userId) {
+        findAccessibleGrievance(grievanceId, findUser(userId));
+        
+        return attachmentRepository.findByGrievanceIdWithUploader(grievanceId).stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList());
+    }
+    
+    // Attachment counts for many grievances at once; grievances without attachments map to 0
+    public Map<Long, Long> getAttachmentCounts(Collection<Long> grievanceIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (grievanceIds.isEmpty()) {
+            return counts;
+        }
+        for (Long grievanceId : grievanceIds) {
+            counts.put(grievanceId, 0L);
+        }
+        for (Object[] row : attachmentRepository.countByGrievanceIds(grievanceIds)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+    
+    // Fails unless the user may attach a file of the given size to the grievance
+    public void checkAccess(Long grievanceId, String userId, long fileSize) {
+        User user = findUser(userId);
+        Grievance grievance = findAccessibleGrievance(grievanceId, user);
+        storageUsageService.checkQuota(user.getId(), grievance.getDepartmentId(), fileSize);
+    }
+    
+    // ==================== DELETE ====================
+    
+    // Students may remove their own uploads; staff and admins any attachment on a grievance they can reach
+    public void deleteAttachment(Long grievanceId, Long attachmentId, String userId) {
+        User user = findUser(userId);
+        Grievance grievance = findAccessibleGrievance(grievanceId, user);
+        
+        Attachment attachment = attachmentRepository.findById(attachmentId)
+            .filter(a -> a.getGrievance().getId().equals(grievanceId))
+            .orElseThrow(() -> new RuntimeException("Attachment not found with ID: " + attachmentId));
+        
+        if (isStudent(user) && !attachment.getUploadedBy().getId().equals(user.getId())) {
+            throw new RuntimeException("Unauthorized access to attachment");
+        }
+        
+        attachmentRepository.delete(attachment);
+        storageUsageService.recordRemoved(attachment.getUploadedBy().getId(), grievance.getDepartmentId(),
+            attachment.getSizeBytes());
+        fileStorageService.deleteFile(attachment.getStorageKey());
+        
+        if (attachmentRepository.countByGrievance_Id(grievanceId) == 0) {
+            grievance.setHasAttachments(false);
+            grievanceRepository.save(grievance);
+        }
+    }
+    
+    // ==================== HELPERS ====================
+    
+    private User findUser(String userId) {
+        return userRepository.findByUserId(userId)
+            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+    }
+    
+    private Grievance findAccessibleGrievance(Long grievanceId, User user) {
+        Grievance grievance = grievanceRepository.findById(grievanceId)
+            .orElseThrow(() -> new RuntimeException("Grievance not found with ID: " + grievanceId));
+        
+        if (!canAccess(grievance, user)) {
+            throw new RuntimeException("Unauthorized access to grievance");
+        }
+        return grievance;
+    }
+    
+    // Same rules as the dashboards: students reach their own grievances, staff those assigned
+    // to them, admins those of their department and super admins all of them
+    static boolean canAccess(Grievance grievance, User user) {
+        String role = user.getRole() == null ? "" : user.getRole().toLowerCase(Locale.ROOT);
+        return switch (role) {
+            case "student" -> user.getId().equals(grievance.getStudentId());
+            case "staff" -> user.getId().equals(grievance.getAssignedTo());
+            case "admin", "department_admin" -> user.getDepartmentId() != null
+                && grievance.getDepartmentId() != null
+                && grievance.getDepartmentId() == user.getDepartmentId().longValue();
+            case "super_admin" -> true;
+            default -> false;
+        };
+    }
+    
+    private boolean isStudent(User user) {
+        return "student".equalsIgnoreCase(user.getRole());
+    }
+    
+    // Some browsers send the full client path as the file name
+    private String stripPath(String fileName) {
+        String name = fileName.substring(Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1);
+        return name.isBlank() ? "file" : name;
+    }
+    
+    private AttachmentDTO convertToDTO(Attachment attachment) {
+        User uploader = attachment.getUploadedBy();
+        return AttachmentDTO.builder()
+            .id(attachment.getId())
+            .grievanceId(attachment.getGrievance().getId())
+            .fileName(attachment.getFileName())
+            .filePath(attachment.getStorageKey())
+            .url(signedUrlService.sign(attachment.getStorageKey(), SignedUrlService.Scope.VIEW))
+            .downloadUrl(signedUrlService.sign(attachment.getStorageKey(), SignedUrlService.Scope.DOWNLOAD))
+            .fileSize(attachment.getSizeBytes())
+            .contentType(attachment.getContentType())
+            .checksum(attachment.getChecksum())
+            .uploadedById(uploader.getId())
+            .uploadedByName(uploader.getFirstName() + " " + uploader.getLastName())
+            .createdAt(attachment.getCreatedAt())
+            .build();
+    }
+}
@@ -0,0 +1,370 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.dto.AttachmentDTO;
+import com.resolveit.backend.dto.UploadSessionDTO;
+import com.resolveit.backend.dto.UploadSessionRequest;
+import com.resolveit.backend.entity.StoredObject;
+import com.resolveit.backend.entity.UploadSession;
+import com.resolveit.backend.repository.UploadSessionRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resumable uploads of large grievance attachments: create a session, PUT chunks at
+ * byte offsets, then complete it.
+ *
+ * Chunks are copied from the request body straight into one working file with positional
+ * FileChannel writes through a small fixed buffer, so memory stays bounded whatever the
+ * file size and the bytes are written to disk once. A chunk must start at the current
+ * received offset; if a connection drops mid-chunk, whatever arrived is kept and the client
+ * resumes from the offset reported by GET. The SHA-256 is updated as chunks arrive; after
+ * a restart the existing prefix is hashed once before continuing.
+ *
+ * The working file is in this node's temp directory and chunks of one upload are serialised
+ * by an in-process lock, so with several nodes every request of an upload must reach the node
+ * that created it (sticky sessions). A chunk or completion that lands on a node without the
+ * data is refused with the session state (409) rather than failing as a server error.
+ *
+ * Completing moves the working file into the object store and attaches it to the grievance.
+ * Sessions without a chunk for upload.chunked.expiry-hours are deleted with their data.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChunkedUploadService {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final UploadSessionRepository uploadSessionRepository;
+    private final FileStorageService fileStorageService;
+    private final AttachmentService attachmentService;
+    
+    // Running hash per session; also the lock that serialises chunks of one upload
+    private final Map<String, UploadProgress> progress = new ConcurrentHashMap<>();
+    
+    @Value("${upload.chunked.max-file-size-bytes:2147483648}")
+    private long maxFileSize;
+    
+    @Value("${upload.chunked.chunk-size-bytes:8388608}")
+    private int chunkSize;
+    
+    @Value("${upload.chunked.expiry-hours:24}")
+    private long expiryHours;
+    
+    // ==================== SESSION ====================
+    
+    public UploadSessionDTO createSession(UploadSessionRequest request, String userId) {
+        if (request.getGrievanceId() == null) {
+            throw new RuntimeException("grievanceId is required");
+        }
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            throw new RuntimeException("fileName is required");
+        }
+        if (request.getFileSize() == null || request.getFileSize() <= 0) {
+            throw new RuntimeException("fileSize must be positive");
+        }
+        if (request.getFileSize() > maxFileSize) {
+            throw new RuntimeException("File exceeds the maximum size of " + maxFileSize + " bytes");
+        }
+        if (request.getSha256() != null && !request.getSha256().matches("[0-9a-fA-F]{64}")) {
+            throw new RuntimeException("sha256 must be 64 hex characters");
+        }
+        attachmentService.checkAccess(request.getGrievanceId(), userId, request.getFileSize());
+        
+        UploadSession session = UploadSession.builder()
+            .id(UUID.randomUUID().toString())
+            .grievanceId(request.getGrievanceId())
+            .ownerUserId(userId)
+            .fileName(request.getFileName())
+            .contentType(request.getContentType())
+            .totalSize(request.getFileSize())
+            .expectedSha256(request.getSha256() != null ? request.getSha256().toLowerCase() : null)
+            .build();
+        try {
+            Files.createFile(fileStorageService.uploadWorkFile(session.getId()));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not start upload", e);
+        }
+        return convertToDTO(uploadSessionRepository.save(session));
+    }
+    
+    public UploadSessionDTO getSession(String uploadId, String userId) {
+        return convertToDTO(findOwnedSession(uploadId, userId));
+    }
+    
+    // ==================== CHUNKS ====================
+    
+    // Write a chunk that starts at offset; contentLength is -1 if the client didn't send one
+    public UploadSessionDTO writeChunk(String uploadId, long offset, long contentLength,
+                                       InputStream body, String userId) {
+        findOwnedSession(uploadId, userId);
+        UploadProgress state = progress.computeIfAbsent(uploadId, id -> new UploadProgress());
+        
+        state.lock.lock();
+        try {
+            UploadSession session = findSession(uploadId);
+            if (offset != session.getReceivedBytes()) {
+                throw new UploadOffsetMismatchException(convertToDTO(session));
+            }
+            long remaining = session.getTotalSize() - offset;
+            if (contentLength > remaining) {
+                throw new RuntimeException("Chunk of " + contentLength + " bytes exceeds the " +
+                    remaining + " bytes left in the upload");
+            }
+            
+            long position = offset;
+            try (FileChannel channel = FileChannel.open(workFile(uploadId),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ensureHashed(state, channel, offset);
+                byte[] chunk = new byte[BUFFER_SIZE];
+                ByteBuffer buffer = ByteBuffer.wrap(chunk);
+                try {
+                    int read;
+                    while (position < session.getTotalSize() &&
+                           (read = body.read(chunk, 0, (int) Math.min(chunk.length, session.getTotalSize() - position))) > 0) {
+                        buffer.clear().limit(read);
+                        while (buffer.hasRemaining()) {
+                            position += channel.write(buffer, position);
+                        }
+                        state.digest.update(chunk, 0, read);
+                        state.hashedBytes += read;
+                    }
+                    if (position == session.getTotalSize() && body.read() != -1) {
+                        throw new RuntimeException("Chunk extends past the declared file size");
+                    }
+                } finally {
+                    // Keep whatever arrived, even from an interrupted request, so the client can resume after it
+                    if (position > offset) {
+                        channel.force(false);
+                        session.setReceivedBytes(position);
+                        session.setUpdatedAt(LocalDateTime.now());
+                        uploadSessionRepository.save(session);
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                throw new UploadDataMissingException(convertToDTO(session));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write chunk: " + e.getMessage(), e);
+            }
+            return convertToDTO(session);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    // ==================== COMPLETE / ABORT ====================
+    
+    public AttachmentDTO completeUpload(String uploadId, String userId) {
+        findOwnedSession(uploadId, userId);
+        UploadProgress state = progress.computeIfAbsent(uploadId, id -> new UploadProgress());
+        
+        StoredObject object;
+        UploadSession session;
+        state.lock.lock();
+        try {
+            session = findSession(uploadId);
+            if (session.getReceivedBytes() < session.getTotalSize()) {
+                throw new RuntimeException("Upload incomplete: received " + session.getReceivedBytes() +
+                    " of " + session.getTotalSize() + " bytes");
+            }
+            
+            Path file = workFile(uploadId);
+            try {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    ensureHashed(state, channel, session.getTotalSize());
+                    channel.truncate(session.getTotalSize());
+                }
+                String sha256 = HexFormat.of().formatHex(state.digest.digest());
+                state.digest = null;
+                
+                if (session.getExpectedSha256() != null && !session.getExpectedSha256().equals(sha256)) {
+                    discard(session);
+                    throw new RuntimeException("Checksum mismatch: expected " + session.getExpectedSha256() +
+                        " but received " + sha256);
+                }
+                
+                object = fileStorageService.commitObject(file, sha256, session.getTotalSize(),
+                    fileStorageService.extensionOf(session.getFileName()), session.getContentType());
+                discard(session);
+            } catch (NoSuchFileException e) {
+                throw new UploadDataMissingException(convertToDTO(session));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to complete upload: " + e.getMessage(), e);
+            }
+        } finally {
+            state.lock.unlock();
+        }
+        
+        log.info("Completed resumable upload {} ({} bytes) for grievance {}",
+            uploadId, session.getTotalSize(), session.getGrievanceId());
+        return attachmentService.attachStoredObject(session.getGrievanceId(), session.getOwnerUserId(),
+            object, session.getFileName(), session.getContentType());
+    }
+    
+    public void abortUpload(String uploadId, String userId) {
+        findOwnedSession(uploadId, userId);
+        UploadProgress state = progress.computeIfAbsent(uploadId, id -> new UploadProgress());
+        state.lock.lock();
+        try {
+            uploadSessionRepository.findById(uploadId).ifPresent(this::discard);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+    
+    // Drop sessions nobody has sent a chunk to within the expiry window
+    @Scheduled(fixedDelayString = "${upload.chunked.cleanup-interval-ms:3600000}")
+    public void cleanupAbandonedUploads() {
+        List<UploadSession> abandoned = uploadSessionRepository.findByUpdatedAtBefore(
+            LocalDateTime.now().minusHours(expiryHours));
+        
+        int removed = 0;
+        for (UploadSession candidate : abandoned) {
+            UploadProgress state = progress.computeIfAbsent(candidate.getId(), id -> new UploadProgress());
+            state.lock.lock();
+            try {
+                // Re-check under the lock: a chunk may have arrived since the query
+                UploadSession session = uploadSessionRepository.findById(candidate.getId()).orElse(null);
+                if (session != null && session.getUpdatedAt().isBefore(LocalDateTime.now().minusHours(expiryHours))) {
+                    discard(session);
+                    removed++;
+                } else if (session == null) {
+                    progress.remove(candidate.getId());
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} abandoned upload session(s)", removed);
+        }
+    }
+    
+    // ==================== HELPERS ====================
+    
+    // Bring the running hash up to the given length of the working file. Normally it already is;
+    // after a restart or a failed write the prefix on disk is hashed once.
+    private void ensureHashed(UploadProgress state, FileChannel channel, long length) throws IOException {
+        if (state.digest != null && state.hashedBytes == length) {
+            return;
+        }
+        state.digest = newDigest();
+        state.hashedBytes = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (state.hashedBytes < length) {
+            buffer.clear().limit((int) Math.min(BUFFER_SIZE, length - state.hashedBytes));
+            int read = channel.read(buffer, state.hashedBytes);
+            if (read < 0) {
+                throw new IOException("Upload data missing on disk");
+            }
+            buffer.flip();
+            state.digest.update(buffer);
+            state.hashedBytes += read;
+        }
+    }
+    
+    // Remove the session row, its working file (if commitObject didn't move it) and its state
+    private void discard(UploadSession session) {
+        try {
+            Files.deleteIfExists(workFile(session.getId()));
+        } catch (IOException e) {
+            log.warn("Could not delete upload data for {}: {}", session.getId(), e.getMessage());
+        }
+        uploadSessionRepository.delete(session);
+        progress.remove(session.getId());
+    }
+    
+    private UploadSession findSession(String uploadId) {
+        return uploadSessionRepository.findById(uploadId)
+            .orElseThrow(() -> new RuntimeException("Upload not found: " + uploadId));
+    }
+    
+    private UploadSession findOwnedSession(String uploadId, String userId) {
+        UploadSession session = findSession(uploadId);
+        if (!session.getOwnerUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized access to upload");
+        }
+        return session;
+    }
+    
+    private Path workFile(String uploadId) {
+        try {
+            return fileStorageService.uploadWorkFile(uploadId);
+        } catch (IOException e) {
+            throw new RuntimeException("Upload storage unavailable", e);
+        }
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private UploadSessionDTO convertToDTO(UploadSession session) {
+        return UploadSessionDTO.builder()
+            .uploadId(session.getId())
+            .grievanceId(session.getGrievanceId())
+            .fileName(session.getFileName())
+            .fileSize(session.getTotalSize())
+            .receivedBytes(session.getReceivedBytes())
+            .chunkSize(chunkSize)
+            .expiresAt(session.getUpdatedAt().plusHours(expiryHours))
+            .build();
+    }
+    
+    // Held for the whole chunk write. A lock rather than a monitor: the body is read from
+    // the network under it, which would pin a virtual thread to its carrier.
+    private static class UploadProgress {
+        private final ReentrantLock lock = new ReentrantLock();
+        private MessageDigest digest;
+        private long hashedBytes;
+    }
+    
+    // The chunk didn't start at the current offset; carries the state to resume from
+    @Getter
+    public static class UploadOffsetMismatchException extends RuntimeException {
+        private final UploadSessionDTO session;
+        
+        public UploadOffsetMismatchException(UploadSessionDTO session) {
+            super("Chunk must start at offset " + session.getReceivedBytes());
+            this.session = session;
+        }
+    }
+    
+    // The working file is not on this node (the request missed its sticky node, or the temp
+    // directory was wiped); carries the session so the client can tell what was received
+    @Getter
+    public static class UploadDataMissingException extends RuntimeException {
+        private final UploadSessionDTO session;
+        
+        public UploadDataMissingException(UploadSessionDTO session) {
+            super("Upload data for " + session.getUploadId() + " is not on this server");
+            this.session = session;
+        }
+    }
+}
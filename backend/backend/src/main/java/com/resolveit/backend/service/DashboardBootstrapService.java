@@ -0,0 +1,130 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.config.ExecutionMode;
+import com.resolveit.backend.config.QueryCounter;
+import com.resolveit.backend.dto.DashboardBootstrapDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Loads everything a dashboard shows on open in one request.
+ *
+ * The controller resolves the user once and hands over the independent parts (stats,
+ * lists, unread count); they run concurrently on a bounded pool, so the response takes
+ * as long as the slowest part instead of the sum of separate round trips. Every part
+ * shares one deadline: a part that fails or isn't done by then is cancelled and listed
+ * in failedParts, and the rest is returned.
+ *
+ * Every running part holds a database connection, so the pool is kept to at most half of
+ * the connection pool, and the request thread holds none while it waits (see
+ * OpenInViewConfig). A part waiting for a connection gives up at the part deadline, which
+ * has to be shorter than the connection timeout.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardBootstrapService {
+
+    private final ExecutionMode executionMode;
+
+    @Value("${dashboard.bootstrap.threads:16}")
+    private int threads;
+
+    @Value("${dashboard.bootstrap.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${dashboard.bootstrap.part-timeout-ms:3000}")
+    private long partTimeoutMs;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long connectionTimeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        if (partTimeoutMs >= connectionTimeoutMs) {
+            throw new IllegalStateException("dashboard.bootstrap.part-timeout-ms (" + partTimeoutMs +
+                ") must be shorter than spring.datasource.hikari.connection-timeout (" + connectionTimeoutMs + ")");
+        }
+        // Leave connections for the rest of the application
+        int maxThreads = Math.max(1, connectionPoolSize / 2);
+        if (threads > maxThreads) {
+            log.warn("dashboard.bootstrap.threads={} reduced to {}, half of the {} database connections",
+                threads, maxThreads, connectionPoolSize);
+            threads = maxThreads;
+        }
+        // When the pool and queue are full, parts run on the request thread instead
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), executionMode.threadFactory("dashboard-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Run the named parts concurrently; the payload keeps their order
+    public DashboardBootstrapDTO load(Map<String, Callable<?>> parts) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(partTimeoutMs);
+
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        // Parts count towards the request's query budget wherever they run
+        parts.forEach((name, part) -> futures.put(name, executor.submit(QueryCounter.wrap(part))));
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        List<String> failed = new ArrayList<>();
+        List<String> pendingNames = new ArrayList<>(futures.keySet());
+        for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
+            String name = entry.getKey();
+            pendingNames.remove(name);
+            Future<?> future = entry.getValue();
+            try {
+                results.put(name, future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                failed.add(name);
+                log.warn("Dashboard part {} timed out after {} ms", name, partTimeoutMs);
+            } catch (ExecutionException e) {
+                failed.add(name);
+                log.warn("Dashboard part {} failed: {}", name, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.values().forEach(pending -> pending.cancel(true));
+                // The cancelled parts would throw CancellationException; report them as failed
+                failed.add(name);
+                failed.addAll(pendingNames);
+                break;
+            }
+        }
+
+        return DashboardBootstrapDTO.builder()
+            .parts(results)
+            .failedParts(failed)
+            .complete(failed.isEmpty())
+            .elapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+            .build();
+    }
+}
@@ -0,0 +1,316 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.config.ExecutionMode;
+import com.resolveit.backend.dto.DashboardCacheMetricsDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Shared results for dashboard reads that many users make at once, such as a department's
+ * statistics when everyone opens the dashboard at the start of the day.
+ *
+ * Entries are keyed by (endpoint, scope, params), where the scope is whatever the result
+ * depends on (usually the department). Concurrent misses for the same key share one
+ * computation (single flight). A result younger than fresh-ms is served as is; up to
+ * stale-ms after that it is still served while one background refresh replaces it
+ * (stale-while-revalidate). Database load therefore follows the number of departments
+ * being viewed, not the number of viewers.
+ *
+ * Results are shared between callers and must not be modified by them.
+ *
+ * Each scope has a generation that {@link #evict} bumps. A load records the generation
+ * it started under and does not store its result if the scope was evicted meanwhile, and
+ * evict detaches the scope's running loads so later reads start a fresh one instead of
+ * joining a computation that predates the change.
+ *
+ * Reads are counted per endpoint as resolveit.dashboard.cache.requests (result hit, stale
+ * or miss) and resolveit.dashboard.cache.coalesced; the admin metrics endpoint shows the
+ * same counts summed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardReadCache implements MeterBinder {
+
+    private final ExecutionMode executionMode;
+
+    @Value("${dashboard.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${dashboard.cache.fresh-ms:5000}")
+    private long freshMs;
+
+    @Value("${dashboard.cache.stale-ms:30000}")
+    private long staleMs;
+
+    @Value("${dashboard.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${dashboard.cache.refresh-threads:4}")
+    private int refreshThreads;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // One counter per scope seen, so it grows with departments, not with keys
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor refreshExecutor;
+
+    private final Map<String, EndpointCounters> countersByEndpoint = new ConcurrentHashMap<>();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private volatile MeterRegistry meterRegistry;
+
+    private record Entry(Object value, long loadedAt) {
+    }
+
+    private record EndpointCounters(LongAdder hits, LongAdder staleHits, LongAdder misses, LongAdder coalesced) {
+        EndpointCounters() {
+            this(new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder());
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(maxEntries), executionMode.threadFactory("dashboard-refresh-"));
+        refreshExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        Gauge.builder("resolveit.dashboard.cache.entries", entries, Map::size)
+            .register(registry);
+        Gauge.builder("resolveit.dashboard.cache.in.flight", inFlight, Map::size)
+            .register(registry);
+        FunctionCounter.builder("resolveit.dashboard.cache.refreshes", refreshes, LongAdder::sum)
+            .register(registry);
+        FunctionCounter.builder("resolveit.dashboard.cache.refresh.failures", refreshFailures, LongAdder::sum)
+            .register(registry);
+        // Endpoints read before the registry was bound; later ones register on first read
+        countersByEndpoint.forEach((endpoint, counters) -> register(registry, endpoint, counters));
+    }
+
+    public <T> T get(String endpoint, Object scope, Supplier<T> loader) {
+        return get(endpoint, scope, Map.of(), loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String endpoint, Object scope, Map<String, ?> params, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        // Params are sorted so the same request in a different order shares the entry
+        String key = endpoint + "|" + scope + "|" + new TreeMap<>(params);
+        EndpointCounters counters = countersFor(endpoint);
+        AtomicLong generation = generations.computeIfAbsent(String.valueOf(scope), name -> new AtomicLong());
+
+        Entry entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (entry != null) {
+            long age = now - entry.loadedAt();
+            if (age < freshMs) {
+                counters.hits().increment();
+                return (T) entry.value();
+            }
+            if (age < freshMs + staleMs) {
+                counters.staleHits().increment();
+                refreshInBackground(key, generation, loader);
+                return (T) entry.value();
+            }
+        }
+
+        counters.misses().increment();
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            counters.coalesced().increment();
+            return (T) await(leader, loader);
+        }
+        return (T) load(key, generation, generation.get(), loader, flight);
+    }
+
+    // Drop everything cached for a scope, e.g. after a change the user should see at once
+    public void evict(Object scope) {
+        AtomicLong generation = generations.get(String.valueOf(scope));
+        if (generation != null) {
+            generation.incrementAndGet();
+        }
+        String marker = "|" + scope + "|";
+        inFlight.keySet().removeIf(key -> key.contains(marker));
+        entries.keySet().removeIf(key -> key.contains(marker));
+    }
+
+    public void clear() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        inFlight.clear();
+        entries.clear();
+    }
+
+    public DashboardCacheMetricsDTO getMetrics() {
+        long hits = 0;
+        long staleHits = 0;
+        long misses = 0;
+        long coalesced = 0;
+        Map<String, Long> byEndpoint = new TreeMap<>();
+        for (Map.Entry<String, EndpointCounters> endpoint : countersByEndpoint.entrySet()) {
+            EndpointCounters counters = endpoint.getValue();
+            hits += counters.hits().sum();
+            staleHits += counters.staleHits().sum();
+            misses += counters.misses().sum();
+            coalesced += counters.coalesced().sum();
+            if (counters.coalesced().sum() > 0) {
+                byEndpoint.put(endpoint.getKey(), counters.coalesced().sum());
+            }
+        }
+        return DashboardCacheMetricsDTO.builder()
+            .enabled(enabled)
+            .freshMs(freshMs)
+            .staleMs(staleMs)
+            .entries(entries.size())
+            .inFlight(inFlight.size())
+            .hits(hits)
+            .staleHits(staleHits)
+            .misses(misses)
+            .coalesced(coalesced)
+            .coalescedByEndpoint(byEndpoint)
+            .refreshes(refreshes.sum())
+            .refreshFailures(refreshFailures.sum())
+            .build();
+    }
+
+    // Forget entries too old to be served even as stale
+    @Scheduled(fixedDelayString = "${dashboard.cache.cleanup-interval-ms:60000}")
+    public void removeExpired() {
+        long oldest = System.currentTimeMillis() - freshMs - staleMs;
+        entries.values().removeIf(entry -> entry.loadedAt() < oldest);
+    }
+
+    // Compute on the calling thread and hand the result to everyone waiting on the flight.
+    // The result is only cached if the scope was not evicted since the load started.
+    private Object load(String key, AtomicLong generation, long startedAt, Supplier<?> loader,
+                        CompletableFuture<Object> flight) {
+        try {
+            Object value = loader.get();
+            if (generation.get() == startedAt) {
+                Entry stored = store(key, value);
+                // An evict that ran between the check and the put must still win
+                if (stored != null && generation.get() != startedAt) {
+                    entries.remove(key, stored);
+                }
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private void refreshInBackground(String key, AtomicLong generation, Supplier<?> loader) {
+        long startedAt = generation.get();
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return; // already being refreshed
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                refreshes.increment();
+                try {
+                    load(key, generation, startedAt, loader, flight);
+                } catch (RuntimeException e) {
+                    // Keep serving the stale value; the next read past its lifetime tries again
+                    refreshFailures.increment();
+                    log.warn("Dashboard cache refresh failed for {}: {}", key, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, flight);
+            flight.cancel(false);
+        }
+    }
+
+    private EndpointCounters countersFor(String endpoint) {
+        EndpointCounters counters = countersByEndpoint.get(endpoint);
+        if (counters != null) {
+            return counters;
+        }
+        return countersByEndpoint.computeIfAbsent(endpoint, name -> {
+            EndpointCounters created = new EndpointCounters();
+            MeterRegistry registry = meterRegistry;
+            if (registry != null) {
+                register(registry, name, created);
+            }
+            return created;
+        });
+    }
+
+    private static void register(MeterRegistry registry, String endpoint, EndpointCounters counters) {
+        requestCounter(registry, endpoint, "hit", counters.hits());
+        requestCounter(registry, endpoint, "stale", counters.staleHits());
+        requestCounter(registry, endpoint, "miss", counters.misses());
+        FunctionCounter.builder("resolveit.dashboard.cache.coalesced", counters.coalesced(), LongAdder::sum)
+            .description("Reads that waited for an identical computation already running")
+            .tag("endpoint", endpoint)
+            .register(registry);
+    }
+
+    private static void requestCounter(MeterRegistry registry, String endpoint, String result, LongAdder count) {
+        FunctionCounter.builder("resolveit.dashboard.cache.requests", count, LongAdder::sum)
+            .tag("endpoint", endpoint)
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private Entry store(String key, Object value) {
+        if (entries.size() < maxEntries || entries.containsKey(key)) {
+            Entry entry = new Entry(value, System.currentTimeMillis());
+            entries.put(key, entry);
+            return entry;
+        }
+        return null;
+    }
+
+    private static Object await(CompletableFuture<Object> flight, Supplier<?> loader) {
+        try {
+            return flight.join();
+        } catch (CancellationException e) {
+            return loader.get(); // the refresh we joined never started
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.config.FlightEvents;
+import com.resolveit.backend.dto.StoredFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes stored files to HTTP responses without buffering them on the heap.
+ *
+ * Handles conditional requests (ETag / Last-Modified), single byte ranges with
+ * If-Range, and hands the transfer to Tomcat's sendfile when the connector supports
+ * it. Otherwise local files are copied with FileChannel.transferTo, and objects in a
+ * remote backend are streamed from a ranged read through a fixed-size buffer. Local copies
+ * emit a JFR FileTransfer event here; remote streams emit theirs in the storage backend.
+ *
+ * The content type comes from the name the uploader chose, so only types a browser
+ * renders without running script (raster images, PDF, video) are served inline; anything
+ * else (HTML, SVG, XML...) is sent as an octet-stream attachment. Every response carries
+ * nosniff and, except for PDFs, a sandbox CSP in case a file is opened directly anyway.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileDownloadService {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // Raster images, PDF and video; SVG is an image type but can carry script
+    private static final Set<MediaType> INLINE_TYPES = Set.of(
+        MediaType.IMAGE_PNG, MediaType.IMAGE_JPEG, MediaType.IMAGE_GIF,
+        MediaType.parseMediaType("image/webp"), MediaType.parseMediaType("image/bmp"),
+        MediaType.APPLICATION_PDF,
+        MediaType.parseMediaType("video/mp4"), MediaType.parseMediaType("video/webm"),
+        MediaType.parseMediaType("video/ogg"), MediaType.parseMediaType("video/quicktime"));
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${file.download.cache-max-age-seconds:86400}")
+    private long cacheMaxAgeSeconds;
+
+    @Value("${file.download.immutable-max-age-seconds:31536000}")
+    private long immutableMaxAgeSeconds;
+
+    public void serve(StoredFile file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(file, request, response, defaultCacheControl(), false);
+    }
+
+    // Files that may be replaced under the same path
+    public CacheControl defaultCacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(cacheMaxAgeSeconds)).cachePrivate();
+    }
+
+    // Files whose path changes whenever the content does (content-addressed keys, thumbnails)
+    public CacheControl immutableCacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(immutableMaxAgeSeconds)).cachePrivate().immutable();
+    }
+
+    // asAttachment asks the browser to save the file instead of displaying it
+    public void serve(StoredFile file, HttpServletRequest request, HttpServletResponse response,
+                      CacheControl cacheControl, boolean asAttachment) throws IOException {
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        // Sets 304 (or 412) and the validators when the client's copy is current
+        if (webRequest.checkNotModified(file.getEtag(), file.getLastModified())) {
+            return;
+        }
+
+        MediaType contentType = file.getContentType();
+        boolean inline = !asAttachment && isInlineType(contentType);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(file.getFilename(), !inline));
+        response.setContentType(inline ? contentType.toString() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        // Chrome refuses to render a sandboxed PDF; PDFs run no script in the viewer anyway
+        if (!inline || !MediaType.APPLICATION_PDF.equalsTypeAndSubtype(contentType)) {
+            response.setHeader("Content-Security-Policy", "sandbox");
+        }
+
+        long[] region = resolveRegion(file, request, response);
+        if (region == null) {
+            return;
+        }
+        long start = region[0];
+        long count = region[1];
+
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (file.getLocation() == null) {
+            // Remote backend: stream just the requested range
+            try (InputStream in = fileStorageService.openStream(file.getFilePath(), start, count)) {
+                OutputStream out = response.getOutputStream();
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            return;
+        }
+
+        // Local file; the JFR event times the copy, or for sendfile only the hand-off to Tomcat
+        FlightEvents.FileTransferEvent event = new FlightEvents.FileTransferEvent();
+        event.begin();
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat writes the region straight from the page cache after the servlet returns
+            request.setAttribute(SENDFILE_FILENAME, file.getLocation().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            commitLocalDownload(event, file, "sendfile", count, true);
+            return;
+        }
+
+        long position = start;
+        boolean success = false;
+        try (FileChannel channel = FileChannel.open(file.getLocation(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+            success = true;
+        } finally {
+            commitLocalDownload(event, file, "transferTo", position - start, success);
+        }
+    }
+
+    private static void commitLocalDownload(FlightEvents.FileTransferEvent event, StoredFile file, String transfer,
+                                            long bytes, boolean success) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.backend = "local";
+            event.direction = "download";
+            event.transfer = transfer;
+            event.key = file.getFilePath();
+            event.bytes = bytes;
+            event.success = success;
+            event.commit();
+        }
+    }
+
+    static boolean isInlineType(MediaType contentType) {
+        return contentType != null
+            && INLINE_TYPES.stream().anyMatch(type -> type.equalsTypeAndSubtype(contentType));
+    }
+
+    private String contentDisposition(String filename, boolean asAttachment) {
+        ContentDisposition.Builder builder = asAttachment ? ContentDisposition.attachment() : ContentDisposition.inline();
+        // filename* only when the name is not plain ASCII
+        if (StandardCharsets.US_ASCII.newEncoder().canEncode(filename)) {
+            builder.filename(filename);
+        } else {
+            builder.filename(filename, StandardCharsets.UTF_8);
+        }
+        return builder.build().toString();
+    }
+
+    // {start, count} of the whole file, or of the requested range when it applies.
+    // Returns null after writing a 416.
+    private long[] resolveRegion(StoredFile file, HttpServletRequest request, HttpServletResponse response) {
+        long[] whole = {0, file.getSize()};
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !ifRangeMatches(file, request)) {
+            return whole;
+        }
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return whole; // malformed Range is ignored
+        }
+        // Multipart/byteranges is rarely used by real clients; serve the full file instead
+        if (ranges.size() != 1) {
+            return whole;
+        }
+
+        try {
+            long start = ranges.get(0).getRangeStart(file.getSize());
+            long end = ranges.get(0).getRangeEnd(file.getSize());
+            if (start >= file.getSize()) {
+                throw new IllegalArgumentException("Range starts after the end of the file");
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + file.getSize());
+            return new long[] {start, end - start + 1};
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.getSize());
+            return null;
+        }
+    }
+
+    // If-Range: only honour the Range when the client's validator still matches
+    private boolean ifRangeMatches(StoredFile file, HttpServletRequest request) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(file.getEtag());
+        }
+        try {
+            long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return file.getLastModified() / 1000 <= since / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
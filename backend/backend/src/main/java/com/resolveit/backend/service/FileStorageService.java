@@ -1,21 +1,92 @@
 package com.resolveit.backend.service;
 
+import com.resolveit.backend.dto.StoredFile;
+import com.resolveit.backend.entity.PendingUpload;
+import com.resolveit.backend.entity.StoredObject;
+import com.resolveit.backend.repository.PendingUploadRepository;
+import com.resolveit.backend.repository.StoredObjectRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
+/**
+ * Stores uploaded files in the configured {@link ObjectStorage} backend (the local
+ * "uploads" directory or an S3 bucket). Uploads are staged in uploads/tmp on this node.
+ *
+ * In content-addressed mode (the default) an upload is hashed with SHA-256 while it
+ * streams to a temp file. It is then handed to the backend as objects/ab/cd/<hash>.<ext>.
+ * If that object is already registered the temp file is dropped, so identical uploads share
+ * one file. stored_objects keeps a reference count per object, and deleteFile only
+ * removes the file when the last reference goes. Older uploads in per-folder UUID
+ * paths are still served and deleted as before.
+ *
+ * Since identical uploads share a key, the key alone says nothing about who holds which
+ * reference. An upload not yet linked to anything (storeUpload) therefore gets a
+ * pending_uploads row naming its uploader, and releaseUpload drops a reference only by
+ * consuming one of the caller's rows.
+ *
+ * With a shared backend several nodes write and delete the same objects, so the object's
+ * row, not a lock in this process, decides who may touch its file: a new object's file is
+ * written inside the transaction that inserts its row, and deletes hold the row locked (or,
+ * for files without a row, a placeholder row) while they remove the file.
+ */
 @Service
 public class FileStorageService {
     
-    private final Path rootLocation = Paths.get("uploads");
+    private static final String OBJECTS_DIR = "objects";
+    private static final String TEMP_DIR = "tmp";
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+    // Renditions stored next to an original, e.g. <sha>-128.jpg (see ThumbnailService)
+    private static final Pattern DERIVED_FILE = Pattern.compile(".*-\\d{1,4}\\.(jpg|png)");
     
-    public FileStorageService() {
+    private final Path rootLocation = Paths.get("uploads").toAbsolutePath().normalize();
+    private final StoredObjectRepository storedObjectRepository;
+    private final PendingUploadRepository pendingUploadRepository;
+    private final ObjectStorage objectStorage;
+    // Own transaction per object change, so the row is released as soon as its file is
+    // written or deleted, whatever transaction the caller is in
+    private final TransactionTemplate objectTransaction;
+    
+    @Value("${file.storage.content-addressed:true}")
+    private boolean contentAddressed;
+    
+    public FileStorageService(StoredObjectRepository storedObjectRepository,
+                              PendingUploadRepository pendingUploadRepository, ObjectStorage objectStorage,
+                              MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.storedObjectRepository = storedObjectRepository;
+        this.pendingUploadRepository = pendingUploadRepository;
+        this.objectStorage = new TimedObjectStorage(objectStorage, meterRegistry);
+        this.objectTransaction = new TransactionTemplate(transactionManager);
+        this.objectTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
         try {
             Files.createDirectories(rootLocation);
         } catch (IOException e) {
@@ -24,58 +95,420 @@ public class FileStorageService {
     }
     
     public String storeFile(MultipartFile file, String folder) {
+        if (file.isEmpty()) {
+            throw new RuntimeException("Failed to store empty file");
+        }
+        try (InputStream inputStream = file.getInputStream()) {
+            return storeStream(inputStream, file.getOriginalFilename(), file.getContentType(), folder);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file", e);
+        }
+    }
+    
+    // Store an upload nothing links to yet, recording that uploaderUserId holds its reference
+    public String storeUpload(MultipartFile file, String folder, String uploaderUserId) {
+        String key = storeFile(file, folder);
+        Long storedObjectId = isContentAddressed(key)
+            ? storedObjectRepository.findByStorageKey(key).map(StoredObject::getId).orElse(null)
+            : null;
+        pendingUploadRepository.save(PendingUpload.builder()
+            .storageKey(key)
+            .storedObjectId(storedObjectId)
+            .uploaderUserId(uploaderUserId)
+            .build());
+        return key;
+    }
+    
+    // Store content read from a stream; returns the relative path to reference it by
+    public String storeStream(InputStream inputStream, String originalFilename, String contentType, String folder) {
         try {
-            if (file.isEmpty()) {
-                throw new RuntimeException("Failed to store empty file");
-            }
+            String fileExtension = extensionOf(originalFilename);
             
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            if (!contentAddressed) {
+                // Legacy layout: random name in the requested folder
+                String key = checkKey(folder) + "/" + UUID.randomUUID() + (fileExtension.isEmpty() ? "" : "." + fileExtension);
+                Path tempFile = createTempFile();
+                try {
+                    Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                    objectStorage.putFile(key, tempFile, contentType);
+                } finally {
+                    Files.deleteIfExists(tempFile);
+                }
+                return key;
             }
             
-            String filename = UUID.randomUUID().toString() + fileExtension;
-            
-            // Create folder if not exists
-            Path folderPath = rootLocation.resolve(folder);
-            Files.createDirectories(folderPath);
-            
-            // Save file
-            Path destinationFile = folderPath.resolve(filename);
-            try (InputStream inputStream = file.getInputStream()) {
-                Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
+            return storeObject(inputStream, originalFilename, contentType).getStorageKey();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file", e);
+        }
+    }
+    
+    // Store content in the object store regardless of file.storage.content-addressed,
+    // returning the object record (key, size, SHA-256) the upload now references
+    public StoredObject storeObject(InputStream inputStream, String originalFilename, String contentType) {
+        try {
+            Path tempFile = createTempFile();
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                long size;
+                try (DigestInputStream digestStream = new DigestInputStream(inputStream, digest)) {
+                    size = Files.copy(digestStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return commitObject(tempFile, HexFormat.of().formatHex(digest.digest()), size,
+                    extensionOf(originalFilename), contentType);
+            } finally {
+                Files.deleteIfExists(tempFile);
             }
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to store file", e);
+        }
+    }
+    
+    // Hand a fully written temp file to the object store, or reuse the existing object
+    // with the same hash. The temp file is moved or deleted by the backend once it is written.
+    StoredObject commitObject(Path tempFile, String sha256, long size, String fileExtension, String contentType) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        // Waits while another node holds the row to delete it, then finds no row
+        if (storedObjectRepository.incrementReferences(sha256, now) > 0) {
+            return findObject(sha256);
+        }
+        
+        String storageKey = OBJECTS_DIR + "/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" +
+            sha256 + (fileExtension.isEmpty() ? "" : "." + fileExtension);
+        try {
+            // Uploads of the same content (and deletes of this key) wait on the new row until the file is in place
+            return inObjectTransaction(() -> {
+                StoredObject object = storedObjectRepository.saveAndFlush(StoredObject.builder()
+                    .sha256(sha256)
+                    .storageKey(storageKey)
+                    .sizeBytes(size)
+                    .contentType(contentType)
+                    .referenceCount(1)
+                    .createdAt(now)
+                    .build());
+                objectStorage.putFile(storageKey, tempFile, contentType);
+                return object;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another upload of the same content registered (and wrote) the object first
+            if (storedObjectRepository.incrementReferences(sha256, now) == 0) {
+                throw new RuntimeException("Could not register stored object " + sha256, e);
+            }
+            return findObject(sha256);
+        }
+    }
+    
+    private StoredObject findObject(String sha256) {
+        return storedObjectRepository.findBySha256(sha256)
+            .orElseThrow(() -> new RuntimeException("Stored object disappeared: " + sha256));
+    }
+    
+    // Working file for an upload assembled over several requests. It sits in the local
+    // temp directory (on the same filesystem as the local backend, so commitObject can move it).
+    Path uploadWorkFile(String uploadId) throws IOException {
+        Path tempDir = rootLocation.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        return resolve(TEMP_DIR + "/" + uploadId + ".chunked");
+    }
+    
+    // File metadata (size, timestamps, content type, ETag) without reading the content.
+    // The content type is guessed from the file name; FileDownloadService decides what is safe to render.
+    public StoredFile getFile(String filePath) {
+        try {
+            ObjectStorage.ObjectInfo info = objectStorage.stat(checkKey(filePath))
+                .orElseThrow(() -> new RuntimeException("File not found: " + filePath));
+            String filename = filePath.substring(filePath.lastIndexOf('/') + 1);
             
-            // Return relative path
-            return folder + "/" + filename;
-            
+            return StoredFile.builder()
+                .filePath(filePath)
+                .filename(filename)
+                .location(info.localPath())
+                .size(info.size())
+                .lastModified(info.lastModified())
+                .contentType(MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .etag(isContentAddressed(filePath)
+                    ? "\"" + filename.replaceFirst("\\..*$", "") + "\""
+                    : "\"" + Long.toHexString(info.size()) + "-" + Long.toHexString(info.lastModified()) + "\"")
+                .build();
         } catch (IOException e) {
-            throw new RuntimeException("Failed to store file", e);
+            throw new RuntimeException("File not found: " + filePath, e);
         }
     }
     
-    public byte[] loadFile(String filePath) {
+    // Stream the file content; the caller closes the stream
+    public InputStream openStream(String filePath) {
+        return openStream(filePath, 0, -1);
+    }
+    
+    // Stream length bytes from offset (length -1 reads to the end); the caller closes the stream
+    public InputStream openStream(String filePath, long offset, long length) {
         try {
-            Path file = rootLocation.resolve(filePath);
-            return Files.readAllBytes(file);
+            return objectStorage.open(checkKey(filePath), offset, length);
         } catch (IOException e) {
             throw new RuntimeException("Failed to read file: " + filePath, e);
         }
     }
     
+    // Store a file generated from another one (e.g. a thumbnail) under the given path
+    public void storeDerivedFile(String filePath, byte[] content, String contentType) {
+        try {
+            objectStorage.putBytes(checkKey(filePath), content, contentType);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file: " + filePath, e);
+        }
+    }
+    
+    // Drop one reference; content-addressed objects are removed with their last reference
     public void deleteFile(String filePath) {
         try {
-            Path file = rootLocation.resolve(filePath);
-            Files.deleteIfExists(file);
+            String key = checkKey(filePath);
+            if (isContentAddressed(key)) {
+                inObjectTransaction(() -> {
+                    // New references to the object wait until its file is gone
+                    if (storedObjectRepository.findAndLockByStorageKey(key).isEmpty()) {
+                        return null;
+                    }
+                    dropReference(key);
+                    return null;
+                });
+                return;
+            }
+            removeFile(key);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete file: " + filePath, e);
+        }
+    }
+    
+    // Drop the reference one of uploaderUserId's storeUpload calls took on the file. Returns
+    // false when the caller holds no such reference (any more).
+    public boolean releaseUpload(String filePath, String uploaderUserId) {
+        try {
+            String key = checkKey(filePath);
+            return inObjectTransaction(() -> {
+                // Held first, so concurrent releases of the same object take turns
+                Optional<StoredObject> object = isContentAddressed(key)
+                    ? storedObjectRepository.findAndLockByStorageKey(key)
+                    : Optional.empty();
+                Optional<PendingUpload> ticket = pendingUploadRepository
+                    .findFirstByStorageKeyAndUploaderUserIdOrderByIdAsc(key, uploaderUserId);
+                if (ticket.isEmpty() || pendingUploadRepository.deleteTicket(ticket.get().getId()) == 0) {
+                    return false;
+                }
+                if (!isContentAddressed(key)) {
+                    removeFile(key);
+                    return true;
+                }
+                // A ticket on an object that was collected and later re-uploaded no longer counts
+                if (object.isEmpty() || !object.get().getId().equals(ticket.get().getStoredObjectId())) {
+                    return false;
+                }
+                dropReference(key);
+                return true;
+            });
         } catch (IOException e) {
             throw new RuntimeException("Failed to delete file: " + filePath, e);
         }
     }
     
+    // Caller holds the object's row locked
+    private void dropReference(String key) throws IOException {
+        storedObjectRepository.decrementReferences(key, LocalDateTime.now());
+        if (storedObjectRepository.deleteIfUnreferenced(key) > 0) {
+            removeFile(key);
+        }
+    }
+    
+    private void removeFile(String key) throws IOException {
+        objectStorage.delete(key);
+        deleteDerivedFiles(key);
+        pendingUploadRepository.deleteByStorageKey(key);
+    }
+    
+    // ==================== GARBAGE COLLECTION ====================
+    
+    // Remove a file nothing references any more (see StorageGarbageCollector). Nothing is
+    // removed if the file, or its stored_objects row, has changed since the cutoff: the
+    // object was uploaded or taken into use again in the meantime. Returns the bytes freed.
+    public long deleteOrphan(String filePath, Instant cutoff) {
+        try {
+            String key = checkKey(filePath);
+            if (isContentAddressed(key) && !isDerivedFile(key)) {
+                LocalDateTime rowCutoff = LocalDateTime.ofInstant(cutoff, ZoneId.systemDefault());
+                try {
+                    return inObjectTransaction(() -> {
+                        if (storedObjectRepository.findAndLockByStorageKey(key).isPresent()) {
+                            return storedObjectRepository.deleteIfIdleSince(key, rowCutoff) > 0
+                                ? deleteIfUnchangedSince(key, cutoff) : 0L;
+                        }
+                        // No row: claim the hash so an upload of the same content waits for the delete
+                        StoredObject placeholder = storedObjectRepository.saveAndFlush(StoredObject.builder()
+                            .sha256(hashOf(key))
+                            .storageKey(key)
+                            .sizeBytes(0L)
+                            .referenceCount(0)
+                            .build());
+                        long freed = deleteIfUnchangedSince(key, cutoff);
+                        storedObjectRepository.delete(placeholder);
+                        return freed;
+                    });
+                } catch (DataIntegrityViolationException e) {
+                    return 0; // an upload registered the object in the meantime
+                }
+            }
+            return deleteIfUnchangedSince(key, cutoff);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete file: " + filePath, e);
+        }
+    }
+    
+    // Re-checked right before deleting: with a shared backend another node may have just
+    // stored the same key again
+    private long deleteIfUnchangedSince(String key, Instant cutoff) throws IOException {
+        Optional<ObjectStorage.ObjectInfo> info = objectStorage.stat(key);
+        if (info.isEmpty() || info.get().lastModified() >= cutoff.toEpochMilli()) {
+            return 0;
+        }
+        removeFile(key);
+        return info.get().size();
+    }
+    
+    // Delete temp files in the local staging directory last modified before the cutoff.
+    // Working files of chunked uploads are kept while isActiveUpload says their session exists.
+    // Reads the directory lazily and stops after limit deletions; returns the bytes freed.
+    public long deleteStaleTempFiles(Instant cutoff, Predicate<String> isActiveUpload, int limit) {
+        Path tempDir = rootLocation.resolve(TEMP_DIR);
+        if (!Files.isDirectory(tempDir)) {
+            return 0;
+        }
+        long freed = 0;
+        int deleted = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(tempDir)) {
+            for (Path entry : entries) {
+                if (deleted >= limit) {
+                    break;
+                }
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (!attributes.isRegularFile() || attributes.lastModifiedTime().toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+                String name = entry.getFileName().toString();
+                if (name.endsWith(".chunked") && isActiveUpload.test(name.substring(0, name.length() - ".chunked".length()))) {
+                    continue;
+                }
+                if (Files.deleteIfExists(entry)) {
+                    freed += attributes.size();
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to clean up temp files", e);
+        }
+        return freed;
+    }
+    
+    // Whether the backend still holds the original a thumbnail was rendered from
+    public boolean hasOriginal(String derivedPath) {
+        try {
+            String base = derivedPath.substring(0, derivedPath.lastIndexOf('-'));
+            return objectStorage.list(base + ".").stream().anyMatch(key -> !isDerivedFile(key));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file: " + derivedPath, e);
+        }
+    }
+    
+    // Remove renditions (thumbnails) that were generated from a deleted original
+    private void deleteDerivedFiles(String key) throws IOException {
+        if (isDerivedFile(key)) {
+            return;
+        }
+        int dot = key.lastIndexOf('.');
+        String base = dot > key.lastIndexOf('/') ? key.substring(0, dot) : key;
+        for (String derived : objectStorage.list(base + "-")) {
+            if (isDerivedFile(derived)) {
+                objectStorage.delete(derived);
+            }
+        }
+    }
+    
+    public static boolean isDerivedFile(String filePath) {
+        return DERIVED_FILE.matcher(filePath).matches();
+    }
+    
     public boolean fileExists(String filePath) {
-        Path file = rootLocation.resolve(filePath);
-        return Files.exists(file);
+        try {
+            return objectStorage.stat(checkKey(filePath)).isPresent();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read file: " + filePath, e);
+        }
+    }
+    
+    // objects/ab/cd/<sha256>.<ext> -> <sha256>
+    private static String hashOf(String key) {
+        return key.substring(key.lastIndexOf('/') + 1).replaceFirst("\\..*$", "");
+    }
+    
+    // Run storage work in its own transaction; IOExceptions pass through unwrapped
+    private <T> T inObjectTransaction(StorageWork<T> work) throws IOException {
+        try {
+            return objectTransaction.execute(status -> {
+                try {
+                    return work.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private interface StorageWork<T> {
+        T run() throws IOException;
+    }
+    
+    public static boolean isTempFile(String filePath) {
+        return filePath.startsWith(TEMP_DIR + "/");
+    }
+    
+    public boolean isContentAddressed(String filePath) {
+        return filePath != null && filePath.startsWith(OBJECTS_DIR + "/");
+    }
+    
+    // Lower-case extension without the dot, or "" if missing or unusual
+    String extensionOf(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+    
+    private Path createTempFile() throws IOException {
+        Path tempDir = rootLocation.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        return Files.createTempFile(tempDir, "upload-", ".part");
+    }
+    
+    // Keys are relative paths; refuse anything that could leave the storage root or bucket prefix
+    private String checkKey(String filePath) {
+        if (filePath == null || filePath.isEmpty() || filePath.startsWith("/") || filePath.contains("\\")
+                || ("/" + filePath + "/").contains("/../") || ("/" + filePath + "/").contains("/./")) {
+            throw new RuntimeException("Invalid file path: " + filePath);
+        }
+        return filePath;
+    }
+    
+    // Resolve a relative path inside the local root, rejecting anything that escapes it
+    private Path resolve(String filePath) {
+        Path file = rootLocation.resolve(filePath).normalize();
+        if (!file.startsWith(rootLocation)) {
+            throw new RuntimeException("Invalid file path: " + filePath);
+        }
+        return file;
     }
 }
\ No newline at end of file
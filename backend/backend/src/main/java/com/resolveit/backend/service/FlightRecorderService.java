@@ -0,0 +1,140 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.config.FlightEvents;
+import com.resolveit.backend.config.SlowRequestMonitor;
+import com.resolveit.backend.dto.FlightRecordingDTO;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * On-demand JDK Flight Recorder recording for /actuator/flightrecorder: one recording at
+ * a time, started with the JDK's "default" (about 1% overhead) or "profile" settings plus
+ * the application's own events (see FlightEvents), stopped, and dumped to a .jfr file for
+ * JDK Mission Control or the jfr tool.
+ *
+ * A stopped recording keeps its data until the next start, so it can still be dumped.
+ * The stock settings also record the process environment, system properties and JVM
+ * command line, where the JWT and datasource secrets live; those events are turned off.
+ */
+@Service
+@Slf4j
+public class FlightRecorderService {
+
+    private final SlowRequestMonitor slowRequestMonitor;
+
+    @Value("${jfr.recording.max-age-minutes:30}")
+    private long defaultMaxAgeMinutes;
+
+    @Value("${jfr.recording.max-size-mb:200}")
+    private long defaultMaxSizeMb;
+
+    // Enabled by both stock settings; they carry every environment variable, -D property and JVM argument
+    private static final String[] SECRET_BEARING_EVENTS = {
+        "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation"
+    };
+
+    // @Enabled(false) so the always-on slow request stream does not record them; see FlightEvents
+    private static final List<Class<? extends Event>> OFF_BY_DEFAULT_EVENTS = List.of(
+        FlightEvents.StatusTransitionEvent.class, FlightEvents.NotificationFanOutEvent.class,
+        FlightEvents.FileTransferEvent.class, FlightEvents.WebSocketPublishEvent.class);
+
+    private Recording recording;
+    private String settings;
+
+    public FlightRecorderService(SlowRequestMonitor slowRequestMonitor) {
+        this.slowRequestMonitor = slowRequestMonitor;
+    }
+
+    public synchronized FlightRecordingDTO start(String settingsName, Long maxAgeMinutes, Long maxSizeMb) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown recording settings: " + settingsName + " (use default or profile)");
+        }
+        closeRecording();
+
+        Recording started = new Recording(configuration);
+        started.setName("resolveit-on-demand");
+        started.setToDisk(true);
+        started.setMaxAge(Duration.ofMinutes(maxAgeMinutes != null ? maxAgeMinutes : defaultMaxAgeMinutes));
+        started.setMaxSize((maxSizeMb != null ? maxSizeMb : defaultMaxSizeMb) * 1024 * 1024);
+        for (String event : SECRET_BEARING_EVENTS) {
+            started.disable(event);
+        }
+        for (Class<? extends Event> event : OFF_BY_DEFAULT_EVENTS) {
+            started.enable(event).withoutStackTrace();
+        }
+        started.start();
+        recording = started;
+        settings = settingsName;
+        log.info("Flight recording started with {} settings", settingsName);
+        return getStatus();
+    }
+
+    public synchronized FlightRecordingDTO stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new IllegalStateException("No recording is running");
+        }
+        recording.stop();
+        log.info("Flight recording stopped");
+        return getStatus();
+    }
+
+    // Writes what the recording holds so far to a temporary file; the caller deletes it
+    public synchronized Path dump() throws IOException {
+        if (recording == null || recording.getState() == RecordingState.NEW) {
+            throw new IllegalStateException("No recording to dump; start one first");
+        }
+        Path file = Files.createTempFile("resolveit-", ".jfr");
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    public synchronized FlightRecordingDTO getStatus() {
+        FlightRecordingDTO.FlightRecordingDTOBuilder status = FlightRecordingDTO.builder()
+            .state("NONE")
+            .slowRequestMonitorEnabled(slowRequestMonitor.isEnabled())
+            .slowRequestThresholdMs(slowRequestMonitor.getThresholdMs())
+            .slowRequests(slowRequestMonitor.getSlowRequests());
+        if (recording != null) {
+            status.state(recording.getState().name())
+                .settings(settings)
+                .startTime(recording.getStartTime())
+                .stopTime(recording.getStopTime())
+                .maxAgeSeconds(recording.getMaxAge() != null ? recording.getMaxAge().getSeconds() : 0)
+                .maxSizeBytes(recording.getMaxSize())
+                .sizeBytes(recording.getSize());
+        }
+        return status.build();
+    }
+
+    @PreDestroy
+    public synchronized void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.resolveit.backend.entity.Department;
 import com.resolveit.backend.entity.Feedback;
 import com.resolveit.backend.entity.Grievance;
 import com.resolveit.backend.entity.User;
+import com.resolveit.backend.repository.AttachmentRepository;
 import com.resolveit.backend.repository.CategoryRepository;
 import com.resolveit.backend.repository.DepartmentRepository;
 import com.resolveit.backend.repository.FeedbackRepository;
@@ -27,6 +28,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -49,6 +51,12 @@ public class GrievanceService {
     @Autowired
     private FeedbackRepository feedbackRepository;
     
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+    
+    @Autowired
+    private AttachmentService attachmentService;
+    
     // ==================== CREATE GRIEVANCE ====================
     
     public Grievance createGrievance(GrievanceRequestDTO request, Long studentId) {
@@ -235,12 +243,7 @@ public class GrievanceService {
     public PaginatedResponse<GrievanceResponseDTO> convertToPaginatedResponse(Page<Grievance> grievancePage) {
         PaginatedResponse<GrievanceResponseDTO> response = new PaginatedResponse<>();
         
-        List<GrievanceResponseDTO> content = grievancePage.getContent()
-            .stream()
-            .map(this::convertToResponseDTO)
-            .collect(Collectors.toList());
-        
-        response.setContent(content);
+        response.setContent(convertToResponseDTOs(grievancePage.getContent()));
         response.setPageNumber(grievancePage.getNumber());
         response.setPageSize(grievancePage.getSize());
         response.setTotalElements(grievancePage.getTotalElements());
@@ -263,6 +266,29 @@ public class GrievanceService {
     }
     
     public GrievanceResponseDTO convertToResponseDTO(Grievance grievance) {
+        GrievanceResponseDTO dto = buildResponseDTO(grievance);
+        if (grievance.getId() != null) {
+            dto.setAttachmentCount(attachmentRepository.countByGrievance_Id(grievance.getId()));
+        }
+        return dto;
+    }
+    
+    // List version: attachment counts for all grievances come from one grouped query
+    public List<GrievanceResponseDTO> convertToResponseDTOs(List<Grievance> grievances) {
+        Map<Long, Long> attachmentCounts = attachmentService.getAttachmentCounts(grievances.stream()
+            .map(Grievance::getId)
+            .collect(Collectors.toList()));
+        
+        return grievances.stream()
+            .map(grievance -> {
+                GrievanceResponseDTO dto = buildResponseDTO(grievance);
+                dto.setAttachmentCount(attachmentCounts.getOrDefault(grievance.getId(), 0L));
+                return dto;
+            })
+            .collect(Collectors.toList());
+    }
+    
+    private GrievanceResponseDTO buildResponseDTO(Grievance grievance) {
         GrievanceResponseDTO dto = new GrievanceResponseDTO();
         
         dto.setId(grievance.getId());
@@ -0,0 +1,212 @@
+package com.resolveit.backend.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Objects as plain files under the "uploads" directory of this node.
+ *
+ * Writes go to a temp file in the target directory and are moved into place, so a
+ * reader never sees a partial object.
+ */
+@Component
+@ConditionalOnProperty(name = "file.storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final Path rootLocation = Paths.get("uploads").toAbsolutePath().normalize();
+
+    @Override
+    public void putFile(String key, Path source, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Same bytes already on disk (e.g. a concurrent upload); keep that copy
+        } catch (IOException e) {
+            if (!Files.exists(target)) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void putBytes(String key, byte[] content, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".put-", ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<ObjectInfo> stat(String key) throws IOException {
+        Path file = resolve(key);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            return Optional.of(new ObjectInfo(attributes.size(), attributes.lastModifiedTime().toMillis(), file));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        if (offset > 0) {
+            channel.position(offset);
+        }
+        InputStream stream = Channels.newInputStream(channel);
+        return length < 0 ? stream : new BoundedInputStream(stream, length);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public List<String> list(String prefix) throws IOException {
+        int slash = prefix.lastIndexOf('/');
+        String directoryKey = slash < 0 ? "" : prefix.substring(0, slash + 1);
+        String namePrefix = prefix.substring(slash + 1);
+        Path directory = resolve(directoryKey.isEmpty() ? "." : directoryKey);
+
+        List<String> keys = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return keys;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, path ->
+                path.getFileName().toString().startsWith(namePrefix) && Files.isRegularFile(path))) {
+            for (Path entry : entries) {
+                keys.add(directoryKey + entry.getFileName());
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public List<ObjectEntry> listPage(String startAfter, int limit) throws IOException {
+        List<ObjectEntry> page = new ArrayList<>(limit);
+        collectPage(rootLocation, "", startAfter, limit, page);
+        return page;
+    }
+
+    // Depth-first in key order, reading one directory at a time and skipping subtrees that
+    // lie entirely before startAfter. Returns false once the page is full.
+    private boolean collectPage(Path directory, String directoryKey, String startAfter, int limit,
+                                List<ObjectEntry> page) throws IOException {
+        // Sort as keys sort: a directory "a" holds keys "a/...", which come after "a-1.jpg"
+        TreeMap<String, Path> children = new TreeMap<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                children.put(Files.isDirectory(entry) ? name + "/" : name, entry);
+            }
+        }
+        for (Map.Entry<String, Path> child : children.entrySet()) {
+            String key = directoryKey + child.getKey();
+            if (key.endsWith("/")) {
+                if (startAfter != null && startAfter.compareTo(key) > 0 && !startAfter.startsWith(key)) {
+                    continue;
+                }
+                if (!collectPage(child.getValue(), key, startAfter, limit, page)) {
+                    return false;
+                }
+                continue;
+            }
+            if (startAfter != null && key.compareTo(startAfter) <= 0) {
+                continue;
+            }
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(child.getValue(), BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                continue; // removed while listing
+            }
+            if (!attributes.isRegularFile()) {
+                continue;
+            }
+            page.add(new ObjectEntry(key, attributes.size(), attributes.lastModifiedTime().toMillis()));
+            if (page.size() >= limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Resolve a key inside the storage root, rejecting anything that escapes it
+    private Path resolve(String key) {
+        Path file = rootLocation.resolve(key).normalize();
+        if (!file.startsWith(rootLocation)) {
+            throw new RuntimeException("Invalid file path: " + key);
+        }
+        return file;
+    }
+
+    // Stops after a fixed number of bytes (a byte range of the file)
+    private static final class BoundedInputStream extends InputStream {
+        private final InputStream delegate;
+        private long remaining;
+
+        BoundedInputStream(InputStream delegate, long limit) {
+            this.delegate = delegate;
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = delegate.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = delegate.read(buffer, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.dto.NotificationDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Delivers stored notifications to connected clients.
+ *
+ * Pushes are sent after the surrounding transaction commits and are debounced per
+ * notification id, so a notification that gets coalesced several times within the
+ * push delay goes out once with its final content. Users in digest mode get no
+ * individual pushes; their notifications are summarised in one message per interval.
+ * A digest counts each stored or merged notification once: a notification coalesced
+ * four times within the interval counts four, and merges digested in an earlier
+ * interval are not counted again.
+ *
+ * Besides the STOMP user queue, every delivery also goes to the in-process listeners
+ * registered for that user (the SSE stream), so both transports see the same events.
+ * Listeners may sit on another node: with a cluster relay set (see ClusterMessageBridge),
+ * listener events are also published to the other nodes, which feed their own listeners.
+ * Each delivery is timed as resolveit.notifications.push.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final String USER_DESTINATION = "/queue/notifications";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ScheduledExecutorService scheduler;
+    private final Timer pushTimer;
+
+    @Value("${notification.push.delay-ms:1500}")
+    private long pushDelayMs;
+
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a");
+
+    // notification id -> latest version waiting to be pushed
+    private final Map<Long, PendingPush> pendingPushes = new ConcurrentHashMap<>();
+
+    // userId -> notification id -> latest version and how often it changed since the last digest
+    private final Map<String, Map<Long, PendingDigest>> pendingDigests = new ConcurrentHashMap<>();
+    // Keys for notifications without an id, so each still counts on its own
+    private final AtomicLong unsavedDigestKeys = new AtomicLong();
+
+    // userId -> local listeners fed alongside the STOMP queue
+    private final Map<String, Set<NotificationListener>> listeners = new ConcurrentHashMap<>();
+
+    public interface NotificationListener {
+        void onNotification(NotificationDTO notification);
+
+        void onUnreadCountChanged(int delta);
+    }
+
+    // Carries listener events to the other nodes; notification is null for unread count changes
+    public interface ClusterRelay {
+        void publish(String userId, NotificationDTO notification, int unreadDelta);
+    }
+
+    private volatile ClusterRelay clusterRelay;
+
+    public NotificationDispatcher(SimpMessagingTemplate messagingTemplate, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.pushTimer = Timer.builder("resolveit.notifications.push")
+            .description("Delivery of one notification to the STOMP queue and SSE listeners")
+            .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Queue a notification for delivery once the current transaction (if any) commits
+    public void dispatch(String userId, NotificationDTO notification, boolean digestMode) {
+        runAfterCommit(() -> {
+            if (digestMode) {
+                Long key = notification.getId() != null ? notification.getId() : -unsavedDigestKeys.incrementAndGet();
+                pendingDigests.compute(userId, (user, pending) -> {
+                    Map<Long, PendingDigest> collected = pending != null ? pending : new LinkedHashMap<>();
+                    collected.merge(key, new PendingDigest(notification, 1),
+                        (previous, latest) -> new PendingDigest(latest.notification(), previous.changes() + 1));
+                    return collected;
+                });
+            } else if (pushDelayMs <= 0 || notification.getId() == null) {
+                send(userId, notification);
+            } else {
+                PendingPush previous = pendingPushes.put(notification.getId(), new PendingPush(userId, notification));
+                if (previous == null) {
+                    scheduler.schedule(() -> flushPush(notification.getId()), pushDelayMs, TimeUnit.MILLISECONDS);
+                }
+            }
+        });
+    }
+
+    // Report a change in the user's unread count once the current transaction commits
+    public void unreadCountChanged(String userId, int delta) {
+        ClusterRelay relay = clusterRelay;
+        if (delta == 0 || (relay == null && !listeners.containsKey(userId))) {
+            return;
+        }
+        runAfterCommit(() -> {
+            forEachListener(userId, listener -> listener.onUnreadCountChanged(delta));
+            relay(userId, null, delta);
+        });
+    }
+
+    public void setClusterRelay(ClusterRelay clusterRelay) {
+        this.clusterRelay = clusterRelay;
+    }
+
+    // A listener event published by another node: feed this node's listeners only
+    public void deliverFromCluster(String userId, NotificationDTO notification, int unreadDelta) {
+        if (notification != null) {
+            forEachListener(userId, listener -> listener.onNotification(notification));
+        } else if (unreadDelta != 0) {
+            forEachListener(userId, listener -> listener.onUnreadCountChanged(unreadDelta));
+        }
+    }
+
+    // Register a listener for one user; run the returned handle to remove it
+    public Runnable addListener(String userId, NotificationListener listener) {
+        listeners.computeIfAbsent(userId, key -> new CopyOnWriteArraySet<>()).add(listener);
+        return () -> listeners.computeIfPresent(userId, (key, set) -> {
+            set.remove(listener);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    // Send one summary per user in digest mode
+    @Scheduled(fixedDelayString = "${notification.digest.interval-ms:900000}")
+    public void flushDigests() {
+        for (String userId : new ArrayList<>(pendingDigests.keySet())) {
+            Map<Long, PendingDigest> collected = pendingDigests.remove(userId);
+            if (collected != null && !collected.isEmpty()) {
+                send(userId, buildDigest(collected.values()));
+            }
+        }
+    }
+
+    private void flushPush(Long notificationId) {
+        PendingPush push = pendingPushes.remove(notificationId);
+        if (push != null) {
+            send(push.userId(), push.notification());
+        }
+    }
+
+    private void send(String userId, NotificationDTO notification) {
+        pushTimer.record(() -> {
+            try {
+                messagingTemplate.convertAndSendToUser(userId, USER_DESTINATION, notification);
+            } catch (Exception e) {
+                log.warn("Failed to push notification to {}: {}", userId, e.getMessage());
+            }
+            forEachListener(userId, listener -> listener.onNotification(notification));
+            relay(userId, notification, 0);
+        });
+    }
+
+    private void relay(String userId, NotificationDTO notification, int unreadDelta) {
+        ClusterRelay relay = clusterRelay;
+        if (relay == null) {
+            return;
+        }
+        try {
+            relay.publish(userId, notification, unreadDelta);
+        } catch (Exception e) {
+            log.warn("Failed to relay notification event for {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void forEachListener(String userId, Consumer<NotificationListener> action) {
+        Set<NotificationListener> userListeners = listeners.get(userId);
+        if (userListeners == null) {
+            return;
+        }
+        for (NotificationListener listener : userListeners) {
+            try {
+                action.accept(listener);
+            } catch (Exception e) {
+                log.debug("Notification listener for {} failed: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    private NotificationDTO buildDigest(Collection<PendingDigest> notifications) {
+        // Count changes by type, keeping first-seen order
+        Map<String, Integer> countsByType = new LinkedHashMap<>();
+        int total = 0;
+        for (PendingDigest pending : notifications) {
+            countsByType.merge(pending.notification().getType(), pending.changes(), Integer::sum);
+            total += pending.changes();
+        }
+
+        List<String> parts = new ArrayList<>();
+        countsByType.forEach((type, count) -> parts.add(count + " " + type.toLowerCase().replace('_', ' ')));
+
+        LocalDateTime now = LocalDateTime.now();
+        return NotificationDTO.builder()
+            .type("DIGEST")
+            .title("You have " + total + " new notification" + (total == 1 ? "" : "s"))
+            .message(String.join(", ", parts))
+            .isRead(false)
+            .coalescedCount(total)
+            .createdAt(now)
+            .timeAgo("Just now")
+            .formattedDate(now.format(formatter))
+            .build();
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private record PendingPush(String userId, NotificationDTO notification) {
+    }
+
+    private record PendingDigest(NotificationDTO notification, int changes) {
+    }
+}
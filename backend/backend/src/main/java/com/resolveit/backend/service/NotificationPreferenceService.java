@@ -45,6 +45,9 @@ public class NotificationPreferenceService {
         preferences.setNewRemarks(request.getNewRemarks());
         preferences.setGrievanceResolved(request.getGrievanceResolved());
         preferences.setFeedbackReminders(request.getFeedbackReminders());
+        if (request.getDigestEnabled() != null) {
+            preferences.setDigestEnabled(request.getDigestEnabled());
+        }
         
         NotificationPreference saved = preferenceRepository.save(preferences);
         return convertToDTO(saved);
@@ -60,6 +63,7 @@ public class NotificationPreferenceService {
             .newRemarks(true)
             .grievanceResolved(true)
             .feedbackReminders(true)
+            .digestEnabled(false)
             .build();
         
         return preferenceRepository.save(preferences);
@@ -74,6 +78,7 @@ public class NotificationPreferenceService {
             .newRemarks(preferences.getNewRemarks())
             .grievanceResolved(preferences.getGrievanceResolved())
             .feedbackReminders(preferences.getFeedbackReminders())
+            .digestEnabled(preferences.getDigestEnabled())
             .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,337 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.dto.NotificationRetentionMetricsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Purges expired notifications.
+ *
+ * If the notifications table has been converted to a monthly range-partitioned table
+ * (see db/notifications_partitioning.sql), whole partitions older than the longest
+ * retention are dropped and upcoming partitions are created ahead of time. Anything
+ * with a shorter per-type retention - or everything, on a plain table - is removed
+ * with small keyset-ordered DELETE batches and a pause between batches, so the purge
+ * never holds long locks or produces one huge transaction.
+ */
+@Service
+@Slf4j
+public class NotificationRetentionService {
+
+    private static final String TABLE = "notifications";
+    private static final Pattern PARTITION_NAME = Pattern.compile("^notifications_y(\\d{4})m(\\d{2})$");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Value("${notification.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notification.retention.default-days:180}")
+    private int defaultRetentionDays;
+
+    // e.g. {STATUS_UPDATE:90,FEEDBACK_REQUEST:30}
+    @Value("#{${notification.retention.type-days:{:}}}")
+    private Map<String, Integer> typeRetentionDays = new HashMap<>();
+
+    @Value("${notification.retention.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${notification.retention.batch-pause-ms:200}")
+    private long batchPauseMs;
+
+    @Value("${notification.retention.partition-months-ahead:2}")
+    private int partitionMonthsAhead;
+
+    // Database product, looked up on first use
+    private volatile Boolean postgres;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    // Totals since startup
+    private final AtomicLong totalRowsDeleted = new AtomicLong();
+    private final AtomicLong totalPartitionsDropped = new AtomicLong();
+    private final AtomicLong totalRuns = new AtomicLong();
+
+    // Last run
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunRowsDeleted;
+    private volatile long lastRunBatches;
+    private volatile long lastRunPartitionsDropped;
+    private volatile long lastRunDurationMs;
+
+    public NotificationRetentionService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    // Make sure partitions exist for the coming months before the first insert lands
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled && isPartitioned()) {
+            ensureUpcomingPartitions();
+        }
+    }
+
+    @Scheduled(cron = "${notification.retention.cron:0 30 3 * * *}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purge();
+        }
+    }
+
+    // Run one purge pass; returns false if another pass is already running
+    public boolean purge() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        long started = System.currentTimeMillis();
+        long rowsDeleted = 0;
+        long batches = 0;
+        long partitionsDropped = 0;
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+
+            if (isPartitioned()) {
+                ensureUpcomingPartitions();
+                partitionsDropped = dropExpiredPartitions(now.minusDays(getMaxRetentionDays()));
+            }
+
+            // Types with their own retention
+            for (Map.Entry<String, Integer> entry : typeRetentionDays.entrySet()) {
+                long[] result = deleteInBatches(entry.getKey(), null, now.minusDays(entry.getValue()));
+                rowsDeleted += result[0];
+                batches += result[1];
+            }
+
+            // Everything else uses the default retention
+            long[] result = deleteInBatches(null, new ArrayList<>(typeRetentionDays.keySet()),
+                now.minusDays(defaultRetentionDays));
+            rowsDeleted += result[0];
+            batches += result[1];
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Notification purge interrupted");
+        } catch (Exception e) {
+            log.error("Notification purge failed", e);
+        } finally {
+            lastRunAt = LocalDateTime.now();
+            lastRunRowsDeleted = rowsDeleted;
+            lastRunBatches = batches;
+            lastRunPartitionsDropped = partitionsDropped;
+            lastRunDurationMs = System.currentTimeMillis() - started;
+            totalRowsDeleted.addAndGet(rowsDeleted);
+            totalPartitionsDropped.addAndGet(partitionsDropped);
+            totalRuns.incrementAndGet();
+            running.set(false);
+        }
+
+        log.info("Notification purge: {} rows in {} batches, {} partitions dropped, {} ms",
+            rowsDeleted, batches, partitionsDropped, lastRunDurationMs);
+        return true;
+    }
+
+    public NotificationRetentionMetricsDTO getMetrics() {
+        boolean partitioned = isPartitioned();
+
+        // Sizes come from the PostgreSQL catalog; other databases report none
+        Long tableBytes = null;
+        Long estimatedRows = null;
+        if (partitioned) {
+            tableBytes = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(pg_total_relation_size(i.inhrelid)), 0) FROM pg_inherits i " +
+                "WHERE i.inhparent = 'notifications'::regclass", Long.class);
+            estimatedRows = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(GREATEST(c.reltuples, 0)), 0)::bigint FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'notifications'::regclass", Long.class);
+        } else if (isPostgres()) {
+            tableBytes = jdbcTemplate.queryForObject(
+                "SELECT pg_total_relation_size('notifications'::regclass)", Long.class);
+            estimatedRows = jdbcTemplate.queryForObject(
+                "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE oid = 'notifications'::regclass", Long.class);
+        }
+
+        Map<String, Integer> retention = new HashMap<>(typeRetentionDays);
+        retention.put("*", defaultRetentionDays);
+
+        double rowsPerSecond = lastRunDurationMs > 0 ? lastRunRowsDeleted * 1000.0 / lastRunDurationMs : 0.0;
+
+        return NotificationRetentionMetricsDTO.builder()
+            .partitioned(partitioned)
+            .partitions(partitioned ? listPartitions() : List.of())
+            .tableSizeBytes(tableBytes)
+            .estimatedRows(estimatedRows)
+            .retentionDays(retention)
+            .purgeRunning(running.get())
+            .lastRunAt(lastRunAt)
+            .lastRunRowsDeleted(lastRunRowsDeleted)
+            .lastRunBatches(lastRunBatches)
+            .lastRunPartitionsDropped(lastRunPartitionsDropped)
+            .lastRunDurationMs(lastRunDurationMs)
+            .lastRunRowsPerSecond(rowsPerSecond)
+            .totalRuns(totalRuns.get())
+            .totalRowsDeleted(totalRowsDeleted.get())
+            .totalPartitionsDropped(totalPartitionsDropped.get())
+            .build();
+    }
+
+    // ==================== CHUNKED DELETE ====================
+
+    // Deletes rows older than cutoff, either of one type or of any type not in excludedTypes.
+    // Walks the id range in ascending batches so each statement touches a bounded number of rows.
+    private long[] deleteInBatches(String type, List<String> excludedTypes, LocalDateTime cutoff) throws InterruptedException {
+        String typeFilter;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("cutoff", Timestamp.valueOf(cutoff))
+            .addValue("limit", batchSize);
+
+        if (type != null) {
+            typeFilter = " AND type = :type";
+            params.addValue("type", type);
+        } else if (excludedTypes != null && !excludedTypes.isEmpty()) {
+            typeFilter = " AND type NOT IN (:excludedTypes)";
+            params.addValue("excludedTypes", excludedTypes);
+        } else {
+            typeFilter = "";
+        }
+
+        // Ids grow with created_at, so nothing past this id can be expired
+        Long maxId = namedJdbcTemplate.queryForObject(
+            "SELECT MAX(id) FROM notifications WHERE created_at < :cutoff", params, Long.class);
+        if (maxId == null) {
+            return new long[] {0, 0};
+        }
+        params.addValue("maxId", maxId);
+
+        long lastId = 0;
+        long deleted = 0;
+        long batches = 0;
+
+        while (true) {
+            params.addValue("lastId", lastId);
+            List<Long> ids = namedJdbcTemplate.queryForList(
+                "SELECT id FROM notifications WHERE id > :lastId AND id <= :maxId " +
+                "AND created_at < :cutoff" + typeFilter + " ORDER BY id LIMIT :limit",
+                params, Long.class);
+
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            deleted += namedJdbcTemplate.update(
+                "DELETE FROM notifications WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+            batches++;
+            lastId = ids.get(ids.size() - 1);
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+            if (batchPauseMs > 0) {
+                Thread.sleep(batchPauseMs);
+            }
+        }
+
+        return new long[] {deleted, batches};
+    }
+
+    // ==================== PARTITION MAINTENANCE ====================
+
+    private boolean isPostgres() {
+        Boolean postgres = this.postgres;
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            this.postgres = postgres;
+        }
+        return Boolean.TRUE.equals(postgres);
+    }
+
+    private boolean isPartitioned() {
+        if (!isPostgres()) {
+            return false;
+        }
+        try {
+            Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+                "WHERE c.relname = ? AND pg_table_is_visible(c.oid))", Boolean.class, TABLE);
+            return Boolean.TRUE.equals(partitioned);
+        } catch (Exception e) {
+            // Not PostgreSQL (or no catalog access) - fall back to chunked deletes
+            return false;
+        }
+    }
+
+    private void ensureUpcomingPartitions() {
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= partitionMonthsAhead; i++) {
+            YearMonth target = month.plusMonths(i);
+            LocalDate from = target.atDay(1);
+            LocalDate to = target.plusMonths(1).atDay(1);
+            jdbcTemplate.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS %s_%s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                TABLE, from.format(PARTITION_SUFFIX), TABLE, from, to));
+        }
+    }
+
+    // Drops monthly partitions whose whole range is older than cutoff
+    long dropExpiredPartitions(LocalDateTime cutoff) {
+        long dropped = 0;
+        for (String partition : listPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            LocalDateTime partitionEnd = month.plusMonths(1).atDay(1).atStartOfDay();
+
+            if (!partitionEnd.isAfter(cutoff)) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped expired notification partition {}", partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'notifications'::regclass ORDER BY c.relname", String.class);
+    }
+
+    private int getMaxRetentionDays() {
+        int max = defaultRetentionDays;
+        for (Integer days : typeRetentionDays.values()) {
+            max = Math.max(max, days);
+        }
+        return max;
+    }
+}
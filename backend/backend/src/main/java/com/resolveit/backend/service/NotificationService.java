@@ -1,13 +1,19 @@
 package com.resolveit.backend.service;
 
+import com.resolveit.backend.config.FlightEvents;
+import com.resolveit.backend.dto.CursorPaginatedResponse;
 import com.resolveit.backend.dto.NotificationDTO;
+import com.resolveit.backend.dto.NotificationSummary;
 import com.resolveit.backend.entity.*;
 import com.resolveit.backend.repository.NotificationRepository;
 import com.resolveit.backend.repository.UserRepository;
 import com.resolveit.backend.repository.GrievanceRepository;
 import com.resolveit.backend.repository.NotificationPreferenceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +21,8 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,10 +34,26 @@ public class NotificationService {
     private final UserRepository userRepository;
     private final GrievanceRepository grievanceRepository;
     private final NotificationPreferenceRepository preferenceRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDispatcher notificationDispatcher;
+    private final MeterRegistry meterRegistry;
+    
+    // Unread notifications of these types for the same (user, grievance) within the window
+    // are merged into one row instead of inserting a new one
+    @Value("${notification.coalesce.enabled:true}")
+    private boolean coalesceEnabled;
+    
+    @Value("${notification.coalesce.window-seconds:300}")
+    private long coalesceWindowSeconds;
+    
+    @Value("${notification.coalesce.types:STATUS_UPDATE,NEW_REMARK}")
+    private Set<String> coalesceTypes;
     
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a");
     
+    // Inbox page size limits; the legacy list endpoints return at most one max-size page
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    
     // ============ NEW METHODS FOR DASHBOARDS ============
     
     // For admin dashboard - notify admin when they assign grievance to themselves
@@ -65,18 +89,51 @@ public class NotificationService {
     
     // ============ EXISTING METHODS ============
     
-    // Get all notifications for user
+    // Get latest notifications for user (first inbox page, kept for existing clients)
+    @Transactional(readOnly = true)
     public List<NotificationDTO> getUserNotifications(String userId) {
-        List<Notification> notifications = notificationRepository.findByUser_UserIdOrderByCreatedAtDesc(userId);
-        return notifications.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return getInbox(userId, null, null, MAX_PAGE_SIZE).getContent();
     }
     
-    // Get unread notifications for user
+    // Get latest unread notifications for user (first unread page, kept for existing clients)
+    @Transactional(readOnly = true)
     public List<NotificationDTO> getUnreadNotifications(String userId) {
-        List<Notification> notifications = notificationRepository.findByUser_UserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
-        return notifications.stream()
+        return getUnreadInbox(userId, null, null, MAX_PAGE_SIZE).getContent();
+    }
+    
+    // Get one inbox page, newest first, optionally filtered by type
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<NotificationDTO> getInbox(String userId, String type, Long cursor, Integer size) {
+        int pageSize = normalizePageSize(size);
+        long before = cursor != null ? cursor : Long.MAX_VALUE;
+        // Fetch one extra row to know whether another page exists without a count query
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<NotificationSummary> rows = (type == null || type.isBlank())
+            ? notificationRepository.findInboxPage(userId, before, limit)
+            : notificationRepository.findInboxPageByType(userId, type, before, limit);
+        
+        return toCursorPage(rows, pageSize);
+    }
+    
+    // Get one page of unread notifications, newest first, optionally filtered by type
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<NotificationDTO> getUnreadInbox(String userId, String type, Long cursor, Integer size) {
+        int pageSize = normalizePageSize(size);
+        long before = cursor != null ? cursor : Long.MAX_VALUE;
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        
+        List<NotificationSummary> rows = (type == null || type.isBlank())
+            ? notificationRepository.findUnreadPage(userId, before, limit)
+            : notificationRepository.findUnreadPageByType(userId, type, before, limit);
+        
+        return toCursorPage(rows, pageSize);
+    }
+    
+    // Notifications after the given id, oldest first, for resuming a stream
+    @Transactional(readOnly = true)
+    public List<NotificationDTO> getNotificationsAfter(String userId, Long afterId, int limit) {
+        return notificationRepository.findCreatedAfter(userId, afterId, PageRequest.of(0, limit)).stream()
             .map(this::convertToDTO)
             .collect(Collectors.toList());
     }
@@ -96,11 +153,17 @@ public class NotificationService {
         }
         
         notificationRepository.markAsRead(notificationId, LocalDateTime.now());
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            notificationDispatcher.unreadCountChanged(userId, -1);
+        }
     }
     
     // Mark all notifications as read
     public void markAllAsRead(String userId) {
-        notificationRepository.markAllAsRead(userId, LocalDateTime.now());
+        int updated = notificationRepository.markAllAsRead(userId, LocalDateTime.now());
+        if (updated > 0) {
+            notificationDispatcher.unreadCountChanged(userId, -updated);
+        }
     }
     
     // Delete notification
@@ -113,13 +176,39 @@ public class NotificationService {
         }
         
         notificationRepository.delete(notification);
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            notificationDispatcher.unreadCountChanged(userId, -1);
+        }
     }
     
-    // Create notification (for internal use)
+    // Create notification (for internal use). Timed per type and outcome, including the
+    // WebSocket/SSE fan-out, as resolveit.notifications.create and a JFR fan-out event
     public void createNotification(String userId, String type, String title, String message, Long grievanceId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        FlightEvents.NotificationFanOutEvent event = new FlightEvents.NotificationFanOutEvent();
+        event.begin();
+        String outcome = "error";
+        try {
+            outcome = storeAndDispatch(userId, type, title, message, grievanceId);
+        } finally {
+            sample.stop(meterRegistry.timer("resolveit.notifications.create", "type", type, "outcome", outcome));
+            event.end();
+            if (event.shouldCommit()) {
+                event.type = type;
+                event.outcome = outcome;
+                event.grievanceId = grievanceId != null ? grievanceId : 0;
+                event.commit();
+            }
+        }
+    }
+    
+    // Returns what happened: suppressed (by preferences), coalesced or created
+    private String storeAndDispatch(String userId, String type, String title, String message, Long grievanceId) {
+        Optional<NotificationPreference> preferences = preferenceRepository.findByUserUserId(userId);
+        
         // Check user preferences
-        if (!shouldSendNotification(userId, type)) {
-            return;
+        if (!shouldSendNotification(preferences, type)) {
+            return "suppressed";
         }
         
         User user = userRepository.findByUserId(userId)
@@ -130,20 +219,48 @@ public class NotificationService {
             grievance = grievanceRepository.findById(grievanceId).orElse(null);
         }
         
-        Notification notification = Notification.builder()
-            .user(user)
-            .type(type)
-            .title(title)
-            .message(message)
-            .grievance(grievance)
-            .isRead(false)
-            .createdAt(LocalDateTime.now())
-            .build();
+        LocalDateTime now = LocalDateTime.now();
+        Notification savedNotification = null;
+        String outcome = "coalesced";
+        
+        // Merge into a recent unread notification about the same grievance if there is one.
+        // The merged row keeps its id and created_at, so it stays where it was in the inbox
+        // (ordered by id) and SSE replay after a reconnect (id > Last-Event-ID) skips it;
+        // connected clients get the update as a push with the same id.
+        if (coalesceEnabled && grievance != null && coalesceTypes.contains(type)) {
+            savedNotification = notificationRepository
+                .findFirstByUser_IdAndGrievance_IdAndTypeAndIsReadFalseAndCreatedAtAfterOrderByIdDesc(
+                    user.getId(), grievance.getId(), type, now.minusSeconds(coalesceWindowSeconds))
+                .map(existing -> {
+                    existing.setTitle(title);
+                    existing.setMessage(message);
+                    existing.setCoalescedCount(existing.getCoalescedCount() != null ? existing.getCoalescedCount() + 1 : 2);
+                    existing.setUpdatedAt(now);
+                    return notificationRepository.save(existing);
+                })
+                .orElse(null);
+        }
         
-        Notification savedNotification = notificationRepository.save(notification);
+        if (savedNotification == null) {
+            Notification notification = Notification.builder()
+                .user(user)
+                .type(type)
+                .title(title)
+                .message(message)
+                .grievance(grievance)
+                .isRead(false)
+                .createdAt(now)
+                .build();
+            
+            savedNotification = notificationRepository.save(notification);
+            notificationDispatcher.unreadCountChanged(userId, 1);
+            outcome = "created";
+        }
         
-        // Send WebSocket notification
-        sendWebSocketNotification(userId, convertToDTO(savedNotification));
+        // Send WebSocket notification (or hold it for the user's digest)
+        boolean digestMode = preferences.map(p -> Boolean.TRUE.equals(p.getDigestEnabled())).orElse(false);
+        notificationDispatcher.dispatch(userId, convertToDTO(savedNotification), digestMode);
+        return outcome;
     }
     
     // Create status update notification
@@ -179,8 +296,8 @@ public class NotificationService {
     }
     
     // Check if should send notification based on preferences
-    private boolean shouldSendNotification(String userId, String type) {
-        return preferenceRepository.findByUserUserId(userId)
+    private boolean shouldSendNotification(Optional<NotificationPreference> userPreferences, String type) {
+        return userPreferences
             .map(preferences -> {
                 switch (type) {
                     case "STATUS_UPDATE":
@@ -200,15 +317,6 @@ public class NotificationService {
             .orElse(true); // Default to true if preferences not found
     }
     
-    // Send WebSocket notification
-    private void sendWebSocketNotification(String userId, NotificationDTO notification) {
-        messagingTemplate.convertAndSendToUser(
-            userId,
-            "/queue/notifications",
-            notification
-        );
-    }
-    
     // Convert entity to DTO
     private NotificationDTO convertToDTO(Notification notification) {
         String timeAgo = getTimeAgo(notification.getCreatedAt());
@@ -223,11 +331,51 @@ public class NotificationService {
             .isRead(notification.getIsRead())
             .createdAt(notification.getCreatedAt())
             .readAt(notification.getReadAt())
+            .coalescedCount(notification.getCoalescedCount() != null ? notification.getCoalescedCount() : 1)
             .timeAgo(timeAgo)
             .formattedDate(notification.getCreatedAt().format(formatter))
             .build();
     }
     
+    // Convert inbox projection row to DTO
+    private NotificationDTO convertToDTO(NotificationSummary summary) {
+        return NotificationDTO.builder()
+            .id(summary.getId())
+            .type(summary.getType())
+            .title(summary.getTitle())
+            .message(summary.getMessage())
+            .grievanceId(summary.getGrievanceId())
+            .grievanceTitle(summary.getGrievanceTitle())
+            .isRead(summary.getIsRead())
+            .createdAt(summary.getCreatedAt())
+            .readAt(summary.getReadAt())
+            .coalescedCount(summary.getCoalescedCount() != null ? summary.getCoalescedCount() : 1)
+            .timeAgo(getTimeAgo(summary.getCreatedAt()))
+            .formattedDate(summary.getCreatedAt().format(formatter))
+            .build();
+    }
+    
+    private CursorPaginatedResponse<NotificationDTO> toCursorPage(List<NotificationSummary> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<NotificationSummary> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        CursorPaginatedResponse<NotificationDTO> response = new CursorPaginatedResponse<>();
+        response.setContent(pageRows.stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList()));
+        response.setPageSize(pageSize);
+        response.setLast(!hasMore);
+        response.setNextCursor(hasMore ? pageRows.get(pageRows.size() - 1).getId() : null);
+        return response;
+    }
+    
+    private int normalizePageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+    
     // Get time ago string
     private String getTimeAgo(LocalDateTime dateTime) {
         long minutes = ChronoUnit.MINUTES.between(dateTime, LocalDateTime.now());
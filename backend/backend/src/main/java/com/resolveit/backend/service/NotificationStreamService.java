@@ -0,0 +1,153 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.dto.NotificationDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-Sent Events transport for notifications, for clients that cannot keep a
+ * SockJS connection open.
+ *
+ * Each stream registers as a listener on {@link NotificationDispatcher}, so it gets
+ * the same pushes, coalescing and digests as the STOMP queue. Events carry the
+ * notification id, and a reconnecting client's Last-Event-ID replays what it missed.
+ * Replay only covers newer ids: a notification coalesced while the client was away keeps
+ * its id, so its updated content shows up on the next fetch of the inbox, not in replay.
+ * Replay is read in pages of replay-limit rows up to replay-max in total; a client that
+ * missed more than that gets a replay-truncated event and should refetch its inbox.
+ * Keepalives for all open streams come from one scheduled task.
+ */
+@Service
+@Slf4j
+public class NotificationStreamService {
+
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationService notificationService;
+
+    @Value("${notification.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notification.stream.retry-ms:5000}")
+    private long retryMs;
+
+    @Value("${notification.stream.replay-limit:100}")
+    private int replayLimit;
+
+    @Value("${notification.stream.replay-max:1000}")
+    private int replayMax;
+
+    private final Set<Stream> streams = ConcurrentHashMap.newKeySet();
+
+    public NotificationStreamService(NotificationDispatcher notificationDispatcher,
+                                     NotificationService notificationService) {
+        this.notificationDispatcher = notificationDispatcher;
+        this.notificationService = notificationService;
+    }
+
+    public SseEmitter subscribe(String userId, Long lastEventId) {
+        Stream stream = new Stream(new SseEmitter(timeoutMs));
+        streams.add(stream);
+
+        // Listen before replaying so nothing created in between is missed; the client
+        // may see an event twice and can drop it by id
+        Runnable removeListener = notificationDispatcher.addListener(userId, stream);
+        Runnable cleanup = () -> {
+            streams.remove(stream);
+            removeListener.run();
+        };
+        stream.emitter.onCompletion(cleanup);
+        stream.emitter.onTimeout(cleanup);
+        stream.emitter.onError(error -> cleanup.run());
+
+        try {
+            stream.emitter.send(SseEmitter.event().reconnectTime(retryMs).comment("connected"));
+            if (lastEventId != null) {
+                replay(stream, userId, lastEventId);
+            }
+            stream.send(SseEmitter.event()
+                .name("unread-count")
+                .data(Map.of("unreadCount", notificationService.getUnreadCount(userId)), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            stream.emitter.completeWithError(e);
+        }
+        return stream.emitter;
+    }
+
+    private void replay(Stream stream, String userId, long lastEventId) {
+        long cursor = lastEventId;
+        int replayed = 0;
+        while (streams.contains(stream)) {
+            List<NotificationDTO> page = notificationService.getNotificationsAfter(userId, cursor, replayLimit);
+            for (NotificationDTO notification : page) {
+                stream.onNotification(notification);
+            }
+            replayed += page.size();
+            if (page.size() < replayLimit) {
+                return;
+            }
+            cursor = page.get(page.size() - 1).getId();
+            if (replayed >= replayMax) {
+                // Too far behind to catch up event by event: the client reloads the inbox instead
+                stream.send(SseEmitter.event()
+                    .name("replay-truncated")
+                    .data(Map.of("replayed", replayed, "lastEventId", cursor), MediaType.APPLICATION_JSON));
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.stream.keepalive-ms:15000}")
+    public void sendKeepalives() {
+        for (Stream stream : streams) {
+            stream.send(SseEmitter.event().comment("keepalive"));
+        }
+    }
+
+    private class Stream implements NotificationDispatcher.NotificationListener {
+
+        private final SseEmitter emitter;
+
+        Stream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onNotification(NotificationDTO notification) {
+            SseEmitter.SseEventBuilder event = SseEmitter.event()
+                .name("notification")
+                .data(notification, MediaType.APPLICATION_JSON);
+            if (notification.getId() != null) {
+                event.id(String.valueOf(notification.getId()));
+            }
+            send(event);
+        }
+
+        @Override
+        public void onUnreadCountChanged(int delta) {
+            send(SseEmitter.event()
+                .name("unread-count")
+                .data(Map.of("delta", delta), MediaType.APPLICATION_JSON));
+        }
+
+        void send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; completion callbacks remove the stream
+                log.debug("Closing notification stream: {}", e.getMessage());
+                streams.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.resolveit.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where stored file content lives, addressed by relative keys such as
+ * "objects/ab/cd/<sha256>.png" or "profile-pictures/<uuid>.jpg".
+ *
+ * {@link FileStorageService} owns naming, hashing and reference counting and talks to
+ * the backend only through this interface. The backend is chosen with
+ * file.storage.backend: "local" (the uploads directory, default) or "s3" (any
+ * S3-compatible store, shared by all application nodes).
+ */
+public interface ObjectStorage {
+
+    // Size and modification time of a stored object. localPath is set only when the
+    // content is a file on this node, so downloads can use sendfile.
+    record ObjectInfo(long size, long lastModified, Path localPath) {
+    }
+
+    // One entry of a listing page
+    record ObjectEntry(String key, long size, long lastModified) {
+    }
+
+    // Store a fully written local file under the key, replacing any existing object.
+    // The source file may be moved or deleted by the call.
+    void putFile(String key, Path source, String contentType) throws IOException;
+
+    // Store small content held in memory (e.g. a rendered thumbnail)
+    void putBytes(String key, byte[] content, String contentType) throws IOException;
+
+    Optional<ObjectInfo> stat(String key) throws IOException;
+
+    // Stream length bytes starting at offset (length -1 reads to the end); the caller closes it
+    InputStream open(String key, long offset, long length) throws IOException;
+
+    // Does nothing when the object does not exist
+    void delete(String key) throws IOException;
+
+    // Keys starting with the prefix, e.g. "objects/ab/cd/<sha>-" for an object's thumbnails
+    List<String> list(String prefix) throws IOException;
+
+    // Up to limit objects in key order, starting after the given key (null for the first page).
+    // A page shorter than limit is the last one. Used to walk the whole store in bounded batches.
+    List<ObjectEntry> listPage(String startAfter, int limit) throws IOException;
+}
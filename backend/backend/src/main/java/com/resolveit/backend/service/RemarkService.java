@@ -10,6 +10,7 @@ import com.resolveit.backend.repository.GrievanceRepository;
 import com.resolveit.backend.repository.RemarkRepository;
 import com.resolveit.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +22,7 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class RemarkService {
     
@@ -89,7 +91,7 @@ public class RemarkService {
                 }
             }
             // If no staff assigned, log (optional)
-            System.out.println("No staff assigned for grievance " + grievance.getId() + ". No notification sent.");
+            log.debug("No staff assigned for grievance {}. No notification sent.", grievance.getId());
             
         } else {
             // Staff/Admin added remark → Notify STUDENT
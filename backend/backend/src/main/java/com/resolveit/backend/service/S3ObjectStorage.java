@@ -0,0 +1,342 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.config.ExecutionMode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Objects in an S3-compatible bucket (AWS S3, MinIO, ...), so every node sees the same files.
+ *
+ * Files from file.storage.s3.multipart-threshold-bytes up are sent as a multipart upload:
+ * the parts are read straight from the local temp file with positional reads and uploaded
+ * in parallel on a shared pool, so neither the file nor a whole part is held in memory.
+ * Reads are ranged GETs streamed from the response.
+ */
+@Component
+@ConditionalOnProperty(name = "file.storage.backend", havingValue = "s3")
+@Slf4j
+public class S3ObjectStorage implements ObjectStorage {
+
+    @Value("${file.storage.s3.bucket}")
+    private String bucket;
+
+    // Empty for AWS; e.g. http://localhost:9000 for MinIO
+    @Value("${file.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${file.storage.s3.region:us-east-1}")
+    private String region;
+
+    // Empty to use the default AWS credential chain (environment, instance profile, ...)
+    @Value("${file.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${file.storage.s3.secret-key:}")
+    private String secretKey;
+
+    // MinIO and most self-hosted stores need bucket-in-path URLs
+    @Value("${file.storage.s3.path-style-access:true}")
+    private boolean pathStyleAccess;
+
+    @Value("${file.storage.s3.multipart-threshold-bytes:16777216}")
+    private long multipartThreshold;
+
+    // S3 requires at least 5 MB for every part but the last
+    @Value("${file.storage.s3.part-size-bytes:8388608}")
+    private long partSize;
+
+    @Value("${file.storage.s3.upload-threads:8}")
+    private int uploadThreads;
+
+    @Value("${file.storage.s3.max-connections:64}")
+    private int maxConnections;
+
+    private final ExecutionMode executionMode;
+
+    private S3Client client;
+    private ThreadPoolExecutor partExecutor;
+
+    public S3ObjectStorage(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (partSize < 5L * 1024 * 1024) {
+            throw new IllegalStateException("file.storage.s3.part-size-bytes must be at least 5 MB");
+        }
+        S3ClientBuilder builder = S3Client.builder()
+            .region(Region.of(region))
+            .forcePathStyle(pathStyleAccess)
+            .httpClientBuilder(ApacheHttpClient.builder().maxConnections(maxConnections));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        if (!accessKey.isBlank()) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        }
+        client = builder.build();
+
+        partExecutor = new ThreadPoolExecutor(uploadThreads, uploadThreads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), executionMode.threadFactory("s3-part-"));
+        partExecutor.allowCoreThreadTimeOut(true);
+        log.info("Object storage: s3 bucket {} at {}", bucket, endpoint.isBlank() ? "AWS " + region : endpoint);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdownNow();
+        client.close();
+    }
+
+    @Override
+    public void putFile(String key, Path source, String contentType) throws IOException {
+        try {
+            long size = Files.size(source);
+            if (size < multipartThreshold) {
+                client.putObject(request -> request.bucket(bucket).key(key).contentType(contentType),
+                    RequestBody.fromFile(source));
+            } else {
+                multipartUpload(key, source, size, contentType);
+            }
+        } catch (SdkException e) {
+            throw new IOException("Upload to object storage failed: " + key, e);
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    @Override
+    public void putBytes(String key, byte[] content, String contentType) throws IOException {
+        try {
+            client.putObject(request -> request.bucket(bucket).key(key).contentType(contentType),
+                RequestBody.fromBytes(content));
+        } catch (SdkException e) {
+            throw new IOException("Upload to object storage failed: " + key, e);
+        }
+    }
+
+    private void multipartUpload(String key, Path source, long size, String contentType) throws IOException {
+        String uploadId = client.createMultipartUpload(request -> request.bucket(bucket).key(key).contentType(contentType))
+            .uploadId();
+        int partCount = (int) ((size + partSize - 1) / partSize);
+        List<Future<CompletedPart>> futures = new ArrayList<>(partCount);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            for (int i = 0; i < partCount; i++) {
+                int partNumber = i + 1;
+                long offset = i * partSize;
+                long length = Math.min(partSize, size - offset);
+                futures.add(partExecutor.submit(() -> uploadPart(key, uploadId, partNumber, channel, offset, length)));
+            }
+            List<CompletedPart> parts = new ArrayList<>(partCount);
+            for (Future<CompletedPart> future : futures) {
+                parts.add(future.get());
+            }
+            client.completeMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId)
+                .multipartUpload(upload -> upload.parts(parts)));
+        } catch (Exception e) {
+            futures.forEach(future -> future.cancel(true));
+            abortQuietly(key, uploadId);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw new IOException("Multipart upload failed: " + key, cause);
+        }
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, int partNumber,
+                                     FileChannel channel, long offset, long length) {
+        // The provider is called again if the SDK retries the part
+        String eTag = client.uploadPart(request -> request.bucket(bucket).key(key).uploadId(uploadId)
+                .partNumber(partNumber).contentLength(length),
+            RequestBody.fromContentProvider(() -> new FileRegionInputStream(channel, offset, length),
+                length, "application/octet-stream"))
+            .eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private void abortQuietly(String key, String uploadId) {
+        try {
+            client.abortMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId));
+        } catch (SdkException e) {
+            log.warn("Could not abort multipart upload {} for {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<ObjectInfo> stat(String key) throws IOException {
+        try {
+            HeadObjectResponse head = client.headObject(request -> request.bucket(bucket).key(key));
+            return Optional.of(new ObjectInfo(head.contentLength(), head.lastModified().toEpochMilli(), null));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw new IOException("Object storage lookup failed: " + key, e);
+        } catch (SdkException e) {
+            throw new IOException("Object storage lookup failed: " + key, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        if (length == 0) {
+            return InputStream.nullInputStream();
+        }
+        GetObjectRequest.Builder request = GetObjectRequest.builder().bucket(bucket).key(key);
+        if (offset > 0 || length > 0) {
+            request.range("bytes=" + offset + "-" + (length < 0 ? "" : String.valueOf(offset + length - 1)));
+        }
+        try {
+            return new AbortOnCloseInputStream(client.getObject(request.build()));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(key);
+        } catch (SdkException e) {
+            throw new IOException("Object storage read failed: " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            client.deleteObject(request -> request.bucket(bucket).key(key));
+        } catch (SdkException e) {
+            throw new IOException("Object storage delete failed: " + key, e);
+        }
+    }
+
+    @Override
+    public List<String> list(String prefix) throws IOException {
+        try {
+            List<String> keys = new ArrayList<>();
+            for (S3Object object : client.listObjectsV2Paginator(request -> request.bucket(bucket).prefix(prefix)).contents()) {
+                keys.add(object.key());
+            }
+            return keys;
+        } catch (SdkException e) {
+            throw new IOException("Object storage listing failed: " + prefix, e);
+        }
+    }
+
+    @Override
+    public List<ObjectEntry> listPage(String startAfter, int limit) throws IOException {
+        try {
+            List<ObjectEntry> entries = new ArrayList<>(limit);
+            for (S3Object object : client.listObjectsV2(request -> request.bucket(bucket)
+                    .startAfter(startAfter).maxKeys(Math.min(limit, 1000))).contents()) {
+                entries.add(new ObjectEntry(object.key(), object.size(), object.lastModified().toEpochMilli()));
+            }
+            return entries;
+        } catch (SdkException e) {
+            throw new IOException("Object storage listing failed after " + startAfter, e);
+        }
+    }
+
+    // One part of the source file, read with positional reads so parts can share the channel
+    private static final class FileRegionInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+
+        FileRegionInputStream(FileChannel channel, long offset, long length) {
+            this.channel = channel;
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int read = channel.read(ByteBuffer.wrap(buffer, off, (int) Math.min(len, end - position)), position);
+            if (read < 0) {
+                return -1;
+            }
+            position += read;
+            return read;
+        }
+    }
+
+    // Closing a response before its end would otherwise drain the rest of the object
+    // (e.g. a client that disconnects halfway through a large download)
+    private static final class AbortOnCloseInputStream extends FilterInputStream {
+        private final ResponseInputStream<GetObjectResponse> response;
+        private boolean finished;
+
+        AbortOnCloseInputStream(ResponseInputStream<GetObjectResponse> response) {
+            super(response);
+            this.response = response;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            finished |= b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int read = super.read(buffer, off, len);
+            finished |= read < 0;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                response.abort();
+            }
+            super.close();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.resolveit.backend.service;
 
+import com.resolveit.backend.config.FlightEvents;
 import com.resolveit.backend.dto.StatusUpdateRequest;
 import com.resolveit.backend.dto.WebSocketMessage;
 import com.resolveit.backend.entity.Grievance;
@@ -14,10 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +29,8 @@ public class StatusUpdateService {
     private final SimpMessagingTemplate messagingTemplate;
     
     public void updateGrievanceStatus(Long grievanceId, StatusUpdateRequest request, Long updatedByUserId) {
+        FlightEvents.StatusTransitionEvent event = new FlightEvents.StatusTransitionEvent();
+        event.begin();
         Grievance grievance = grievanceRepository.findById(grievanceId)
             .orElseThrow(() -> new RuntimeException("Grievance not found"));
         
@@ -68,6 +68,16 @@ public class StatusUpdateService {
             notificationService.createFeedbackReminderNotification(grievanceId);
         }
         // ====================================================================
+        
+        // Covers the whole transition: timeline entry, WebSocket message and notifications
+        event.end();
+        if (event.shouldCommit()) {
+            event.grievanceId = grievanceId;
+            event.fromStatus = oldStatus;
+            event.toStatus = newStatus;
+            event.updatedBy = updatedByUserId;
+            event.commit();
+        }
     }
     
     private void validateStatus(String status) {
@@ -79,23 +89,8 @@ public class StatusUpdateService {
     
     private void sendStatusUpdateNotification(Long grievanceId, String oldStatus, 
                                               String newStatus, User updatedBy, String note) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a");
-        
-        Map<String, Object> additionalData = new HashMap<>();
-        additionalData.put("oldStatus", oldStatus);
-        additionalData.put("newStatus", newStatus);
-        additionalData.put("note", note != null ? note : "");
-        additionalData.put("formattedTime", LocalDateTime.now().format(formatter));
-        additionalData.put("updatedBy", updatedBy.getFirstName() + " " + updatedBy.getLastName());
-        
-        WebSocketMessage message = WebSocketMessage.builder()
-            .type("STATUS_UPDATE")
-            .grievanceId(grievanceId)
-            .remark(null)
-            .sender(updatedBy.getFirstName() + " " + updatedBy.getLastName())
-            .timestamp(LocalDateTime.now())
-            .additionalData(additionalData)
-            .build();
+        WebSocketMessage message = WebSocketMessage.createStatusUpdateMessage(
+            grievanceId, oldStatus, newStatus, note, updatedBy.getFirstName() + " " + updatedBy.getLastName());
         
         messagingTemplate.convertAndSend("/topic/grievance/" + grievanceId, message);
     }
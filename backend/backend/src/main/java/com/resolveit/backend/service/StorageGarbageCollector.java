@@ -0,0 +1,223 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.dto.StorageGcMetricsDTO;
+import com.resolveit.backend.repository.AttachmentRepository;
+import com.resolveit.backend.repository.UploadSessionRepository;
+import com.resolveit.backend.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mark-and-sweep collection of stored files that nothing references.
+ *
+ * Each run walks the object store a page at a time in key order, continuing where the previous
+ * run stopped, so no run holds more than one page of the listing. For every page the keys
+ * referenced from users.profile_picture_url and attachments are looked up with one query each
+ * (mark); everything else older than the grace period is deleted (sweep). Thumbnails live as
+ * long as their original. Stale temp files in the local staging directory are removed too,
+ * except working files of resumable uploads that still have a session.
+ *
+ * The grace period protects files that are being uploaded or were uploaded but not linked yet
+ * (e.g. a grievance form that hasn't been submitted). Content-addressed objects are also kept
+ * if anything took a new reference to them since the cutoff.
+ */
+@Service
+@Slf4j
+public class StorageGarbageCollector {
+    
+    private final ObjectStorage objectStorage;
+    private final FileStorageService fileStorageService;
+    private final UserRepository userRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final UploadSessionRepository uploadSessionRepository;
+    
+    @Value("${storage.gc.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${storage.gc.grace-period-hours:24}")
+    private long gracePeriodHours;
+    
+    @Value("${storage.gc.batch-size:500}")
+    private int batchSize;
+    
+    // Pages per run; the next run picks up from the cursor
+    @Value("${storage.gc.batches-per-run:20}")
+    private int batchesPerRun;
+    
+    @Value("${storage.gc.batch-pause-ms:100}")
+    private long batchPauseMs;
+    
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile String cursor;
+    private volatile LocalDateTime currentPassStartedAt;
+    private volatile LocalDateTime lastPassCompletedAt;
+    
+    // Totals since startup
+    private final AtomicLong totalRuns = new AtomicLong();
+    private final AtomicLong totalPasses = new AtomicLong();
+    private final AtomicLong totalScanned = new AtomicLong();
+    private final AtomicLong totalDeleted = new AtomicLong();
+    private final AtomicLong totalBytesFreed = new AtomicLong();
+    
+    // Last run
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunScanned;
+    private volatile long lastRunDeleted;
+    private volatile long lastRunBytesFreed;
+    private volatile long lastRunDurationMs;
+    
+    public StorageGarbageCollector(ObjectStorage objectStorage,
+                                   FileStorageService fileStorageService,
+                                   UserRepository userRepository,
+                                   AttachmentRepository attachmentRepository,
+                                   UploadSessionRepository uploadSessionRepository) {
+        this.objectStorage = objectStorage;
+        this.fileStorageService = fileStorageService;
+        this.userRepository = userRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.uploadSessionRepository = uploadSessionRepository;
+    }
+    
+    @Scheduled(fixedDelayString = "${storage.gc.interval-ms:600000}", initialDelayString = "${storage.gc.initial-delay-ms:300000}")
+    public void scheduledRun() {
+        if (enabled) {
+            run();
+        }
+    }
+    
+    // Process up to batches-per-run pages; returns false if a run is already in progress
+    public boolean run() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        
+        long started = System.currentTimeMillis();
+        long[] counters = new long[3]; // scanned, deleted, bytes freed
+        try {
+            Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+            
+            for (int batch = 0; batch < batchesPerRun; batch++) {
+                if (cursor == null) {
+                    currentPassStartedAt = LocalDateTime.now();
+                }
+                List<ObjectStorage.ObjectEntry> page = objectStorage.listPage(cursor, batchSize);
+                sweep(page, cutoff, counters);
+                
+                if (page.size() < batchSize) {
+                    cursor = null;
+                    lastPassCompletedAt = LocalDateTime.now();
+                    totalPasses.incrementAndGet();
+                    break;
+                }
+                cursor = page.get(page.size() - 1).key();
+                if (batchPauseMs > 0) {
+                    Thread.sleep(batchPauseMs);
+                }
+            }
+            
+            counters[2] += fileStorageService.deleteStaleTempFiles(cutoff, uploadSessionRepository::existsById, batchSize);
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Storage garbage collection interrupted");
+        } catch (Exception e) {
+            log.error("Storage garbage collection failed", e);
+        } finally {
+            lastRunAt = LocalDateTime.now();
+            lastRunScanned = counters[0];
+            lastRunDeleted = counters[1];
+            lastRunBytesFreed = counters[2];
+            lastRunDurationMs = System.currentTimeMillis() - started;
+            totalRuns.incrementAndGet();
+            totalScanned.addAndGet(counters[0]);
+            totalDeleted.addAndGet(counters[1]);
+            totalBytesFreed.addAndGet(counters[2]);
+            running.set(false);
+        }
+        
+        log.info("Storage GC: scanned {}, deleted {} ({} bytes) in {} ms{}", lastRunScanned, lastRunDeleted,
+            lastRunBytesFreed, lastRunDurationMs, cursor == null ? "" : ", continuing after " + cursor);
+        return true;
+    }
+    
+    // Mark the page's keys that are referenced, then delete the rest if they are old enough
+    private void sweep(List<ObjectStorage.ObjectEntry> page, Instant cutoff, long[] counters) {
+        List<String> originals = new ArrayList<>();
+        List<String> derived = new ArrayList<>();
+        for (ObjectStorage.ObjectEntry entry : page) {
+            // The local backend shares its root with the staging directory, swept separately
+            if (FileStorageService.isTempFile(entry.key())) {
+                continue;
+            }
+            counters[0]++;
+            if (entry.lastModified() >= cutoff.toEpochMilli()) {
+                continue;
+            }
+            (FileStorageService.isDerivedFile(entry.key()) ? derived : originals).add(entry.key());
+        }
+        
+        Set<String> referenced = new HashSet<>();
+        if (!originals.isEmpty()) {
+            referenced.addAll(userRepository.findReferencedProfilePictures(originals));
+            referenced.addAll(attachmentRepository.findReferencedStorageKeys(originals));
+        }
+        
+        for (String key : originals) {
+            if (!referenced.contains(key)) {
+                collect(key, cutoff, counters);
+            }
+        }
+        // Thumbnails of an original deleted above went with it; these lost theirs earlier
+        for (String key : derived) {
+            if (!fileStorageService.hasOriginal(key)) {
+                collect(key, cutoff, counters);
+            }
+        }
+    }
+    
+    private void collect(String key, Instant cutoff, long[] counters) {
+        try {
+            long freed = fileStorageService.deleteOrphan(key, cutoff);
+            if (freed > 0) {
+                counters[1]++;
+                counters[2] += freed;
+                log.debug("Deleted unreferenced file {} ({} bytes)", key, freed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not delete unreferenced file {}: {}", key, e.getMessage());
+        }
+    }
+    
+    public StorageGcMetricsDTO getMetrics() {
+        return StorageGcMetricsDTO.builder()
+            .gracePeriodHours(gracePeriodHours)
+            .batchSize(batchSize)
+            .cursor(cursor)
+            .currentPassStartedAt(cursor == null ? null : currentPassStartedAt)
+            .lastPassCompletedAt(lastPassCompletedAt)
+            .running(running.get())
+            .lastRunAt(lastRunAt)
+            .lastRunScanned(lastRunScanned)
+            .lastRunDeleted(lastRunDeleted)
+            .lastRunBytesFreed(lastRunBytesFreed)
+            .lastRunDurationMs(lastRunDurationMs)
+            .totalRuns(totalRuns.get())
+            .totalPasses(totalPasses.get())
+            .totalScanned(totalScanned.get())
+            .totalDeleted(totalDeleted.get())
+            .totalBytesFreed(totalBytesFreed.get())
+            .build();
+    }
+}
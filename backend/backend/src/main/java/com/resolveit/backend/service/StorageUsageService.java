@@ -0,0 +1,117 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.dto.StorageUsageDTO;
+import com.resolveit.backend.entity.StorageUsage;
+import com.resolveit.backend.entity.StorageUsage.OwnerType;
+import com.resolveit.backend.entity.User;
+import com.resolveit.backend.repository.StorageUsageRepository;
+import com.resolveit.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user and per-department storage counters.
+ *
+ * Updated incrementally whenever a file is attached, removed or replaced, so reading
+ * usage (for quotas or the profile page) is a single-row lookup. Attachments count
+ * towards the uploader and the grievance's department, profile pictures towards the
+ * user and their department.
+ */
+@Service
+@RequiredArgsConstructor
+public class StorageUsageService {
+    
+    private final StorageUsageRepository storageUsageRepository;
+    private final UserRepository userRepository;
+    
+    // 0 disables the quota
+    @Value("${storage.quota.user-bytes:0}")
+    private long userQuotaBytes;
+    
+    @Value("${storage.quota.department-bytes:0}")
+    private long departmentQuotaBytes;
+    
+    public void recordAdded(Long userId, Long departmentId, long bytes) {
+        apply(OwnerType.USER, userId, bytes, 1);
+        apply(OwnerType.DEPARTMENT, departmentId, bytes, 1);
+    }
+    
+    public void recordRemoved(Long userId, Long departmentId, long bytes) {
+        apply(OwnerType.USER, userId, -bytes, -1);
+        apply(OwnerType.DEPARTMENT, departmentId, -bytes, -1);
+    }
+    
+    // Fails if storing the given number of bytes would take the user or department over quota
+    public void checkQuota(Long userId, Long departmentId, long bytes) {
+        if (exceeds(OwnerType.USER, userId, bytes, userQuotaBytes)) {
+            throw new RuntimeException("Storage quota exceeded for user");
+        }
+        if (exceeds(OwnerType.DEPARTMENT, departmentId, bytes, departmentQuotaBytes)) {
+            throw new RuntimeException("Storage quota exceeded for department");
+        }
+    }
+    
+    // Usage of the user with the given login id (e.g. "STU001")
+    public StorageUsageDTO getUserUsage(String userId) {
+        User user = userRepository.findByUserId(userId)
+            .orElseThrow(() -> new RuntimeException("User not found: " + userId));
+        return getUsage(OwnerType.USER, user.getId());
+    }
+    
+    public StorageUsageDTO getUsage(OwnerType ownerType, Long ownerId) {
+        StorageUsage usage = storageUsageRepository.findByOwnerTypeAndOwnerId(ownerType, ownerId)
+            .orElseGet(() -> StorageUsage.builder().ownerType(ownerType).ownerId(ownerId).build());
+        long quota = quotaFor(ownerType);
+        
+        return StorageUsageDTO.builder()
+            .ownerType(ownerType.name())
+            .ownerId(ownerId)
+            .bytesUsed(usage.getBytesUsed())
+            .fileCount(usage.getFileCount())
+            .quotaBytes(quota > 0 ? quota : null)
+            .remainingBytes(quota > 0 ? Math.max(0, quota - usage.getBytesUsed()) : null)
+            .updatedAt(usage.getUpdatedAt())
+            .build();
+    }
+    
+    private boolean exceeds(OwnerType ownerType, Long ownerId, long bytes, long quota) {
+        if (ownerId == null || quota <= 0) {
+            return false;
+        }
+        long used = storageUsageRepository.findByOwnerTypeAndOwnerId(ownerType, ownerId)
+            .map(StorageUsage::getBytesUsed)
+            .orElse(0L);
+        return used + bytes > quota;
+    }
+    
+    private long quotaFor(OwnerType ownerType) {
+        return ownerType == OwnerType.USER ? userQuotaBytes : departmentQuotaBytes;
+    }
+    
+    // Update in place; the first change for an owner inserts its row
+    private void apply(OwnerType ownerType, Long ownerId, long bytes, long files) {
+        if (ownerId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (storageUsageRepository.addUsage(ownerType, ownerId, bytes, files, now) > 0) {
+            return;
+        }
+        try {
+            storageUsageRepository.saveAndFlush(StorageUsage.builder()
+                .ownerType(ownerType)
+                .ownerId(ownerId)
+                .bytesUsed(Math.max(0, bytes))
+                .fileCount(Math.max(0, files))
+                .updatedAt(now)
+                .build());
+        } catch (DataIntegrityViolationException e) {
+            // Another request created the row first
+            storageUsageRepository.addUsage(ownerType, ownerId, bytes, files, now);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.dto.StoredFile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size thumbnails for uploaded images (profile pictures).
+ *
+ * After an upload, every configured size is rendered on a small background pool and stored
+ * next to the original (same backend, same directory) as <name>-<size>.jpg (or .png when the image has transparency).
+ * Large sources are decoded with subsampling, so a 12 MP photo never lands on the heap at
+ * full resolution. A thumbnail that doesn't exist yet (older uploads, full queue) is queued
+ * on first request and the original is served meanwhile.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ThumbnailService {
+    
+    private final FileStorageService fileStorageService;
+    
+    @Value("${image.thumbnail.sizes:48,128,512}")
+    private int[] sizes;
+    
+    @Value("${image.thumbnail.threads:2}")
+    private int threads;
+    
+    @Value("${image.thumbnail.queue-capacity:500}")
+    private int queueCapacity;
+    
+    // Refuse to decode anything larger than this (decompression bombs)
+    @Value("${image.thumbnail.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+    
+    private ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    
+    @PostConstruct
+    public void init() {
+        sizes = Arrays.stream(sizes).distinct().sorted().toArray();
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "thumbnail-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    // Queue rendering of all sizes; does nothing for files that aren't readable images
+    public void generateAsync(String filePath) {
+        if (!isSupportedImage(filePath) || !pending.add(filePath)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(filePath);
+                } catch (Exception e) {
+                    log.warn("Thumbnail generation failed for {}: {}", filePath, e.getMessage());
+                } finally {
+                    pending.remove(filePath);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full; the thumbnail is requested again the next time someone asks for it
+            pending.remove(filePath);
+        }
+    }
+    
+    // Closest configured size that is at least the requested one (the largest if none is)
+    public int resolveSize(int requested) {
+        for (int size : sizes) {
+            if (size >= requested) {
+                return size;
+            }
+        }
+        return sizes[sizes.length - 1];
+    }
+    
+    // The stored thumbnail, or empty (and queued for rendering) if it doesn't exist yet
+    public Optional<StoredFile> getThumbnail(String filePath, int requestedSize) {
+        if (!isSupportedImage(filePath)) {
+            return Optional.empty();
+        }
+        int size = resolveSize(requestedSize);
+        for (String format : new String[] {"jpg", "png"}) {
+            String thumbnailPath = thumbnailPath(filePath, size, format);
+            if (fileStorageService.fileExists(thumbnailPath)) {
+                return Optional.of(fileStorageService.getFile(thumbnailPath));
+            }
+        }
+        if (fileStorageService.fileExists(filePath)) {
+            generateAsync(filePath);
+        }
+        return Optional.empty();
+    }
+    
+    private void generate(String filePath) throws IOException {
+        BufferedImage image;
+        try (InputStream source = fileStorageService.openStream(filePath)) {
+            image = decode(source, sizes[sizes.length - 1]);
+        }
+        if (image == null) {
+            return;
+        }
+        boolean alpha = image.getColorModel().hasAlpha();
+        String format = alpha ? "png" : "jpg";
+        
+        // Render from largest to smallest, each from the previous one: cheaper and
+        // sharper than scaling the original down in one step
+        BufferedImage current = image;
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            current = scale(current, sizes[i], alpha);
+            write(current, format, thumbnailPath(filePath, sizes[i], format));
+        }
+        log.debug("Rendered {} thumbnails for {}", sizes.length, filePath);
+    }
+    
+    // Decode the image, subsampling on read when it is much larger than needed
+    private BufferedImage decode(InputStream source, int largestSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (largestSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+    
+    // Fit within size x size keeping the aspect ratio; never upscales
+    private BufferedImage scale(BufferedImage source, int size, boolean alpha) {
+        double ratio = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        
+        BufferedImage scaled = new BufferedImage(width, height,
+            alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+    
+    // Encode in memory (thumbnails are small); the backend stores it without partial reads
+    private void write(BufferedImage image, String format, String thumbnailPath) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(16 * 1024);
+        if (!ImageIO.write(image, format, encoded)) {
+            throw new IOException("No writer for " + format);
+        }
+        fileStorageService.storeDerivedFile(thumbnailPath, encoded.toByteArray(), "jpg".equals(format) ? "image/jpeg" : "image/png");
+    }
+    
+    private boolean isSupportedImage(String filePath) {
+        int dot = filePath.lastIndexOf('.');
+        if (dot < 0 || FileStorageService.isDerivedFile(filePath)) {
+            return false;
+        }
+        return ImageIO.getImageReadersBySuffix(filePath.substring(dot + 1).toLowerCase(Locale.ROOT)).hasNext();
+    }
+    
+    // objects/ab/cd/<sha>.png -> objects/ab/cd/<sha>-128.jpg
+    private String thumbnailPath(String filePath, int size, String format) {
+        int dot = filePath.lastIndexOf('.');
+        String base = dot > filePath.lastIndexOf('/') ? filePath.substring(0, dot) : filePath;
+        return base + "-" + size + "." + format;
+    }
+}
@@ -0,0 +1,213 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.config.FlightEvents;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Times every call FileStorageService makes to the storage backend, as
+ * resolveit.storage.io tagged with the backend, the operation and its outcome.
+ *
+ * For open() only the time to open the stream is measured; reading it is part of the
+ * request that streams the file.
+ *
+ * Uploads and downloads also emit a JFR {@link FlightEvents.FileTransferEvent}; a download
+ * lasts from open() until the stream is closed and counts the bytes actually read. Local
+ * files served by sendfile or transferTo skip open(); FileDownloadService records those.
+ */
+class TimedObjectStorage implements ObjectStorage {
+
+    @FunctionalInterface
+    private interface StorageCall<T> {
+        T call() throws IOException;
+    }
+
+    private final ObjectStorage delegate;
+    private final MeterRegistry meterRegistry;
+    private final String backend;
+
+    TimedObjectStorage(ObjectStorage delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        // LocalObjectStorage -> local, S3ObjectStorage -> s3
+        this.backend = delegate.getClass().getSimpleName().replace("ObjectStorage", "").toLowerCase();
+    }
+
+    @Override
+    public void putFile(String key, Path source, String contentType) throws IOException {
+        FlightEvents.FileTransferEvent event = new FlightEvents.FileTransferEvent();
+        event.begin();
+        boolean success = false;
+        try {
+            time("put", () -> {
+                delegate.putFile(key, source, contentType);
+                return null;
+            });
+            success = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                commit(event, "upload", key, sizeOf(source), success);
+            }
+        }
+    }
+
+    @Override
+    public void putBytes(String key, byte[] content, String contentType) throws IOException {
+        FlightEvents.FileTransferEvent event = new FlightEvents.FileTransferEvent();
+        event.begin();
+        boolean success = false;
+        try {
+            time("put", () -> {
+                delegate.putBytes(key, content, contentType);
+                return null;
+            });
+            success = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                commit(event, "upload", key, content.length, success);
+            }
+        }
+    }
+
+    @Override
+    public Optional<ObjectInfo> stat(String key) throws IOException {
+        return time("stat", () -> delegate.stat(key));
+    }
+
+    @Override
+    public InputStream open(String key, long offset, long length) throws IOException {
+        FlightEvents.FileTransferEvent event = new FlightEvents.FileTransferEvent();
+        if (!event.isEnabled()) {
+            return time("open", () -> delegate.open(key, offset, length));
+        }
+        event.begin();
+        try {
+            return new RecordedDownload(time("open", () -> delegate.open(key, offset, length)), event, key);
+        } catch (IOException | RuntimeException e) {
+            event.end();
+            if (event.shouldCommit()) {
+                commit(event, "download", key, 0, false);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        time("delete", () -> {
+            delegate.delete(key);
+            return null;
+        });
+    }
+
+    @Override
+    public List<String> list(String prefix) throws IOException {
+        return time("list", () -> delegate.list(prefix));
+    }
+
+    @Override
+    public List<ObjectEntry> listPage(String startAfter, int limit) throws IOException {
+        return time("list", () -> delegate.listPage(startAfter, limit));
+    }
+
+    private <T> T time(String operation, StorageCall<T> call) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.call();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(meterRegistry.timer("resolveit.storage.io",
+                "backend", backend, "operation", operation, "outcome", outcome));
+        }
+    }
+
+    private void commit(FlightEvents.FileTransferEvent event, String direction, String key, long bytes,
+                        boolean success) {
+        event.backend = backend;
+        event.direction = direction;
+        event.transfer = "stream";
+        event.key = key;
+        event.bytes = bytes;
+        event.success = success;
+        event.commit();
+    }
+
+    private static long sizeOf(Path source) {
+        try {
+            return Files.size(source);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Counts what the caller reads and commits the download event on close
+    private class RecordedDownload extends FilterInputStream {
+
+        private final FlightEvents.FileTransferEvent event;
+        private final String key;
+        private long bytes;
+        private boolean failed;
+        private boolean closed;
+
+        RecordedDownload(InputStream in, FlightEvents.FileTransferEvent event, String key) {
+            super(in);
+            this.event = event;
+            this.key = key;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                int value = super.read();
+                if (value >= 0) {
+                    bytes++;
+                }
+                return value;
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            try {
+                int read = super.read(buffer, offset, length);
+                if (read > 0) {
+                    bytes += read;
+                }
+                return read;
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    event.end();
+                    if (event.shouldCommit()) {
+                        commit(event, "download", key, bytes, !failed);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -5,7 +5,9 @@ import com.resolveit.backend.entity.User;
 import com.resolveit.backend.entity.Department;
 import com.resolveit.backend.repository.UserRepository;
 import com.resolveit.backend.repository.DepartmentRepository;
+import com.resolveit.backend.security.SignedUrlService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,15 +15,20 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Slf4j
 public class UserService {
     
     private final UserRepository userRepository;
     private final DepartmentRepository departmentRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SignedUrlService signedUrlService;
+    private final FileStorageService fileStorageService;
+    private final StorageUsageService storageUsageService;
     
     public User updateProfile(Long userId, UserProfileUpdateDTO updateDTO) {
         User user = userRepository.findById(userId)
@@ -74,12 +81,46 @@ public class UserService {
         return userRepository.save(user);
     }
     
+    // Set (or with null, remove) the profile picture. The previous picture's reference is
+    // released, so its file is deleted unless something else still uses it.
     public User updateProfilePicture(Long userId, String profilePictureUrl) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
         
+        String previous = user.getProfilePictureUrl();
+        Long departmentId = user.getDepartmentId() != null ? user.getDepartmentId().longValue() : null;
         user.setProfilePictureUrl(profilePictureUrl);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        
+        boolean changed = !Objects.equals(previous, profilePictureUrl);
+        if (changed && profilePictureUrl != null) {
+            storageUsageService.recordAdded(userId, departmentId, sizeOf(profilePictureUrl));
+        }
+        if (previous != null) {
+            // Same path again (identical upload): only the extra reference is dropped
+            releaseProfilePicture(userId, changed ? departmentId : null, previous, changed);
+        }
+        return saved;
+    }
+    
+    private void releaseProfilePicture(Long userId, Long departmentId, String filePath, boolean countRemoval) {
+        if (countRemoval) {
+            storageUsageService.recordRemoved(userId, departmentId, sizeOf(filePath));
+        }
+        try {
+            fileStorageService.deleteFile(filePath);
+        } catch (RuntimeException e) {
+            // The storage garbage collector removes it later
+            log.warn("Could not release old profile picture {}: {}", filePath, e.getMessage());
+        }
+    }
+    
+    private long sizeOf(String filePath) {
+        try {
+            return fileStorageService.getFile(filePath).getSize();
+        } catch (RuntimeException e) {
+            return 0;
+        }
     }
     
     public Map<String, Object> getUserProfile(Long userId) {
@@ -124,6 +165,7 @@ public class UserService {
         profile.put("semester", user.getSemester());
         profile.put("gpa", user.getGpa());
         profile.put("profilePictureUrl", user.getProfilePictureUrl());
+        profile.put("profilePictureSignedUrl", signedUrlService.sign(user.getProfilePictureUrl(), SignedUrlService.Scope.VIEW));
         profile.put("emailNotifications", user.getEmailNotifications());
         profile.put("pushNotifications", user.getPushNotifications());
         
@@ -0,0 +1,56 @@
+-- Converts the notifications table into a table range-partitioned by month on created_at.
+-- Run once, during a maintenance window, with the application stopped:
+--   psql -d resolveit -f notifications_partitioning.sql
+-- Afterwards NotificationRetentionService creates upcoming monthly partitions and drops
+-- expired ones instead of deleting rows. The primary key becomes (id, created_at) because
+-- PostgreSQL requires the partition key in every unique constraint; ids stay unique through
+-- the shared sequence.
+
+BEGIN;
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+
+CREATE SEQUENCE IF NOT EXISTS notifications_partitioned_id_seq;
+SELECT setval('notifications_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM notifications_legacy), 0) + 1, false);
+
+CREATE TABLE notifications (
+    id           BIGINT       NOT NULL DEFAULT nextval('notifications_partitioned_id_seq'),
+    user_id      BIGINT       NOT NULL REFERENCES users (id),
+    type         VARCHAR(255) NOT NULL,
+    title        VARCHAR(255) NOT NULL,
+    message      TEXT         NOT NULL,
+    grievance_id BIGINT       REFERENCES grievances (id),
+    is_read      BOOLEAN,
+    created_at   TIMESTAMP(6) NOT NULL,
+    read_at      TIMESTAMP(6),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE notifications_partitioned_id_seq OWNED BY notifications.id;
+
+CREATE INDEX idx_notifications_user_id_id ON notifications (user_id, id);
+CREATE INDEX idx_notifications_user_unread ON notifications (user_id, is_read, id);
+CREATE INDEX idx_notifications_created_at ON notifications (created_at);
+
+-- One partition per month from the oldest row up to two months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM notifications_legacy), now()))::date;
+    last_month  DATE := (date_trunc('month', now()) + INTERVAL '2 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS notifications_y%sm%s PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+            to_char(month_start, 'YYYY'), to_char(month_start, 'MM'),
+            month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO notifications (id, user_id, type, title, message, grievance_id, is_read, created_at, read_at)
+SELECT id, user_id, type, title, message, grievance_id, is_read, COALESCE(created_at, now()), read_at
+FROM notifications_legacy;
+
+DROP TABLE notifications_legacy;
+
+COMMIT;
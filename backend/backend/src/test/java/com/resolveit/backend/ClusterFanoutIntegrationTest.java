@@ -0,0 +1,184 @@
+package com.resolveit.backend;
+
+import com.resolveit.backend.config.ClusterTransport;
+import com.resolveit.backend.dto.NotificationDTO;
+import com.resolveit.backend.service.NotificationDispatcher;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs two application nodes in one JVM, joined by an in-memory cluster transport,
+ * and checks that a message sent on one node reaches a client connected to the other,
+ * over STOMP and through the notification listeners behind SSE streams.
+ */
+class ClusterFanoutIntegrationTest {
+
+    private static final List<Consumer<String>> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final List<String> PUBLISHED = new CopyOnWriteArrayList<>();
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("nodeA");
+        nodeB = startNode("nodeB");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    @Test
+    void topicMessageReachesClientOnOtherNode() throws Exception {
+        int port = ((WebServerApplicationContext) nodeB).getWebServer().getPort();
+
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        StompSession session = stompClient
+            .connectAsync("http://localhost:" + port + "/ws", new StompSessionHandlerAdapter() { })
+            .get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<Map<?, ?>> received = new LinkedBlockingQueue<>();
+        session.subscribe("/topic/grievance/42", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<?, ?>) payload);
+            }
+        });
+
+        // The subscription is registered asynchronously, so keep sending until it lands
+        SimpMessagingTemplate templateA = nodeA.getBean(SimpMessagingTemplate.class);
+        Map<?, ?> message = null;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (message == null && System.currentTimeMillis() < deadline) {
+            templateA.convertAndSend("/topic/grievance/42", Map.of("status", "RESOLVED"));
+            message = received.poll(200, TimeUnit.MILLISECONDS);
+        }
+
+        assertNotNull(message, "message sent on node A was not delivered to node B");
+        assertEquals("RESOLVED", message.get("status"));
+        session.disconnect();
+    }
+
+    @Test
+    void userDestinationIsPublishedForResolutionElsewhere() throws Exception {
+        SimpMessagingTemplate templateA = nodeA.getBean(SimpMessagingTemplate.class);
+        templateA.convertAndSendToUser("STU1", "/queue/notifications", Map.of("title", "hello"));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (PUBLISHED.stream().noneMatch(envelope -> envelope.contains("/user/STU1/queue/notifications"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(PUBLISHED.stream().anyMatch(envelope -> envelope.contains("/user/STU1/queue/notifications")));
+    }
+
+    @Test
+    void notificationReachesSseListenerOnOtherNode() throws Exception {
+        BlockingQueue<NotificationDTO> received = new LinkedBlockingQueue<>();
+        BlockingQueue<Integer> unreadDeltas = new LinkedBlockingQueue<>();
+        Runnable remove = nodeB.getBean(NotificationDispatcher.class).addListener("STU2",
+            new NotificationDispatcher.NotificationListener() {
+                @Override
+                public void onNotification(NotificationDTO notification) {
+                    received.add(notification);
+                }
+
+                @Override
+                public void onUnreadCountChanged(int delta) {
+                    unreadDeltas.add(delta);
+                }
+            });
+        try {
+            NotificationDispatcher dispatcherA = nodeA.getBean(NotificationDispatcher.class);
+            dispatcherA.dispatch("STU2", NotificationDTO.builder().id(99L).type("STATUS_UPDATE").title("Resolved").build(), false);
+            dispatcherA.unreadCountChanged("STU2", 1);
+
+            NotificationDTO notification = received.poll(10, TimeUnit.SECONDS);
+            assertNotNull(notification, "notification dispatched on node A did not reach the listener on node B");
+            assertEquals(99L, notification.getId());
+            assertEquals("Resolved", notification.getTitle());
+            assertEquals(1, unreadDeltas.poll(5, TimeUnit.SECONDS));
+        } finally {
+            remove.run();
+        }
+    }
+
+    // Command-line args so they take precedence over application.properties
+    private static ConfigurableApplicationContext startNode(String name) {
+        return new SpringApplicationBuilder(BackendApplication.class, InMemoryTransportConfig.class)
+            .run(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--notification.retention.enabled=false");
+    }
+
+    @TestConfiguration
+    static class InMemoryTransportConfig {
+
+        @Bean
+        ClusterTransport inMemoryClusterTransport() {
+            return new ClusterTransport() {
+                @Override
+                public void publish(String envelope) {
+                    PUBLISHED.add(envelope);
+                    LISTENERS.forEach(listener -> listener.accept(envelope));
+                }
+
+                @Override
+                public void subscribe(Consumer<String> listener) {
+                    LISTENERS.add(listener);
+                }
+            };
+        }
+    }
+}
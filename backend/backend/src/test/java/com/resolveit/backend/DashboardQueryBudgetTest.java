@@ -0,0 +1,206 @@
+package com.resolveit.backend;
+
+import com.resolveit.backend.entity.Category;
+import com.resolveit.backend.entity.Department;
+import com.resolveit.backend.entity.Feedback;
+import com.resolveit.backend.entity.Grievance;
+import com.resolveit.backend.entity.GrievanceTimeline;
+import com.resolveit.backend.entity.Remark;
+import com.resolveit.backend.entity.User;
+import com.resolveit.backend.repository.CategoryRepository;
+import com.resolveit.backend.repository.DepartmentRepository;
+import com.resolveit.backend.repository.FeedbackRepository;
+import com.resolveit.backend.repository.GrievanceRepository;
+import com.resolveit.backend.repository.GrievanceTimelineRepository;
+import com.resolveit.backend.repository.RemarkRepository;
+import com.resolveit.backend.repository.UserRepository;
+import com.resolveit.backend.security.JwtUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Pins the number of SQL statements every dashboard endpoint runs against a fixed data
+ * set, so a new N+1 query fails the build instead of shipping. Counts are read from the
+ * X-Query-Count header; with fail-on-exceed an endpoint over its @QueryBudget fails too.
+ *
+ * The data set has several students, staff, categories and grievances, so per-row
+ * queries show up as a higher count. When a change alters a count on purpose, update
+ * the expectation below.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:querybudget;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "notification.retention.enabled=false",
+    "dashboard.cache.enabled=false",
+    "query-budget.headers=true",
+    "query-budget.fail-on-exceed=true"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DashboardQueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private GrievanceRepository grievanceRepository;
+
+    @Autowired
+    private RemarkRepository remarkRepository;
+
+    @Autowired
+    private GrievanceTimelineRepository timelineRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    private Grievance tracked;
+
+    @BeforeAll
+    void seed() {
+        Department department = new Department();
+        department.setDepartmentCode("CS");
+        department.setDepartmentName("Computer Science");
+        departmentRepository.save(department);
+        int departmentId = department.getId().intValue();
+
+        List<Category> categories = List.of(category("Academic"), category("Hostel"), category("Library"));
+
+        User admin = user("ADM1", "admin", departmentId);
+        List<User> staff = List.of(user("STF1", "staff", departmentId), user("STF2", "staff", departmentId));
+        List<User> students = List.of(user("STU1", "student", departmentId),
+            user("STU2", "student", departmentId), user("STU3", "student", departmentId));
+
+        String[] statuses = {"submitted", "in_progress", "resolved", "submitted", "under_review", "resolved"};
+        for (int i = 0; i < 12; i++) {
+            Grievance grievance = new Grievance();
+            grievance.setGrievanceId("GRV" + (1000 + i));
+            grievance.setTitle("Grievance " + i);
+            grievance.setDescription("Description " + i);
+            grievance.setStudentId(students.get(i % students.size()).getId());
+            grievance.setCategoryId(categories.get(i % categories.size()).getId());
+            grievance.setDepartmentId(department.getId());
+            grievance.setPriority(i % 2 == 0 ? "high" : "low");
+            grievance.setStatus(statuses[i % statuses.length]);
+            grievance.setAssignedTo(i % 3 == 1 ? admin.getId() : staff.get(i % staff.size()).getId());
+            grievance.setUpdatedAt(LocalDateTime.now());
+            grievanceRepository.save(grievance);
+
+            if (i == 0) {
+                tracked = grievance;
+            }
+            timelineRepository.save(GrievanceTimeline.builder().grievanceId(grievance.getId())
+                .status("submitted").note("Created").updatedBy(grievance.getStudentId()).createdAt(LocalDateTime.now()).build());
+            if ("resolved".equals(grievance.getStatus())) {
+                feedbackRepository.save(Feedback.builder().grievance(grievance).rating(4)
+                    .comment("Thanks").submittedBy(students.get(i % students.size())).createdAt(LocalDateTime.now()).build());
+            }
+        }
+
+        // The tracked grievance has a conversation between the student and several staff
+        for (User author : List.of(students.get(0), staff.get(0), staff.get(1), admin, students.get(0))) {
+            remarkRepository.save(Remark.builder().grievance(tracked).user(author).message("Remark by " + author.getUserId())
+                .userType(author.getRole()).isInternal(false).createdAt(LocalDateTime.now()).build());
+            timelineRepository.save(GrievanceTimeline.builder().grievanceId(tracked.getId())
+                .status("in_progress").note("Update").updatedBy(author.getId()).createdAt(LocalDateTime.now()).build());
+        }
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @CsvSource({
+        // role, user, endpoint, statements
+        "admin, ADM1, /api/dashboard/admin/stats, 10",
+        "admin, ADM1, /api/dashboard/admin/grievances, 2",
+        "admin, ADM1, /api/dashboard/admin/grievances/search?keyword=Grievance, 23",
+        "admin, ADM1, /api/dashboard/admin/grievances/paginated, 23",
+        "admin, ADM1, /api/dashboard/admin/grievances/new, 2",
+        "admin, ADM1, /api/dashboard/admin/grievances/assigned-to-me, 2",
+        "admin, ADM1, /api/dashboard/admin/grievances/{id}/details, 8",
+        "admin, ADM1, /api/dashboard/admin/staff, 2",
+        "admin, ADM1, /api/dashboard/admin/staff/performance, 4",
+        "admin, ADM1, /api/dashboard/admin/summary, 7",
+        "admin, ADM1, /api/dashboard/admin/bootstrap, 20",
+        "staff, STF1, /api/dashboard/staff/stats, 2",
+        "staff, STF1, /api/dashboard/staff/bootstrap, 17",
+        "staff, STF1, /api/dashboard/staff/grievances, 12",
+        "staff, STF1, /api/dashboard/staff/grievances/status/submitted, 8",
+        "staff, STF1, /api/dashboard/staff/grievances/search?keyword=Grievance, 12",
+        "staff, STF1, /api/dashboard/staff/grievances/filter, 12",
+        "staff, STF1, /api/dashboard/staff/grievances/{id}, 7",
+        "staff, STF1, /api/dashboard/staff/activity, 12",
+        "staff, STF1, /api/dashboard/staff/recent-grievances, 12",
+        "staff, STF1, /api/dashboard/staff/performance, 2",
+        "staff, STF1, /api/dashboard/staff/priority-list, 8",
+        "student, STU1, /api/dashboard/student/stats, 6",
+        "student, STU1, /api/dashboard/student/grievances, 11",
+        "student, STU1, /api/dashboard/student/grievances/search?keyword=Grievance, 11",
+        "student, STU1, /api/dashboard/student/grievances/filter, 11",
+        "student, STU1, /api/dashboard/student/grievances/{id}, 7",
+        "student, STU1, /api/dashboard/student/categories, 1",
+        "student, STU1, /api/dashboard/student/departments, 1",
+        "student, STU1, /api/dashboard/student/bootstrap, 20",
+        "student, STU1, /api/dashboard/student/grievances/{id}/remarks, 6",
+        "student, STU1, /api/dashboard/student/grievances/{id}/remarks/count, 7",
+        "student, STU1, /api/dashboard/student/grievances/{id}/remarks/latest, 7",
+        "student, STU1, /api/dashboard/student/grievances/{id}/timeline, 6",
+        "student, STU1, /api/dashboard/student/track/{code}, 8"
+    })
+    void endpointRunsPinnedNumberOfStatements(String role, String userId, String endpoint, long statements) throws Exception {
+        String url = endpoint.replace("{id}", tracked.getId().toString()).replace("{code}", tracked.getGrievanceId());
+        MvcResult result = mockMvc.perform(get(url)
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(userId, role)))
+            .andReturn();
+
+        assertEquals(200, result.getResponse().getStatus(), url);
+        String count = result.getResponse().getHeader("X-Query-Count");
+        assertEquals(statements, count != null ? Long.parseLong(count) : -1, "statements run by " + url);
+    }
+
+    private Category category(String name) {
+        Category category = new Category();
+        category.setCategoryName(name);
+        return categoryRepository.save(category);
+    }
+
+    private User user(String userId, String role, int departmentId) {
+        User user = new User();
+        user.setUserId(userId);
+        user.setFirstName(userId);
+        user.setLastName("Test");
+        user.setEmail(userId.toLowerCase() + "@example.edu");
+        user.setPasswordHash("unused");
+        user.setRole(role);
+        user.setDepartmentId(departmentId);
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,133 @@
+package com.resolveit.backend;
+
+import com.resolveit.backend.dto.CursorPaginatedResponse;
+import com.resolveit.backend.dto.NotificationDTO;
+import com.resolveit.backend.entity.Notification;
+import com.resolveit.backend.entity.User;
+import com.resolveit.backend.repository.NotificationRepository;
+import com.resolveit.backend.repository.UserRepository;
+import com.resolveit.backend.service.NotificationService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inbox pages are keyed on the notification id, so a batch of notifications created in the
+ * same instant (a bulk status change, say) is paged through exactly once, newest first.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:inboxpaging;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "notification.retention.enabled=false",
+    "storage.gc.enabled=false",
+    "management.server.port=0"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NotificationInboxPagingTest {
+
+    private static final LocalDateTime SAME_INSTANT = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Notification> inbox = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        User student = user("STU1");
+        User other = user("STU2");
+        for (int i = 0; i < 11; i++) {
+            inbox.add(notification(student, i % 3 == 0 ? "NEW_REMARK" : "STATUS_UPDATE", i % 4 == 0, SAME_INSTANT));
+            // Someone else's notifications in between must not shift the pages
+            notification(other, "STATUS_UPDATE", false, SAME_INSTANT);
+        }
+        // Stored last but stamped earlier (clock skew between nodes): still the newest by id
+        inbox.add(notification(student, "STATUS_UPDATE", false, SAME_INSTANT.minusMinutes(5)));
+    }
+
+    @Test
+    void equalTimestampsArePagedOnceNewestFirst() {
+        assertPagesCover(null, false, notification -> true);
+    }
+
+    @Test
+    void typeFilteredPagesAreStable() {
+        assertPagesCover("STATUS_UPDATE", false, notification -> notification.getType().equals("STATUS_UPDATE"));
+    }
+
+    @Test
+    void unreadPagesAreStable() {
+        assertPagesCover(null, true, notification -> !notification.getIsRead());
+        assertPagesCover("NEW_REMARK", true,
+            notification -> !notification.getIsRead() && notification.getType().equals("NEW_REMARK"));
+    }
+
+    private void assertPagesCover(String type, boolean unreadOnly, Predicate<Notification> filter) {
+        List<Long> expected = inbox.stream()
+            .filter(filter)
+            .map(Notification::getId)
+            .sorted(Comparator.reverseOrder())
+            .toList();
+
+        List<Long> seen = new ArrayList<>();
+        Long cursor = null;
+        CursorPaginatedResponse<NotificationDTO> page;
+        do {
+            page = unreadOnly
+                ? notificationService.getUnreadInbox("STU1", type, cursor, 3)
+                : notificationService.getInbox("STU1", type, cursor, 3);
+            assertTrue(page.getContent().size() <= 3);
+            page.getContent().forEach(notification -> seen.add(notification.getId()));
+            cursor = page.getNextCursor();
+        } while (!page.isLast());
+
+        assertEquals(expected, seen);
+        assertNull(page.getNextCursor());
+    }
+
+    private Notification notification(User user, String type, boolean read, LocalDateTime createdAt) {
+        return notificationRepository.save(Notification.builder()
+            .user(user)
+            .type(type)
+            .title(type)
+            .message("Grievance updated")
+            .isRead(read)
+            .coalescedCount(1)
+            .createdAt(createdAt)
+            .build());
+    }
+
+    private User user(String userId) {
+        User user = new User();
+        user.setUserId(userId);
+        user.setFirstName(userId);
+        user.setLastName("Test");
+        user.setEmail(userId.toLowerCase() + "@example.edu");
+        user.setPasswordHash("unused");
+        user.setRole("student");
+        return userRepository.save(user);
+    }
+}
@@ -0,0 +1,134 @@
+package com.resolveit.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resolveit.backend.entity.StoredObject;
+import com.resolveit.backend.entity.User;
+import com.resolveit.backend.repository.StoredObjectRepository;
+import com.resolveit.backend.repository.UserRepository;
+import com.resolveit.backend.security.JwtUtil;
+import com.resolveit.backend.service.FileStorageService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+
+/**
+ * Identical uploads share one content-addressed key, so DELETE /api/files/... must only
+ * release references the caller's own uploads took, each once.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:pendinguploads;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.show-sql=false",
+    "notification.retention.enabled=false",
+    "storage.gc.enabled=false",
+    "management.server.port=0"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PendingUploadReleaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StoredObjectRepository storedObjectRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void createUsers() {
+        for (String userId : new String[] {"UPL1", "UPL2", "UPL3"}) {
+            User user = new User();
+            user.setUserId(userId);
+            user.setFirstName(userId);
+            user.setLastName("Test");
+            user.setEmail(userId.toLowerCase() + "@example.edu");
+            user.setPasswordHash("unused");
+            user.setRole("student");
+            user.setDepartmentId(1);
+            userRepository.save(user);
+        }
+    }
+
+    @Test
+    void callersReleaseOnlyTheirOwnReferencesOnce() throws Exception {
+        byte[] content = ("pending upload " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+        String key = upload("UPL1", content);
+        assertEquals(key, upload("UPL2", content));
+        assertEquals(2, object(key).getReferenceCount());
+
+        // Not an uploader of this key
+        assertEquals(404, release("UPL3", key));
+
+        // The first release drops UPL1's reference; repeating it changes nothing
+        assertEquals(200, release("UPL1", key));
+        assertEquals(404, release("UPL1", key));
+        assertEquals(404, release("UPL1", key));
+        assertEquals(1, object(key).getReferenceCount());
+        assertTrue(fileStorageService.fileExists(key));
+
+        // The last holder's release removes the object
+        assertEquals(200, release("UPL2", key));
+        assertFalse(storedObjectRepository.findByStorageKey(key).isPresent());
+        assertFalse(fileStorageService.fileExists(key));
+    }
+
+    @Test
+    void eachUploadByTheSameUserIsReleasedSeparately() throws Exception {
+        byte[] content = ("uploaded twice " + System.nanoTime()).getBytes(StandardCharsets.UTF_8);
+        String key = upload("UPL1", content);
+        upload("UPL1", content);
+
+        assertEquals(200, release("UPL1", key));
+        assertEquals(1, object(key).getReferenceCount());
+        assertEquals(200, release("UPL1", key));
+        assertEquals(404, release("UPL1", key));
+        assertFalse(storedObjectRepository.findByStorageKey(key).isPresent());
+    }
+
+    private String upload(String userId, byte[] content) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "evidence.pdf", "application/pdf", content);
+        String body = mockMvc.perform(multipart("/api/files/upload").file(file).param("folder", "evidence")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(userId, "student")))
+            .andReturn().getResponse().getContentAsString();
+        return (String) objectMapper.readValue(body, Map.class).get("filePath");
+    }
+
+    private int release(String userId, String key) throws Exception {
+        return mockMvc.perform(delete("/api/files/" + key)
+                .header("Authorization", "Bearer " + jwtUtil.generateToken(userId, "student")))
+            .andReturn().getResponse().getStatus();
+    }
+
+    private StoredObject object(String key) {
+        return storedObjectRepository.findByStorageKey(key).orElseThrow();
+    }
+}
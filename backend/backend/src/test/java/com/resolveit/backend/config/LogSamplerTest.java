@@ -0,0 +1,89 @@
+package com.resolveit.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.status.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogSamplerTest {
+
+    // Keeps about one event in two billion: in practice every sampled event is dropped
+    private static final int DROP_ALL = Integer.MAX_VALUE;
+
+    private final LoggerContext context = new LoggerContext();
+    private final LogSampler sampler = new LogSampler();
+
+    @BeforeEach
+    void setUp() {
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+        sampler.setContext(context);
+    }
+
+    @Test
+    void mostSpecificLoggerWins() {
+        sampler.setRates("org.hibernate=" + DROP_ALL + ", org.hibernate.SQL=1");
+
+        assertEquals(FilterReply.NEUTRAL, decide("org.hibernate.SQL", Level.DEBUG));
+        assertEquals(FilterReply.NEUTRAL, decide("org.hibernate.SQL.internal", Level.DEBUG));
+        assertEquals(FilterReply.DENY, decide("org.hibernate.orm.jdbc", Level.DEBUG));
+        assertEquals(FilterReply.DENY, decide("org.hibernate", Level.INFO));
+        // A prefix that is not a parent in the logger hierarchy doesn't count
+        assertEquals(FilterReply.NEUTRAL, decide("org.hibernateX", Level.DEBUG));
+        assertEquals(FilterReply.NEUTRAL, decide("com.resolveit.backend", Level.DEBUG));
+    }
+
+    @Test
+    void warnAndErrorAlwaysPass() {
+        sampler.setRates("com.resolveit=" + DROP_ALL);
+
+        assertEquals(FilterReply.DENY, decide("com.resolveit.backend", Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide("com.resolveit.backend", Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide("com.resolveit.backend", Level.ERROR));
+    }
+
+    @Test
+    void levelChecksAndDisabledLevelsAreNotSampled() {
+        sampler.setRates("com.resolveit=" + DROP_ALL);
+        Logger logger = context.getLogger("com.resolveit.backend");
+
+        // isDebugEnabled() passes a null format
+        assertEquals(FilterReply.NEUTRAL, sampler.decide(null, logger, Level.DEBUG, null, null, null));
+        // Below the logger's level: left to logback, which drops it anyway
+        logger.setLevel(Level.INFO);
+        assertEquals(FilterReply.NEUTRAL, decide("com.resolveit.backend", Level.DEBUG));
+    }
+
+    @Test
+    void invalidPairsAreIgnoredAndReported() {
+        sampler.setRates("noRate, =5, zero=0, negative=-2, word=often, a=1=2, com.resolveit=" + DROP_ALL);
+
+        assertEquals(FilterReply.DENY, decide("com.resolveit.backend", Level.DEBUG));
+        for (String logger : new String[] {"noRate", "zero", "negative", "word", "a"}) {
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.DEBUG));
+        }
+        long errors = context.getStatusManager().getCopyOfStatusList().stream()
+            .filter(status -> status.getLevel() == Status.ERROR)
+            .count();
+        assertEquals(6, errors);
+    }
+
+    @Test
+    void newRatesReplaceTheOldOnes() {
+        sampler.setRates("com.resolveit=" + DROP_ALL);
+        assertEquals(FilterReply.DENY, decide("com.resolveit.backend", Level.DEBUG));
+
+        sampler.setRates("org.hibernate=" + DROP_ALL);
+
+        assertEquals(FilterReply.NEUTRAL, decide("com.resolveit.backend", Level.DEBUG));
+        assertEquals(FilterReply.DENY, decide("org.hibernate.SQL", Level.DEBUG));
+    }
+
+    private FilterReply decide(String logger, Level level) {
+        return sampler.decide(null, context.getLogger(logger), level, "message {}", new Object[] {1}, null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.resolveit.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MaskedMessageConverterTest {
+
+    @Test
+    void postgresInlinedLiteralsAreMasked() {
+        assertEquals("Slow query took 250 milliseconds [select u1_0.user_id from users u1_0 " +
+                "where u1_0.email=? and u1_0.last_name=? and u1_0.department_id=?]",
+            MaskedMessageConverter.mask("Slow query took 250 milliseconds [select u1_0.user_id from users u1_0 " +
+                "where u1_0.email='alice@example.org' and u1_0.last_name='O''Brien' and u1_0.department_id=42]"));
+    }
+
+    @Test
+    void h2ParameterListIsDropped() {
+        assertEquals("Slow query took 31 milliseconds [select n1_0.id from notifications n1_0 " +
+                "where n1_0.user_id=? and n1_0.id>?]",
+            MaskedMessageConverter.mask("Slow query took 31 milliseconds [prep12: select n1_0.id from notifications n1_0 " +
+                "where n1_0.user_id=? and n1_0.id>? {1: 'STU1', 2: 1042}]"));
+    }
+
+    @Test
+    void hikariWrappingPrefixIsDropped() {
+        assertEquals("Slow query took 120 milliseconds [select u1_0.user_id from users u1_0 where u1_0.email=?]",
+            MaskedMessageConverter.mask("Slow query took 120 milliseconds [HikariProxyPreparedStatement@1630293 " +
+                "wrapping select u1_0.user_id from users u1_0 where u1_0.email='bob@example.org']"));
+        // Hikari around H2: both prefixes, then the parameter list
+        assertEquals("Slow query took 120 milliseconds [select g1_0.id from grievances g1_0 where g1_0.status=?]",
+            MaskedMessageConverter.mask("Slow query took 120 milliseconds [HikariProxyPreparedStatement@77 " +
+                "wrapping prep3: select g1_0.id from grievances g1_0 where g1_0.status=? {1: 'OPEN'}]"));
+    }
+
+    @Test
+    void messageWithoutBracketsIsMaskedWhole() {
+        assertEquals("delete from notifications where id in (...) and user_id=?",
+            MaskedMessageConverter.mask("delete from notifications where id in (17, 18, 19) and user_id='STU1'"));
+        assertNull(MaskedMessageConverter.mask(null));
+    }
+
+    @Test
+    void onlyConfiguredLoggersAreMasked() {
+        LoggerContext context = new LoggerContext();
+        context.putProperty(MaskedMessageConverter.MASKED_LOGGERS_PROPERTY, " org.hibernate.SQL_SLOW, ,other ");
+        MaskedMessageConverter converter = new MaskedMessageConverter();
+        converter.setContext(context);
+        converter.start();
+        String message = "Slow query took 250 milliseconds [select 1 from users where email='alice@example.org']";
+
+        assertEquals("Slow query took 250 milliseconds [select ? from users where email=?]",
+            converter.convert(event(context, "org.hibernate.SQL_SLOW", message)));
+        assertEquals(message, converter.convert(event(context, "com.resolveit.backend", message)));
+        assertEquals(Set.of("org.hibernate.SQL_SLOW", "other"),
+            MaskedMessageConverter.parseLoggers(" org.hibernate.SQL_SLOW, ,other "));
+    }
+
+    private static LoggingEvent event(LoggerContext context, String logger, String message) {
+        return new LoggingEvent(MaskedMessageConverterTest.class.getName(), context.getLogger(logger),
+            Level.INFO, message, null, null);
+    }
+}
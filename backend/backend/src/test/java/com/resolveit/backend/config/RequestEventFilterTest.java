@@ -0,0 +1,17 @@
+package com.resolveit.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RequestEventFilterTest {
+
+    @Test
+    void unmatchedRequestsGetAFixedRoute() {
+        assertEquals("/api/grievances/{id}", RequestEventFilter.routeOf("/api/grievances/{id}", 200));
+        assertEquals("NOT_FOUND", RequestEventFilter.routeOf(null, 404));
+        assertEquals("REDIRECTION", RequestEventFilter.routeOf(null, 302));
+        assertEquals("UNKNOWN", RequestEventFilter.routeOf(null, 403));
+        assertEquals("UNKNOWN", RequestEventFilter.routeOf(null, 500));
+    }
+}
@@ -0,0 +1,125 @@
+package com.resolveit.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlowConsumerSessionDecoratorTest {
+
+    private static final int FRAME_SIZE = 1024;
+    private static final int BUFFER_LIMIT = 8 * FRAME_SIZE;
+
+    private final ExecutorService writer = Executors.newFixedThreadPool(4);
+    private final CountDownLatch clientsStalled = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        clientsStalled.countDown();
+        writer.shutdownNow();
+    }
+
+    @Test
+    void tenThousandStalledSessionsStayWithinTheirBuffers() throws Exception {
+        int sessions = 10_000;
+        int framesPerSession = 40;
+        LongAdder dropped = new LongAdder();
+        TextMessage frame = new TextMessage("x".repeat(FRAME_SIZE));
+
+        List<SlowConsumerSessionDecorator> decorators = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            decorators.add(new SlowConsumerSessionDecorator(
+                stalledSession("s" + i), 10_000, BUFFER_LIMIT, writer, dropped));
+        }
+
+        long start = System.nanoTime();
+        for (int round = 0; round < framesPerSession; round++) {
+            for (SlowConsumerSessionDecorator session : decorators) {
+                session.sendMessage(frame);
+            }
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        long total = 0;
+        for (SlowConsumerSessionDecorator session : decorators) {
+            assertTrue(session.getBufferSize() <= BUFFER_LIMIT, "session buffer exceeded its limit");
+            total += session.getBufferSize();
+        }
+        assertTrue(total <= (long) sessions * BUFFER_LIMIT);
+        // Everything beyond one buffer per session was dropped rather than queued
+        assertTrue(dropped.sum() >= (long) sessions * (framesPerSession - BUFFER_LIMIT / FRAME_SIZE - 1));
+        // Senders never waited on the stalled clients
+        assertTrue(elapsedMs < 10_000, "sending took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void sessionStuckInOneSendIsClosed() throws Exception {
+        WebSocketSession delegate = stalledSession("slow");
+        SlowConsumerSessionDecorator session =
+            new SlowConsumerSessionDecorator(delegate, 50, BUFFER_LIMIT, writer, new LongAdder());
+
+        session.sendMessage(new TextMessage("hello"));
+        Thread.sleep(100);
+
+        assertTrue(session.checkSendTime(System.currentTimeMillis()));
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void fastClientReceivesEveryFrameInOrder() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        WebSocketSession delegate = mock(WebSocketSession.class);
+        when(delegate.getId()).thenReturn("fast");
+        doAnswer(invocation -> {
+            received.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            return null;
+        }).when(delegate).sendMessage(any());
+
+        LongAdder dropped = new LongAdder();
+        SlowConsumerSessionDecorator session =
+            new SlowConsumerSessionDecorator(delegate, 10_000, BUFFER_LIMIT, writer, dropped);
+        for (int i = 0; i < 100; i++) {
+            session.sendMessage(new TextMessage(String.valueOf(i)));
+        }
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (received.size() < 100 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(100, received.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(String.valueOf(i), received.get(i));
+        }
+        assertEquals(0, dropped.sum());
+    }
+
+    // A client whose socket never drains: every send blocks until the test ends
+    private WebSocketSession stalledSession(String id) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        doAnswer(invocation -> {
+            clientsStalled.await();
+            return null;
+        }).when(session).sendMessage(any(WebSocketMessage.class));
+        return session;
+    }
+}
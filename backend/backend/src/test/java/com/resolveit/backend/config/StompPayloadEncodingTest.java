@@ -0,0 +1,112 @@
+package com.resolveit.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.resolveit.backend.dto.WebSocketMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the status-change frame before and after the typed schema, and JSON against
+ * CBOR and Smile, by size. Serialization cost is measured in the benchmarks module
+ * (WebSocketMessageBenchmark).
+ */
+class StompPayloadEncodingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final StompPayloadEncoding encoding = new StompPayloadEncoding();
+
+    @Test
+    void compactFormatsShrinkStatusChangeFrames() throws Exception {
+        byte[] legacy = objectMapper.writeValueAsBytes(legacyStatusFrame());
+        byte[] typed = objectMapper.writeValueAsBytes(typedStatusFrame());
+        byte[] cbor = encoding.transcode(StompPayloadEncoding.Format.CBOR, typed);
+        byte[] smile = encoding.transcode(StompPayloadEncoding.Format.SMILE, typed);
+
+        assertTrue(typed.length < legacy.length);
+        assertTrue(cbor.length < typed.length);
+        assertTrue(smile.length < typed.length);
+    }
+
+    @Test
+    void broadcastIsEncodedOncePerFormat() throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(typedStatusFrame());
+        for (int i = 0; i < 100; i++) {
+            encoding.preSend(connect("s" + i, "cbor"), null);
+        }
+
+        byte[] first = null;
+        for (int i = 0; i < 100; i++) {
+            Message<?> sent = encoding.preSend(subscriberCopy("s" + i, json), null);
+            byte[] body = (byte[]) sent.getPayload();
+            assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, sent.getHeaders().get(MessageHeaders.CONTENT_TYPE));
+            if (first == null) {
+                first = body;
+            }
+            assertSame(first, body);
+        }
+        assertArrayEquals(encoding.transcode(StompPayloadEncoding.Format.CBOR, json), first);
+
+        // Sessions that did not negotiate keep the JSON body
+        assertSame(json, encoding.preSend(subscriberCopy("other", json), null).getPayload());
+    }
+
+    // The frame as it was built before the typed schema: free-form map plus formatted strings
+    private Object legacyStatusFrame() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a");
+        Map<String, Object> additionalData = new HashMap<>();
+        additionalData.put("oldStatus", "under_review");
+        additionalData.put("newStatus", "in_progress");
+        additionalData.put("note", "");
+        additionalData.put("formattedTime", LocalDateTime.now().format(formatter));
+        additionalData.put("updatedBy", "Priya Raman");
+
+        Map<String, Object> frame = new HashMap<>();
+        frame.put("type", "STATUS_UPDATE");
+        frame.put("grievanceId", 1042L);
+        frame.put("remark", null);
+        frame.put("sender", "Priya Raman");
+        frame.put("timestamp", LocalDateTime.now());
+        frame.put("additionalData", additionalData);
+        return frame;
+    }
+
+    private WebSocketMessage typedStatusFrame() {
+        return WebSocketMessage.createStatusUpdateMessage(1042L, "under_review", "in_progress", null, "Priya Raman");
+    }
+
+    private Message<byte[]> connect(String sessionId, String format) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+        accessor.setSessionId(sessionId);
+        accessor.setNativeHeader(StompPayloadEncoding.FORMAT_HEADER, format);
+        accessor.setSessionAttributes(new HashMap<>(Map.of(StompPayloadEncoding.BINARY_TRANSPORT_ATTRIBUTE, true)));
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    // What the simple broker sends per subscription: same body, different session
+    private Message<byte[]> subscriberCopy(String sessionId, byte[] json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/topic/grievance/1042");
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+}
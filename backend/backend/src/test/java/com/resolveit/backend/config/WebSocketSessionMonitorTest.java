@@ -0,0 +1,125 @@
+package com.resolveit.backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebSocketSessionMonitorTest {
+
+    private final WebSocketSessionMonitor monitor = new WebSocketSessionMonitor(new ExecutionMode(new MockEnvironment()));
+    private final CountDownLatch clientsStalled = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        clientsStalled.countDown();
+        monitor.shutdown();
+    }
+
+    @Test
+    void writerPoolStopsAtItsCapWhileClientsAreStalled() throws Exception {
+        ReflectionTestUtils.setField(monitor, "overflowPolicy", "drop-oldest");
+        ReflectionTestUtils.setField(monitor, "sendBufferSizeLimit", 65536);
+        ReflectionTestUtils.setField(monitor, "sendTimeLimit", 60_000);
+        ReflectionTestUtils.setField(monitor, "writerThreads", 1);
+        ReflectionTestUtils.setField(monitor, "writerMaxThreads", 3);
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        WebSocketHandler decorated = monitor.decorate(handler);
+
+        int sessions = 10;
+        AtomicInteger blockedWrites = new AtomicInteger();
+        AtomicInteger delivered = new AtomicInteger();
+        for (int i = 0; i < sessions; i++) {
+            WebSocketSession session = mock(WebSocketSession.class);
+            when(session.getId()).thenReturn("s" + i);
+            doAnswer(invocation -> {
+                blockedWrites.incrementAndGet();
+                clientsStalled.await();
+                delivered.incrementAndGet();
+                return null;
+            }).when(session).sendMessage(any());
+            decorated.afterConnectionEstablished(session);
+        }
+        ArgumentCaptor<WebSocketSession> captor = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler, times(sessions)).afterConnectionEstablished(captor.capture());
+        List<WebSocketSession> guarded = captor.getAllValues();
+
+        // Callers never block or fail, however many clients are stuck
+        for (WebSocketSession session : guarded) {
+            session.sendMessage(new TextMessage("frame"));
+        }
+        ThreadPoolExecutor writer = (ThreadPoolExecutor) ReflectionTestUtils.getField(monitor, "writer");
+        waitFor(() -> blockedWrites.get() == 3);
+        monitor.checkSlowConsumers();
+        Thread.sleep(100);
+        assertEquals(3, blockedWrites.get());
+        assertEquals(3, writer.getLargestPoolSize());
+
+        // Once the clients recover, the periodic check flushes the sessions that were turned away
+        clientsStalled.countDown();
+        waitFor(() -> {
+            monitor.checkSlowConsumers();
+            return delivered.get() == sessions;
+        });
+        assertTrue(writer.getLargestPoolSize() <= 3);
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 s");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void onlySubscriptionMessagesAndHeartbeatsAreDroppable() {
+        assertTrue(WebSocketSessionMonitor.isDroppable(simp(SimpMessageType.MESSAGE)));
+        assertTrue(WebSocketSessionMonitor.isDroppable(simp(SimpMessageType.HEARTBEAT)));
+        assertTrue(WebSocketSessionMonitor.isDroppable(stomp(StompCommand.MESSAGE)));
+
+        assertFalse(WebSocketSessionMonitor.isDroppable(simp(SimpMessageType.CONNECT_ACK)));
+        assertFalse(WebSocketSessionMonitor.isDroppable(simp(SimpMessageType.DISCONNECT_ACK)));
+        assertFalse(WebSocketSessionMonitor.isDroppable(stomp(StompCommand.RECEIPT)));
+        assertFalse(WebSocketSessionMonitor.isDroppable(stomp(StompCommand.ERROR)));
+    }
+
+    private static Message<byte[]> simp(SimpMessageType type) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId("s1");
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> stomp(StompCommand command) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId("s1");
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,104 @@
+package com.resolveit.backend.security;
+
+import com.resolveit.backend.security.SignedUrlService.Scope;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignedUrlServiceTest {
+
+    private static final String JWT_SECRET = "jwt-secret-for-tests";
+
+    private final SignedUrlService service = service("");
+
+    @Test
+    void signedUrlVerifiesForItsOwnPath() {
+        assertTrue(service.verify(request(service.sign("uploads/objects/ab/cd/abcd.png", Scope.VIEW))));
+        assertTrue(service.verify(request(service.sign("/uploads/objects/ab/cd/abcd.png", Scope.DOWNLOAD))));
+        assertNull(service.sign(" ", Scope.VIEW));
+    }
+
+    @Test
+    void scopeComesFromTheUrl() {
+        assertEquals(Scope.DOWNLOAD, service.scopeOf(request(service.sign("uploads/a.pdf", Scope.DOWNLOAD))));
+        assertEquals(Scope.VIEW, service.scopeOf(new MockHttpServletRequest("GET", "/api/files/uploads/a.pdf")));
+    }
+
+    @Test
+    void expiredUrlIsRefused() {
+        long expired = System.currentTimeMillis() / 1000 - 1;
+        String sig = ReflectionTestUtils.invokeMethod(service, "signature", "uploads/a.pdf", expired, Scope.VIEW);
+
+        assertFalse(service.verify(request("/api/files/uploads/a.pdf?exp=" + expired + "&scope=view&sig=" + sig)));
+    }
+
+    @Test
+    void tamperedPathOrExpiryIsRefused() {
+        String url = service.sign("uploads/students/STU1/a.pdf", Scope.VIEW);
+
+        assertFalse(service.verify(request(url.replace("STU1", "STU2"))));
+        assertFalse(service.verify(request(url.replaceFirst("exp=(\\d+)", "exp=9$1"))));
+    }
+
+    @Test
+    void viewUrlCannotBeTurnedIntoADownload() {
+        String url = service.sign("uploads/a.pdf", Scope.VIEW);
+
+        assertFalse(service.verify(request(url.replace("scope=view", "scope=download"))));
+        assertFalse(service.verify(request(url.replace("scope=view", "scope=edit"))));
+    }
+
+    @Test
+    void encodedAndNonAsciiSegmentsRoundTrip() {
+        String url = service.sign("uploads/réclamation 100%/façade #2.jpg", Scope.VIEW);
+
+        assertTrue(url.startsWith("/api/files/uploads/r%C3%A9clamation%20100%25/fa%C3%A7ade%20%232.jpg?"));
+        // The request has no character encoding set: the path is still read as UTF-8
+        assertTrue(service.verify(request(url)));
+        assertFalse(service.verify(request(url.replace("%C3%A9", "e"))));
+    }
+
+    @Test
+    void missingOrMalformedParametersAreRefused() {
+        String url = service.sign("uploads/a.pdf", Scope.VIEW);
+
+        assertFalse(service.verify(request(url.replaceFirst("&sig=[^&]*", ""))));
+        assertFalse(service.verify(request(url.replaceFirst("exp=\\d+&", ""))));
+        assertFalse(service.verify(request(url.replaceFirst("&scope=view", ""))));
+        assertFalse(service.verify(request(url.replaceFirst("exp=\\d+", "exp=soon"))));
+        assertFalse(service.verify(request(url.replace("/api/files/", "/api/other/"))));
+    }
+
+    @Test
+    void urlKeyIsNotTheJwtSecret() {
+        SignedUrlService keyedByJwtSecret = service(JWT_SECRET);
+        SignedUrlService ownSecret = service("file-url-secret");
+        String url = service.sign("uploads/a.pdf", Scope.VIEW);
+
+        assertFalse(keyedByJwtSecret.verify(request(url)));
+        assertFalse(ownSecret.verify(request(url)));
+        assertTrue(service("").verify(request(url)));
+    }
+
+    private static SignedUrlService service(String signingSecret) {
+        SignedUrlService service = new SignedUrlService(signingSecret, JWT_SECRET);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 3600L);
+        return service;
+    }
+
+    // Request for a relative URL as a browser would send it: path still encoded, query split into parameters
+    private static MockHttpServletRequest request(String url) {
+        int query = url.indexOf('?');
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", url.substring(0, query));
+        for (String pair : url.substring(query + 1).split("&")) {
+            int eq = pair.indexOf('=');
+            request.addParameter(pair.substring(0, eq), pair.substring(eq + 1));
+        }
+        return request;
+    }
+}
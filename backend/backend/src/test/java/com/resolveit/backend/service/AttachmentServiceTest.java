@@ -0,0 +1,49 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.entity.Grievance;
+import com.resolveit.backend.entity.User;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AttachmentServiceTest {
+
+    @Test
+    void eachRoleReachesOnlyItsOwnGrievances() {
+        Grievance grievance = new Grievance();
+        grievance.setStudentId(1L);
+        grievance.setAssignedTo(2L);
+        grievance.setDepartmentId(3L);
+
+        assertTrue(AttachmentService.canAccess(grievance, user(1L, "student", 3)));
+        assertFalse(AttachmentService.canAccess(grievance, user(9L, "student", 3)));
+
+        assertTrue(AttachmentService.canAccess(grievance, user(2L, "staff", 3)));
+        assertFalse(AttachmentService.canAccess(grievance, user(9L, "staff", 3)));
+
+        assertTrue(AttachmentService.canAccess(grievance, user(9L, "admin", 3)));
+        assertFalse(AttachmentService.canAccess(grievance, user(9L, "admin", 4)));
+        assertFalse(AttachmentService.canAccess(grievance, user(9L, "admin", null)));
+
+        assertTrue(AttachmentService.canAccess(grievance, user(9L, "super_admin", null)));
+        assertFalse(AttachmentService.canAccess(grievance, user(9L, "guest", 3)));
+    }
+
+    @Test
+    void unassignedGrievancesAreHiddenFromStaff() {
+        Grievance grievance = new Grievance();
+        grievance.setStudentId(1L);
+        grievance.setDepartmentId(3L);
+
+        assertFalse(AttachmentService.canAccess(grievance, user(2L, "staff", 3)));
+    }
+
+    private static User user(Long id, String role, Integer departmentId) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        user.setDepartmentId(departmentId);
+        return user;
+    }
+}
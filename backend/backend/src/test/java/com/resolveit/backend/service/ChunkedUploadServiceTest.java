@@ -0,0 +1,199 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.dto.AttachmentDTO;
+import com.resolveit.backend.dto.UploadSessionDTO;
+import com.resolveit.backend.dto.UploadSessionRequest;
+import com.resolveit.backend.entity.StoredObject;
+import com.resolveit.backend.entity.UploadSession;
+import com.resolveit.backend.repository.UploadSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChunkedUploadServiceTest {
+
+    private static final byte[] CONTENT = "The projector in room 204 has been broken for a week".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, UploadSession> sessions = new HashMap<>();
+    private final UploadSessionRepository uploadSessionRepository = mock(UploadSessionRepository.class);
+    private final FileStorageService fileStorageService = mock(FileStorageService.class);
+    private final AttachmentService attachmentService = mock(AttachmentService.class);
+    private final Map<String, byte[]> committed = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(uploadSessionRepository.save(any())).thenAnswer(invocation -> {
+            UploadSession session = invocation.getArgument(0);
+            if (session.getUpdatedAt() == null) {
+                session.setUpdatedAt(LocalDateTime.now());
+            }
+            sessions.put(session.getId(), session);
+            return session;
+        });
+        when(uploadSessionRepository.findById(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(sessions.get((String) invocation.getArgument(0))));
+        doAnswer(invocation -> sessions.remove(((UploadSession) invocation.getArgument(0)).getId()))
+            .when(uploadSessionRepository).delete(any());
+
+        when(fileStorageService.uploadWorkFile(anyString()))
+            .thenAnswer(invocation -> tempDir.resolve(invocation.getArgument(0) + ".chunked"));
+        when(fileStorageService.extensionOf(anyString())).thenReturn("txt");
+        when(fileStorageService.commitObject(any(), anyString(), anyLong(), anyString(), any())).thenAnswer(invocation -> {
+            String sha256 = invocation.getArgument(1);
+            committed.put(sha256, Files.readAllBytes(invocation.getArgument(0)));
+            return StoredObject.builder().sha256(sha256).storageKey("objects/" + sha256 + ".txt")
+                .sizeBytes(invocation.getArgument(2)).build();
+        });
+        when(attachmentService.attachStoredObject(anyLong(), anyString(), any(), anyString(), any()))
+            .thenReturn(AttachmentDTO.builder().build());
+    }
+
+    @Test
+    void chunksResumeFromTheReceivedOffset() {
+        ChunkedUploadService service = newService();
+        String uploadId = createSession(service, null);
+
+        assertEquals(10, write(service, uploadId, 0, 0, 10).getReceivedBytes());
+
+        // A retried or out-of-order chunk is refused with the offset to resume from
+        ChunkedUploadService.UploadOffsetMismatchException mismatch = assertThrows(
+            ChunkedUploadService.UploadOffsetMismatchException.class, () -> write(service, uploadId, 0, 0, 10));
+        assertEquals(10, mismatch.getSession().getReceivedBytes());
+
+        write(service, uploadId, 10, 10, CONTENT.length);
+        service.completeUpload(uploadId, "STU1");
+
+        assertArrayEquals(CONTENT, committed.get(sha256(CONTENT)));
+    }
+
+    @Test
+    void chunkPastTheDeclaredSizeIsRefused() {
+        ChunkedUploadService service = newService();
+        String uploadId = createSession(service, null);
+
+        byte[] tooLong = new byte[CONTENT.length + 5];
+        RuntimeException declared = assertThrows(RuntimeException.class,
+            () -> service.writeChunk(uploadId, 0, tooLong.length, new ByteArrayInputStream(tooLong), "STU1"));
+        assertTrue(declared.getMessage().contains("exceeds"));
+        assertEquals(0, sessions.get(uploadId).getReceivedBytes());
+
+        // Without a Content-Length the overflow is only noticed while reading
+        RuntimeException streamed = assertThrows(RuntimeException.class,
+            () -> service.writeChunk(uploadId, 0, -1, new ByteArrayInputStream(tooLong), "STU1"));
+        assertEquals("Chunk extends past the declared file size", streamed.getMessage());
+        assertEquals(CONTENT.length, sessions.get(uploadId).getReceivedBytes());
+    }
+
+    @Test
+    void prefixIsRehashedAfterARestart() {
+        String uploadId = createSession(newService(), null);
+        write(newService(), uploadId, 0, 0, 20);
+
+        // A fresh instance (after a restart) has no running hash for the upload
+        ChunkedUploadService restarted = newService();
+        write(restarted, uploadId, 20, 20, CONTENT.length);
+        restarted.completeUpload(uploadId, "STU1");
+
+        assertArrayEquals(CONTENT, committed.get(sha256(CONTENT)));
+    }
+
+    @Test
+    void checksumMismatchDiscardsTheUpload() {
+        ChunkedUploadService service = newService();
+        String uploadId = createSession(service, sha256("something else".getBytes(StandardCharsets.US_ASCII)));
+        write(service, uploadId, 0, 0, CONTENT.length);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.completeUpload(uploadId, "STU1"));
+
+        assertTrue(e.getMessage().startsWith("Checksum mismatch"));
+        assertFalse(sessions.containsKey(uploadId));
+        assertFalse(Files.exists(tempDir.resolve(uploadId + ".chunked")));
+        verify(attachmentService, never()).attachStoredObject(anyLong(), anyString(), any(), anyString(), any());
+    }
+
+    @Test
+    void missingWorkFileIsReportedWithTheSessionState() throws Exception {
+        ChunkedUploadService service = newService();
+        String uploadId = createSession(service, null);
+        write(service, uploadId, 0, 0, 10);
+
+        // What a node other than the upload's sticky node sees
+        Files.delete(tempDir.resolve(uploadId + ".chunked"));
+
+        ChunkedUploadService.UploadDataMissingException chunk = assertThrows(
+            ChunkedUploadService.UploadDataMissingException.class, () -> write(service, uploadId, 10, 10, 20));
+        assertEquals(10, chunk.getSession().getReceivedBytes());
+        assertEquals(10, sessions.get(uploadId).getReceivedBytes());
+
+        ChunkedUploadService.UploadDataMissingException complete = assertThrows(
+            ChunkedUploadService.UploadDataMissingException.class, () -> {
+                sessions.get(uploadId).setReceivedBytes((long) CONTENT.length);
+                service.completeUpload(uploadId, "STU1");
+            });
+        assertEquals(uploadId, complete.getSession().getUploadId());
+        assertTrue(sessions.containsKey(uploadId));
+    }
+
+    private ChunkedUploadService newService() {
+        ChunkedUploadService service = new ChunkedUploadService(uploadSessionRepository, fileStorageService, attachmentService);
+        ReflectionTestUtils.setField(service, "maxFileSize", 1024L);
+        ReflectionTestUtils.setField(service, "chunkSize", 16);
+        ReflectionTestUtils.setField(service, "expiryHours", 24L);
+        return service;
+    }
+
+    private String createSession(ChunkedUploadService service, String sha256) {
+        UploadSessionRequest request = new UploadSessionRequest();
+        request.setGrievanceId(7L);
+        request.setFileName("report.txt");
+        request.setFileSize((long) CONTENT.length);
+        request.setContentType("text/plain");
+        request.setSha256(sha256);
+        String uploadId = service.createSession(request, "STU1").getUploadId();
+        verify(attachmentService).checkAccess(eq(7L), eq("STU1"), eq((long) CONTENT.length));
+        return uploadId;
+    }
+
+    private UploadSessionDTO write(ChunkedUploadService service, String uploadId, long offset, int from, int to) {
+        return service.writeChunk(uploadId, offset, to - from,
+            new ByteArrayInputStream(CONTENT, from, to - from), "STU1");
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
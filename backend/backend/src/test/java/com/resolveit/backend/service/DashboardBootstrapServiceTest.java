@@ -0,0 +1,79 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.config.ExecutionMode;
+import com.resolveit.backend.dto.DashboardBootstrapDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DashboardBootstrapServiceTest {
+
+    private final DashboardBootstrapService bootstrapService = new DashboardBootstrapService(new ExecutionMode(new MockEnvironment()));
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bootstrapService, "threads", 4);
+        ReflectionTestUtils.setField(bootstrapService, "queueCapacity", 16);
+        ReflectionTestUtils.setField(bootstrapService, "partTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(bootstrapService, "connectionPoolSize", 8);
+        ReflectionTestUtils.setField(bootstrapService, "connectionTimeoutMs", 10000L);
+        bootstrapService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bootstrapService.shutdown();
+        Thread.interrupted();
+    }
+
+    @Test
+    void slowAndFailingPartsAreListedAndTheRestReturned() {
+        Map<String, Callable<?>> parts = new LinkedHashMap<>();
+        parts.put("stats", () -> 42);
+        parts.put("broken", () -> {
+            throw new IllegalStateException("boom");
+        });
+        parts.put("slow", this::blockUntilReleased);
+        ReflectionTestUtils.setField(bootstrapService, "partTimeoutMs", 200L);
+
+        DashboardBootstrapDTO payload = bootstrapService.load(parts);
+
+        assertEquals(Map.of("stats", 42), payload.getParts());
+        assertEquals(List.of("broken", "slow"), payload.getFailedParts());
+        assertFalse(payload.isComplete());
+    }
+
+    @Test
+    void interruptedRequestReturnsAPartialPayload() {
+        Map<String, Callable<?>> parts = new LinkedHashMap<>();
+        parts.put("stats", this::blockUntilReleased);
+        parts.put("grievances", this::blockUntilReleased);
+        parts.put("unread", this::blockUntilReleased);
+
+        Thread.currentThread().interrupt();
+        DashboardBootstrapDTO payload = bootstrapService.load(parts);
+
+        assertEquals(List.of("stats", "grievances", "unread"), payload.getFailedParts());
+        assertTrue(payload.getParts().isEmpty());
+        assertTrue(Thread.currentThread().isInterrupted());
+    }
+
+    private Object blockUntilReleased() throws InterruptedException {
+        release.await();
+        return "late";
+    }
+}
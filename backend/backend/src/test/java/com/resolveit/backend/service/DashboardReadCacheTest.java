@@ -0,0 +1,205 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.config.ExecutionMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DashboardReadCacheTest {
+
+    private final DashboardReadCache cache = new DashboardReadCache(new ExecutionMode(new MockEnvironment()));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "freshMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "staleMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "refreshThreads", 1);
+        cache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void readsAreCountedPerEndpointInTheRegistry() {
+        // Read before the registry is bound, as during startup
+        cache.get("admin/stats", 1L, () -> "stats");
+        cache.bindTo(registry);
+        cache.get("admin/stats", 1L, () -> "stats");
+        cache.get("admin/summary", 1L, () -> "summary");
+
+        assertEquals(1, requests("admin/stats", "miss"));
+        assertEquals(1, requests("admin/stats", "hit"));
+        assertEquals(1, requests("admin/summary", "miss"));
+        assertEquals(2, registry.get("resolveit.dashboard.cache.entries").gauge().value());
+    }
+
+    @Test
+    void coalescedReadsAreTaggedWithTheirEndpoint() throws Exception {
+        cache.bindTo(registry);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> cache.get("admin/stats", 1L, () -> {
+            loading.countDown();
+            await(release);
+            return "stats";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> cache.get("admin/stats", 1L, () -> "again"));
+        while (cache.getMetrics().getCoalesced() == 0) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals("stats", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("stats", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, registry.get("resolveit.dashboard.cache.coalesced").tag("endpoint", "admin/stats")
+            .functionCounter().count());
+        assertEquals(2, requests("admin/stats", "miss"));
+    }
+
+    @Test
+    void concurrentMissesShareOneComputation() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> cache.get("admin/stats", 1L, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "stats";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<String>> followers = IntStream.range(0, 3)
+            .mapToObj(i -> CompletableFuture.supplyAsync(() -> cache.get("admin/stats", 1L, () -> {
+                loads.incrementAndGet();
+                return "again";
+            })))
+            .toList();
+        while (cache.getMetrics().getCoalesced() < 3) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        assertEquals("stats", leader.get(5, TimeUnit.SECONDS));
+        for (CompletableFuture<String> follower : followers) {
+            assertEquals("stats", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneRefreshReplacesIt() throws Exception {
+        ReflectionTestUtils.setField(cache, "freshMs", 0L);
+        cache.get("admin/stats", 1L, () -> "v1");
+
+        AtomicInteger refreshLoads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            // Served stale straight away; only the first read starts a refresh
+            assertEquals("v1", cache.get("admin/stats", 1L, () -> {
+                refreshLoads.incrementAndGet();
+                await(release);
+                return "v2";
+            }));
+        }
+        release.countDown();
+        awaitRefreshes(1);
+
+        assertEquals("v2", cache.get("admin/stats", 1L, () -> "v3"));
+        assertEquals(1, refreshLoads.get());
+        assertEquals(1, cache.getMetrics().getMisses());
+        assertEquals(4, cache.getMetrics().getStaleHits());
+    }
+
+    @Test
+    void evictDuringALoadKeepsThePreChangeResultOut() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> before = CompletableFuture.supplyAsync(() -> cache.get("admin/stats", 1L, () -> {
+            loading.countDown();
+            await(release);
+            return "before";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // e.g. a grievance was assigned while the statistics were being computed
+        cache.evict(1L);
+        assertEquals("after", cache.get("admin/stats", 1L, () -> "after"));
+        release.countDown();
+        assertEquals("before", before.get(5, TimeUnit.SECONDS));
+
+        assertEquals("after", cache.get("admin/stats", 1L, () -> "reloaded"));
+        assertEquals(0, cache.getMetrics().getCoalesced());
+    }
+
+    @Test
+    void evictDuringABackgroundRefreshDropsTheRefreshedResult() throws Exception {
+        ReflectionTestUtils.setField(cache, "freshMs", 0L);
+        cache.get("admin/stats", 1L, () -> "v1");
+        CountDownLatch release = new CountDownLatch(1);
+        assertEquals("v1", cache.get("admin/stats", 1L, () -> {
+            await(release);
+            return "before";
+        }));
+
+        cache.evict(1L);
+        assertEquals("after", cache.get("admin/stats", 1L, () -> "after"));
+        release.countDown();
+        awaitRefreshes(1);
+
+        assertEquals("after", cache.get("admin/stats", 1L, () -> "after"));
+    }
+
+    @Test
+    void evictLeavesOtherScopesCached() {
+        cache.get("admin/stats", 1L, () -> "dept1");
+        cache.get("admin/stats", 2L, () -> "dept2");
+
+        cache.evict(1L);
+
+        assertEquals("dept1 again", cache.get("admin/stats", 1L, () -> "dept1 again"));
+        assertEquals("dept2", cache.get("admin/stats", 2L, () -> "dept2 again"));
+    }
+
+    private void awaitRefreshes(long count) throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(cache, "refreshExecutor");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (executor.getCompletedTaskCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, executor.getCompletedTaskCount());
+    }
+
+    private double requests(String endpoint, String result) {
+        return registry.get("resolveit.dashboard.cache.requests").tag("endpoint", endpoint).tag("result", result)
+            .functionCounter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.config.FlightEvents;
+import com.resolveit.backend.dto.StoredFile;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileDownloadServiceTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileStorageService fileStorageService = mock(FileStorageService.class);
+    private final FileDownloadService downloadService = new FileDownloadService(fileStorageService);
+
+    @Test
+    void scriptableTypesAreForcedToDownload() throws Exception {
+        MockHttpServletResponse response = serve(file("page.html", MediaType.TEXT_HTML), new MockHttpServletRequest("GET", "/"));
+
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM_VALUE, response.getContentType());
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).startsWith("attachment"));
+        assertEquals("nosniff", response.getHeader("X-Content-Type-Options"));
+        assertEquals("sandbox", response.getHeader("Content-Security-Policy"));
+
+        response = serve(file("logo.svg", MediaType.parseMediaType("image/svg+xml")), new MockHttpServletRequest("GET", "/"));
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM_VALUE, response.getContentType());
+    }
+
+    @Test
+    void rasterImagesAndPdfsAreShownInline() throws Exception {
+        MockHttpServletResponse response = serve(file("photo.png", MediaType.IMAGE_PNG), new MockHttpServletRequest("GET", "/"));
+        assertEquals(MediaType.IMAGE_PNG_VALUE, response.getContentType());
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).startsWith("inline"));
+        assertEquals("sandbox", response.getHeader("Content-Security-Policy"));
+
+        response = serve(file("report.pdf", MediaType.APPLICATION_PDF), new MockHttpServletRequest("GET", "/"));
+        assertEquals(MediaType.APPLICATION_PDF_VALUE, response.getContentType());
+        assertEquals("nosniff", response.getHeader("X-Content-Type-Options"));
+        assertNull(response.getHeader("Content-Security-Policy"));
+    }
+
+    @Test
+    void singleRangeIsServedAsPartialContent() throws Exception {
+        MockHttpServletResponse response = serve(file("photo.png", MediaType.IMAGE_PNG), rangeRequest("bytes=2-5", null));
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    void unsatisfiableRangeIsRefused() throws Exception {
+        MockHttpServletResponse response = serve(file("photo.png", MediaType.IMAGE_PNG), rangeRequest("bytes=20-", null));
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void malformedOrMultipleRangesGetTheWholeFile() throws Exception {
+        assertWholeFile(serve(file("photo.png", MediaType.IMAGE_PNG), rangeRequest("bytes=five-", null)));
+        assertWholeFile(serve(file("photo.png", MediaType.IMAGE_PNG), rangeRequest("bytes=0-1,4-5", null)));
+    }
+
+    @Test
+    void ifRangeHonoursTheRangeOnlyWhileTheValidatorMatches() throws Exception {
+        StoredFile file = file("photo.png", MediaType.IMAGE_PNG);
+        String lastModified = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            Instant.ofEpochMilli(file.getLastModified()).atOffset(ZoneOffset.UTC));
+        String earlier = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+            Instant.ofEpochMilli(file.getLastModified()).minusSeconds(60).atOffset(ZoneOffset.UTC));
+
+        assertEquals(206, serve(file, rangeRequest("bytes=0-3", "\"abc\"")).getStatus());
+        assertEquals(206, serve(file, rangeRequest("bytes=0-3", lastModified)).getStatus());
+
+        // The client's copy is of another version: send the current one whole
+        assertWholeFile(serve(file, rangeRequest("bytes=0-3", "\"old\"")));
+        assertWholeFile(serve(file, rangeRequest("bytes=0-3", earlier)));
+        assertWholeFile(serve(file, rangeRequest("bytes=0-3", "not a date")));
+    }
+
+    @Test
+    void localDownloadsEmitFileTransferEvents(@TempDir Path dir) throws Exception {
+        Path location = Files.write(dir.resolve("photo.png"), CONTENT);
+        StoredFile file = file("photo.png", MediaType.IMAGE_PNG);
+        file.setLocation(location);
+        MockHttpServletRequest sendfileRequest = rangeRequest("bytes=2-5", null);
+        sendfileRequest.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(FlightEvents.FileTransferEvent.class);
+            recording.start();
+            assertEquals("0123456789", serve(file, new MockHttpServletRequest("GET", "/")).getContentAsString());
+            serve(file, sendfileRequest);
+            recording.stop();
+            Path dump = dir.resolve("transfer.jfr");
+            recording.dump(dump);
+            events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("com.resolveit.FileTransfer"))
+                .toList();
+        }
+
+        assertEquals(2, events.size());
+        assertEquals("transferTo", events.get(0).getString("transfer"));
+        assertEquals(10, events.get(0).getLong("bytes"));
+        assertEquals("sendfile", events.get(1).getString("transfer"));
+        assertEquals(4, events.get(1).getLong("bytes"));
+        for (RecordedEvent event : events) {
+            assertEquals("local", event.getString("backend"));
+            assertEquals("download", event.getString("direction"));
+            assertEquals("uploads/photo.png", event.getString("key"));
+            assertTrue(event.getBoolean("success"));
+        }
+    }
+
+    private static void assertWholeFile(MockHttpServletResponse response) throws Exception {
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    private static MockHttpServletRequest rangeRequest(String range, String ifRange) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, range);
+        if (ifRange != null) {
+            request.addHeader(HttpHeaders.IF_RANGE, ifRange);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse serve(StoredFile file, MockHttpServletRequest request) throws Exception {
+        when(fileStorageService.openStream(anyString(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            int offset = (int) (long) invocation.getArgument(1);
+            int length = (int) (long) invocation.getArgument(2);
+            return new ByteArrayInputStream(CONTENT, offset, length);
+        });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        downloadService.serve(file, request, response, downloadService.defaultCacheControl(), false);
+        return response;
+    }
+
+    private static StoredFile file(String filename, MediaType contentType) {
+        return StoredFile.builder()
+            .filePath("uploads/" + filename)
+            .filename(filename)
+            .size(CONTENT.length)
+            .lastModified(1_700_000_000_000L)
+            .contentType(contentType)
+            .etag("\"abc\"")
+            .build();
+    }
+}
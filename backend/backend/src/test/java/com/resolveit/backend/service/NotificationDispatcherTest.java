@@ -0,0 +1,95 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.dto.NotificationDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class NotificationDispatcherTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final NotificationDispatcher dispatcher = new NotificationDispatcher(messagingTemplate, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void digestCountsEachMergeOnce() {
+        // Stored once, then coalesced three more times within the interval
+        for (int count = 1; count <= 4; count++) {
+            dispatcher.dispatch("STU1", notification(1L, "STATUS_UPDATE", count), true);
+        }
+        dispatcher.dispatch("STU1", notification(2L, "NEW_REMARK", 1), true);
+
+        dispatcher.flushDigests();
+
+        NotificationDTO digest = lastSent(1);
+        assertEquals(5, digest.getCoalescedCount());
+        assertEquals("4 status update, 1 new remark", digest.getMessage());
+    }
+
+    @Test
+    void digestCountsOnlyChangesSinceTheLastDigest() {
+        dispatcher.dispatch("STU1", notification(1L, "STATUS_UPDATE", 1), true);
+        dispatcher.dispatch("STU1", notification(1L, "STATUS_UPDATE", 2), true);
+        dispatcher.flushDigests();
+
+        // Merged once more in the next interval: the row now says 3, the digest says 1
+        dispatcher.dispatch("STU1", notification(1L, "STATUS_UPDATE", 3), true);
+        dispatcher.flushDigests();
+
+        NotificationDTO digest = lastSent(2);
+        assertEquals(1, digest.getCoalescedCount());
+        assertEquals("1 status update", digest.getMessage());
+
+        // Nothing new: no digest
+        dispatcher.flushDigests();
+        verify(messagingTemplate, times(2)).convertAndSendToUser(eq("STU1"), any(), any());
+    }
+
+    @Test
+    void coalescedPushesGoOutOnceWithTheLatestContent() {
+        ReflectionTestUtils.setField(dispatcher, "pushDelayMs", 100L);
+
+        for (int count = 1; count <= 3; count++) {
+            dispatcher.dispatch("STU1", notification(7L, "STATUS_UPDATE", count), false);
+        }
+
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(2000)).convertAndSendToUser(eq("STU1"), any(), sent.capture());
+        assertEquals(3, ((NotificationDTO) sent.getValue()).getCoalescedCount());
+        verify(messagingTemplate, times(1)).convertAndSendToUser(eq("STU1"), any(), any());
+    }
+
+    private NotificationDTO lastSent(int expectedSends) {
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(expectedSends)).convertAndSendToUser(eq("STU1"), any(), sent.capture());
+        List<Object> values = sent.getAllValues();
+        return (NotificationDTO) values.get(values.size() - 1);
+    }
+
+    private static NotificationDTO notification(Long id, String type, int coalescedCount) {
+        return NotificationDTO.builder()
+            .id(id)
+            .type(type)
+            .title("Grievance updated")
+            .message("Version " + coalescedCount)
+            .coalescedCount(coalescedCount)
+            .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.resolveit.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationRetentionServiceTest {
+
+    private final JdbcTemplate h2 = new JdbcTemplate(new DriverManagerDataSource(
+        "jdbc:h2:mem:retention;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @AfterEach
+    void tearDown() {
+        h2.execute("DROP TABLE IF EXISTS notifications");
+    }
+
+    @Test
+    void partitionIsDroppedOnceItsWholeMonthIsPastTheCutoff() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of(
+            "notifications_default",
+            "notifications_y2026m03",
+            "notifications_y2026m04",
+            "notifications_y2026m04_archive",
+            "notifications_y2026m4",
+            "notifications_y2026m05"));
+        NotificationRetentionService service = new NotificationRetentionService(jdbcTemplate);
+
+        // April ends exactly at the cutoff, so all of it has expired
+        assertEquals(2, service.dropExpiredPartitions(LocalDateTime.of(2026, 5, 1, 0, 0)));
+
+        verify(jdbcTemplate).execute("ALTER TABLE notifications DETACH PARTITION notifications_y2026m03");
+        verify(jdbcTemplate).execute("DROP TABLE notifications_y2026m03");
+        verify(jdbcTemplate).execute("DROP TABLE notifications_y2026m04");
+        for (String kept : List.of("notifications_default", "notifications_y2026m04_archive",
+                "notifications_y2026m4", "notifications_y2026m05")) {
+            verify(jdbcTemplate, never()).execute("DROP TABLE " + kept);
+        }
+    }
+
+    @Test
+    void partitionStillHoldingLiveRowsIsKept() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+            .thenReturn(List.of("notifications_y2026m03", "notifications_y2026m04"));
+        NotificationRetentionService service = new NotificationRetentionService(jdbcTemplate);
+
+        // One second short of May: the last second of April is not expired yet
+        assertEquals(1, service.dropExpiredPartitions(LocalDateTime.of(2026, 4, 30, 23, 59, 59)));
+
+        verify(jdbcTemplate).execute("DROP TABLE notifications_y2026m03");
+        verify(jdbcTemplate, never()).execute("DROP TABLE notifications_y2026m04");
+    }
+
+    @Test
+    void batchedPurgeAppliesPerTypeAndDefaultRetention() {
+        h2.execute("CREATE TABLE notifications (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+            "type VARCHAR(50) NOT NULL, created_at TIMESTAMP NOT NULL)");
+        LocalDateTime now = LocalDateTime.now();
+        insert("STATUS_UPDATE", now.minusDays(31));
+        long statusKept = insert("STATUS_UPDATE", now.minusDays(29));
+        insert("STATUS_UPDATE", now.minusDays(100));
+        long remarkKept = insert("NEW_REMARK", now.minusDays(179));
+        insert("NEW_REMARK", now.minusDays(181));
+        for (int i = 0; i < 5; i++) {
+            insert("FEEDBACK_REQUEST", now.minusDays(200));
+        }
+
+        NotificationRetentionService service = new NotificationRetentionService(h2);
+        ReflectionTestUtils.setField(service, "defaultRetentionDays", 180);
+        ReflectionTestUtils.setField(service, "typeRetentionDays", Map.of("STATUS_UPDATE", 30));
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "batchPauseMs", 0L);
+
+        assertTrue(service.purge());
+
+        assertEquals(List.of(statusKept, remarkKept),
+            h2.queryForList("SELECT id FROM notifications ORDER BY id", Long.class));
+        assertEquals(8, service.getMetrics().getLastRunRowsDeleted());
+        // STATUS_UPDATE: one batch of two; everything else: six rows in batches of two
+        assertEquals(4, service.getMetrics().getLastRunBatches());
+    }
+
+    private long insert(String type, LocalDateTime createdAt) {
+        h2.update("INSERT INTO notifications (type, created_at) VALUES (?, ?)", type, Timestamp.valueOf(createdAt));
+        return h2.queryForObject("SELECT MAX(id) FROM notifications", Long.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.controller.NotificationController;
+import com.resolveit.backend.dto.NotificationDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class NotificationStreamServiceTest {
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final NotificationDispatcher notificationDispatcher = mock(NotificationDispatcher.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        NotificationStreamService streamService = new NotificationStreamService(notificationDispatcher, notificationService);
+        ReflectionTestUtils.setField(streamService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(streamService, "retryMs", 5_000L);
+        ReflectionTestUtils.setField(streamService, "replayLimit", 3);
+        ReflectionTestUtils.setField(streamService, "replayMax", 6);
+        when(notificationDispatcher.addListener(eq("STU1"), any())).thenReturn(() -> { });
+        when(notificationService.getUnreadCount("STU1")).thenReturn(0L);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new NotificationController(notificationService, streamService))
+            .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+            .build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("STU1", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void replayPagesPastTheReplayLimit() throws Exception {
+        missed(8L);
+
+        String body = stream(3L);
+
+        // Two full pages of three and a short page of two: every missed id, in order
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L), eventIds(body));
+        assertFalse(body.contains("event:replay-truncated"));
+    }
+
+    @Test
+    void replayBeyondTheCapTellsTheClientToRefetch() throws Exception {
+        missed(20L);
+
+        String body = stream(0L);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), eventIds(body));
+        assertTrue(body.contains("event:replay-truncated"));
+        assertTrue(body.contains("\"lastEventId\":6"));
+    }
+
+    @Test
+    void noLastEventIdMeansNoReplay() throws Exception {
+        missed(20L);
+
+        assertEquals(List.of(), eventIds(stream(null)));
+    }
+
+    // Stubs the repository paging: ids after the cursor up to lastId, oldest first
+    private void missed(long lastId) {
+        when(notificationService.getNotificationsAfter(eq("STU1"), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return LongStream.rangeClosed(after + 1, lastId)
+                .limit(limit)
+                .mapToObj(id -> NotificationDTO.builder().id(id).title("n" + id).build())
+                .toList();
+        });
+    }
+
+    private String stream(Long lastEventId) throws Exception {
+        var request = get("/api/notifications/stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andReturn().getResponse().getContentAsString();
+    }
+
+    private static List<Long> eventIds(String body) {
+        Matcher matcher = Pattern.compile("(?m)^id:(\\d+)$").matcher(body);
+        return matcher.results().map(result -> Long.parseLong(result.group(1))).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.resolveit.backend.service;
+
+import com.resolveit.backend.repository.AttachmentRepository;
+import com.resolveit.backend.repository.UploadSessionRepository;
+import com.resolveit.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StorageGarbageCollectorTest {
+
+    private static final long OLD = Instant.now().minus(Duration.ofDays(2)).toEpochMilli();
+    private static final long NEW = Instant.now().toEpochMilli();
+
+    private final ObjectStorage objectStorage = mock(ObjectStorage.class);
+    private final FileStorageService fileStorageService = mock(FileStorageService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final AttachmentRepository attachmentRepository = mock(AttachmentRepository.class);
+    private final StorageGarbageCollector collector = new StorageGarbageCollector(objectStorage, fileStorageService,
+        userRepository, attachmentRepository, mock(UploadSessionRepository.class));
+
+    @Test
+    void sweepsOnlyUnreferencedFilesPastTheGracePeriod() throws Exception {
+        configure(100, 1);
+        when(objectStorage.listPage(null, 100)).thenReturn(List.of(
+            entry("objects/aa/attached.pdf", OLD),
+            entry("objects/bb/orphan.pdf", OLD),
+            entry("objects/cc/fresh.pdf", NEW),
+            entry("profile-pictures/me.png", OLD),
+            entry("profile-pictures/me-128.jpg", OLD),
+            entry("profile-pictures/gone-128.jpg", OLD),
+            entry("tmp/upload-1.part", OLD)));
+        when(attachmentRepository.findReferencedStorageKeys(anyCollection())).thenReturn(List.of("objects/aa/attached.pdf"));
+        when(userRepository.findReferencedProfilePictures(anyCollection())).thenReturn(List.of("profile-pictures/me.png"));
+        when(fileStorageService.hasOriginal("profile-pictures/me-128.jpg")).thenReturn(true);
+        when(fileStorageService.deleteOrphan(any(), any())).thenReturn(10L);
+
+        collector.run();
+
+        verify(fileStorageService).deleteOrphan(eq("objects/bb/orphan.pdf"), any());
+        verify(fileStorageService).deleteOrphan(eq("profile-pictures/gone-128.jpg"), any());
+        verify(fileStorageService, never()).deleteOrphan(eq("objects/aa/attached.pdf"), any());
+        verify(fileStorageService, never()).deleteOrphan(eq("objects/cc/fresh.pdf"), any());
+        verify(fileStorageService, never()).deleteOrphan(eq("profile-pictures/me.png"), any());
+        verify(fileStorageService, never()).deleteOrphan(eq("profile-pictures/me-128.jpg"), any());
+        verify(fileStorageService, never()).deleteOrphan(eq("tmp/upload-1.part"), any());
+        assertEquals(6, collector.getMetrics().getLastRunScanned());
+        assertEquals(2, collector.getMetrics().getLastRunDeleted());
+        assertEquals(20, collector.getMetrics().getLastRunBytesFreed());
+    }
+
+    @Test
+    void nextRunContinuesAfterTheLastPage() throws Exception {
+        configure(2, 1);
+        when(objectStorage.listPage(null, 2)).thenReturn(List.of(entry("a", NEW), entry("b", NEW)));
+        when(objectStorage.listPage("b", 2)).thenReturn(List.of(entry("c", NEW)));
+
+        collector.run();
+        assertEquals("b", collector.getMetrics().getCursor());
+
+        collector.run();
+        verify(objectStorage).listPage("b", 2);
+        assertNull(collector.getMetrics().getCursor());
+        assertEquals(1, collector.getMetrics().getTotalPasses());
+        verify(fileStorageService, never()).deleteOrphan(any(), any());
+        verify(objectStorage, never()).listPage(eq("c"), anyInt());
+    }
+
+    private void configure(int batchSize, int batchesPerRun) {
+        ReflectionTestUtils.setField(collector, "gracePeriodHours", 24L);
+        ReflectionTestUtils.setField(collector, "batchSize", batchSize);
+        ReflectionTestUtils.setField(collector, "batchesPerRun", batchesPerRun);
+        ReflectionTestUtils.setField(collector, "batchPauseMs", 0L);
+    }
+
+    private static ObjectStorage.ObjectEntry entry(String key, long lastModified) {
+        return new ObjectStorage.ObjectEntry(key, 10, lastModified);
+    }
+}
@@ -0,0 +1,72 @@
+package com.resolveit.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and exits with status 1 if any benchmark got slower
+ * than the baseline by more than the tolerance (default 10%), so a CI step before deploy
+ * can fail on a regression:
+ *
+ *   java -cp benchmarks.jar com.resolveit.benchmarks.BenchmarkComparison baseline.json jmh-result.json [tolerance-percent]
+ *
+ * Scores are compared per benchmark and parameter set. All benchmarks here report time per
+ * operation, so higher is slower. Benchmarks missing from either file are listed and skipped.
+ */
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [tolerance-percent]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, Double> baseline = scores(new File(args[0]));
+        Map<String, Double> current = scores(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %s: %.3f%n", entry.getKey(), entry.getValue());
+                continue;
+            }
+            double change = (entry.getValue() - before) / before;
+            boolean regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s: %.3f -> %.3f (%+.1f%%)%n",
+                regressed ? "REGRESSED" : "ok", entry.getKey(), before, entry.getValue(), change * 100);
+        }
+        baseline.keySet().stream()
+            .filter(key -> !current.containsKey(key))
+            .forEach(key -> System.out.printf("MISSING    %s%n", key));
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    // "benchmark [param=value, ...]" -> primary score
+    private static Map<String, Double> scores(File file) throws Exception {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            String key = run.get("benchmark").asText();
+            JsonNode params = run.get("params");
+            if (params != null) {
+                key += " " + params;
+            }
+            scores.put(key, run.get("primaryMetric").get("score").asDouble());
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,127 @@
+package com.resolveit.benchmarks;
+
+import com.resolveit.backend.entity.StoredObject;
+import com.resolveit.backend.repository.PendingUploadRepository;
+import com.resolveit.backend.repository.StoredObjectRepository;
+import com.resolveit.backend.service.FileStorageService;
+import com.resolveit.backend.service.LocalObjectStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content-addressed uploads and downloads on the local backend: storing new content
+ * (hash, temp file, move into place), storing content that already exists (hash and a
+ * reference count bump) and reading an object back.
+ *
+ * Objects are written under ./uploads, like the application does, and removed again;
+ * run it from the benchmarks directory rather than from a deployed instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileStorageBenchmark {
+
+    private static final int OBJECT_SIZE = 64 * 1024;
+
+    private final Map<String, StoredObject> objects = new ConcurrentHashMap<>();
+    private LocalObjectStorage objectStorage;
+    private FileStorageService fileStorageService;
+    private byte[] content;
+    private byte[] existingContent;
+    private StoredObject existing;
+    private StoredObject lastStored;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        StoredObjectRepository repository = StandIns.repository(StoredObjectRepository.class, Map.of(
+            "findBySha256", args -> Optional.ofNullable(objects.get((String) args[0])),
+            "incrementReferences", args -> {
+                StoredObject object = objects.get((String) args[0]);
+                if (object == null) {
+                    return 0;
+                }
+                object.setReferenceCount(object.getReferenceCount() + 1);
+                return 1;
+            },
+            "saveAndFlush", args -> {
+                StoredObject object = (StoredObject) args[0];
+                objects.put(object.getSha256(), object);
+                return object;
+            }));
+
+        objectStorage = new LocalObjectStorage();
+        fileStorageService = new FileStorageService(repository,
+            StandIns.repository(PendingUploadRepository.class, Map.of()), objectStorage, new SimpleMeterRegistry(),
+            StandIns.transactionManager());
+        StandIns.inject(fileStorageService, "contentAddressed", true);
+
+        content = new byte[OBJECT_SIZE];
+        new Random(42).nextBytes(content);
+        existingContent = content.clone();
+        existingContent[0] ^= 1;
+        existing = fileStorageService.storeObject(new ByteArrayInputStream(existingContent), "existing.pdf", "application/pdf");
+    }
+
+    // Every call stores content nobody has stored before
+    @Benchmark
+    public StoredObject storeNewObject() {
+        ByteBuffer.wrap(content).putLong(++sequence);
+        lastStored = fileStorageService.storeObject(new ByteArrayInputStream(content), "upload.pdf", "application/pdf");
+        return lastStored;
+    }
+
+    @Benchmark
+    public StoredObject storeExistingObject() {
+        return fileStorageService.storeObject(new ByteArrayInputStream(existingContent), "again.pdf", "application/pdf");
+    }
+
+    @Benchmark
+    public long loadObject() throws Exception {
+        fileStorageService.getFile(existing.getStorageKey());
+        try (InputStream stream = fileStorageService.openStream(existing.getStorageKey())) {
+            return stream.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    // Keep the disk from filling up with the objects storeNewObject creates
+    @TearDown(Level.Invocation)
+    public void removeStoredObject() throws Exception {
+        if (lastStored != null) {
+            objectStorage.delete(lastStored.getStorageKey());
+            objects.remove(lastStored.getSha256());
+            lastStored = null;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        for (StoredObject object : objects.values()) {
+            objectStorage.delete(object.getStorageKey());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.resolveit.benchmarks;
+
+import com.resolveit.backend.dto.GrievanceResponseDTO;
+import com.resolveit.backend.entity.Category;
+import com.resolveit.backend.entity.Department;
+import com.resolveit.backend.entity.Feedback;
+import com.resolveit.backend.entity.Grievance;
+import com.resolveit.backend.entity.User;
+import com.resolveit.backend.repository.AttachmentRepository;
+import com.resolveit.backend.repository.CategoryRepository;
+import com.resolveit.backend.repository.DepartmentRepository;
+import com.resolveit.backend.repository.FeedbackRepository;
+import com.resolveit.backend.repository.UserRepository;
+import com.resolveit.backend.service.AttachmentService;
+import com.resolveit.backend.service.GrievanceService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grievance entity to response DTO, for one grievance (detail views) and for a page
+ * (dashboard lists), with lookups answered by in-memory stand-in repositories. This is
+ * the CPU side of the conversion; the per-row queries it issues in production are
+ * tracked by the query budget tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrievanceConversionBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private GrievanceService grievanceService;
+    private List<Grievance> page;
+
+    @Setup
+    public void setUp() {
+        Map<Long, Category> categories = new HashMap<>();
+        Map<Long, Department> departments = new HashMap<>();
+        Map<Long, User> users = new HashMap<>();
+        for (long id = 1; id <= 5; id++) {
+            Category category = new Category();
+            category.setId(id);
+            category.setCategoryName("Category " + id);
+            categories.put(id, category);
+
+            Department department = new Department();
+            department.setId(id);
+            department.setDepartmentCode("D" + id);
+            department.setDepartmentName("Department " + id);
+            departments.put(id, department);
+        }
+        for (long id = 1; id <= 40; id++) {
+            users.put(id, StandIns.user(id, (id <= 30 ? "STU" : "STF") + id, id <= 30 ? "student" : "staff"));
+        }
+
+        page = new ArrayList<>();
+        Map<Long, Feedback> feedback = new HashMap<>();
+        for (long id = 1; id <= pageSize; id++) {
+            Grievance grievance = new Grievance();
+            grievance.setId(id);
+            grievance.setGrievanceId("GRV" + (1000 + id));
+            grievance.setTitle("Projector in room " + id + " is not working");
+            grievance.setDescription("The projector has not worked since last week and lectures are affected.");
+            grievance.setStudentId(1 + id % 30);
+            grievance.setCategoryId(1 + id % 5);
+            grievance.setDepartmentId(1 + id % 5);
+            grievance.setPriority(id % 2 == 0 ? "high" : "low");
+            grievance.setStatus(id % 3 == 0 ? "resolved" : "in_progress");
+            grievance.setAssignedTo(31 + id % 10);
+            grievance.setCreatedAt(LocalDateTime.now().minusDays(id));
+            grievance.setUpdatedAt(LocalDateTime.now().minusHours(id));
+            page.add(grievance);
+            if (id % 3 == 0) {
+                feedback.put(id, Feedback.builder().id(id).grievance(grievance).rating(4).comment("Fixed quickly")
+                    .submittedBy(users.get(grievance.getStudentId())).createdAt(LocalDateTime.now()).build());
+            }
+        }
+
+        AttachmentRepository attachmentRepository = StandIns.repository(AttachmentRepository.class, Map.of(
+            "countByGrievance_Id", args -> 2L,
+            "countByGrievanceIds", args -> {
+                List<Object[]> rows = new ArrayList<>();
+                for (Object id : (Collection<?>) args[0]) {
+                    rows.add(new Object[]{id, 2L});
+                }
+                return rows;
+            }));
+
+        grievanceService = new GrievanceService();
+        StandIns.inject(grievanceService, "categoryRepository", StandIns.repository(CategoryRepository.class,
+            Map.of("findById", args -> Optional.ofNullable(categories.get((Long) args[0])))));
+        StandIns.inject(grievanceService, "departmentRepository", StandIns.repository(DepartmentRepository.class,
+            Map.of("findById", args -> Optional.ofNullable(departments.get((Long) args[0])))));
+        StandIns.inject(grievanceService, "userRepository", StandIns.repository(UserRepository.class,
+            Map.of("findById", args -> Optional.ofNullable(users.get((Long) args[0])))));
+        StandIns.inject(grievanceService, "feedbackRepository", StandIns.repository(FeedbackRepository.class,
+            Map.of("findByGrievanceIdAndSubmittedById", args -> Optional.ofNullable(feedback.get((Long) args[0])))));
+        StandIns.inject(grievanceService, "attachmentRepository", attachmentRepository);
+        StandIns.inject(grievanceService, "attachmentService",
+            new AttachmentService(attachmentRepository, null, null, null, null, null));
+    }
+
+    @Benchmark
+    public GrievanceResponseDTO convertOne() {
+        return grievanceService.convertToResponseDTO(page.get(0));
+    }
+
+    @Benchmark
+    public List<GrievanceResponseDTO> convertPage() {
+        return grievanceService.convertToResponseDTOs(page);
+    }
+}
@@ -0,0 +1,69 @@
+package com.resolveit.benchmarks;
+
+import com.resolveit.backend.entity.User;
+import com.resolveit.backend.repository.UserRepository;
+import com.resolveit.backend.security.CustomUserDetailsService;
+import com.resolveit.backend.security.JwtAuthenticationFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JWT filter end to end for one authenticated request: parse and verify the token,
+ * load the user (from an in-memory stand-in) and set up the security context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        User student = StandIns.user(1, "STU1", "student");
+        UserRepository userRepository = StandIns.repository(UserRepository.class,
+            Map.of("findByUserId", args -> Optional.of(student)));
+
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService();
+        StandIns.inject(userDetailsService, "userRepository", userRepository);
+
+        filter = new JwtAuthenticationFilter();
+        StandIns.inject(filter, "jwtUtil", JwtBenchmark.newJwtUtil());
+        StandIns.inject(filter, "userDetailsService", userDetailsService);
+
+        authorization = "Bearer " + JwtBenchmark.newJwtUtil().generateToken("STU1", "student");
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dashboard/student/stats");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
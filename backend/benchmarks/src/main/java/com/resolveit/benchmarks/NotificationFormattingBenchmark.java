@@ -0,0 +1,123 @@
+package com.resolveit.benchmarks;
+
+import com.resolveit.backend.dto.CursorPaginatedResponse;
+import com.resolveit.backend.dto.NotificationDTO;
+import com.resolveit.backend.dto.NotificationSummary;
+import com.resolveit.backend.repository.GrievanceRepository;
+import com.resolveit.backend.repository.NotificationPreferenceRepository;
+import com.resolveit.backend.repository.NotificationRepository;
+import com.resolveit.backend.repository.UserRepository;
+import com.resolveit.backend.service.NotificationDispatcher;
+import com.resolveit.backend.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One inbox page: notification rows to DTOs, including the "time ago" and date
+ * formatting (convertToDTO/getTimeAgo). Rows span every time-ago bucket, from just now
+ * to older than a week.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationFormattingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private NotificationService notificationService;
+
+    @Setup
+    public void setUp() {
+        List<NotificationSummary> rows = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime[] createdAt = {now, now.minusMinutes(5), now.minusHours(3), now.minusDays(2), now.minusDays(30)};
+        for (long id = PAGE_SIZE + 1; id >= 1; id--) {
+            rows.add(new Row(id, createdAt[(int) (id % createdAt.length)]));
+        }
+
+        NotificationRepository notificationRepository = StandIns.repository(NotificationRepository.class,
+            Map.of("findInboxPage", args -> rows));
+        notificationService = new NotificationService(notificationRepository,
+            StandIns.repository(UserRepository.class, Map.of()),
+            StandIns.repository(GrievanceRepository.class, Map.of()),
+            StandIns.repository(NotificationPreferenceRepository.class, Map.of()),
+            new NotificationDispatcher(null, new SimpleMeterRegistry()),
+            new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public CursorPaginatedResponse<NotificationDTO> inboxPage() {
+        return notificationService.getInbox("STU1", null, null, PAGE_SIZE);
+    }
+
+    private record Row(Long id, LocalDateTime createdAt) implements NotificationSummary {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getType() {
+            return "STATUS_UPDATE";
+        }
+
+        @Override
+        public String getTitle() {
+            return "Grievance Status Updated";
+        }
+
+        @Override
+        public String getMessage() {
+            return "Your grievance #GRV" + id + " status has been updated to 'in_progress'";
+        }
+
+        @Override
+        public Long getGrievanceId() {
+            return id;
+        }
+
+        @Override
+        public String getGrievanceTitle() {
+            return "Projector in room " + id + " is not working";
+        }
+
+        @Override
+        public Boolean getIsRead() {
+            return id % 2 == 0;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        @Override
+        public LocalDateTime getReadAt() {
+            return null;
+        }
+
+        @Override
+        public Integer getCoalescedCount() {
+            return 1;
+        }
+    }
+}
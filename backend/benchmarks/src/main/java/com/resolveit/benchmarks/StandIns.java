@@ -0,0 +1,112 @@
+package com.resolveit.benchmarks;
+
+import com.resolveit.backend.entity.User;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories used by the benchmarked services,
+ * so the benchmarks measure the service code rather than a database.
+ */
+final class StandIns {
+
+    private StandIns() {
+    }
+
+    // A repository whose listed methods answer from the given functions; every other method
+    // returns an empty value (Optional.empty(), an empty collection, zero, false or null)
+    static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return objectMethod(proxy, method, args, type);
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args != null ? args : new Object[0]);
+            }
+            return emptyValue(method.getReturnType());
+        }));
+    }
+
+    // Transactions that do nothing: the stand-in repositories have no database behind them
+    static PlatformTransactionManager transactionManager() {
+        return new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+    }
+
+    // Services here use field injection; set a collaborator as Spring would
+    static void inject(Object target, String field, Object value) {
+        ReflectionTestUtils.setField(target, field, value);
+    }
+
+    static User user(long id, String userId, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setUserId(userId);
+        user.setFirstName("First" + id);
+        user.setLastName("Last" + id);
+        user.setEmail(userId.toLowerCase() + "@example.edu");
+        user.setPasswordHash("unused");
+        user.setRole(role);
+        user.setDepartmentId(1);
+        return user;
+    }
+
+    private static Object objectMethod(Object proxy, Method method, Object[] args, Class<?> type) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> "StandIn(" + type.getSimpleName() + ")";
+        };
+    }
+
+    private static Object emptyValue(Class<?> returnType) {
+        if (returnType == Optional.class) {
+            return Optional.empty();
+        }
+        if (returnType == List.class || returnType == Collection.class || returnType == Iterable.class) {
+            return List.of();
+        }
+        if (returnType == Set.class) {
+            return Set.of();
+        }
+        if (returnType == boolean.class || returnType == Boolean.class) {
+            return false;
+        }
+        if (returnType == long.class || returnType == Long.class) {
+            return 0L;
+        }
+        if (returnType == int.class || returnType == Integer.class) {
+            return 0;
+        }
+        return null;
+    }
+}
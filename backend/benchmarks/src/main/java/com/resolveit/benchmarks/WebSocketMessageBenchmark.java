@@ -0,0 +1,97 @@
+package com.resolveit.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.resolveit.backend.config.StompPayloadEncoding;
+import com.resolveit.backend.dto.WebSocketMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing the live grievance frames (new remark, status change) as they are broadcast
+ * to subscribers: JSON with the broker's settings, and JSON transcoded to CBOR for
+ * binary clients. The status change is also serialized in its old free-form shape (a map
+ * with preformatted strings) to compare against the typed frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebSocketMessageBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final StompPayloadEncoding encoding = new StompPayloadEncoding();
+
+    private WebSocketMessage remarkFrame;
+    private WebSocketMessage statusFrame;
+    private byte[] statusJson;
+    private Map<String, Object> legacyStatusFrame;
+
+    @Setup
+    public void setUp() throws Exception {
+        remarkFrame = WebSocketMessage.builder()
+            .type("NEW_REMARK")
+            .grievanceId(42L)
+            .sender("STF1")
+            .timestamp(LocalDateTime.now())
+            .remark(new WebSocketMessage.RemarkEvent(7L, "We have ordered a replacement projector.",
+                "First31 Last31", "staff", false, LocalDateTime.now()))
+            .build();
+        statusFrame = WebSocketMessage.createStatusUpdateMessage(42L, "in_progress", "resolved",
+            "Replacement projector installed", "STF1");
+        statusJson = objectMapper.writeValueAsBytes(statusFrame);
+
+        Map<String, Object> additionalData = new HashMap<>();
+        additionalData.put("oldStatus", "in_progress");
+        additionalData.put("newStatus", "resolved");
+        additionalData.put("note", "Replacement projector installed");
+        additionalData.put("formattedTime", LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMM dd, yyyy hh:mm a")));
+        additionalData.put("updatedBy", "STF1");
+        legacyStatusFrame = new HashMap<>();
+        legacyStatusFrame.put("type", "STATUS_UPDATE");
+        legacyStatusFrame.put("grievanceId", 42L);
+        legacyStatusFrame.put("remark", null);
+        legacyStatusFrame.put("sender", "STF1");
+        legacyStatusFrame.put("timestamp", LocalDateTime.now());
+        legacyStatusFrame.put("additionalData", additionalData);
+    }
+
+    @Benchmark
+    public byte[] remarkToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(remarkFrame);
+    }
+
+    @Benchmark
+    public byte[] statusChangeToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(statusFrame);
+    }
+
+    @Benchmark
+    public byte[] legacyStatusChangeToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(legacyStatusFrame);
+    }
+
+    @Benchmark
+    public byte[] statusChangeJsonToCbor() {
+        return encoding.transcode(StompPayloadEncoding.Format.CBOR, statusJson);
+    }
+}
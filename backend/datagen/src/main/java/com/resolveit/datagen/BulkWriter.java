@@ -0,0 +1,119 @@
+package com.resolveit.datagen;
+
+import org.postgresql.PGConnection;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes buffered rows into a table: COPY on PostgreSQL, which is several times faster
+ * than any INSERT form, and batched prepared inserts everywhere else.
+ */
+final class BulkWriter {
+
+    private static final int BATCH = 1_000;
+
+    record Table(String name, String... columns) {
+
+        String columnList() {
+            return String.join(", ", columns);
+        }
+    }
+
+    static final Table DEPARTMENTS = new Table("departments",
+        "id", "department_code", "department_name", "description", "created_at");
+    static final Table CATEGORIES = new Table("categories",
+        "id", "category_name", "description", "is_active", "created_at");
+    static final Table USERS = new Table("users",
+        "id", "user_id", "first_name", "last_name", "email", "password_hash", "role", "department_id", "phone",
+        "is_active", "created_at", "enrollment_number", "academic_year", "program", "semester",
+        "email_notifications", "push_notifications");
+    static final Table GRIEVANCES = new Table("grievances",
+        "id", "grievance_id", "title", "description", "student_id", "category_id", "department_id", "priority",
+        "status", "assigned_to", "assigned_admin_id", "resolution_notes", "resolved_by", "resolved_at",
+        "has_attachments", "created_at", "updated_at");
+    // Child rows leave id to the database
+    static final Table REMARKS = new Table("remarks",
+        "grievance_id", "user_id", "message", "user_type", "is_internal", "created_at");
+    static final Table TIMELINE = new Table("grievance_timeline",
+        "grievance_id", "status", "note", "updated_by", "created_at");
+    static final Table FEEDBACK = new Table("feedback",
+        "grievance_id", "rating", "comment", "submitted_by", "created_at");
+    static final Table NOTIFICATIONS = new Table("notifications",
+        "user_id", "type", "title", "message", "grievance_id", "is_read", "created_at", "read_at",
+        "coalesced_count", "updated_at");
+
+    private final boolean postgres;
+
+    BulkWriter(boolean postgres) {
+        this.postgres = postgres;
+    }
+
+    void write(Connection connection, Table table, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (postgres) {
+            copy(connection, table, rows);
+        } else {
+            insert(connection, table, rows);
+        }
+    }
+
+    private void copy(Connection connection, Table table, List<Object[]> rows) throws SQLException {
+        StringBuilder csv = new StringBuilder(rows.size() * 128);
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                appendCsv(csv, row[i]);
+            }
+            csv.append('\n');
+        }
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                "COPY " + table.name() + " (" + table.columnList() + ") FROM STDIN WITH (FORMAT csv)",
+                new StringReader(csv.toString()));
+        } catch (java.io.IOException e) {
+            throw new SQLException("COPY into " + table.name() + " failed", e);
+        }
+    }
+
+    private void insert(Connection connection, Table table, List<Object[]> rows) throws SQLException {
+        String placeholders = "?" + ", ?".repeat(table.columns().length - 1);
+        try (PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO " + table.name() + " (" + table.columnList() + ") VALUES (" + placeholders + ")")) {
+            int pending = 0;
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    insert.setObject(i + 1, row[i]);
+                }
+                insert.addBatch();
+                if (++pending == BATCH) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    // Unquoted empty is NULL in COPY csv, so every string is quoted to keep '' distinct
+    private static void appendCsv(StringBuilder csv, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof String text) {
+            csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+        } else if (value instanceof LocalDateTime time) {
+            csv.append(time);
+        } else {
+            csv.append(value);
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package com.resolveit.datagen;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates the corpus and writes it through a {@link BulkWriter}.
+ *
+ * Ids are explicit for departments (1..D), categories, users (admins 1..D, one per
+ * department, then staff grouped by department, then students) and grievances, which are
+ * numbered in submission order. Everything random about a day's grievances comes from a
+ * generator seeded with the seed and the day, so the corpus does not depend on --threads
+ * or --chunk. Names are a hash of the user id, so notifications can quote them without
+ * a lookup.
+ */
+final class CorpusGenerator {
+
+    private static final String[] PRIORITIES = {"low", "medium", "high", "urgent"};
+    private static final double[] PRIORITY_WEIGHTS = Distributions.cumulative(new double[] {30, 45, 18, 7});
+    // Urgent grievances move through review and work faster than low ones
+    private static final double[] PRIORITY_SPEED = {1.5, 1.0, 0.6, 0.3};
+
+    private static final double REJECTED = 0.07;
+    private static final double STALLED = 0.03;
+    private static final double FEEDBACK_SHARE = 0.35;
+    private static final double INTERNAL_SHARE = 0.12;
+    private static final int MAX_REMARKS = 250;
+
+    private static final String[] REJECTION_NOTES = {
+        "Duplicate of an existing grievance", "Outside the scope of this department", "Insufficient details provided"
+    };
+    private static final String[] RESOLUTION_NOTES = {
+        "Issue fixed and verified with the student.", "Replaced the faulty equipment.",
+        "Refund processed; it will reflect in 5-7 working days.", "Schedule corrected and published.",
+        "Escalated and resolved by the vendor."
+    };
+
+    private final GeneratorOptions options;
+    private final BulkWriter writer;
+    private final Map<String, LongAdder> counts = new LinkedHashMap<>();
+
+    private final int departments;
+    private final int categories;
+    private final long students;
+    private final long firstStudentId;
+    private final double[] departmentWeights;
+    private final int[] departmentByRank;
+    private final double[] categoryWeights;
+    private final long[] staffCount;
+    private final long[] firstStaffId;
+    private final long studentStep;
+    private final LocalDateTime notificationsFrom;
+    private final SubmissionCalendar calendar;
+
+    CorpusGenerator(GeneratorOptions options, BulkWriter writer) {
+        this.options = options;
+        this.writer = writer;
+        for (BulkWriter.Table table : List.of(BulkWriter.DEPARTMENTS, BulkWriter.CATEGORIES, BulkWriter.USERS,
+                BulkWriter.GRIEVANCES, BulkWriter.REMARKS, BulkWriter.TIMELINE, BulkWriter.FEEDBACK,
+                BulkWriter.NOTIFICATIONS)) {
+            counts.put(table.name(), new LongAdder());
+        }
+
+        departments = options.departments;
+        categories = options.categories;
+        students = options.scaledStudents();
+        long staff = options.scaledStaff();
+        firstStudentId = departments + staff + 1;
+
+        SplittableRandom random = new SplittableRandom(options.seed);
+        departmentWeights = Distributions.zipf(departments, 1.1);
+        departmentByRank = shuffled(departments, random);
+        categoryWeights = Distributions.zipf(categories, 0.9);
+
+        // Staff per department in proportion to its share of grievances, at least one each
+        staffCount = new long[departments];
+        firstStaffId = new long[departments];
+        long assigned = 0;
+        for (int rank = 0; rank < departments; rank++) {
+            double share = departmentWeights[rank] - (rank == 0 ? 0 : departmentWeights[rank - 1]);
+            long remaining = staff - assigned - (departments - rank - 1);
+            long count = rank == departments - 1 ? remaining : Math.max(1, Math.min(remaining, Math.round(staff * share)));
+            staffCount[departmentByRank[rank]] = count;
+            assigned += count;
+        }
+        long next = departments + 1;
+        for (int d = 0; d < departments; d++) {
+            firstStaffId[d] = next;
+            next += staffCount[d];
+        }
+
+        studentStep = Distributions.scatterStep(students);
+        notificationsFrom = options.end.minusDays(options.notificationDays);
+        calendar = new SubmissionCalendar(options.end, options.years, options.scaledGrievances(), departmentWeights, random);
+    }
+
+    Map<String, Long> generate() throws Exception {
+        writeReferenceData();
+        writeUsers();
+        writeGrievances();
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.forEach((table, count) -> result.put(table, count.sum()));
+        return result;
+    }
+
+    private void writeReferenceData() throws SQLException {
+        LocalDateTime createdAt = options.end.minusYears(options.years).minusDays(30);
+        List<Object[]> departmentRows = new ArrayList<>();
+        for (int d = 0; d < departments; d++) {
+            departmentRows.add(new Object[] {(long) d + 1, String.format("DEPT%02d", d + 1), Vocabulary.department(d),
+                "Handles grievances routed to " + Vocabulary.department(d), createdAt});
+        }
+        List<Object[]> categoryRows = new ArrayList<>();
+        for (int c = 0; c < categories; c++) {
+            categoryRows.add(new Object[] {(long) c + 1, Vocabulary.category(c),
+                "Grievances about " + Vocabulary.category(c).toLowerCase(), true, createdAt});
+        }
+        try (Connection connection = options.connect()) {
+            write(connection, BulkWriter.DEPARTMENTS, departmentRows);
+            write(connection, BulkWriter.CATEGORIES, categoryRows);
+            connection.commit();
+        }
+    }
+
+    private void writeUsers() throws SQLException {
+        // One hash for every account; BCrypt at strength 10 costs about 80 ms a call
+        String passwordHash = new BCryptPasswordEncoder().encode(options.password);
+        SplittableRandom random = new SplittableRandom(options.seed ^ 0x5EED_05E2L);
+        LocalDateTime windowStart = options.end.minusYears(options.years);
+        long lastId = firstStudentId + students - 1;
+        List<Object[]> rows = new ArrayList<>();
+        try (Connection connection = options.connect()) {
+            for (long id = 1; id <= lastId; id++) {
+                String role;
+                String userId;
+                int department;
+                if (id <= departments) {
+                    role = "admin";
+                    userId = "ADM" + id;
+                    department = (int) id;
+                } else if (id < firstStudentId) {
+                    role = "staff";
+                    userId = "STF" + (id - departments);
+                    department = staffDepartment(id) + 1;
+                } else {
+                    role = "student";
+                    userId = "STU" + (id - firstStudentId + 1);
+                    department = (int) ((id - firstStudentId) % departments) + 1;
+                }
+                boolean student = "student".equals(role);
+                LocalDateTime createdAt = windowStart.minusDays(random.nextInt(365)).plusMinutes(random.nextInt(24 * 60));
+                int semester = 1 + random.nextInt(8);
+                int admitted = createdAt.getYear() - (semester - 1) / 2;
+                rows.add(new Object[] {id, userId, firstName(id), lastName(id), userId.toLowerCase() + "@resolveit.edu",
+                    passwordHash, role, department,
+                    random.nextDouble() < 0.7 ? String.format("+91 9%09d", random.nextInt(1_000_000_000)) : null,
+                    random.nextDouble() < 0.98, createdAt,
+                    student ? "ENR" + admitted + String.format("%06d", id - firstStudentId + 1) : null,
+                    student ? String.format("%d-%02d", admitted, (admitted + 1) % 100) : null,
+                    student ? Vocabulary.pick(Vocabulary.PROGRAMS, random) : null,
+                    student ? semester : null,
+                    random.nextDouble() < 0.8, random.nextDouble() < 0.3});
+                if (rows.size() == options.chunk) {
+                    write(connection, BulkWriter.USERS, rows);
+                    connection.commit();
+                    rows.clear();
+                }
+            }
+            write(connection, BulkWriter.USERS, rows);
+            connection.commit();
+        }
+        System.out.printf("Users: %,d (%d admins, %,d staff, %,d students)%n",
+            lastId, departments, firstStudentId - departments - 1, students);
+    }
+
+    private void writeGrievances() throws Exception {
+        // Runs of whole days of about --chunk grievances, numbered in submission order
+        List<int[]> chunks = new ArrayList<>();
+        List<Long> firstIds = new ArrayList<>();
+        long nextId = 1;
+        int chunkStart = 0;
+        long inChunk = 0;
+        for (int day = 0; day < calendar.days(); day++) {
+            inChunk += calendar.count(day);
+            if (inChunk >= options.chunk || day == calendar.days() - 1) {
+                chunks.add(new int[] {chunkStart, day});
+                firstIds.add(nextId);
+                nextId += inChunk;
+                chunkStart = day + 1;
+                inChunk = 0;
+            }
+        }
+
+        long total = nextId - 1;
+        long reportEvery = Math.max(1, total / 20);
+        AtomicLong done = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, options.threads));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                int[] days = chunks.get(i);
+                long firstId = firstIds.get(i);
+                futures.add(executor.submit(() -> {
+                    long written = writeChunk(days[0], days[1], firstId);
+                    long sum = done.addAndGet(written);
+                    if (sum / reportEvery != (sum - written) / reportEvery) {
+                        System.out.printf("Grievances: %,d / %,d%n", sum, total);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long writeChunk(int firstDay, int lastDay, long firstId) throws SQLException {
+        Rows rows = new Rows();
+        long id = firstId;
+        for (int day = firstDay; day <= lastDay; day++) {
+            SplittableRandom random = new SplittableRandom(Distributions.hash(options.seed, day));
+            LocalDateTime[] times = new LocalDateTime[(int) calendar.count(day)];
+            for (int i = 0; i < times.length; i++) {
+                times[i] = calendar.timeOn(day, random);
+            }
+            Arrays.sort(times);
+            int burst = calendar.burstDepartment(day);
+            for (LocalDateTime submittedAt : times) {
+                int rank = burst >= 0 && random.nextDouble() < SubmissionCalendar.BURST_SHARE
+                    ? burst : Distributions.weighted(departmentWeights, random);
+                grievance(id++, departmentByRank[rank], submittedAt, random, rows);
+            }
+        }
+        try (Connection connection = options.connect()) {
+            write(connection, BulkWriter.GRIEVANCES, rows.grievances);
+            write(connection, BulkWriter.REMARKS, rows.remarks);
+            write(connection, BulkWriter.TIMELINE, rows.timeline);
+            write(connection, BulkWriter.FEEDBACK, rows.feedback);
+            write(connection, BulkWriter.NOTIFICATIONS, rows.notifications);
+            connection.commit();
+        }
+        return id - firstId;
+    }
+
+    private void grievance(long id, int department, LocalDateTime createdAt, SplittableRandom random, Rows rows) {
+        String grievanceId = "GRV" + id;
+        int category = (Distributions.weighted(categoryWeights, random) + department) % categories;
+        int priority = Distributions.weighted(PRIORITY_WEIGHTS, random);
+        double speed = PRIORITY_SPEED[priority];
+        long studentId = firstStudentId
+            + Distributions.scatter(Distributions.skewed(students, 2.0, random), students, studentStep);
+        long adminId = department + 1;
+        long staffId = firstStaffId[department] + Distributions.skewed(staffCount[department], 1.5, random);
+        String title = Vocabulary.title(category, random);
+
+        // submitted -> under_review -> rejected | in_progress -> (stalled) | resolved, cut off at --end
+        String status = "submitted";
+        LocalDateTime updatedAt = null;
+        LocalDateTime reviewedAt = after(createdAt, 6 * speed, 1.0, random);
+        LocalDateTime closedAt = null;
+        boolean assigned = false;
+        boolean resolved = false;
+        String resolutionNotes = null;
+        if (reviewedAt.isBefore(options.end)) {
+            status = "under_review";
+            updatedAt = reviewedAt;
+            assigned = true;
+            timeline(rows, id, status, null, adminId, reviewedAt);
+            statusNotification(rows, id, grievanceId, title, studentId, status, reviewedAt, random);
+            notification(rows, staffId, "GRIEVANCE_ASSIGNED", "New Grievance Assignment",
+                String.format("You have been assigned grievance #%s: '%s' by admin", grievanceId, title),
+                id, reviewedAt, random);
+
+            if (random.nextDouble() < REJECTED) {
+                LocalDateTime rejectedAt = after(reviewedAt, 12, 1.0, random);
+                if (rejectedAt.isBefore(options.end)) {
+                    status = "rejected";
+                    updatedAt = closedAt = rejectedAt;
+                    resolutionNotes = Vocabulary.pick(REJECTION_NOTES, random);
+                    timeline(rows, id, status, resolutionNotes, adminId, rejectedAt);
+                    statusNotification(rows, id, grievanceId, title, studentId, status, rejectedAt, random);
+                }
+            } else {
+                LocalDateTime startedAt = after(reviewedAt, 18 * speed, 1.0, random);
+                if (startedAt.isBefore(options.end)) {
+                    status = "in_progress";
+                    updatedAt = startedAt;
+                    timeline(rows, id, status, null, staffId, startedAt);
+                    statusNotification(rows, id, grievanceId, title, studentId, status, startedAt, random);
+
+                    LocalDateTime resolvedAt = after(startedAt, 72 * speed, 1.2, random);
+                    if (random.nextDouble() >= STALLED && resolvedAt.isBefore(options.end)) {
+                        status = "resolved";
+                        updatedAt = closedAt = resolvedAt;
+                        resolved = true;
+                        resolutionNotes = Vocabulary.pick(RESOLUTION_NOTES, random);
+                        timeline(rows, id, status, resolutionNotes, staffId, resolvedAt);
+                        statusNotification(rows, id, grievanceId, title, studentId, status, resolvedAt, random);
+                        notification(rows, studentId, "FEEDBACK_REQUEST", "Feedback Request", String.format(
+                            "Your grievance '%s' has been resolved. Please share your feedback to help us improve.", title),
+                            id, resolvedAt, random);
+                        feedback(rows, id, studentId, createdAt, resolvedAt, random);
+                    }
+                }
+            }
+        }
+
+        rows.grievances.add(new Object[] {id, grievanceId, title, Vocabulary.description(title, random), studentId,
+            (long) category + 1, (long) department + 1, PRIORITIES[priority], status,
+            assigned ? staffId : null, assigned ? adminId : null, resolutionNotes, resolved ? staffId : null,
+            resolved ? closedAt : null, false, createdAt, updatedAt});
+
+        remarks(rows, id, title, studentId, staffId, adminId, createdAt, reviewedAt, closedAt, random);
+    }
+
+    // Long-tailed threads: most grievances get no remark or a few, some get dozens
+    private void remarks(Rows rows, long id, String title, long studentId, long staffId, long adminId,
+                         LocalDateTime createdAt, LocalDateTime reviewedAt, LocalDateTime closedAt,
+                         SplittableRandom random) {
+        int count = (int) Math.min(MAX_REMARKS, Math.floor(Distributions.pareto(1, 1.3, random)) - 1);
+        if (count <= 0) {
+            return;
+        }
+        LocalDateTime until = closedAt != null ? closedAt.plusDays(2) : createdAt.plusDays(30);
+        if (until.isAfter(options.end)) {
+            until = options.end;
+        }
+        long span = Math.max(1, Duration.between(createdAt, until).getSeconds());
+        long[] offsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = 1 + (long) (random.nextDouble() * span);
+        }
+        Arrays.sort(offsets);
+
+        boolean fromStudent = random.nextBoolean();
+        for (long offset : offsets) {
+            LocalDateTime at = createdAt.plusSeconds(offset);
+            if (fromStudent) {
+                String message = Vocabulary.pick(Vocabulary.STUDENT_REMARKS, random);
+                rows.remarks.add(new Object[] {id, studentId, message, "student", false, at});
+                if (!at.isBefore(reviewedAt)) {
+                    notification(rows, staffId, "NEW_REMARK", "Student Added Remark",
+                        String.format("Student %s %s added a remark to grievance '%s': %s",
+                            firstName(studentId), lastName(studentId), title, message), id, at, random);
+                }
+            } else {
+                long authorId = at.isBefore(reviewedAt) ? adminId : staffId;
+                boolean internal = random.nextDouble() < INTERNAL_SHARE;
+                String message = Vocabulary.pick(internal ? Vocabulary.INTERNAL_REMARKS : Vocabulary.STAFF_REMARKS, random);
+                rows.remarks.add(new Object[] {id, authorId, message, authorId == adminId ? "admin" : "staff", internal, at});
+                if (!internal) {
+                    notification(rows, studentId, "NEW_REMARK", "New Remark Added",
+                        String.format("%s %s added a remark to your grievance '%s': %s",
+                            firstName(authorId), lastName(authorId), title, message), id, at, random);
+                }
+            }
+            // Threads mostly alternate, with the occasional follow-up from the same side
+            fromStudent = random.nextDouble() < 0.8 != fromStudent;
+        }
+    }
+
+    // Faster resolutions get better ratings
+    private void feedback(Rows rows, long id, long studentId, LocalDateTime createdAt, LocalDateTime resolvedAt,
+                          SplittableRandom random) {
+        if (random.nextDouble() >= FEEDBACK_SHARE) {
+            return;
+        }
+        LocalDateTime at = after(resolvedAt, 24, 1.0, random);
+        if (!at.isBefore(options.end)) {
+            return;
+        }
+        double days = Duration.between(createdAt, resolvedAt).toHours() / 24.0;
+        long rating = Math.round(5 - days / 4 + 0.8 * Distributions.gaussian(random));
+        rows.feedback.add(new Object[] {id, (int) Math.max(1, Math.min(5, rating)),
+            Vocabulary.pick(Vocabulary.FEEDBACK, random), studentId, at});
+    }
+
+    private void timeline(Rows rows, long id, String status, String note, long updatedBy, LocalDateTime at) {
+        rows.timeline.add(new Object[] {id, status, note != null ? note : "Status updated to " + status, updatedBy, at});
+    }
+
+    private void statusNotification(Rows rows, long id, String grievanceId, String title, long studentId,
+                                    String status, LocalDateTime at, SplittableRandom random) {
+        notification(rows, studentId, "STATUS_UPDATE", "Grievance Status Updated",
+            String.format("Your grievance #%s: '%s' status has been updated to '%s'", grievanceId, title, status),
+            id, at, random);
+    }
+
+    // Only what the retention job would have kept; older notifications are mostly read
+    private void notification(Rows rows, long userId, String type, String title, String message, long grievanceId,
+                              LocalDateTime at, SplittableRandom random) {
+        if (at.isBefore(notificationsFrom)) {
+            return;
+        }
+        boolean read = random.nextDouble() < (at.isBefore(options.end.minusDays(7)) ? 0.95 : 0.45);
+        LocalDateTime readAt = read ? after(at, 3, 1.5, random) : null;
+        if (readAt != null && !readAt.isBefore(options.end)) {
+            read = false;
+            readAt = null;
+        }
+        rows.notifications.add(new Object[] {userId, type, title, message, grievanceId, read, at, readAt, 1, at});
+    }
+
+    private void write(Connection connection, BulkWriter.Table table, List<Object[]> rows) throws SQLException {
+        writer.write(connection, table, rows);
+        counts.get(table.name()).add(rows.size());
+    }
+
+    private int staffDepartment(long id) {
+        for (int d = departments - 1; d >= 0; d--) {
+            if (id >= firstStaffId[d]) {
+                return d;
+            }
+        }
+        throw new IllegalArgumentException("Not a staff id: " + id);
+    }
+
+    private String firstName(long userId) {
+        return Vocabulary.firstName(Distributions.hash(options.seed, userId));
+    }
+
+    private String lastName(long userId) {
+        return Vocabulary.lastName(Distributions.hash(options.seed, userId));
+    }
+
+    // Log-normal delay with the given median in hours
+    private static LocalDateTime after(LocalDateTime from, double medianHours, double sigma, SplittableRandom random) {
+        return from.plusSeconds(1 + (long) (Distributions.logNormal(medianHours, sigma, random) * 3600));
+    }
+
+    private static int[] shuffled(int n, SplittableRandom random) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        return values;
+    }
+
+    // One chunk's rows, written in foreign key order
+    private static final class Rows {
+
+        private final List<Object[]> grievances = new ArrayList<>();
+        private final List<Object[]> remarks = new ArrayList<>();
+        private final List<Object[]> timeline = new ArrayList<>();
+        private final List<Object[]> feedback = new ArrayList<>();
+        private final List<Object[]> notifications = new ArrayList<>();
+    }
+}
@@ -0,0 +1,139 @@
+package com.resolveit.datagen;
+
+import jakarta.persistence.Entity;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Brings the target database to the schema the application expects and prepares it for
+ * a load. The schema is created by Hibernate from the backend's entities with Spring's
+ * naming strategies, i.e. exactly what ddl-auto=update does when the application starts.
+ */
+final class CorpusSchema {
+
+    private static final String ENTITY_PACKAGE = "com.resolveit.backend.entity";
+
+    // Children first, so H2 can truncate them in order
+    private static final List<String> GENERATED_TABLES = List.of(
+        "notifications", "feedback", "grievance_timeline", "remarks", "grievances", "users", "categories", "departments");
+
+    // Tables loaded with explicit ids, whose identities must move past the loaded rows
+    private static final List<String> EXPLICIT_ID_TABLES = List.of("departments", "categories", "users", "grievances");
+
+    private final GeneratorOptions options;
+
+    CorpusSchema(GeneratorOptions options) {
+        this.options = options;
+    }
+
+    void update() throws ClassNotFoundException {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.URL, options.dbUrl)
+            .applySetting(AvailableSettings.USER, options.dbUser)
+            .applySetting(AvailableSettings.PASS, options.dbPassword)
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "update")
+            .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+            .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+            .build();
+        try {
+            MetadataSources sources = new MetadataSources(registry);
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+            scanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+            for (BeanDefinition entity : scanner.findCandidateComponents(ENTITY_PACKAGE)) {
+                sources.addAnnotatedClass(Class.forName(entity.getBeanClassName()));
+            }
+            // Building the session factory runs the schema update
+            sources.buildMetadata().buildSessionFactory().close();
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    /**
+     * Empties the generated tables with --truncate, otherwise refuses to load into tables
+     * that already have rows (the explicit ids would collide). On PostgreSQL with
+     * partitioned notifications, creates the monthly partitions the corpus needs.
+     */
+    void prepare() throws SQLException {
+        try (Connection connection = options.connect(); Statement statement = connection.createStatement()) {
+            if (options.truncate) {
+                if (options.isPostgres()) {
+                    statement.execute("TRUNCATE " + String.join(", ", GENERATED_TABLES) + " RESTART IDENTITY CASCADE");
+                } else {
+                    statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                    for (String table : GENERATED_TABLES) {
+                        statement.execute("TRUNCATE TABLE " + table + " RESTART IDENTITY");
+                    }
+                    statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+                }
+            } else {
+                for (String table : GENERATED_TABLES) {
+                    if (count(statement, table) > 0) {
+                        throw new IllegalStateException("Table " + table + " already has rows; "
+                            + "run with --truncate or point --db-url at an empty database");
+                    }
+                }
+            }
+            if (options.isPostgres() && notificationsPartitioned(statement)) {
+                createNotificationPartitions(statement);
+            }
+            connection.commit();
+        }
+    }
+
+    // Inserts with explicit ids leave the identity columns where they were
+    void restartIdentities() throws SQLException {
+        try (Connection connection = options.connect(); Statement statement = connection.createStatement()) {
+            for (String table : EXPLICIT_ID_TABLES) {
+                long next;
+                try (ResultSet rows = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+                    rows.next();
+                    next = rows.getLong(1);
+                }
+                statement.execute(options.isPostgres()
+                    ? "SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " + next + ", false)"
+                    : "ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+            }
+            connection.commit();
+        }
+    }
+
+    private static long count(Statement statement, String table) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static boolean notificationsPartitioned(Statement statement) throws SQLException {
+        try (ResultSet rows = statement.executeQuery(
+                 "SELECT relkind FROM pg_class WHERE relname = 'notifications' AND relkind = 'p'")) {
+            return rows.next();
+        }
+    }
+
+    // Same naming as notifications_partitioning.sql, from the oldest generated month to two months ahead
+    private void createNotificationPartitions(Statement statement) throws SQLException {
+        LocalDate month = options.end.toLocalDate().minusDays(options.notificationDays).withDayOfMonth(1);
+        LocalDate last = options.end.toLocalDate().withDayOfMonth(1).plusMonths(2);
+        for (; !month.isAfter(last); month = month.plusMonths(1)) {
+            statement.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS notifications_y%dm%02d PARTITION OF notifications FOR VALUES FROM ('%s') TO ('%s')",
+                month.getYear(), month.getMonthValue(), month, month.plusMonths(1)));
+        }
+    }
+}
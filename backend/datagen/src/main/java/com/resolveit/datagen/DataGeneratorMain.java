@@ -0,0 +1,39 @@
+package com.resolveit.datagen;
+
+import java.util.Map;
+
+/**
+ * Generates a synthetic grievance corpus into a database: creates or updates the schema,
+ * loads departments, categories, users, grievances with their remarks, status timelines,
+ * feedback and notifications, then moves the identity columns past the loaded ids so the
+ * application can run against the result. Options are described in {@link GeneratorOptions}.
+ */
+public final class DataGeneratorMain {
+
+    private DataGeneratorMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        GeneratorOptions options = GeneratorOptions.parse(args);
+        System.out.printf("Generating seed=%d scale=%s: %,d staff, %,d students, %,d grievances over %d years to %s into %s%n",
+            options.seed, options.scale, options.scaledStaff(), options.scaledStudents(), options.scaledGrievances(),
+            options.years, options.end.toLocalDate(), options.dbUrl);
+
+        long started = System.nanoTime();
+        CorpusSchema schema = new CorpusSchema(options);
+        schema.update();
+        schema.prepare();
+        Map<String, Long> counts = new CorpusGenerator(options, new BulkWriter(options.isPostgres())).generate();
+        schema.restartIdentities();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long total = 0;
+        System.out.println();
+        for (Map.Entry<String, Long> table : counts.entrySet()) {
+            System.out.printf("%-20s %,14d%n", table.getKey(), table.getValue());
+            total += table.getValue();
+        }
+        System.out.printf("%-20s %,14d%n", "Total", total);
+        System.out.printf("%nGenerated in %.1f s (%,.0f rows/s)%n", seconds, total / seconds);
+    }
+}
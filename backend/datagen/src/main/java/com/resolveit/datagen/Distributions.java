@@ -0,0 +1,89 @@
+package com.resolveit.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The few skewed distributions the corpus needs, all drawn from a caller-supplied
+ * SplittableRandom so each chunk stays reproducible on its own.
+ */
+final class Distributions {
+
+    private Distributions() {
+    }
+
+    // Cumulative weights for a Zipf(s) ranking of n items; pick with weighted()
+    static double[] zipf(int n, double s) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1.0 / Math.pow(i + 1, s);
+        }
+        return cumulative(weights);
+    }
+
+    static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    // Index drawn from cumulative weights
+    static int weighted(double[] cumulative, SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    // 0..n-1 with most draws near 0; higher skew concentrates more (1 is uniform)
+    static long skewed(long n, double skew, SplittableRandom random) {
+        return Math.min(n - 1, (long) (n * Math.pow(random.nextDouble(), skew)));
+    }
+
+    // Pareto with scale xm and shape alpha: mostly near xm, with a long tail
+    static double pareto(double xm, double alpha, SplittableRandom random) {
+        return xm / Math.pow(1.0 - random.nextDouble(), 1.0 / alpha);
+    }
+
+    // Log-normal with the given median; sigma around 1 gives "usually hours, sometimes days"
+    static double logNormal(double median, double sigma, SplittableRandom random) {
+        return median * Math.exp(sigma * gaussian(random));
+    }
+
+    static double gaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    // Multiplier for scatter(): coprime with n, so the mapping is a permutation
+    static long scatterStep(long n) {
+        long step = 2_654_435_761L % n;
+        while (gcd(step, n) != 1) {
+            step++;
+        }
+        return step;
+    }
+
+    // Spreads 0..n-1 over 0..n-1 so skewed() ranks do not map to neighbouring ids
+    static long scatter(long index, long n, long step) {
+        return Math.floorMod(index * step + 12_345L, n);
+    }
+
+    // SplitMix64 finalizer over seed and value: a stable per-entity hash, e.g. for names from ids
+    static long hash(long seed, long value) {
+        long z = seed + value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,105 @@
+package com.resolveit.datagen;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Command line of the generator. Options are --name=value; the defaults produce about
+ * ten million rows.
+ *
+ * <pre>
+ * Corpus  --seed=42                   same seed, volumes and --end give the same corpus
+ *         --scale=1.0                 multiplies staff, students and grievances
+ *         --departments=20 --categories=15 --staff=3000 --students=150000 --grievances=1350000
+ *         --years=3 --end=2026-01-01  submission window, ending at --end (default: today)
+ *         --notification-days=90      notifications older than this are not generated, as the
+ *                                     retention job would have purged them
+ * Target  --db-url=jdbc:h2:async:./datagen-data/resolveit;MODE=PostgreSQL --db-user=sa --db-password=
+ *         --truncate                  empty the generated tables first (otherwise they must be empty)
+ *         --threads=8 --chunk=5000    grievances are generated and written in chunks in parallel
+ *         --password=password         password of every generated account
+ * </pre>
+ */
+final class GeneratorOptions {
+
+    long seed = 42;
+    double scale = 1.0;
+    int departments = 20;
+    int categories = 15;
+    long staff = 3_000;
+    long students = 150_000;
+    long grievances = 1_350_000;
+    int years = 3;
+    LocalDateTime end = LocalDate.now().atStartOfDay();
+    int notificationDays = 90;
+
+    String dbUrl = "jdbc:h2:async:./datagen-data/resolveit;MODE=PostgreSQL";
+    String dbUser = "sa";
+    String dbPassword = "";
+    boolean truncate;
+    int threads = Math.min(8, Runtime.getRuntime().availableProcessors());
+    int chunk = 5_000;
+    String password = "password";
+
+    static GeneratorOptions parse(String[] args) {
+        GeneratorOptions options = new GeneratorOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+            String value = equals < 0 ? "true" : arg.substring(equals + 1);
+            options.set(name, value);
+        }
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "seed" -> seed = Long.parseLong(value);
+            case "scale" -> scale = Double.parseDouble(value);
+            case "departments" -> departments = Integer.parseInt(value);
+            case "categories" -> categories = Integer.parseInt(value);
+            case "staff" -> staff = Long.parseLong(value);
+            case "students" -> students = Long.parseLong(value);
+            case "grievances" -> grievances = Long.parseLong(value);
+            case "years" -> years = Integer.parseInt(value);
+            case "end" -> end = value.contains("T") ? LocalDateTime.parse(value) : LocalDate.parse(value).atStartOfDay();
+            case "notification-days" -> notificationDays = Integer.parseInt(value);
+            case "db-url" -> dbUrl = value;
+            case "db-user" -> dbUser = value;
+            case "db-password" -> dbPassword = value;
+            case "truncate" -> truncate = Boolean.parseBoolean(value);
+            case "threads" -> threads = Integer.parseInt(value);
+            case "chunk" -> chunk = Integer.parseInt(value);
+            case "password" -> password = value;
+            default -> throw new IllegalArgumentException("Unknown option --" + name + " (see GeneratorOptions)");
+        }
+    }
+
+    long scaledStaff() {
+        return Math.max(departments, Math.round(staff * scale));
+    }
+
+    long scaledStudents() {
+        return Math.max(1, Math.round(students * scale));
+    }
+
+    long scaledGrievances() {
+        return Math.max(1, Math.round(grievances * scale));
+    }
+
+    Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    boolean isPostgres() {
+        return dbUrl.startsWith("jdbc:postgresql:");
+    }
+}
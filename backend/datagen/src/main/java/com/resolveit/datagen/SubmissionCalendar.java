@@ -0,0 +1,83 @@
+package com.resolveit.datagen;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * How many grievances arrive on each day of the window and when during the day. Volume
+ * grows as adoption grows, peaks at semester starts and exam months, drops at weekends
+ * and in the summer break, and has incident bursts: days where one department gets
+ * several times the usual load (a Wi-Fi outage, a hostel water cut). Times of day follow
+ * office hours with an evening peak from hostels.
+ */
+final class SubmissionCalendar {
+
+    // January .. December
+    private static final double[] MONTH = {1.3, 1.0, 1.0, 1.1, 1.4, 0.5, 0.7, 1.4, 1.1, 1.0, 1.1, 1.3};
+    // Monday .. Sunday
+    private static final double[] WEEKDAY = {1.2, 1.15, 1.1, 1.05, 0.95, 0.5, 0.4};
+    private static final double[] HOUR = {
+        0.2, 0.1, 0.05, 0.05, 0.05, 0.1, 0.3, 0.6, 1.0, 1.6, 2.0, 2.1,
+        1.8, 1.6, 1.7, 1.6, 1.4, 1.2, 1.1, 1.3, 1.5, 1.4, 1.0, 0.5
+    };
+    private static final double[] HOUR_CUMULATIVE = Distributions.cumulative(HOUR);
+
+    // Share of a burst day's grievances that go to the burst department
+    static final double BURST_SHARE = 0.6;
+
+    private final LocalDate firstDay;
+    private final long[] counts;
+    private final int[] burstDepartment;
+
+    SubmissionCalendar(LocalDateTime end, int years, long total, double[] departmentWeights, SplittableRandom random) {
+        LocalDate lastDay = end.toLocalDate().minusDays(1);
+        firstDay = lastDay.minusYears(years).plusDays(1);
+        int days = (int) (lastDay.toEpochDay() - firstDay.toEpochDay() + 1);
+
+        double[] weights = new double[days];
+        burstDepartment = new int[days];
+        Arrays.fill(burstDepartment, -1);
+        for (int i = 0; i < days; i++) {
+            LocalDate day = firstDay.plusDays(i);
+            double adoption = 0.6 + 0.8 * i / days;
+            weights[i] = adoption * MONTH[day.getMonthValue() - 1] * WEEKDAY[day.getDayOfWeek().getValue() - 1]
+                * Distributions.logNormal(1.0, 0.2, random);
+            // About one incident every three weeks, on working days
+            if (day.getDayOfWeek().getValue() <= DayOfWeek.FRIDAY.getValue() && random.nextInt(15) == 0) {
+                weights[i] *= 3 + random.nextInt(6);
+                burstDepartment[i] = Distributions.weighted(departmentWeights, random);
+            }
+        }
+
+        // Rounding the running total keeps the sum exactly at total
+        counts = new long[days];
+        double[] cumulative = Distributions.cumulative(weights);
+        long assigned = 0;
+        for (int i = 0; i < days; i++) {
+            long upTo = Math.round(cumulative[i] * total);
+            counts[i] = upTo - assigned;
+            assigned = upTo;
+        }
+    }
+
+    int days() {
+        return counts.length;
+    }
+
+    long count(int day) {
+        return counts[day];
+    }
+
+    // Index into the department weights of the department with an incident that day, or -1
+    int burstDepartment(int day) {
+        return burstDepartment[day];
+    }
+
+    LocalDateTime timeOn(int day, SplittableRandom random) {
+        return firstDay.plusDays(day).atTime(Distributions.weighted(HOUR_CUMULATIVE, random),
+            random.nextInt(60), random.nextInt(60));
+    }
+}
@@ -0,0 +1,127 @@
+package com.resolveit.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Names and texts the corpus is made of. Titles follow the category so search and
+ * category filters see plausible term distributions; placeholders vary the details.
+ */
+final class Vocabulary {
+
+    static final String[] DEPARTMENTS = {
+        "Computer Science", "Electrical Engineering", "Mechanical Engineering", "Civil Engineering",
+        "Electronics", "Chemical Engineering", "Mathematics", "Physics", "Management Studies", "Humanities",
+        "Hostel Office", "Examination Cell", "Accounts", "Library", "Transport Office", "IT Services",
+        "Student Welfare", "Estate Office", "Sports Office", "Medical Centre"
+    };
+
+    static final String[] CATEGORIES = {
+        "Academic", "Infrastructure", "Hostel", "IT Services", "Examinations", "Finance & Fees",
+        "Library", "Transport", "Canteen", "Administration", "Scholarships", "Sports", "Health Services",
+        "Harassment", "Other"
+    };
+
+    // One row per category, in CATEGORIES order; {n}, {room} and {block} are filled in
+    private static final String[][] TITLES = {
+        {"Lectures for course CS{n} cancelled without notice", "Internal marks not uploaded for semester {n}",
+            "Lab sessions clash with lecture timetable"},
+        {"Projector in room {room} is not working", "Ceiling fan broken in classroom {room}",
+            "Water leakage near {block} staircase"},
+        {"Hostel water supply interrupted in {block}", "Room {room} door lock broken", "Mess timings changed without notice"},
+        {"Wi-Fi outage in {block}", "Unable to log in to the student portal", "Email account locked after password reset"},
+        {"Exam result does not match the answer sheet", "Hall ticket not generated for semester {n}",
+            "Revaluation request pending for {n} weeks"},
+        {"Fee paid twice for semester {n}", "Refund of caution deposit not received", "Late fee charged despite payment on time"},
+        {"Library fine charged for a returned book", "Library closes earlier than the posted hours",
+            "E-journal access not working off campus"},
+        {"Bus on route {n} did not arrive", "Bus pass renewal not processed", "Overcrowding on the {n}:00 shuttle"},
+        {"Canteen food quality complaint", "Overcharging at the {block} canteen", "Drinking water cooler not working"},
+        {"Bonafide certificate delayed for {n} days", "ID card reissue pending", "Transfer certificate not issued"},
+        {"Scholarship payment delayed", "Scholarship application rejected without reason",
+            "Merit scholarship list not published"},
+        {"Gym equipment broken in {block}", "Sports ground booked out all week", "Kit allowance not reimbursed"},
+        {"Medical centre closed during posted hours", "Medicine out of stock at the medical centre",
+            "Ambulance took {n} minutes to arrive"},
+        {"Ragging incident reported in {block}", "Harassment by a senior student", "Inappropriate remarks in class"},
+        {"Lost and found item not returned", "Noise from construction near {block}", "Suggestion for a quiet study area"}
+    };
+
+    private static final String[] FIRST_NAMES = {
+        "Aarav", "Aditi", "Akash", "Ananya", "Arjun", "Bhavya", "Chetan", "Deepa", "Dev", "Divya", "Farhan", "Gauri",
+        "Harsh", "Isha", "Jay", "Kavya", "Karan", "Lakshmi", "Manish", "Meera", "Nikhil", "Neha", "Omkar", "Pooja",
+        "Pranav", "Priya", "Rahul", "Riya", "Rohan", "Sanjana", "Siddharth", "Sneha", "Tanvi", "Tarun", "Uma",
+        "Varun", "Vidya", "Yash", "Zara", "Kabir"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Agarwal", "Bhat", "Chopra", "Das", "Desai", "Gupta", "Iyer", "Jain", "Joshi", "Kapoor", "Khan", "Kumar",
+        "Menon", "Mishra", "Nair", "Patel", "Pillai", "Rao", "Reddy", "Saxena", "Shah", "Sharma", "Singh", "Sinha",
+        "Thomas", "Verma", "Yadav", "Bose", "Ghosh", "Mehta"
+    };
+
+    static final String[] PROGRAMS = {"B.Tech", "B.Tech", "B.Tech", "M.Tech", "B.Sc", "M.Sc", "MBA", "PhD"};
+
+    static final String[] STUDENT_REMARKS = {
+        "Any update on this? It is still affecting us.",
+        "This is still not fixed.",
+        "Attaching more details as asked.",
+        "Thank you, the issue happened again today.",
+        "Could someone please look into this urgently?"
+    };
+
+    static final String[] STAFF_REMARKS = {
+        "We are looking into it and will update you shortly.",
+        "A technician has been scheduled for tomorrow.",
+        "Please share your enrollment number and a photo of the issue.",
+        "This has been escalated to the vendor.",
+        "The fix is in progress; expect it within two days."
+    };
+
+    static final String[] INTERNAL_REMARKS = {
+        "Vendor ticket raised.", "Duplicate of an earlier complaint.", "Needs approval from the head of department."
+    };
+
+    static final String[] FEEDBACK = {
+        "Resolved quickly, thank you.", "Took too long but it is fixed now.", "The issue is only partly fixed.",
+        "Good communication throughout.", null
+    };
+
+    private Vocabulary() {
+    }
+
+    static String department(int index) {
+        return index < DEPARTMENTS.length ? DEPARTMENTS[index] : "Department " + (index + 1);
+    }
+
+    static String category(int index) {
+        return index < CATEGORIES.length ? CATEGORIES[index] : "Category " + (index + 1);
+    }
+
+    static String title(int category, SplittableRandom random) {
+        String[] titles = TITLES[category % TITLES.length];
+        return titles[random.nextInt(titles.length)]
+            .replace("{n}", Integer.toString(2 + random.nextInt(9)))
+            .replace("{room}", Integer.toString(100 + random.nextInt(400)))
+            .replace("{block}", "Block " + (char) ('A' + random.nextInt(8)));
+    }
+
+    static String description(String title, SplittableRandom random) {
+        return title + ". " + switch (random.nextInt(3)) {
+            case 0 -> "This has been going on for over a week and affects several students.";
+            case 1 -> "I have already spoken to the office twice without any resolution.";
+            default -> "Requesting the department to look into this at the earliest.";
+        };
+    }
+
+    static String firstName(long seed) {
+        return FIRST_NAMES[(int) Math.floorMod(seed, (long) FIRST_NAMES.length)];
+    }
+
+    static String lastName(long seed) {
+        return LAST_NAMES[(int) Math.floorMod(seed / FIRST_NAMES.length, (long) LAST_NAMES.length)];
+    }
+
+    static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
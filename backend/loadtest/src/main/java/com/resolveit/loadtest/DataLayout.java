@@ -0,0 +1,151 @@
+package com.resolveit.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Where every seeded row lives. Ids and ownership are pure functions of the volumes, so
+ * the seeder and the workload agree on who owns which grievance without the harness
+ * holding millions of rows in memory.
+ *
+ * Users: one admin per department (ADM1..), then staff (STF1..) and students (STU1..),
+ * spread over departments round robin. Grievance g belongs to student 1 + (g - 1) % students,
+ * goes to a department picked by hash and, once past "submitted", is assigned to a staff
+ * member of that department. Higher ids are newer.
+ */
+record DataLayout(int departments, int categories, long staff, long students, long grievances,
+                  int remarksPerGrievance, int timelinePerGrievance, int notificationsPerGrievance) {
+
+    static final String PASSWORD = "loadtest";
+
+    static final String[] STATUSES = {"submitted", "under_review", "in_progress", "resolved", "rejected"};
+
+    static final String[] TITLES = {
+        "Projector in lecture hall is not working",
+        "Hostel water supply interrupted",
+        "Library fine charged for a returned book",
+        "Exam result does not match the answer sheet",
+        "Wi-Fi outage in the academic block",
+        "Scholarship payment delayed",
+        "Lab equipment missing for practicals",
+        "Canteen food quality complaint",
+        "Bus pass renewal not processed",
+        "Attendance marked absent by mistake"
+    };
+
+    // Share of grievances per status, in STATUSES order
+    private static final int[] STATUS_PERCENT = {15, 10, 30, 40, 5};
+
+    long adminId(int department) {
+        return department;
+    }
+
+    long staffId(long number) {
+        return departments + number;
+    }
+
+    long studentId(long number) {
+        return departments + staff + number;
+    }
+
+    long userCount() {
+        return departments + staff + students;
+    }
+
+    int departmentOfUser(long number) {
+        return (int) (1 + (number - 1) % departments);
+    }
+
+    long studentOf(long grievance) {
+        return 1 + (grievance - 1) % students;
+    }
+
+    int departmentOf(long grievance) {
+        return (int) (1 + Math.floorMod(mix(grievance, 1), departments));
+    }
+
+    long categoryOf(long grievance) {
+        return 1 + Math.floorMod(mix(grievance, 2), categories);
+    }
+
+    String statusOf(long grievance) {
+        int bucket = (int) Math.floorMod(mix(grievance, 3), 100L);
+        for (int i = 0; i < STATUSES.length; i++) {
+            bucket -= STATUS_PERCENT[i];
+            if (bucket < 0) {
+                return STATUSES[i];
+            }
+        }
+        return STATUSES[STATUSES.length - 1];
+    }
+
+    boolean isAssigned(long grievance) {
+        return !"submitted".equals(statusOf(grievance));
+    }
+
+    // Staff number (not user id) working on the grievance: a staff member of its department
+    long staffOf(long grievance) {
+        long perDepartment = staff / departments;
+        return departmentOf(grievance) + departments * Math.floorMod(mix(grievance, 4), perDepartment);
+    }
+
+    String titleOf(long grievance) {
+        return TITLES[(int) Math.floorMod(mix(grievance, 5), TITLES.length)];
+    }
+
+    // First grievance of the student that is assigned to someone, or -1
+    long assignedGrievanceOf(long student) {
+        for (long grievance = student; grievance <= grievances; grievance += students) {
+            if (isAssigned(grievance)) {
+                return grievance;
+            }
+        }
+        return -1;
+    }
+
+    // Most traffic goes to recent grievances: 80% of picks come from the newest fifth
+    long pickGrievance(Random random) {
+        long recent = Math.max(1, grievances / 5);
+        if (random.nextInt(100) < 80) {
+            return grievances - (long) (random.nextDouble() * recent);
+        }
+        return 1 + (long) (random.nextDouble() * grievances);
+    }
+
+    long pickAssignedGrievance(Random random) {
+        long grievance = pickGrievance(random);
+        for (int attempt = 0; attempt < 20 && !isAssigned(grievance); attempt++) {
+            grievance = pickGrievance(random);
+        }
+        return grievance;
+    }
+
+    Map<String, Long> toMap() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("departments", (long) departments);
+        values.put("categories", (long) categories);
+        values.put("staff", staff);
+        values.put("students", students);
+        values.put("grievances", grievances);
+        values.put("remarksPerGrievance", (long) remarksPerGrievance);
+        values.put("timelinePerGrievance", (long) timelinePerGrievance);
+        values.put("notificationsPerGrievance", (long) notificationsPerGrievance);
+        return values;
+    }
+
+    static DataLayout fromMap(Map<String, Long> values) {
+        return new DataLayout(values.get("departments").intValue(), values.get("categories").intValue(),
+            values.get("staff"), values.get("students"), values.get("grievances"),
+            values.get("remarksPerGrievance").intValue(), values.get("timelinePerGrievance").intValue(),
+            values.get("notificationsPerGrievance").intValue());
+    }
+
+    // SplitMix64 finalizer over (grievance, salt): cheap, stable across runs and JVMs
+    private static long mix(long grievance, long salt) {
+        long z = grievance * 0x9E3779B97F4A7C15L + salt * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
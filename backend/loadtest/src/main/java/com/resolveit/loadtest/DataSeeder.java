@@ -0,0 +1,382 @@
+package com.resolveit.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the schema Hibernate created with the rows described by a {@link DataLayout},
+ * using batched JDBC inserts with explicit ids; going through the repositories would take
+ * hours at full volume. Grievances are written in chunks on several threads, each chunk
+ * together with its remarks, timeline entries and notifications.
+ *
+ * The layout is stored in loadtest_layout once seeding finishes, so later runs reuse the
+ * data instead of seeding again.
+ */
+@Slf4j
+class DataSeeder {
+
+    private static final int CHUNK = 10_000;
+    private static final int BATCH = 1_000;
+    private static final String LAYOUT_TABLE =
+        "CREATE TABLE IF NOT EXISTS loadtest_layout (name VARCHAR(64) PRIMARY KEY, quantity BIGINT NOT NULL)";
+
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final boolean postgres;
+
+    DataSeeder(DataSource dataSource, PasswordEncoder passwordEncoder, boolean postgres) {
+        this.dataSource = dataSource;
+        this.passwordEncoder = passwordEncoder;
+        this.postgres = postgres;
+    }
+
+    DataLayout seedIfNeeded(LoadTestOptions options) throws Exception {
+        if (!options.reseed) {
+            DataLayout existing = readLayout();
+            if (existing != null) {
+                log.info("Reusing seeded data {} (--reseed to start over)", existing.toMap());
+                return existing;
+            }
+            if (count("users") > 0) {
+                throw new IllegalStateException("The database has data the harness did not seed; "
+                    + "run with --reseed or point --db-url at an empty database");
+            }
+        }
+
+        DataLayout layout = options.layout();
+        log.info("Seeding {}", layout.toMap());
+        long started = System.nanoTime();
+        seedReferenceData(layout);
+        seedUsers(layout);
+        seedGrievances(layout, Math.max(1, options.seedThreads));
+        restartIdentities(layout);
+        writeLayout(layout);
+        log.info("Seeding finished in {} s", (System.nanoTime() - started) / 1_000_000_000L);
+        return layout;
+    }
+
+    private void seedReferenceData(DataLayout layout) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (Connection connection = connection();
+             PreparedStatement departments = connection.prepareStatement(
+                 "INSERT INTO departments (id, department_code, department_name, description, created_at) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement categories = connection.prepareStatement(
+                 "INSERT INTO categories (id, category_name, description, is_active, created_at) VALUES (?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= layout.departments(); id++) {
+                departments.setLong(1, id);
+                departments.setString(2, "D" + id);
+                departments.setString(3, "Department " + id);
+                departments.setString(4, "Seeded by the load harness");
+                departments.setTimestamp(5, now);
+                departments.addBatch();
+            }
+            for (int id = 1; id <= layout.categories(); id++) {
+                categories.setLong(1, id);
+                categories.setString(2, "Category " + id);
+                categories.setString(3, "Seeded by the load harness");
+                categories.setBoolean(4, true);
+                categories.setTimestamp(5, now);
+                categories.addBatch();
+            }
+            departments.executeBatch();
+            categories.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void seedUsers(DataLayout layout) throws SQLException {
+        String passwordHash = passwordEncoder.encode(DataLayout.PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (Connection connection = connection();
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO users (id, user_id, first_name, last_name, email, password_hash, role, department_id, "
+                     + "is_active, created_at, enrollment_number, program, semester, email_notifications, push_notifications) "
+                     + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            int pending = 0;
+            for (long number = 1; number <= layout.userCount(); number++) {
+                String role;
+                String userId;
+                long roleNumber;
+                int department;
+                if (number <= layout.departments()) {
+                    role = "admin";
+                    roleNumber = number;
+                    userId = "ADM" + roleNumber;
+                    department = (int) number;
+                } else if (number <= layout.departments() + layout.staff()) {
+                    role = "staff";
+                    roleNumber = number - layout.departments();
+                    userId = "STF" + roleNumber;
+                    department = layout.departmentOfUser(roleNumber);
+                } else {
+                    role = "student";
+                    roleNumber = number - layout.departments() - layout.staff();
+                    userId = "STU" + roleNumber;
+                    department = layout.departmentOfUser(roleNumber);
+                }
+                boolean student = "student".equals(role);
+                insert.setLong(1, number);
+                insert.setString(2, userId);
+                insert.setString(3, "First" + roleNumber);
+                insert.setString(4, "Last" + roleNumber);
+                insert.setString(5, userId.toLowerCase() + "@loadtest.resolveit.local");
+                insert.setString(6, passwordHash);
+                insert.setString(7, role);
+                insert.setInt(8, department);
+                insert.setBoolean(9, true);
+                insert.setTimestamp(10, now);
+                insert.setString(11, student ? "ENR" + roleNumber : null);
+                insert.setString(12, student ? "B.Tech" : null);
+                if (student) {
+                    insert.setInt(13, (int) (1 + roleNumber % 8));
+                } else {
+                    insert.setNull(13, java.sql.Types.INTEGER);
+                }
+                insert.setBoolean(14, true);
+                insert.setBoolean(15, false);
+                insert.addBatch();
+                if (++pending == BATCH) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+                if (number % 100_000 == 0) {
+                    connection.commit();
+                    log.info("Users: {} / {}", number, layout.userCount());
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+    }
+
+    private void seedGrievances(DataLayout layout, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicLong done = new AtomicLong();
+        long reportEvery = Math.max(CHUNK, layout.grievances() / 20);
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long first = 1; first <= layout.grievances(); first += CHUNK) {
+                long from = first;
+                long to = Math.min(layout.grievances(), first + CHUNK - 1);
+                chunks.add(executor.submit(() -> {
+                    seedChunk(layout, from, to, now);
+                    long total = done.addAndGet(to - from + 1);
+                    if (total / reportEvery != (total - (to - from + 1)) / reportEvery) {
+                        log.info("Grievances: {} / {}", total, layout.grievances());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void seedChunk(DataLayout layout, long from, long to, LocalDateTime now) throws SQLException {
+        try (Connection connection = connection();
+             PreparedStatement grievances = connection.prepareStatement(
+                 "INSERT INTO grievances (id, grievance_id, title, description, student_id, category_id, department_id, "
+                     + "priority, status, assigned_to, assigned_admin_id, resolution_notes, resolved_by, resolved_at, "
+                     + "has_attachments, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement remarks = connection.prepareStatement(
+                 "INSERT INTO remarks (id, grievance_id, user_id, message, user_type, is_internal, created_at) "
+                     + "VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement timeline = connection.prepareStatement(
+                 "INSERT INTO grievance_timeline (id, grievance_id, status, note, updated_by, created_at) "
+                     + "VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement notifications = connection.prepareStatement(
+                 "INSERT INTO notifications (id, user_id, type, title, message, grievance_id, is_read, created_at, "
+                     + "read_at, coalesced_count, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            String[] priorities = {"low", "medium", "high", "urgent"};
+            for (long g = from; g <= to; g++) {
+                String status = layout.statusOf(g);
+                boolean assigned = layout.isAssigned(g);
+                long studentId = layout.studentId(layout.studentOf(g));
+                long staffId = layout.staffId(layout.staffOf(g));
+                long adminId = layout.adminId(layout.departmentOf(g));
+                // Spread over the last two years, oldest first
+                LocalDateTime createdAt = now.minusMinutes((layout.grievances() - g) * 730L * 24 * 60 / layout.grievances() + 60);
+                LocalDateTime updatedAt = createdAt.plusMinutes(30);
+                boolean resolved = "resolved".equals(status);
+
+                grievances.setLong(1, g);
+                grievances.setString(2, "GRV" + g);
+                grievances.setString(3, layout.titleOf(g));
+                grievances.setString(4, layout.titleOf(g) + ". Reported through the student portal; details and "
+                    + "location were shared with the department office.");
+                grievances.setLong(5, studentId);
+                grievances.setLong(6, layout.categoryOf(g));
+                grievances.setLong(7, layout.departmentOf(g));
+                grievances.setString(8, priorities[(int) (g % priorities.length)]);
+                grievances.setString(9, status);
+                setLongOrNull(grievances, 10, assigned ? staffId : null);
+                setLongOrNull(grievances, 11, assigned ? adminId : null);
+                grievances.setString(12, resolved ? "Resolution Notes: handled by the department" : null);
+                setLongOrNull(grievances, 13, resolved ? staffId : null);
+                grievances.setTimestamp(14, resolved ? Timestamp.valueOf(updatedAt) : null);
+                grievances.setBoolean(15, false);
+                grievances.setTimestamp(16, Timestamp.valueOf(createdAt));
+                grievances.setTimestamp(17, Timestamp.valueOf(updatedAt));
+                grievances.addBatch();
+
+                for (int k = 0; k < layout.remarksPerGrievance(); k++) {
+                    boolean fromStudent = k % 2 == 0;
+                    remarks.setLong(1, (g - 1) * layout.remarksPerGrievance() + k + 1);
+                    remarks.setLong(2, g);
+                    remarks.setLong(3, fromStudent ? studentId : (assigned ? staffId : adminId));
+                    remarks.setString(4, fromStudent ? "Any update on this? It is still affecting us."
+                        : "We are looking into it and will update you shortly.");
+                    remarks.setString(5, fromStudent ? "student" : (assigned ? "staff" : "admin"));
+                    remarks.setBoolean(6, !fromStudent && k % 5 == 1);
+                    remarks.setTimestamp(7, Timestamp.valueOf(createdAt.plusMinutes(5L + k)));
+                    remarks.addBatch();
+                }
+
+                // One entry per status the grievance went through, up to timelinePerGrievance
+                int reached = statusIndex(status);
+                for (int k = 0; k < Math.min(layout.timelinePerGrievance(), reached + 1); k++) {
+                    String step = k == reached ? status : DataLayout.STATUSES[k];
+                    timeline.setLong(1, (g - 1) * layout.timelinePerGrievance() + k + 1);
+                    timeline.setLong(2, g);
+                    timeline.setString(3, step);
+                    timeline.setString(4, k == 0 ? "Grievance submitted" : "Status changed to " + step);
+                    timeline.setLong(5, k == 0 ? studentId : (assigned ? staffId : adminId));
+                    timeline.setTimestamp(6, Timestamp.valueOf(createdAt.plusMinutes(k)));
+                    timeline.addBatch();
+                }
+
+                for (int k = 0; k < layout.notificationsPerGrievance(); k++) {
+                    boolean statusUpdate = k % 2 == 0;
+                    boolean read = k < layout.notificationsPerGrievance() - 1 || resolved;
+                    LocalDateTime sentAt = createdAt.plusMinutes(10L + k);
+                    notifications.setLong(1, (g - 1) * layout.notificationsPerGrievance() + k + 1);
+                    notifications.setLong(2, studentId);
+                    notifications.setString(3, statusUpdate ? "STATUS_UPDATE" : "NEW_REMARK");
+                    notifications.setString(4, statusUpdate ? "Grievance Status Updated" : "New Remark Added");
+                    notifications.setString(5, statusUpdate
+                        ? "Your grievance #GRV" + g + " status has been updated to '" + status + "'"
+                        : "A new remark was added to your grievance #GRV" + g);
+                    notifications.setLong(6, g);
+                    notifications.setBoolean(7, read);
+                    notifications.setTimestamp(8, Timestamp.valueOf(sentAt));
+                    notifications.setTimestamp(9, read ? Timestamp.valueOf(sentAt.plusHours(1)) : null);
+                    notifications.setInt(10, 1);
+                    notifications.setTimestamp(11, Timestamp.valueOf(sentAt));
+                    notifications.addBatch();
+                }
+
+                if ((g - from + 1) % BATCH == 0) {
+                    executeBatches(grievances, remarks, timeline, notifications);
+                }
+            }
+            executeBatches(grievances, remarks, timeline, notifications);
+            connection.commit();
+        }
+    }
+
+    // Inserts with explicit ids leave the identity columns at 1; move them past the seeded rows
+    private void restartIdentities(DataLayout layout) throws SQLException {
+        Map<String, Long> next = new LinkedHashMap<>();
+        next.put("departments", (long) layout.departments() + 1);
+        next.put("categories", (long) layout.categories() + 1);
+        next.put("users", layout.userCount() + 1);
+        next.put("grievances", layout.grievances() + 1);
+        next.put("remarks", layout.grievances() * layout.remarksPerGrievance() + 1);
+        next.put("grievance_timeline", layout.grievances() * layout.timelinePerGrievance() + 1);
+        next.put("notifications", layout.grievances() * layout.notificationsPerGrievance() + 1);
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, Long> table : next.entrySet()) {
+                statement.execute(postgres
+                    ? "SELECT setval(pg_get_serial_sequence('" + table.getKey() + "', 'id'), " + table.getValue() + ", false)"
+                    : "ALTER TABLE " + table.getKey() + " ALTER COLUMN id RESTART WITH " + table.getValue());
+            }
+            connection.commit();
+        }
+    }
+
+    private DataLayout readLayout() throws SQLException {
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            statement.execute(LAYOUT_TABLE);
+            connection.commit();
+            Map<String, Long> values = new LinkedHashMap<>();
+            try (ResultSet rows = statement.executeQuery("SELECT name, quantity FROM loadtest_layout")) {
+                while (rows.next()) {
+                    values.put(rows.getString(1), rows.getLong(2));
+                }
+            }
+            // Hibernate may have recreated the schema (ddl-auto=create) under an old layout
+            return values.isEmpty() || count("grievances") == 0 ? null : DataLayout.fromMap(values);
+        }
+    }
+
+    private void writeLayout(DataLayout layout) throws SQLException {
+        try (Connection connection = connection(); Statement statement = connection.createStatement()) {
+            statement.execute(LAYOUT_TABLE);
+            statement.execute("DELETE FROM loadtest_layout");
+            try (PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO loadtest_layout (name, quantity) VALUES (?, ?)")) {
+                for (Map.Entry<String, Long> value : layout.toMap().entrySet()) {
+                    insert.setString(1, value.getKey());
+                    insert.setLong(2, value.getValue());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    private long count(String table) throws SQLException {
+        try (Connection connection = connection(); Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        return connection;
+    }
+
+    private static void executeBatches(PreparedStatement... statements) throws SQLException {
+        for (PreparedStatement statement : statements) {
+            statement.executeBatch();
+        }
+    }
+
+    private static void setLongOrNull(PreparedStatement statement, int index, Long value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, java.sql.Types.BIGINT);
+        } else {
+            statement.setLong(index, value);
+        }
+    }
+
+    // Steps before the current status; rejected grievances went straight from review to rejected
+    private static int statusIndex(String status) {
+        return "rejected".equals(status) ? 2 : List.of(DataLayout.STATUSES).indexOf(status);
+    }
+}
@@ -0,0 +1,270 @@
+package com.resolveit.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.resolveit.backend.security.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load: each virtual user picks a role by the configured mix, a request
+ * by the role's weights and a grievance (mostly recent ones), then acts as the user that
+ * owns or handles that grievance. Requests are sent back to back, with optional think time.
+ *
+ * Writes (status changes, remarks) go to grievances watched over STOMP half of the time,
+ * so the live updates reach connected clients.
+ */
+@Slf4j
+class HttpWorkload {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final DataLayout layout;
+    private final JwtUtil jwtUtil;
+    private final LatencyReport report;
+    private final LoadTestOptions options;
+    private final List<Long> watchedGrievances;
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Scenario[][] scenarios;
+
+    private volatile boolean running;
+
+    HttpWorkload(int port, DataLayout layout, JwtUtil jwtUtil, LatencyReport report, LoadTestOptions options,
+                 List<Long> watchedGrievances) {
+        this.baseUrl = "http://localhost:" + port;
+        this.layout = layout;
+        this.jwtUtil = jwtUtil;
+        this.report = report;
+        this.options = options;
+        this.watchedGrievances = watchedGrievances;
+        this.scenarios = new Scenario[][]{studentScenarios(), staffScenarios(), adminScenarios()};
+    }
+
+    void run() throws InterruptedException {
+        running = true;
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService users = Executors.newFixedThreadPool(options.users);
+        for (int i = 0; i < options.users; i++) {
+            long seed = 31L * i + 7;
+            users.submit(() -> virtualUser(new Random(seed), failures));
+        }
+
+        log.info("Warming up for {} s with {} virtual users", options.warmup.toSeconds(), options.users);
+        Thread.sleep(options.warmup.toMillis());
+        report.start();
+        log.info("Measuring for {} s", options.duration.toSeconds());
+        Thread.sleep(options.duration.toMillis());
+        report.stop();
+
+        running = false;
+        users.shutdown();
+        if (!users.awaitTermination(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            users.shutdownNow();
+        }
+        if (failures.get() > 0) {
+            log.warn("{} requests failed without a response (timeouts, refused connections)", failures.get());
+        }
+    }
+
+    private void virtualUser(Random random, AtomicInteger failures) {
+        int total = options.mix[0] + options.mix[1] + options.mix[2];
+        while (running) {
+            int pick = random.nextInt(total);
+            int role = pick < options.mix[0] ? 0 : pick < options.mix[0] + options.mix[1] ? 1 : 2;
+            Scenario scenario = pickScenario(scenarios[role], random);
+            HttpRequest request;
+            try {
+                request = scenario.factory.create(random);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+
+            long started = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() < 400;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                ok = false;
+            }
+            report.record(scenario.name, System.nanoTime() - started, ok);
+
+            if (options.thinkTimeMs > 0) {
+                try {
+                    Thread.sleep(options.thinkTimeMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Scenario[] studentScenarios() {
+        return new Scenario[]{
+            get("/api/dashboard/student/bootstrap", 10, random -> student(layout.pickGrievance(random))),
+            get("/api/dashboard/student/grievances?page=0&size=10", 20, random -> student(layout.pickGrievance(random))),
+            get("/api/dashboard/student/grievances/{id}", 20, random -> student(layout.pickGrievance(random))),
+            get("/api/dashboard/student/grievances/{id}/remarks", 10, random -> student(layout.pickGrievance(random))),
+            get("/api/dashboard/student/grievances/{id}/timeline", 10, random -> student(layout.pickGrievance(random))),
+            get("/api/notifications/inbox?size=20", 12, random -> student(layout.pickGrievance(random))),
+            get("/api/notifications/unread-count", 10, random -> student(layout.pickGrievance(random))),
+            new Scenario("POST /api/dashboard/student/grievances/{id}/remarks", 3, random -> {
+                long grievance = writeTarget(random);
+                return post(student(grievance), "/api/dashboard/student/grievances/" + grievance + "/remarks",
+                    Map.of("message", "Any update on this? It is still affecting us."));
+            }),
+            new Scenario("POST /api/dashboard/student/grievances", 2, random -> {
+                long grievance = layout.pickGrievance(random);
+                return post(student(grievance), "/api/dashboard/student/grievances", Map.of(
+                    "title", layout.titleOf(grievance),
+                    "description", "Submitted during a load test run.",
+                    "categoryId", layout.categoryOf(grievance),
+                    "departmentId", (long) layout.departmentOf(grievance),
+                    "priority", "medium"));
+            }),
+            // Password checks are deliberately expensive, so logins are a small share
+            new Scenario("POST /api/auth/login", 1, random -> {
+                String userId = "STU" + layout.studentOf(layout.pickGrievance(random));
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                        "username", userId, "password", DataLayout.PASSWORD, "role", "student"))))
+                    .build();
+            })
+        };
+    }
+
+    private Scenario[] staffScenarios() {
+        return new Scenario[]{
+            get("/api/dashboard/staff/bootstrap", 10, random -> staff(layout.pickAssignedGrievance(random))),
+            get("/api/dashboard/staff/grievances?page=0&size=10", 25, random -> staff(layout.pickAssignedGrievance(random))),
+            get("/api/dashboard/staff/grievances/{id}", 25, random -> staff(layout.pickAssignedGrievance(random))),
+            get("/api/dashboard/staff/grievances/{id}/remarks", 15, random -> staff(layout.pickAssignedGrievance(random))),
+            get("/api/dashboard/staff/stats", 5, random -> staff(layout.pickAssignedGrievance(random))),
+            new Scenario("PUT /api/dashboard/staff/grievances/{id}/status", 10, random -> {
+                long grievance = writeTarget(random);
+                String status = random.nextInt(4) == 0 ? "resolved" : "in_progress";
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/dashboard/staff/grievances/" + grievance + "/status"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Authorization", "Bearer " + staff(grievance).token)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                        "status", status, "note", "Technician visited today"))))
+                    .build();
+            }),
+            new Scenario("POST /api/dashboard/staff/grievances/{id}/remarks", 10, random -> {
+                long grievance = writeTarget(random);
+                return post(staff(grievance), "/api/dashboard/staff/grievances/" + grievance + "/remarks",
+                    Map.of("message", "We are looking into it and will update you shortly."));
+            })
+        };
+    }
+
+    private Scenario[] adminScenarios() {
+        return new Scenario[]{
+            get("/api/dashboard/admin/bootstrap", 15, random -> admin(layout.pickGrievance(random))),
+            get("/api/dashboard/admin/stats", 15, random -> admin(layout.pickGrievance(random))),
+            get("/api/dashboard/admin/summary", 10, random -> admin(layout.pickGrievance(random))),
+            get("/api/dashboard/admin/grievances/paginated?page=0&size=10", 25, random -> admin(layout.pickGrievance(random))),
+            get("/api/dashboard/admin/grievances/{id}/details", 25, random -> admin(layout.pickGrievance(random))),
+            get("/api/dashboard/admin/grievances/search?keyword=Wi-Fi&page=0&size=10", 10,
+                random -> admin(layout.pickGrievance(random)))
+        };
+    }
+
+    // A GET as the actor picked for a grievance; "{id}" in the path becomes that grievance
+    private Scenario get(String path, int weight, ActorPicker picker) {
+        return new Scenario("GET " + path.replaceAll("\\?.*", ""), weight, random -> {
+            Actor actor = picker.pick(random);
+            String target = path.replace("{id}", Long.toString(actor.grievance));
+            return HttpRequest.newBuilder(URI.create(baseUrl + target))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + actor.token)
+                .GET()
+                .build();
+        });
+    }
+
+    private HttpRequest post(Actor actor, String path, Map<String, Object> body) throws JsonProcessingException {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", "Bearer " + actor.token)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build();
+    }
+
+    private long writeTarget(Random random) {
+        if (!watchedGrievances.isEmpty() && random.nextBoolean()) {
+            return watchedGrievances.get(random.nextInt(watchedGrievances.size()));
+        }
+        return layout.pickAssignedGrievance(random);
+    }
+
+    private Actor student(long grievance) {
+        return new Actor(grievance, jwtUtil.generateToken("STU" + layout.studentOf(grievance), "student"));
+    }
+
+    private Actor staff(long grievance) {
+        return new Actor(grievance, jwtUtil.generateToken("STF" + layout.staffOf(grievance), "staff"));
+    }
+
+    private Actor admin(long grievance) {
+        return new Actor(grievance, jwtUtil.generateToken("ADM" + layout.departmentOf(grievance), "admin"));
+    }
+
+    private static Scenario pickScenario(Scenario[] scenarios, Random random) {
+        int total = 0;
+        for (Scenario scenario : scenarios) {
+            total += scenario.weight;
+        }
+        int pick = random.nextInt(total);
+        for (Scenario scenario : scenarios) {
+            pick -= scenario.weight;
+            if (pick < 0) {
+                return scenario;
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    private record Actor(long grievance, String token) {
+    }
+
+    private record Scenario(String name, int weight, RequestFactory factory) {
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest create(Random random) throws JsonProcessingException;
+    }
+
+    @FunctionalInterface
+    private interface ActorPicker {
+        Actor pick(Random random);
+    }
+}
@@ -0,0 +1,135 @@
+package com.resolveit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms per endpoint (HdrHistogram, microsecond resolution) and the
+ * throughput and percentile table built from them. Samples only count between
+ * {@link #start()} and {@link #stop()}, so the warmup stays out of the numbers; setup
+ * samples (STOMP connects) are kept whenever they happen and have no throughput.
+ */
+class LatencyReport {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final ConcurrentMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long startedNanos;
+    private volatile long stoppedNanos;
+
+    void start() {
+        endpoints.values().removeIf(endpoint -> !endpoint.setup);
+        startedNanos = System.nanoTime();
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+        stoppedNanos = System.nanoTime();
+    }
+
+    void record(String name, long nanos, boolean ok) {
+        if (recording) {
+            endpoint(name, false).record(nanos, ok);
+        }
+    }
+
+    void recordSetup(String name, long nanos, boolean ok) {
+        endpoint(name, true).record(nanos, ok);
+    }
+
+    void print(PrintStream out) {
+        double seconds = measuredSeconds();
+        out.printf("%nMeasured %.1f s%n", seconds);
+        out.printf("%-66s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+            "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "Max ms");
+        long requests = 0;
+        long errors = 0;
+        for (Map<String, Object> row : rows()) {
+            Object throughput = row.get("throughput");
+            out.printf("%-66s %9d %7d %9s %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                row.get("endpoint"), row.get("requests"), row.get("errors"),
+                throughput == null ? "-" : String.format("%.1f", (Double) throughput),
+                row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"));
+            if (throughput != null && !row.get("endpoint").toString().startsWith("STOMP ")) {
+                requests += (Long) row.get("requests");
+                errors += (Long) row.get("errors");
+            }
+        }
+        out.printf("%-66s %9d %7d %9.1f%n", "Total HTTP", requests, errors, seconds > 0 ? requests / seconds : 0.0);
+    }
+
+    void writeJson(Path path, Map<String, Object> run) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>(run);
+        document.put("measuredSeconds", measuredSeconds());
+        document.put("endpoints", rows());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), document);
+    }
+
+    private List<Map<String, Object>> rows() {
+        double seconds = measuredSeconds();
+        List<Map.Entry<String, Endpoint>> sorted = new ArrayList<>(endpoints.entrySet());
+        sorted.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<String, Endpoint> entry : sorted) {
+            Histogram histogram = entry.getValue().histogram.copy();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", entry.getKey());
+            row.put("requests", histogram.getTotalCount());
+            row.put("errors", entry.getValue().errors.sum());
+            row.put("throughput", entry.getValue().setup || seconds <= 0 ? null : histogram.getTotalCount() / seconds);
+            row.put("meanMs", histogram.getMean() / 1000.0);
+            row.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+            row.put("p95Ms", histogram.getValueAtPercentile(95) / 1000.0);
+            row.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+            row.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+            row.put("maxMs", histogram.getMaxValue() / 1000.0);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private double measuredSeconds() {
+        long end = recording ? System.nanoTime() : stoppedNanos;
+        return startedNanos == 0 ? 0 : (end - startedNanos) / 1e9;
+    }
+
+    private Endpoint endpoint(String name, boolean setup) {
+        return endpoints.computeIfAbsent(name, key -> new Endpoint(setup));
+    }
+
+    private static final class Endpoint {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final boolean setup;
+
+        private Endpoint(boolean setup) {
+            this.setup = setup;
+            histogram.setAutoResize(true);
+        }
+
+        private void record(long nanos, boolean ok) {
+            histogram.recordValue(Math.max(1, nanos / 1000));
+            if (!ok) {
+                errors.increment();
+            }
+        }
+    }
+}
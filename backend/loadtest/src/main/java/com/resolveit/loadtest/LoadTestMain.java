@@ -0,0 +1,74 @@
+package com.resolveit.loadtest;
+
+import com.resolveit.backend.BackendApplication;
+import com.resolveit.backend.security.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entry point of loadtest.jar: boots the backend in this JVM against the configured
+ * database, seeds it unless an earlier run already did, connects the STOMP clients, runs
+ * the HTTP workload (warmup, then the measured window) and prints the per-endpoint table.
+ * The same numbers go to load-report.json for comparing runs.
+ *
+ * Load generator and server share the machine, so watch CPU; numbers from runs with
+ * different --users or hardware are not comparable.
+ */
+@Slf4j
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+            .run(options.applicationArgs());
+        int exitCode = 0;
+        try {
+            DataLayout layout = new DataSeeder(context.getBean(DataSource.class),
+                context.getBean(PasswordEncoder.class), !options.isH2()).seedIfNeeded(options);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+            LatencyReport report = new LatencyReport();
+
+            StompClients stompClients = new StompClients(port, layout, jwtUtil, report);
+            stompClients.connect(options.stompClients);
+            try {
+                new HttpWorkload(port, layout, jwtUtil, report, options, stompClients.getWatchedGrievances()).run();
+            } finally {
+                stompClients.close();
+            }
+
+            report.print(System.out);
+            if (stompClients.getTransportErrors() > 0) {
+                System.out.printf("STOMP transport errors: %d%n", stompClients.getTransportErrors());
+            }
+
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("finishedAt", Instant.now().toString());
+            run.put("options", options.describe());
+            run.put("data", layout.toMap());
+            run.put("stompTransportErrors", stompClients.getTransportErrors());
+            Path reportFile = Path.of(options.report);
+            report.writeJson(reportFile, run);
+            log.info("Report written to {}", reportFile.toAbsolutePath());
+        } catch (Exception e) {
+            log.error("Load test failed", e);
+            exitCode = 1;
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+}
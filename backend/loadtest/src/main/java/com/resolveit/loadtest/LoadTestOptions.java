@@ -0,0 +1,175 @@
+package com.resolveit.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line of the load harness. Options are --name=value; anything it does not know
+ * is handed to the application, so --dashboard.cache.enabled=false and the like work for
+ * comparing configurations.
+ *
+ * <pre>
+ * Data    --scale=1.0                 multiplies the volumes below
+ *         --departments=12 --categories=10 --staff=10000 --students=500000 --grievances=5000000
+ *         --remarks-per-grievance=2 --timeline-per-grievance=3 --notifications-per-grievance=2
+ *         --db-url=jdbc:h2:async:./loadtest-data/resolveit;MODE=PostgreSQL --db-user=sa --db-password=
+ *         --reseed                    drop the schema and seed again (otherwise an earlier seed is reused)
+ *         --seed-threads=4
+ * Load    --users=64                  virtual users, each sending requests back to back
+ *         --mix=70,20,10              student,staff,admin share of iterations
+ *         --think-time-ms=0
+ *         --warmup=30s --duration=120s
+ *         --stomp-clients=500         students holding a STOMP session during the run
+ * Output  --report=load-report.json
+ * </pre>
+ */
+final class LoadTestOptions {
+
+    // async: keeps H2's file open when a query thread is interrupted (bootstrap part timeouts do that)
+    static final String DEFAULT_DB_URL = "jdbc:h2:async:./loadtest-data/resolveit;MODE=PostgreSQL";
+
+    double scale = 1.0;
+    int departments = 12;
+    int categories = 10;
+    long staff = 10_000;
+    long students = 500_000;
+    long grievances = 5_000_000;
+    int remarksPerGrievance = 2;
+    int timelinePerGrievance = 3;
+    int notificationsPerGrievance = 2;
+
+    String dbUrl = DEFAULT_DB_URL;
+    String dbUser = "sa";
+    String dbPassword = "";
+    boolean reseed;
+    int seedThreads = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    int users = 64;
+    int[] mix = {70, 20, 10};
+    long thinkTimeMs;
+    Duration warmup = Duration.ofSeconds(30);
+    Duration duration = Duration.ofSeconds(120);
+    int stompClients = 500;
+
+    String report = "load-report.json";
+
+    private final Map<String, String> applicationProperties = new LinkedHashMap<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+            String value = equals < 0 ? "true" : arg.substring(equals + 1);
+            options.set(name, value);
+        }
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "scale" -> scale = Double.parseDouble(value);
+            case "departments" -> departments = Integer.parseInt(value);
+            case "categories" -> categories = Integer.parseInt(value);
+            case "staff" -> staff = Long.parseLong(value);
+            case "students" -> students = Long.parseLong(value);
+            case "grievances" -> grievances = Long.parseLong(value);
+            case "remarks-per-grievance" -> remarksPerGrievance = Integer.parseInt(value);
+            case "timeline-per-grievance" -> timelinePerGrievance = Integer.parseInt(value);
+            case "notifications-per-grievance" -> notificationsPerGrievance = Integer.parseInt(value);
+            case "db-url" -> dbUrl = value;
+            case "db-user" -> dbUser = value;
+            case "db-password" -> dbPassword = value;
+            case "reseed" -> reseed = Boolean.parseBoolean(value);
+            case "seed-threads" -> seedThreads = Integer.parseInt(value);
+            case "users" -> users = Integer.parseInt(value);
+            case "mix" -> mix = parseMix(value);
+            case "think-time-ms" -> thinkTimeMs = Long.parseLong(value);
+            case "warmup" -> warmup = parseDuration(value);
+            case "duration" -> duration = parseDuration(value);
+            case "stomp-clients" -> stompClients = Integer.parseInt(value);
+            case "report" -> report = value;
+            default -> applicationProperties.put(name, value);
+        }
+    }
+
+    DataLayout layout() {
+        return new DataLayout(departments, categories,
+            Math.max(departments, Math.round(staff * scale)),
+            Math.max(1, Math.round(students * scale)),
+            Math.max(1, Math.round(grievances * scale)),
+            remarksPerGrievance, timelinePerGrievance, notificationsPerGrievance);
+    }
+
+    boolean isH2() {
+        return dbUrl.startsWith("jdbc:h2:");
+    }
+
+    // Command-line args so they take precedence over application.properties
+    String[] applicationArgs() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", dbUrl);
+        properties.put("spring.datasource.username", dbUser);
+        properties.put("spring.datasource.password", dbPassword);
+        if (isH2()) {
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        }
+        properties.put("spring.jpa.hibernate.ddl-auto", reseed ? "create" : "update");
+        properties.put("spring.jpa.show-sql", "false");
+        // The nightly purge and partition upkeep would only add noise to a run, and so would
+        // per-request statement counting (budgets are pinned on small fixtures and warn here)
+        properties.put("notification.retention.enabled", "false");
+        properties.put("query-budget.enabled", "false");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.resolveit.loadtest", "INFO");
+        properties.putAll(applicationProperties);
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((name, value) -> args.add("--" + name + "=" + value));
+        return args.toArray(new String[0]);
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("users", users);
+        description.put("mix", Map.of("student", mix[0], "staff", mix[1], "admin", mix[2]));
+        description.put("thinkTimeMs", thinkTimeMs);
+        description.put("warmupSeconds", warmup.toSeconds());
+        description.put("durationSeconds", duration.toSeconds());
+        description.put("stompClients", stompClients);
+        description.put("database", dbUrl);
+        description.put("applicationProperties", applicationProperties);
+        return description;
+    }
+
+    private static int[] parseMix(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("--mix takes student,staff,admin weights, e.g. 70,20,10");
+        }
+        return new int[]{Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+            Integer.parseInt(parts[2].trim())};
+    }
+
+    // 90s, 5m, or plain seconds
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
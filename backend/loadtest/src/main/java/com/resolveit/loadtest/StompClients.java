@@ -0,0 +1,173 @@
+package com.resolveit.loadtest;
+
+import com.resolveit.backend.security.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Students holding a STOMP session over SockJS, like the web client: each connects with
+ * its JWT, subscribes to its notification queue and to the topic of one of its assigned
+ * grievances. Reports connect latency and, for frames that carry a server timestamp, how
+ * long delivery took (same JVM, so the clocks agree).
+ */
+@Slf4j
+class StompClients {
+
+    private static final int CONNECTS_IN_FLIGHT = 32;
+
+    private final String url;
+    private final DataLayout layout;
+    private final JwtUtil jwtUtil;
+    private final LatencyReport report;
+    private final WebSocketStompClient client;
+    private final List<StompSession> sessions = new CopyOnWriteArrayList<>();
+    private final List<Long> watchedGrievances = new CopyOnWriteArrayList<>();
+    private final AtomicInteger transportErrors = new AtomicInteger();
+
+    StompClients(int port, DataLayout layout, JwtUtil jwtUtil, LatencyReport report) {
+        this.url = "http://localhost:" + port + "/ws";
+        this.layout = layout;
+        this.jwtUtil = jwtUtil;
+        this.report = report;
+        this.client = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        this.client.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    void connect(int count) throws InterruptedException {
+        if (count <= 0) {
+            return;
+        }
+        Semaphore inFlight = new Semaphore(CONNECTS_IN_FLIGHT);
+        List<CompletableFuture<?>> connects = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long student = 1 + (long) i * layout.students() / count;
+            long grievance = layout.assignedGrievanceOf(student);
+            inFlight.acquire();
+            connects.add(connect(student, grievance).whenComplete((session, error) -> inFlight.release()));
+        }
+        try {
+            CompletableFuture.allOf(connects.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            // Counted below; the run goes on with the sessions that did connect
+        }
+        log.info("{} of {} STOMP clients connected, watching {} grievances", sessions.size(), count, watchedGrievances.size());
+    }
+
+    // Grievances with a subscriber on their topic; the workload sends part of its writes there
+    List<Long> getWatchedGrievances() {
+        return watchedGrievances;
+    }
+
+    int getTransportErrors() {
+        return transportErrors.get();
+    }
+
+    void close() {
+        for (StompSession session : sessions) {
+            try {
+                session.disconnect();
+            } catch (Exception e) {
+                // Closing anyway
+            }
+        }
+        client.stop();
+    }
+
+    private CompletableFuture<StompSession> connect(long student, long grievance) {
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setBearerAuth(jwtUtil.generateToken("STU" + student, "student"));
+        long started = System.nanoTime();
+        return client.connectAsync(url, headers, new StompHeaders(), new SessionHandler())
+            .whenComplete((session, error) -> {
+                report.recordSetup("STOMP CONNECT /ws", System.nanoTime() - started, error == null);
+                if (error != null) {
+                    return;
+                }
+                sessions.add(session);
+                session.subscribe("/user/queue/notifications",
+                    new TimedFrames("STOMP /user/queue/notifications", "createdAt"));
+                if (grievance > 0) {
+                    session.subscribe("/topic/grievance/" + grievance,
+                        new TimedFrames("STOMP /topic/grievance/{id}", "timestamp"));
+                    watchedGrievances.add(grievance);
+                }
+            });
+    }
+
+    private class SessionHandler extends StompSessionHandlerAdapter {
+
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            transportErrors.incrementAndGet();
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            transportErrors.incrementAndGet();
+        }
+    }
+
+    // Records each frame under the destination, timed from the payload's own timestamp field
+    private class TimedFrames implements StompFrameHandler {
+
+        private final String name;
+        private final String timestampField;
+
+        private TimedFrames(String name, String timestampField) {
+            this.name = name;
+            this.timestampField = timestampField;
+        }
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            LocalDateTime sent = timestamp(((Map<?, ?>) payload).get(timestampField));
+            long nanos = sent == null ? 0 : Math.max(0, Duration.between(sent, LocalDateTime.now()).toNanos());
+            report.record(name, nanos, true);
+        }
+
+        private LocalDateTime timestamp(Object value) {
+            if (value instanceof String text) {
+                return LocalDateTime.parse(text);
+            }
+            // [year, month, day, hour, minute, second, nanos] when dates go out as arrays
+            if (value instanceof List<?> parts && parts.size() >= 6) {
+                return LocalDateTime.of(number(parts, 0), number(parts, 1), number(parts, 2), number(parts, 3),
+                    number(parts, 4), number(parts, 5), parts.size() > 6 ? number(parts, 6) : 0);
+            }
+            return null;
+        }
+
+        private int number(List<?> parts, int index) {
+            return ((Number) parts.get(index)).intValue();
+        }
+    }
+}